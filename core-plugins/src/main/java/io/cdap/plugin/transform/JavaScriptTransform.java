@@ -51,8 +51,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
@@ -61,6 +59,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import javax.script.Bindings;
 import javax.script.Invocable;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
@@ -81,6 +80,8 @@ public class JavaScriptTransform extends Transform<StructuredRecord, StructuredR
   private static final String VARIABLE_NAME = "dont_name_your_variable_this";
   private static final String EMITTER_NAME = "dont_name_your_variable2_this";
   private static final String CONTEXT_NAME = "dont_name_your_context_this";
+  private static final String NASHORN = "nashorn";
+  private static final String GRAALJS = "graaljs";
   private ScriptEngine engine;
   private Invocable invocable;
   private Schema schema;
@@ -88,13 +89,11 @@ public class JavaScriptTransform extends Transform<StructuredRecord, StructuredR
   private final Config config;
   private StageMetrics metrics;
 
-  @Nullable
-  private Method somValuesMethod;
-
   /**
    * Configuration for the script transform.
    */
   public static class Config extends PluginConfig {
+    private static final String ENGINE = "engine";
     private static final String LOOKUP = "lookup";
     private static final String SCHEMA = "schema";
     private static final String SCRIPT = "script";
@@ -130,10 +129,21 @@ public class JavaScriptTransform extends Transform<StructuredRecord, StructuredR
     @Nullable
     private final String lookup;
 
+    @Description("The JavaScript engine that runs the script. 'nashorn' uses the JavaScript engine of the Java " +
+      "runtime, which is Nashorn up to Java 14. 'graaljs' uses GraalJS, which must be available to the plugin and " +
+      "also runs on newer Java versions. Defaults to 'nashorn'.")
+    @Nullable
+    private final String engine;
+
     public Config(String script, String schema, LookupConfig lookup) {
+      this(script, schema, lookup, null);
+    }
+
+    public Config(String script, String schema, LookupConfig lookup, @Nullable String engine) {
       this.script = script;
       this.schema = schema;
       this.lookup = GSON.toJson(lookup);
+      this.engine = engine;
     }
   }
 
@@ -179,19 +189,6 @@ public class JavaScriptTransform extends Transform<StructuredRecord, StructuredR
     super.initialize(context);
     metrics = context.getMetrics();
     setErrorSchema(context.getInputSchema());
-
-    // for Nashorn (Java 8+) support -- get method to convert ScriptObjectMirror to List
-    try {
-      Class<?> somClass = Class.forName("jdk.nashorn.api.scripting.ScriptObjectMirror");
-      somValuesMethod = somClass.getMethod("values");
-    } catch (NoSuchMethodException e) {
-      throw new RuntimeException(
-        "Failed to get method ScriptObjectMirror#values() for converting ScriptObjectMirror to List. " +
-          "Please check your version of Nashorn is supported.", e);
-    } catch (ClassNotFoundException e) {
-      // Ignore -- we don't have Nashorn, so no need to handle Nashorn
-    }
-
     init(context, context.getFailureCollector());
   }
 
@@ -203,10 +200,10 @@ public class JavaScriptTransform extends Transform<StructuredRecord, StructuredR
   @Override
   public void transform(StructuredRecord input, Emitter<StructuredRecord> emitter) {
     try {
-      engine.eval(String.format("var %s = %s;", VARIABLE_NAME, StructuredRecordStringConverter.toJsonString(input)));
+      // the JSON of the record is parsed by the function compiled in init, rather than evaluated as a new script
+      // for every record, so that scripts receive the same JavaScript objects as before
       Emitter<Map> jsEmitter = new JSEmitter(emitter, schema == null ? input.getSchema() : schema);
-      engine.put(EMITTER_NAME, jsEmitter);
-      invocable.invokeFunction(FUNCTION_NAME);
+      invocable.invokeFunction(FUNCTION_NAME, StructuredRecordStringConverter.toJsonString(input), jsEmitter);
     } catch (Exception e) {
       throw new IllegalArgumentException("Could not transform input: " + e.getMessage(), e);
     }
@@ -328,15 +325,11 @@ public class JavaScriptTransform extends Transform<StructuredRecord, StructuredR
   }
 
   private List jsObject2List(Object object) {
-    if (somValuesMethod != null) {
-      // using Nashorn (Java 8+) -- convert ScriptObjectMirror to List
-      try {
-        return (List) somValuesMethod.invoke(object);
-      } catch (InvocationTargetException | IllegalAccessException | ClassCastException e) {
-        throw new RuntimeException("Failed to convert ScriptObjectMirror to List", e);
-      }
+    if (object instanceof List) {
+      return (List) object;
     }
-    return (List) object;
+    // Nashorn returns JavaScript arrays as a ScriptObjectMirror, which is a map whose values are the elements
+    return new ArrayList<Object>(((Map<?, ?>) object).values());
   }
 
   @SuppressWarnings("RedundantCast")
@@ -400,8 +393,7 @@ public class JavaScriptTransform extends Transform<StructuredRecord, StructuredR
   }
 
   private void init(@Nullable TransformContext context, FailureCollector collector) {
-    ScriptEngineManager manager = new ScriptEngineManager(getClass().getClassLoader());
-    engine = manager.getEngineByName("JavaScript");
+    engine = createEngine(collector);
     try {
       engine.eval(ScriptConstants.HELPER_DEFINITION);
     } catch (ScriptException e) {
@@ -426,13 +418,15 @@ public class JavaScriptTransform extends Transform<StructuredRecord, StructuredR
     engine.put(CONTEXT_NAME, new ScriptContext(LOG, metrics, context, lookupConfig, js, arguments));
 
     try {
-      // this is pretty ugly, but doing this so that we can pass the 'input' json into the transform function.
-      // that is, we want people to implement
-      // function transform(input) { ... }
-      // rather than function transform() { ... } and have them access a global variable in the function
-
-      String script = String.format("function %s() { return transform(%s, %s, %s); }\n%s",
-                                    FUNCTION_NAME, VARIABLE_NAME, EMITTER_NAME, CONTEXT_NAME, config.script);
+      // wrap the transform function in a function that takes the 'input' json and the emitter, and is compiled once
+      // along with the script. that is, we want people to implement
+      // function transform(input, emitter, context) { ... }
+      // and only pass arguments to a compiled function for each record, rather than evaluate a new script.
+      // the json is always valid, since the record writer rejects values such as NaN that are not json
+
+      String script = String.format("function %s(%s, %s) { return transform(JSON.parse(%s), %s, %s); }\n%s",
+                                    FUNCTION_NAME, VARIABLE_NAME, EMITTER_NAME, VARIABLE_NAME, EMITTER_NAME,
+                                    CONTEXT_NAME, config.script);
       engine.eval(script);
     } catch (ScriptException e) {
       collector.addFailure(String.format("Invalid script: %s.", e.getMessage()), null)
@@ -450,4 +444,36 @@ public class JavaScriptTransform extends Transform<StructuredRecord, StructuredR
     }
     collector.getOrThrowException();
   }
+
+  private ScriptEngine createEngine(FailureCollector collector) {
+    ScriptEngineManager manager = new ScriptEngineManager(getClass().getClassLoader());
+    String engineName = config.engine == null ? NASHORN : config.engine.trim().toLowerCase();
+    ScriptEngine scriptEngine;
+    if (NASHORN.equals(engineName)) {
+      scriptEngine = manager.getEngineByName("JavaScript");
+    } else if (GRAALJS.equals(engineName)) {
+      scriptEngine = manager.getEngineByName("graal.js");
+      if (scriptEngine != null) {
+        // allow the script to call the emitter and context objects, and to access Java maps and lists like Nashorn
+        Bindings bindings = scriptEngine.getBindings(javax.script.ScriptContext.ENGINE_SCOPE);
+        bindings.put("polyglot.js.allowHostAccess", true);
+        bindings.put("polyglot.js.nashorn-compat", true);
+      }
+    } else {
+      collector.addFailure(String.format("Invalid JavaScript engine '%s'.", config.engine),
+                           String.format("Supported engines are '%s' and '%s'.", NASHORN, GRAALJS))
+        .withConfigProperty(Config.ENGINE);
+      throw collector.getOrThrowException();
+    }
+
+    if (scriptEngine == null) {
+      collector.addFailure(String.format("JavaScript engine '%s' is not available.", engineName),
+                           NASHORN.equals(engineName) ?
+                             String.format("Nashorn was removed in Java 15, use the '%s' engine instead.", GRAALJS) :
+                             "Make GraalJS and its script engine available to the plugin.")
+        .withConfigProperty(Config.ENGINE);
+      throw collector.getOrThrowException();
+    }
+    return scriptEngine;
+  }
 }
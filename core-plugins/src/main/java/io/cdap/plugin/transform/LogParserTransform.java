@@ -37,11 +37,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -67,34 +74,31 @@ public class LogParserTransform extends Transform<StructuredRecord, StructuredRe
   private static final String INPUT_NAME_DESCRIPTION = "Name of the field in the input schema which encodes the " +
     "log information. The given field must be of type String or Bytes.";
   private static final Logger LOG = LoggerFactory.getLogger(LogParserTransform.class);
-  //Regex used to parse a CLF log, each field is commented above
-  private static final Pattern CLF_LOG_PATTERN = Pattern.compile(
-    //   IP                    id    user      date          request     code     size    referrer    user agent
-    "^([\\d.]+|[:][:][\\d]) (\\S+) (\\S+) \\[([^\\]]+)\\] \"([^\"]+)\" (\\d{3}) ([-\"\\d]+) \"([^\"]+)\" \"([^\"]+)\"");
-  //Regex used to parse a S3 log, each field is commented above
-  private static final Pattern S3_LOG_PATTERN = Pattern.compile(
-    // bucket owner name   time           ip                    req   reqID operation  key    request
-    "^(\\S+) (\\S+) \\[(\\p{Print}+)\\] ([\\d.]+|[:][:][\\d]) (\\S+) (\\S+) (\\S+) (\\S+) \"([^\"]+)\" " +
-      //  HTTP stat error code  bytes sent     obj size  time    turn time  referrer         user agent
-      "(\\d{3}) (\\p{Print}+) ([-\"\\d]+) ([-\"\\d]+) ([\\d]+) ([-\"\\d]+) \"(\\p{Print}+)\" \"([^\"]+)\" " +
-      //  version id
-      "(\\p{Print}+)");
-  //Regex used to parse the request field for the URI
-  private static final Pattern REQUEST_PAGE_PATTERN = Pattern.compile("(\\S+)\\s(\\S+).*");
-  //Indices of which group request, time, ip, user agent, and HTTP status code are in the S3 regex
-  private static final int[] S3_INDICES = {9, 3, 4, 17, 10};
-  //Indices of which group request, time, ip, user agent, and HTTP status code are in the CLF regex
-  private static final int[] CLF_INDICES = {5, 4, 1, 9, 6};
-  //Number of groups matched in the S3 regex
-  private static final int S3_REGEX_LENGTH = 18;
-  //Number of groups matched in the CLF regex
-  private static final int CLF_REGEX_LENGTH = 9;
+  //Format of the time in S3 and CLF logs, such as 10/Oct/2000:13:55:36 -0700
+  private static final DateTimeFormatter STRFTIME_FORMATTER = new DateTimeFormatterBuilder()
+    .parseCaseInsensitive()
+    .appendPattern("dd/MMM/yyyy:HH:mm:ss Z")
+    .toFormatter(Locale.ENGLISH);
+  //Maximum number of user agents to keep the parsed browser and device of
+  private static final int USER_AGENT_CACHE_SIZE = 1024;
+  //Number of tab separated fields read from a Cloudfront log, up to the user agent
+  private static final int CLOUDFRONT_FIELDS = 11;
   private static final String S3_LOG = "S3";
   private static final String CLF_LOG = "CLF";
   private static final String CLOUDFRONT_LOG = "Cloudfront";
   private final LogParserConfig config;
-  private final SimpleDateFormat sdfStrftime = new SimpleDateFormat("dd/MMM/yyyy:HH:mm:ss Z");
-  private final SimpleDateFormat sdfCloudfront = new SimpleDateFormat("yyyy-MM-dd:HH:mm:ss z");
+  private final LogTokenizer tokenizer = new LogTokenizer();
+  private final String[] cloudfrontFields = new String[CLOUDFRONT_FIELDS];
+  private final Map<String, UserAgent> userAgents = new LinkedHashMap<String, UserAgent>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, UserAgent> eldest) {
+      return size() > USER_AGENT_CACHE_SIZE;
+    }
+  };
+  private UserAgentStringParser userAgentParser;
+  //Time of the last parsed S3 or CLF log, since consecutive logs are often written in the same second
+  private String lastTime;
+  private long lastTs;
 
   public LogParserTransform(LogParserConfig config) {
     this.config = config;
@@ -153,47 +157,34 @@ public class LogParserTransform extends Transform<StructuredRecord, StructuredRe
 
     StructuredRecord output;
     if (S3_LOG.equals(config.logFormat)) {
-      Matcher logMatcher = S3_LOG_PATTERN.matcher(log);
-      if (!logMatcher.matches() || logMatcher.groupCount() < S3_REGEX_LENGTH) {
+      if (!parseS3(log)) {
         LOG.debug("Couldn't parse log because log did not match the S3 format, log: {}", log);
         emitter.emitError(new InvalidEntry<>(31, "Couldn't parse log, because the log did not match the S3 format.",
                                              input));
         return;
       }
-      output = parseRequest(logMatcher, S3_INDICES);
+      output = parseRequest();
     } else if (CLF_LOG.equals(config.logFormat)) {
-      Matcher logMatcher = CLF_LOG_PATTERN.matcher(log);
-      if (!logMatcher.matches() || logMatcher.groupCount() < CLF_REGEX_LENGTH) {
+      if (!parseCLF(log)) {
         LOG.debug("Couldn't parse log because the log did not match the CLF format. log: {}", log);
         emitter.emitError(new InvalidEntry<>(31, "Couldn't parse log, because the log did not match the CLF format.",
                                              input));
         return;
       }
-      output = parseRequest(logMatcher, CLF_INDICES);
+      output = parseRequest();
     } else {
       if (log.startsWith("#")) {
         LOG.trace("Log is a comment. Ignoring...");
         return;
       }
 
-      String[] fields = log.split("\\t");
-      String uri = fields[7];
-      String ip = fields[4];
-      long ts = sdfCloudfront.parse(String.format("%s:%s UTC", fields[0], fields[1])).getTime();
-      UserAgentStringParser parser = UADetectorServiceFactory.getResourceModuleParser();
-      ReadableUserAgent userAgent = parser.parse(fields[10]);
-      String browser = userAgent.getFamily().getName();
-      String device = userAgent.getDeviceCategory().getCategory().getName();
-      int httpStatus = Integer.parseInt(fields[8]);
-
-      output = StructuredRecord.builder(LOG_SCHEMA)
-        .set("uri", uri)
-        .set("ip", ip)
-        .set("browser", browser)
-        .set("device", device)
-        .set("httpStatus", httpStatus)
-        .set("ts", ts)
-        .build();
+      output = parseCloudfront(log);
+      if (output == null) {
+        LOG.debug("Couldn't parse log because the log did not match the Cloudfront format. log: {}", log);
+        emitter.emitError(new InvalidEntry<>(31, "Couldn't parse log, because the log did not match the " +
+          "Cloudfront format.", input));
+        return;
+      }
     }
     if (output != null) {
       emitter.emit(output);
@@ -273,47 +264,334 @@ public class LogParserTransform extends Transform<StructuredRecord, StructuredRe
   }
 
   /**
-   * Parses a request for the URI, IP, Browser, Device, and Time
+   * Tokenizes a S3 log of the form
+   * 'owner bucket [time] ip requester requestId operation key "request" status error bytes size totalTime turnTime
+   * "referrer" "userAgent" versionId...' into the tokenizer.
+   *
+   * @param log the log to parse
+   * @return whether the log is a S3 log
+   */
+  private boolean parseS3(String log) {
+    LogTokenizer tokens = tokenizer.reset(log);
+    if (tokens.token() == null || tokens.token() == null) {
+      return false;
+    }
+    tokens.time = tokens.enclosed('[', ']');
+    if (tokens.time == null || !tokens.skip(' ')) {
+      return false;
+    }
+    tokens.ip = tokens.token();
+    if (!isIp(tokens.ip)) {
+      return false;
+    }
+    for (int i = 0; i < 4; i++) {
+      if (tokens.token() == null) {
+        return false;
+      }
+    }
+    tokens.request = tokens.enclosed('"', '"');
+    if (tokens.request == null || !tokens.skip(' ')) {
+      return false;
+    }
+    tokens.status = tokens.token();
+    if (!isStatus(tokens.status) || tokens.token() == null || !isSize(tokens.token()) || !isSize(tokens.token())
+      || !isDigits(tokens.token()) || !isSize(tokens.token())) {
+      return false;
+    }
+    if (tokens.enclosed('"', '"') == null || !tokens.skip(' ')) {
+      return false;
+    }
+    tokens.userAgent = tokens.enclosed('"', '"');
+    return tokens.userAgent != null && tokens.skip(' ') && tokens.hasRemaining();
+  }
+
+  /**
+   * Tokenizes a combined log of the form
+   * 'ip identity user [time] "request" status size "referrer" "userAgent"' into the tokenizer.
+   *
+   * @param log the log to parse
+   * @return whether the log is a CLF log
+   */
+  private boolean parseCLF(String log) {
+    LogTokenizer tokens = tokenizer.reset(log);
+    tokens.ip = tokens.token();
+    if (!isIp(tokens.ip) || tokens.token() == null || tokens.token() == null) {
+      return false;
+    }
+    tokens.time = tokens.enclosed('[', ']');
+    if (tokens.time == null || !tokens.skip(' ')) {
+      return false;
+    }
+    tokens.request = tokens.enclosed('"', '"');
+    if (tokens.request == null || !tokens.skip(' ')) {
+      return false;
+    }
+    tokens.status = tokens.token();
+    if (!isStatus(tokens.status) || !isSize(tokens.token())) {
+      return false;
+    }
+    if (tokens.enclosed('"', '"') == null || !tokens.skip(' ')) {
+      return false;
+    }
+    tokens.userAgent = tokens.enclosed('"', '"');
+    return tokens.userAgent != null && !tokens.hasRemaining();
+  }
+
+  /**
+   * Parses a tab separated Cloudfront log for the URI, IP, Browser, Device, and Time
    *
-   * @param logMatcher the regex matcher to use
-   * @param indices array of indices that define what position in the regex the fields are, in the order of Request,
-   *                Time, IP, User Agent, and HTTP status code.
+   * @param log the log to parse
+   * @return the parsed record, or null if the log is not a Cloudfront log
    */
   @Nullable
-  private StructuredRecord parseRequest(Matcher logMatcher, int[] indices) {
-    String request = logMatcher.group(indices[0]);
-    Matcher requestMatcher = REQUEST_PAGE_PATTERN.matcher(request);
-    if (!requestMatcher.matches() || requestMatcher.groupCount() < 2) {
+  private StructuredRecord parseCloudfront(String log) {
+    String[] fields = cloudfrontFields;
+    int start = 0;
+    for (int i = 0; i < fields.length; i++) {
+      if (start > log.length()) {
+        return null;
+      }
+      int end = log.indexOf('\t', start);
+      if (end < 0) {
+        end = log.length();
+      }
+      fields[i] = log.substring(start, end);
+      start = end + 1;
+    }
+
+    long ts;
+    int httpStatus;
+    try {
+      ts = LocalDateTime.of(LocalDate.parse(fields[0], DateTimeFormatter.ISO_LOCAL_DATE),
+                            LocalTime.parse(fields[1], DateTimeFormatter.ISO_LOCAL_TIME))
+        .toInstant(ZoneOffset.UTC).toEpochMilli();
+      httpStatus = Integer.parseInt(fields[8]);
+    } catch (DateTimeParseException | NumberFormatException e) {
+      LOG.debug("Couldn't parse the time or HTTP status code of the Cloudfront log. Exception: {}", e.getMessage());
+      return null;
+    }
+    UserAgent userAgent = getUserAgent(fields[10]);
+
+    return StructuredRecord.builder(LOG_SCHEMA)
+      .set("uri", fields[7])
+      .set("ip", fields[4])
+      .set("browser", userAgent.browser)
+      .set("device", userAgent.device)
+      .set("httpStatus", httpStatus)
+      .set("ts", ts)
+      .build();
+  }
+
+  /**
+   * Parses the request, time, IP, user agent, and HTTP status code in the tokenizer for the URI, IP, Browser, Device,
+   * and Time
+   */
+  @Nullable
+  private StructuredRecord parseRequest() {
+    String request = tokenizer.request;
+    // the request is of the form 'method uri protocol', where the protocol is optional
+    int methodEnd = 0;
+    while (methodEnd < request.length() && !Character.isWhitespace(request.charAt(methodEnd))) {
+      methodEnd++;
+    }
+    int uriEnd = methodEnd + 1;
+    while (uriEnd < request.length() && !Character.isWhitespace(request.charAt(uriEnd))) {
+      uriEnd++;
+    }
+    if (methodEnd == 0 || uriEnd <= methodEnd + 1) {
       LOG.debug("Couldn't parse uri because request does not match request pattern, request: {}", request);
       return null;
     }
 
-    String uri = requestMatcher.group(2);
+    String uri = request.substring(methodEnd + 1, uriEnd);
     long ts = System.currentTimeMillis();
     try {
-      ts = sdfStrftime.parse(logMatcher.group(indices[1])).getTime();
-    } catch (ParseException e) {
+      ts = parseTime(tokenizer.time);
+    } catch (DateTimeParseException e) {
       LOG.debug("Couldn't parse time from the input record, using current timestamp instead. Exception: {}",
                 e.getMessage());
     }
 
-    String ip = logMatcher.group(indices[2]);
-    UserAgentStringParser parser = UADetectorServiceFactory.getResourceModuleParser();
-    ReadableUserAgent userAgent = parser.parse(logMatcher.group(indices[3]));
-    String browser = userAgent.getFamily().getName();
-    String device = userAgent.getDeviceCategory().getCategory().getName();
-    int httpStatus = Integer.parseInt(logMatcher.group(indices[4]));
+    UserAgent userAgent = getUserAgent(tokenizer.userAgent);
+    int httpStatus = Integer.parseInt(tokenizer.status);
 
     return StructuredRecord.builder(LOG_SCHEMA)
       .set("uri", uri)
-      .set("ip", ip)
-      .set("browser", browser)
-      .set("device", device)
+      .set("ip", tokenizer.ip)
+      .set("browser", userAgent.browser)
+      .set("device", userAgent.device)
       .set("httpStatus", httpStatus)
       .set("ts", ts)
       .build();
   }
 
+  /**
+   * Parses the time of a S3 or CLF log into milliseconds since the epoch.
+   */
+  private long parseTime(String time) {
+    if (!time.equals(lastTime)) {
+      lastTs = STRFTIME_FORMATTER.parse(time, OffsetDateTime::from).toInstant().toEpochMilli();
+      lastTime = time;
+    }
+    return lastTs;
+  }
+
+  /**
+   * Returns the browser and device of the user agent. User agents are mostly the same few browsers, so the parsed
+   * user agents are cached, keeping the most recently used ones.
+   */
+  private UserAgent getUserAgent(String userAgentString) {
+    UserAgent userAgent = userAgents.get(userAgentString);
+    if (userAgent == null) {
+      if (userAgentParser == null) {
+        userAgentParser = UADetectorServiceFactory.getResourceModuleParser();
+      }
+      ReadableUserAgent parsed = userAgentParser.parse(userAgentString);
+      userAgent = new UserAgent(parsed.getFamily().getName(), parsed.getDeviceCategory().getCategory().getName());
+      userAgents.put(userAgentString, userAgent);
+    }
+    return userAgent;
+  }
+
+  /**
+   * Returns whether the token is an IPv4 address, or an IPv6 loopback address such as '::1'.
+   */
+  private static boolean isIp(@Nullable String token) {
+    if (token == null) {
+      return false;
+    }
+    if (token.length() == 3 && token.startsWith("::")) {
+      return isDigit(token.charAt(2));
+    }
+    for (int i = 0; i < token.length(); i++) {
+      char c = token.charAt(i);
+      if (c != '.' && !isDigit(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isStatus(@Nullable String token) {
+    return token != null && token.length() == 3 && isDigits(token);
+  }
+
+  private static boolean isDigits(@Nullable String token) {
+    if (token == null) {
+      return false;
+    }
+    for (int i = 0; i < token.length(); i++) {
+      if (!isDigit(token.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the token is a byte count, which is either digits or '-' for no bytes.
+   */
+  private static boolean isSize(@Nullable String token) {
+    if (token == null) {
+      return false;
+    }
+    for (int i = 0; i < token.length(); i++) {
+      char c = token.charAt(i);
+      if (c != '-' && c != '"' && !isDigit(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * Splits a log into its space separated tokens and quoted or bracketed fields in a single pass, keeping the fields
+   * that are parsed into the output record.
+   */
+  private static final class LogTokenizer {
+    private String log;
+    private int pos;
+    private String request;
+    private String time;
+    private String ip;
+    private String userAgent;
+    private String status;
+
+    LogTokenizer reset(String log) {
+      this.log = log;
+      this.pos = 0;
+      this.request = null;
+      this.time = null;
+      this.ip = null;
+      this.userAgent = null;
+      this.status = null;
+      return this;
+    }
+
+    /**
+     * Returns the next token of non whitespace characters followed by a space, or null if there is none.
+     */
+    @Nullable
+    String token() {
+      int start = pos;
+      int end = start;
+      while (end < log.length() && !Character.isWhitespace(log.charAt(end))) {
+        end++;
+      }
+      if (end == start || end >= log.length() || log.charAt(end) != ' ') {
+        return null;
+      }
+      pos = end + 1;
+      return log.substring(start, end);
+    }
+
+    /**
+     * Returns the non empty field between the open and close characters, or null if there is none.
+     */
+    @Nullable
+    String enclosed(char open, char close) {
+      if (pos >= log.length() || log.charAt(pos) != open) {
+        return null;
+      }
+      int end = log.indexOf(close, pos + 1);
+      if (end <= pos + 1) {
+        return null;
+      }
+      String field = log.substring(pos + 1, end);
+      pos = end + 1;
+      return field;
+    }
+
+    boolean skip(char c) {
+      if (pos < log.length() && log.charAt(pos) == c) {
+        pos++;
+        return true;
+      }
+      return false;
+    }
+
+    boolean hasRemaining() {
+      return pos < log.length();
+    }
+  }
+
+  /**
+   * The browser and device parsed from a user agent.
+   */
+  private static final class UserAgent {
+    private final String browser;
+    private final String device;
+
+    private UserAgent(String browser, String device) {
+      this.browser = browser;
+      this.device = device;
+    }
+  }
+
   /**
    * Config class for LogParserTransform
    */
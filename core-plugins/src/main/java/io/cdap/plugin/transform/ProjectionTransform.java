@@ -49,6 +49,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -122,6 +124,11 @@ public class ProjectionTransform extends Transform<StructuredRecord, StructuredR
   private Map<String, Schema.Type> fieldsToConvert = Maps.newHashMap();
   // cache input schema hash to output schema so we don't have to build it each time
   private Map<Schema, Schema> schemaCache = Maps.newHashMap();
+  // cache input schema to the compiled projection of its records, and the projection of the last input schema, which
+  // is usually the same object for all records
+  private Map<Schema, Projection> projectionCache = Maps.newHashMap();
+  private Schema lastInputSchema;
+  private Projection lastProjection;
 
   @Override
   public void configurePipeline(PipelineConfigurer pipelineConfigurer) throws IllegalArgumentException {
@@ -172,9 +179,38 @@ public class ProjectionTransform extends Transform<StructuredRecord, StructuredR
 
   @Override
   public void transform(StructuredRecord valueIn, Emitter<StructuredRecord> emitter) {
-    Schema inputSchema = valueIn.getSchema();
-    Schema outputSchema = getOutputSchema(inputSchema, getContext().getFailureCollector());
-    StructuredRecord.Builder builder = StructuredRecord.builder(outputSchema);
+    Projection projection = getProjection(valueIn.getSchema());
+    StructuredRecord.Builder builder = StructuredRecord.builder(projection.outputSchema);
+    String[] inputFieldNames = projection.inputFieldNames;
+    BiConsumer<StructuredRecord.Builder, Object>[] setters = projection.setters;
+    for (int i = 0; i < inputFieldNames.length; i++) {
+      setters[i].accept(builder, valueIn.get(inputFieldNames[i]));
+    }
+    emitter.emit(builder.build());
+  }
+
+  private Projection getProjection(Schema inputSchema) {
+    if (inputSchema == lastInputSchema) {
+      return lastProjection;
+    }
+    Projection projection = projectionCache.get(inputSchema);
+    if (projection == null) {
+      projection = compileProjection(inputSchema, getOutputSchema(inputSchema, getContext().getFailureCollector()));
+      projectionCache.put(inputSchema, projection);
+    }
+    lastInputSchema = inputSchema;
+    lastProjection = projection;
+    return projection;
+  }
+
+  /**
+   * Compiles the projection of records of the input schema into the names of the input fields to keep, and a setter
+   * for each of them that sets the value of the output field, renaming and converting it as needed.
+   */
+  @SuppressWarnings("unchecked")
+  private Projection compileProjection(Schema inputSchema, Schema outputSchema) {
+    List<String> inputFieldNames = new ArrayList<>();
+    List<BiConsumer<StructuredRecord.Builder, Object>> setters = new ArrayList<>();
     for (Schema.Field inputField : inputSchema.getFields()) {
       String inputFieldName = inputField.getName();
       if (!fieldsToKeep.isEmpty() && !fieldsToKeep.contains(inputFieldName)) {
@@ -188,17 +224,157 @@ public class ProjectionTransform extends Transform<StructuredRecord, StructuredR
         outputFieldName = inputFieldName;
       }
 
-      Schema.Field outputField = outputSchema.getField(outputFieldName);
-      Object inputVal = valueIn.get(inputFieldName);
-
+      inputFieldNames.add(inputFieldName);
       // if we need to convert the value, convert it. otherwise just pass the value through
       if (fieldsToConvert.containsKey(inputFieldName)) {
-        convertAndSet(builder, outputFieldName, inputVal, inputField.getSchema(), outputField.getSchema());
+        setters.add(getConvertingSetter(outputFieldName, inputField.getSchema(),
+                                        outputSchema.getField(outputFieldName).getSchema()));
       } else {
-        builder.set(outputFieldName, inputVal);
+        String fieldName = outputFieldName;
+        setters.add((builder, val) -> builder.set(fieldName, val));
       }
     }
-    emitter.emit(builder.build());
+    return new Projection(outputSchema, inputFieldNames.toArray(new String[0]),
+                          setters.toArray(new BiConsumer[0]));
+  }
+
+  private BiConsumer<StructuredRecord.Builder, Object> getConvertingSetter(String fieldName, Schema inputSchema,
+                                                                           Schema outputSchema) {
+    // guaranteed that if the input type is nullable, the output type is also nullable.
+    Schema.Type inputType = inputSchema.getType();
+    Schema.Type outputType = outputSchema.getType();
+    if (inputSchema.isNullable()) {
+      inputType = inputSchema.getNonNullable().getType();
+      outputType = outputSchema.getNonNullable().getType();
+    }
+
+    BiConsumer<StructuredRecord.Builder, Object> setter;
+    // if the input is a string, try and do some sensible conversion
+    if (inputType == Schema.Type.STRING) {
+      setter = (builder, val) -> builder.convertAndSet(fieldName, (String) val);
+    } else {
+      // otherwise, just try to cast it.
+      Function<Object, Object> converter = getPrimitiveConverter(fieldName, inputType, outputType);
+      setter = (builder, val) -> builder.set(fieldName, converter.apply(val));
+    }
+
+    if (!inputSchema.isNullable()) {
+      return setter;
+    }
+    BiConsumer<StructuredRecord.Builder, Object> nonNullSetter = setter;
+    return (builder, val) -> {
+      if (val == null) {
+        builder.set(fieldName, null);
+      } else {
+        nonNullSetter.accept(builder, val);
+      }
+    };
+  }
+
+  private Function<Object, Object> getPrimitiveConverter(String fieldName, Schema.Type inputType,
+                                                         Schema.Type outputType) {
+    if (inputType == outputType) {
+      return Function.identity();
+    }
+
+    // guaranteed input and output types are non-null simple types
+    switch (inputType) {
+      // if input is bytes, try to convert the bytes to the correct type
+      case BYTES:
+        switch (outputType) {
+          case BOOLEAN:
+            return val -> Bytes.toBoolean(toBytes(val));
+          case INT:
+            return val -> Bytes.toInt(toBytes(val));
+          case LONG:
+            return val -> Bytes.toLong(toBytes(val));
+          case FLOAT:
+            return val -> Bytes.toFloat(toBytes(val));
+          case DOUBLE:
+            return val -> Bytes.toDouble(toBytes(val));
+          case STRING:
+            return val -> Bytes.toString(toBytes(val));
+        }
+        break;
+      case BOOLEAN:
+        switch (outputType) {
+          case STRING:
+            return String::valueOf;
+          case BYTES:
+            return val -> Bytes.toBytes((Boolean) val);
+        }
+        break;
+      case INT:
+        switch (outputType) {
+          case LONG:
+            return val -> ((Integer) val).longValue();
+          case FLOAT:
+            return val -> ((Integer) val).floatValue();
+          case DOUBLE:
+            return val -> ((Integer) val).doubleValue();
+          case STRING:
+            return String::valueOf;
+          case BYTES:
+            return val -> Bytes.toBytes((Integer) val);
+        }
+        break;
+      case LONG:
+        switch (outputType) {
+          case FLOAT:
+            return val -> ((Long) val).floatValue();
+          case DOUBLE:
+            return val -> ((Long) val).doubleValue();
+          case STRING:
+            return String::valueOf;
+          case BYTES:
+            return val -> Bytes.toBytes((Long) val);
+        }
+        break;
+      case FLOAT:
+        switch (outputType) {
+          case DOUBLE:
+            return val -> ((Float) val).doubleValue();
+          case STRING:
+            return String::valueOf;
+          case BYTES:
+            return val -> Bytes.toBytes((Float) val);
+          case INT:
+            return val -> Math.round((Float) val);
+          case LONG:
+            return val -> (long) Math.round((Float) val);
+        }
+        break;
+      case DOUBLE:
+        switch (outputType) {
+          case STRING:
+            return String::valueOf;
+          case BYTES:
+            return val -> Bytes.toBytes((Double) val);
+          case INT:
+            return val -> (int) Math.round((Double) val);
+          case LONG:
+            return val -> Math.round((Double) val);
+        }
+        break;
+    }
+
+    // the conversion is only reported once there is a value to convert, so that fields that are always null pass
+    return val -> {
+      FailureCollector collector = getContext().getFailureCollector();
+      String typeStr = outputType.toString().toLowerCase();
+      collector.addFailure(
+        String.format("Cannot convert field '%s' from type '%s' to type '%s'.", fieldName, inputType, outputType),
+        null)
+        .withConfigElement(ProjectionTransformConfig.CONVERT, String.format("%s:%s", fieldName, typeStr));
+      throw collector.getOrThrowException();
+    };
+  }
+
+  private static byte[] toBytes(Object val) {
+    if (val instanceof ByteBuffer) {
+      return Bytes.toBytes((ByteBuffer) val);
+    }
+    return (byte[]) val;
   }
 
   private void init(Schema inputSchema, FailureCollector collector) {
@@ -293,136 +469,6 @@ public class ProjectionTransform extends Transform<StructuredRecord, StructuredR
     }
   }
 
-  private void convertAndSet(StructuredRecord.Builder builder, String fieldName, Object val,
-                             Schema inputSchema, Schema outputSchema) {
-    // guaranteed that if the input type is nullable, the output type is also nullable.
-    Schema.Type inputType = inputSchema.getType();
-    Schema.Type outputType = outputSchema.getType();
-    if (inputSchema.isNullable()) {
-      if (val == null) {
-        builder.set(fieldName, null);
-        return;
-      }
-      inputType = inputSchema.getNonNullable().getType();
-      outputType = outputSchema.getNonNullable().getType();
-    }
-
-    // if the input is a string, try and do some sensible conversion
-    if (inputType == Schema.Type.STRING) {
-      builder.convertAndSet(fieldName, (String) val);
-    } else {
-      // otherwise, just try to cast it.
-      builder.set(fieldName, convertPrimitive(fieldName, val, inputType, outputType,
-                                              getContext().getFailureCollector()));
-    }
-  }
-
-  private Object convertPrimitive(String fieldName, Object val, Schema.Type inputType,
-                                  Schema.Type outputType, FailureCollector collector) {
-    if (inputType == outputType) {
-      return val;
-    }
-
-    // guaranteed input and output types are non-null simple types
-    switch (inputType) {
-      // if input is bytes, try to convert the bytes to the correct type
-      case BYTES:
-        byte[] bytesVal;
-        if (val instanceof ByteBuffer) {
-          bytesVal = Bytes.toBytes((ByteBuffer) val);
-        } else {
-          bytesVal = (byte[]) val;
-        }
-        switch (outputType) {
-          case BOOLEAN:
-            return Bytes.toBoolean(bytesVal);
-          case INT:
-            return Bytes.toInt(bytesVal);
-          case LONG:
-            return Bytes.toLong(bytesVal);
-          case FLOAT:
-            return Bytes.toFloat(bytesVal);
-          case DOUBLE:
-            return Bytes.toDouble(bytesVal);
-          case STRING:
-            return Bytes.toString(bytesVal);
-        }
-        break;
-      case BOOLEAN:
-        Boolean boolVal = (Boolean) val;
-        switch (outputType) {
-          case STRING:
-            return String.valueOf(boolVal);
-          case BYTES:
-            return Bytes.toBytes(boolVal);
-        }
-        break;
-      case INT:
-        Integer intVal = (Integer) val;
-        switch (outputType) {
-          case LONG:
-            return intVal.longValue();
-          case FLOAT:
-            return intVal.floatValue();
-          case DOUBLE:
-            return intVal.doubleValue();
-          case STRING:
-            return String.valueOf(intVal);
-          case BYTES:
-            return Bytes.toBytes(intVal);
-        }
-        break;
-      case LONG:
-        Long longVal = (Long) val;
-        switch (outputType) {
-          case FLOAT:
-            return longVal.floatValue();
-          case DOUBLE:
-            return longVal.doubleValue();
-          case STRING:
-            return String.valueOf(longVal);
-          case BYTES:
-            return Bytes.toBytes(longVal);
-        }
-        break;
-      case FLOAT:
-        Float floatVal = (Float) val;
-        switch (outputType) {
-          case DOUBLE:
-            return floatVal.doubleValue();
-          case STRING:
-            return String.valueOf(floatVal);
-          case BYTES:
-            return Bytes.toBytes(floatVal);
-          case INT:
-            return Math.round(floatVal);
-          case LONG:
-            return (long) Math.round(floatVal);
-        }
-        break;
-      case DOUBLE:
-        Double doubleVal = (Double) val;
-        switch (outputType) {
-          case STRING:
-            return String.valueOf(doubleVal);
-          case BYTES:
-            return Bytes.toBytes(doubleVal);
-          case INT:
-            return (int) Math.round(doubleVal);
-          case LONG:
-            return Math.round(doubleVal);
-        }
-        break;
-    }
-
-    String typeStr = outputType.toString().toLowerCase();
-    collector.addFailure(
-      String.format("Cannot convert field '%s' from type '%s' to type '%s'.", fieldName, inputType, outputType),
-      null)
-      .withConfigElement(ProjectionTransformConfig.CONVERT, String.format("%s:%s", fieldName, typeStr));
-    throw collector.getOrThrowException();
-  }
-
   private Schema getOutputSchema(Schema inputSchema, FailureCollector collector) {
     Schema output = schemaCache.get(inputSchema);
     if (output != null) {
@@ -473,4 +519,20 @@ public class ProjectionTransform extends Transform<StructuredRecord, StructuredR
     schemaCache.put(inputSchema, output);
     return output;
   }
+
+  /**
+   * The compiled projection of records of an input schema.
+   */
+  private static final class Projection {
+    private final Schema outputSchema;
+    private final String[] inputFieldNames;
+    private final BiConsumer<StructuredRecord.Builder, Object>[] setters;
+
+    private Projection(Schema outputSchema, String[] inputFieldNames,
+                       BiConsumer<StructuredRecord.Builder, Object>[] setters) {
+      this.outputSchema = outputSchema;
+      this.inputFieldNames = inputFieldNames;
+      this.setters = setters;
+    }
+  }
 }
@@ -27,6 +27,7 @@ import io.cdap.cdap.etl.api.Lookup;
 import io.cdap.cdap.etl.api.LookupConfig;
 import io.cdap.cdap.etl.api.LookupTableConfig;
 import io.cdap.cdap.etl.api.Transform;
+import io.cdap.cdap.etl.api.validation.ValidationException;
 import io.cdap.cdap.etl.mock.common.MockEmitter;
 import io.cdap.cdap.etl.mock.common.MockLookupProvider;
 import io.cdap.cdap.etl.mock.common.MockPipelineConfigurer;
@@ -198,6 +199,20 @@ public class JavaScriptTransformTest {
 
   }
 
+  @Test
+  public void testInvalidEngine() {
+    JavaScriptTransform.Config config = new JavaScriptTransform.Config(
+      "function transform(input, emitter, context) { emitter.emit(input); }", null, null, "rhino");
+    MockPipelineConfigurer configurer = new MockPipelineConfigurer(STRING_SCHEMA, Collections.emptyMap());
+    try {
+      new JavaScriptTransform(config).configurePipeline(configurer);
+      Assert.fail("Configuring the pipeline should fail with an invalid engine.");
+    } catch (ValidationException e) {
+      Assert.assertEquals(1, e.getFailures().size());
+      Assert.assertEquals("Invalid JavaScript engine 'rhino'.", e.getFailures().get(0).getMessage());
+    }
+  }
+
   @Test
   public void testLookup() throws Exception {
     JavaScriptTransform.Config config = new JavaScriptTransform.Config(
@@ -229,6 +229,50 @@ public class LogParserTransformTest {
     Assert.assertEquals(971211336000L, output.<Long>get("ts").longValue());
   }
 
+  @Test
+  public void testCLFLogTransformWithRepeatedUserAgent() throws Exception {
+    Transform<StructuredRecord, StructuredRecord> transform = new LogParserTransform(CLF_CONFIG);
+    String userAgent = "\"Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/115.0\"";
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    for (String log : new String[] {
+      "10.0.0.1 - - [10/Oct/2000:13:55:36 -0700] \"GET /a.html HTTP/1.1\" 200 10 \"-\" " + userAgent,
+      "10.0.0.2 - - [10/Oct/2000:13:55:36 -0700] \"POST /b.html HTTP/1.1\" 404 - \"-\" " + userAgent,
+      "10.0.0.1 - - [10/Oct/2000:13:55:37 -0700] \"GET /c.html\" 304 0 \"-\" " + userAgent}) {
+      transform.transform(StructuredRecord.builder(STRING_SCHEMA).set("body", log).build(), emitter);
+    }
+
+    Assert.assertEquals(0, emitter.getErrors().size());
+    Assert.assertEquals(3, emitter.getEmitted().size());
+    String[] uris = {"/a.html", "/b.html", "/c.html"};
+    int[] statuses = {200, 404, 304};
+    long[] timestamps = {971211336000L, 971211336000L, 971211337000L};
+    for (int i = 0; i < uris.length; i++) {
+      StructuredRecord output = emitter.getEmitted().get(i);
+      Assert.assertEquals(uris[i], output.get("uri"));
+      Assert.assertEquals("Firefox", output.get("browser"));
+      Assert.assertEquals("Personal computer", output.get("device"));
+      Assert.assertEquals(statuses[i], output.<Integer>get("httpStatus").intValue());
+      Assert.assertEquals(timestamps[i], output.<Long>get("ts").longValue());
+    }
+  }
+
+  @Test
+  public void testErrorDatasetForInvalidCloudfrontLog() throws Exception {
+    StructuredRecord record = StructuredRecord.builder(STRING_SCHEMA)
+      .set("body", "2015-04-17\t13:35:48\tSFO20\t582123\t11.111.111.11\tGET")
+      .build();
+
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    CLOUDFRONT_TRANSFORM.transform(record, emitter);
+    Assert.assertEquals(0, emitter.getEmitted().size());
+    Assert.assertEquals(1, emitter.getErrors().size());
+    InvalidEntry<StructuredRecord> invalidEntry = emitter.getErrors().get(0);
+    Assert.assertEquals(31, invalidEntry.getErrorCode());
+    Assert.assertEquals("Error Message", "Couldn't parse log, because the log did not match the Cloudfront format.",
+                        invalidEntry.getErrorMsg());
+    Assert.assertEquals("Error Record", record, invalidEntry.getInvalidRecord());
+  }
+
   @Test
   public void testErrorDatasetForInvalidCLFLog() throws Exception {
     StructuredRecord record = StructuredRecord.builder(BYTE_SCHEMA)
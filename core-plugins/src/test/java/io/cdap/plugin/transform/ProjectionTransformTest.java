@@ -196,6 +196,41 @@ public class ProjectionTransformTest {
     }
   }
 
+  @Test
+  public void testMultipleInputSchemas() throws Exception {
+    ProjectionTransform.ProjectionTransformConfig config = new ProjectionTransform
+      .ProjectionTransformConfig("z", "x:y", "x:long", null);
+    Transform<StructuredRecord, StructuredRecord> transform = new ProjectionTransform(config);
+    TransformContext transformContext = new MockTransformContext();
+    transform.initialize(transformContext);
+
+    Schema intSchema = Schema.recordOf("ints",
+                                       Schema.Field.of("x", Schema.nullableOf(Schema.of(Schema.Type.INT))),
+                                       Schema.Field.of("z", Schema.of(Schema.Type.STRING)));
+    Schema stringSchema = Schema.recordOf("strings",
+                                          Schema.Field.of("z", Schema.of(Schema.Type.STRING)),
+                                          Schema.Field.of("x", Schema.of(Schema.Type.STRING)));
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    transform.transform(StructuredRecord.builder(intSchema).set("x", 5).set("z", "a").build(), emitter);
+    transform.transform(StructuredRecord.builder(stringSchema).set("x", "6").set("z", "b").build(), emitter);
+    transform.transform(StructuredRecord.builder(intSchema).set("z", "c").build(), emitter);
+    transform.transform(StructuredRecord.builder(intSchema).set("x", 7).set("z", "d").build(), emitter);
+
+    Schema expectedIntSchema = Schema.recordOf("ints.projected",
+                                               Schema.Field.of("y", Schema.nullableOf(Schema.of(Schema.Type.LONG))));
+    Schema expectedStringSchema = Schema.recordOf("strings.projected",
+                                                  Schema.Field.of("y", Schema.of(Schema.Type.LONG)));
+    Assert.assertEquals(4, emitter.getEmitted().size());
+    Assert.assertEquals(StructuredRecord.builder(expectedIntSchema).set("y", 5L).build(),
+                        emitter.getEmitted().get(0));
+    Assert.assertEquals(StructuredRecord.builder(expectedStringSchema).set("y", 6L).build(),
+                        emitter.getEmitted().get(1));
+    Assert.assertEquals(StructuredRecord.builder(expectedIntSchema).set("y", null).build(),
+                        emitter.getEmitted().get(2));
+    Assert.assertEquals(StructuredRecord.builder(expectedIntSchema).set("y", 7L).build(),
+                        emitter.getEmitted().get(3));
+  }
+
   @Test
   public void testDropFields() throws Exception {
     Schema schema = Schema.recordOf("three",
@@ -0,0 +1,267 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin.format.avro;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.format.input.ReaderPlanCache;
+import org.apache.avro.AvroRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Creates the Avro schema that files are read with from the schema of the records that are read.
+ *
+ * Files may have been written with fewer fields or narrower numeric types than the schema, for example when the
+ * schema was merged from the schemas of several files. Avro schema resolution only fills in fields that are missing
+ * from a file if they have a default value, so every nullable field of the reader schema gets null as its default,
+ * which requires null to be the first type of its union.
+ *
+ * CDAP schemas do not name their enums, so the conversion gives every enum a name that is not used by any other enum
+ * or record. Avro only resolves enums with the same name, so files are read with the enum names of their own schema,
+ * as returned by {@link #withEnumNames}.
+ */
+public final class AvroReaderSchema {
+  private static final Logger LOG = LoggerFactory.getLogger(AvroReaderSchema.class);
+  private static final String PLAN_NAME = "avro.reader.schema";
+  private static final String ENUM_NAME = "enum";
+
+  private AvroReaderSchema() {
+    // no-op
+  }
+
+  /**
+   * Returns the reader schema for the given schema. Reader schemas are cached, since every file of a split is read
+   * with the same one.
+   *
+   * @param schema the schema of the records that are read
+   * @param skipField a field to leave out of the reader schema, such as the path field, or null to keep all fields
+   * @return the Avro schema to read files with, or null if the schema can not be represented in Avro, in which case
+   *   files must be read with their own schema
+   */
+  @Nullable
+  public static org.apache.avro.Schema of(Schema schema, @Nullable String skipField) {
+    return ReaderPlanCache.getPlan(() -> create(schema, skipField), PLAN_NAME, schema, skipField).orElse(null);
+  }
+
+  /**
+   * Returns the reader schema with the names of the enums changed to the names of the enums at the same place in the
+   * schema of a file, so that Avro resolves them. Enums that are not in the file keep their names.
+   *
+   * @param readerSchema the reader schema returned by {@link #of}
+   * @param writerSchema the schema the file was written with
+   * @return the schema to read the file with
+   */
+  public static org.apache.avro.Schema withEnumNames(org.apache.avro.Schema readerSchema,
+                                                     org.apache.avro.Schema writerSchema) {
+    return new EnumNamer().rename(readerSchema, writerSchema);
+  }
+
+  private static Optional<org.apache.avro.Schema> create(Schema schema, @Nullable String skipField) {
+    try {
+      Converter converter = new Converter();
+      return Optional.of(schema.getType() == Schema.Type.RECORD ? converter.convertRecord(schema, skipField)
+                           : converter.convert(schema));
+    } catch (AvroRuntimeException | IllegalArgumentException e) {
+      LOG.debug("Schema {} can not be converted to an Avro reader schema. Files are read with their own schema.",
+                schema, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Converts a CDAP schema to an Avro schema in which nullable fields default to null. Records are converted once,
+   * so that recursive and repeated records refer to the same converted record.
+   */
+  private static final class Converter {
+    private final Map<String, org.apache.avro.Schema> records = new HashMap<>();
+    private final Set<String> names = new HashSet<>();
+
+    private org.apache.avro.Schema convert(Schema schema) {
+      switch (schema.getType()) {
+        case RECORD:
+          return convertRecord(schema, null);
+        case ENUM:
+          return org.apache.avro.Schema.createEnum(uniqueName(ENUM_NAME), null, null,
+                                                   new ArrayList<>(schema.getEnumValues()));
+        case ARRAY:
+          return org.apache.avro.Schema.createArray(convert(schema.getComponentSchema()));
+        case MAP:
+          if (schema.getMapSchema().getKey().getType() != Schema.Type.STRING) {
+            throw new IllegalArgumentException("Avro only supports maps with string keys");
+          }
+          return org.apache.avro.Schema.createMap(convert(schema.getMapSchema().getValue()));
+        case UNION:
+          List<org.apache.avro.Schema> types = new ArrayList<>(schema.getUnionSchemas().size());
+          for (Schema type : schema.getUnionSchemas()) {
+            if (type.getType() == Schema.Type.NULL) {
+              types.add(0, org.apache.avro.Schema.create(org.apache.avro.Schema.Type.NULL));
+            } else {
+              types.add(convert(type));
+            }
+          }
+          return org.apache.avro.Schema.createUnion(types);
+        default:
+          // simple types have no names, so parsing them keeps their logical type the same as in the file schema
+          return new org.apache.avro.Schema.Parser().parse(schema.toString());
+      }
+    }
+
+    private org.apache.avro.Schema convertRecord(Schema schema, @Nullable String skipField) {
+      // record names are unique within a CDAP schema, and a record that is used again only has its name
+      String name = schema.getRecordName();
+      org.apache.avro.Schema converted = records.get(name);
+      if (converted != null) {
+        return converted;
+      }
+      if (schema.getFields() == null) {
+        throw new IllegalArgumentException("Undefined record " + name);
+      }
+      converted = org.apache.avro.Schema.createRecord(uniqueName(name), null, null, false);
+      records.put(name, converted);
+      List<org.apache.avro.Schema.Field> fields = new ArrayList<>(schema.getFields().size());
+      for (Schema.Field field : schema.getFields()) {
+        if (field.getName().equals(skipField)) {
+          continue;
+        }
+        org.apache.avro.Schema fieldSchema = convert(field.getSchema());
+        Object defaultValue = isNullable(fieldSchema) ? org.apache.avro.Schema.Field.NULL_DEFAULT_VALUE : null;
+        fields.add(new org.apache.avro.Schema.Field(field.getName(), fieldSchema, null, defaultValue));
+      }
+      converted.setFields(fields);
+      return converted;
+    }
+
+    private String uniqueName(String name) {
+      String unique = name;
+      for (int i = 1; !names.add(unique); i++) {
+        unique = name + i;
+      }
+      return unique;
+    }
+  }
+
+  /**
+   * Renames the enums of a reader schema after the enums of a writer schema. Records are only copied if they contain
+   * an enum.
+   */
+  private static final class EnumNamer {
+    private final Map<String, org.apache.avro.Schema> records = new HashMap<>();
+    private final Map<String, org.apache.avro.Schema> enums = new HashMap<>();
+
+    private org.apache.avro.Schema rename(org.apache.avro.Schema reader, @Nullable org.apache.avro.Schema writer) {
+      switch (reader.getType()) {
+        case RECORD:
+          return renameRecord(reader, getBranch(writer, org.apache.avro.Schema.Type.RECORD));
+        case ENUM:
+          org.apache.avro.Schema writerEnum = getBranch(writer, org.apache.avro.Schema.Type.ENUM);
+          if (writerEnum == null || writerEnum.getFullName().equals(reader.getFullName())) {
+            return reader;
+          }
+          // the same enum type may be used by several fields of the file
+          return enums.computeIfAbsent(writerEnum.getFullName(), name -> org.apache.avro.Schema.createEnum(
+            writerEnum.getName(), null, writerEnum.getNamespace(), reader.getEnumSymbols()));
+        case ARRAY:
+          org.apache.avro.Schema writerArray = getBranch(writer, org.apache.avro.Schema.Type.ARRAY);
+          org.apache.avro.Schema element = rename(reader.getElementType(),
+                                                  writerArray == null ? null : writerArray.getElementType());
+          return element == reader.getElementType() ? reader : org.apache.avro.Schema.createArray(element);
+        case MAP:
+          org.apache.avro.Schema writerMap = getBranch(writer, org.apache.avro.Schema.Type.MAP);
+          org.apache.avro.Schema value = rename(reader.getValueType(),
+                                                writerMap == null ? null : writerMap.getValueType());
+          return value == reader.getValueType() ? reader : org.apache.avro.Schema.createMap(value);
+        case UNION:
+          List<org.apache.avro.Schema> types = new ArrayList<>(reader.getTypes().size());
+          boolean changed = false;
+          for (org.apache.avro.Schema type : reader.getTypes()) {
+            org.apache.avro.Schema renamed = rename(type, writer);
+            changed |= renamed != type;
+            types.add(renamed);
+          }
+          return changed ? org.apache.avro.Schema.createUnion(types) : reader;
+        default:
+          return reader;
+      }
+    }
+
+    private org.apache.avro.Schema renameRecord(org.apache.avro.Schema reader,
+                                                @Nullable org.apache.avro.Schema writer) {
+      org.apache.avro.Schema renamed = records.get(reader.getFullName());
+      if (renamed != null) {
+        return renamed;
+      }
+      if (writer == null) {
+        return reader;
+      }
+      renamed = org.apache.avro.Schema.createRecord(reader.getName(), reader.getDoc(), reader.getNamespace(),
+                                                    reader.isError());
+      // registered before the fields are renamed, so that recursive records refer to the copy
+      records.put(reader.getFullName(), renamed);
+      List<org.apache.avro.Schema.Field> fields = new ArrayList<>(reader.getFields().size());
+      boolean changed = false;
+      for (org.apache.avro.Schema.Field field : reader.getFields()) {
+        org.apache.avro.Schema.Field writerField = writer.getField(field.name());
+        org.apache.avro.Schema fieldSchema = rename(field.schema(), writerField == null ? null : writerField.schema());
+        changed |= fieldSchema != field.schema();
+        fields.add(new org.apache.avro.Schema.Field(field.name(), fieldSchema, field.doc(), field.defaultVal()));
+      }
+      if (!changed) {
+        records.put(reader.getFullName(), reader);
+        return reader;
+      }
+      renamed.setFields(fields);
+      return renamed;
+    }
+
+    /**
+     * Returns the writer schema if it has the given type, or its branch of that type if it is a union.
+     */
+    @Nullable
+    private static org.apache.avro.Schema getBranch(@Nullable org.apache.avro.Schema writer,
+                                                    org.apache.avro.Schema.Type type) {
+      if (writer == null) {
+        return null;
+      }
+      if (writer.getType() == type) {
+        return writer;
+      }
+      if (writer.getType() == org.apache.avro.Schema.Type.UNION) {
+        for (org.apache.avro.Schema branch : writer.getTypes()) {
+          if (branch.getType() == type) {
+            return branch;
+          }
+        }
+      }
+      return null;
+    }
+  }
+
+  private static boolean isNullable(org.apache.avro.Schema schema) {
+    return schema.getType() == org.apache.avro.Schema.Type.UNION
+      && schema.getTypes().get(0).getType() == org.apache.avro.Schema.Type.NULL;
+  }
+}
@@ -16,24 +16,32 @@
 
 package io.cdap.plugin.format.avro;
 
-import com.google.common.collect.Maps;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.format.UnexpectedFormatException;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.plugin.common.RecordConverter;
+import org.apache.avro.generic.GenericEnumSymbol;
 import org.apache.avro.generic.GenericRecord;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import javax.annotation.Nullable;
 
 /**
- * Create StructuredRecords from GenericRecords
+ * Create StructuredRecords from GenericRecords.
+ *
+ * Field positions are resolved once for every (record schema, output schema) pair and then read by index,
+ * so per-record conversion does not look up fields by name.
  */
 public class AvroToStructuredTransformer extends RecordConverter<GenericRecord, StructuredRecord> {
-  private final Map<Integer, Schema> schemaCache = Maps.newHashMap();
+  private final Map<org.apache.avro.Schema, Schema> schemaCache = new HashMap<>();
+  private final Map<ReadPlanKey, ReadPlan> readPlanCache = new HashMap<>();
+  private ReadPlan lastReadPlan;
 
   public StructuredRecord transform(GenericRecord genericRecord) throws IOException {
     org.apache.avro.Schema genericRecordSchema = genericRecord.getSchema();
@@ -42,29 +50,16 @@ public class AvroToStructuredTransformer extends RecordConverter<GenericRecord,
 
   @Override
   public StructuredRecord transform(GenericRecord genericRecord, Schema structuredSchema) throws IOException {
-    StructuredRecord.Builder builder = StructuredRecord.builder(structuredSchema);
-    for (Schema.Field field : structuredSchema.getFields()) {
-      String fieldName = field.getName();
-      builder.set(fieldName, convertField(genericRecord.get(fieldName), field));
-    }
-    return builder.build();
+    return getReadPlan(genericRecord.getSchema(), structuredSchema, null).read(genericRecord).build();
   }
 
   public StructuredRecord.Builder transform(GenericRecord genericRecord, Schema structuredSchema,
                                             @Nullable String skipField) throws IOException {
-    StructuredRecord.Builder builder = StructuredRecord.builder(structuredSchema);
-    for (Schema.Field field : structuredSchema.getFields()) {
-      String fieldName = field.getName();
-      if (!fieldName.equals(skipField)) {
-        builder.set(fieldName, convertField(genericRecord.get(fieldName), field));
-      }
-    }
-
-    return builder;
+    return getReadPlan(genericRecord.getSchema(), structuredSchema, skipField).read(genericRecord);
   }
 
   /**
-   * Overriding here to validate for datetime field
+   * Overriding here to validate for datetime field and to read enum symbols as strings
    *
    * @param field  Field value
    * @param schema {@link Schema}
@@ -72,6 +67,9 @@ public class AvroToStructuredTransformer extends RecordConverter<GenericRecord,
    * @throws IOException
    */
   protected Object convertField(Object field, Schema schema) throws IOException {
+    if (schema.getType() == Schema.Type.ENUM && (field instanceof GenericEnumSymbol || field instanceof CharSequence)) {
+      return field.toString();
+    }
     if (schema.getLogicalType() == Schema.LogicalType.DATETIME) {
       try {
         LocalDateTime.parse(field.toString());
@@ -84,15 +82,154 @@ public class AvroToStructuredTransformer extends RecordConverter<GenericRecord,
   }
 
   public Schema convertSchema(org.apache.avro.Schema schema) throws IOException {
-    int hashCode = schema.hashCode();
-    Schema structuredSchema;
-
-    if (schemaCache.containsKey(hashCode)) {
-      structuredSchema = schemaCache.get(hashCode);
-    } else {
+    Schema structuredSchema = schemaCache.get(schema);
+    if (structuredSchema == null) {
       structuredSchema = Schema.parseJson(schema.toString());
-      schemaCache.put(hashCode, structuredSchema);
+      schemaCache.put(schema, structuredSchema);
     }
     return structuredSchema;
   }
+
+  private ReadPlan getReadPlan(org.apache.avro.Schema recordSchema, Schema structuredSchema,
+                               @Nullable String skipField) {
+    // records from the same file share schema instances, so this check avoids hashing in the common case
+    ReadPlan plan = lastReadPlan;
+    if (plan != null && plan.recordSchema == recordSchema && plan.structuredSchema == structuredSchema
+      && Objects.equals(plan.skipField, skipField)) {
+      return plan;
+    }
+    ReadPlanKey key = new ReadPlanKey(recordSchema, structuredSchema, skipField);
+    plan = readPlanCache.get(key);
+    if (plan == null) {
+      plan = new ReadPlan(recordSchema, structuredSchema, skipField);
+      readPlanCache.put(key, plan);
+    }
+    lastReadPlan = plan;
+    return plan;
+  }
+
+  /**
+   * How the value of an output field is produced from the value read from the GenericRecord.
+   */
+  private enum FieldMode {
+    // the Avro value is already the StructuredRecord value
+    COPY,
+    // Utf8 or String value that only needs to become a String
+    STRING,
+    // everything else goes through the generic conversion
+    CONVERT
+  }
+
+  /**
+   * Field mappings from a GenericRecord schema to a StructuredRecord schema.
+   */
+  private final class ReadPlan {
+    private final org.apache.avro.Schema recordSchema;
+    private final Schema structuredSchema;
+    private final String skipField;
+    private final Schema.Field[] fields;
+    private final int[] positions;
+    private final FieldMode[] modes;
+
+    ReadPlan(org.apache.avro.Schema recordSchema, Schema structuredSchema, @Nullable String skipField) {
+      this.recordSchema = recordSchema;
+      this.structuredSchema = structuredSchema;
+      this.skipField = skipField;
+
+      List<Schema.Field> structuredFields = structuredSchema.getFields();
+      int numFields = 0;
+      for (Schema.Field field : structuredFields) {
+        if (!field.getName().equals(skipField)) {
+          numFields++;
+        }
+      }
+      this.fields = new Schema.Field[numFields];
+      this.positions = new int[numFields];
+      this.modes = new FieldMode[numFields];
+
+      int i = 0;
+      for (Schema.Field field : structuredFields) {
+        if (field.getName().equals(skipField)) {
+          continue;
+        }
+        org.apache.avro.Schema.Field avroField = recordSchema.getField(field.getName());
+        fields[i] = field;
+        // fields missing from the record are read as null, same as GenericRecord.get(String)
+        positions[i] = avroField == null ? -1 : avroField.pos();
+        modes[i] = getMode(field.getSchema());
+        i++;
+      }
+    }
+
+    StructuredRecord.Builder read(GenericRecord genericRecord) throws IOException {
+      StructuredRecord.Builder builder = StructuredRecord.builder(structuredSchema);
+      for (int i = 0; i < fields.length; i++) {
+        Schema.Field field = fields[i];
+        int position = positions[i];
+        Object value = position < 0 ? null : genericRecord.get(position);
+        if (value == null || modes[i] == FieldMode.CONVERT) {
+          // nullability checks and error messages are handled by the generic conversion
+          builder.set(field.getName(), convertField(value, field));
+        } else if (modes[i] == FieldMode.STRING) {
+          builder.set(field.getName(), value.toString());
+        } else {
+          builder.set(field.getName(), value);
+        }
+      }
+      return builder;
+    }
+
+    private FieldMode getMode(Schema fieldSchema) {
+      Schema schema = fieldSchema.isNullable() ? fieldSchema.getNonNullable() : fieldSchema;
+      switch (schema.getType()) {
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+        case BOOLEAN:
+          return FieldMode.COPY;
+        case STRING:
+          // datetime values need to be validated
+          return schema.getLogicalType() == null ? FieldMode.STRING : FieldMode.CONVERT;
+        case ENUM:
+          return FieldMode.STRING;
+        default:
+          return FieldMode.CONVERT;
+      }
+    }
+  }
+
+  /**
+   * Key for cached {@link ReadPlan ReadPlans}.
+   */
+  private static final class ReadPlanKey {
+    private final org.apache.avro.Schema recordSchema;
+    private final Schema structuredSchema;
+    private final String skipField;
+
+    ReadPlanKey(org.apache.avro.Schema recordSchema, Schema structuredSchema, @Nullable String skipField) {
+      this.recordSchema = recordSchema;
+      this.structuredSchema = structuredSchema;
+      this.skipField = skipField;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ReadPlanKey that = (ReadPlanKey) o;
+      return Objects.equals(recordSchema, that.recordSchema)
+        && Objects.equals(structuredSchema, that.structuredSchema)
+        && Objects.equals(skipField, that.skipField);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(recordSchema, structuredSchema, skipField);
+    }
+  }
 }
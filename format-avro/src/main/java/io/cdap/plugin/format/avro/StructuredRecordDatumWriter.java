@@ -0,0 +1,367 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.avro;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.UnresolvedUnionException;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes StructuredRecords in Avro binary encoding without converting them into GenericRecords first.
+ *
+ * The Avro schema is compiled once into a tree of writers, so encoding a record only looks up each field value
+ * and writes it. Record fields are matched by name, unions are resolved by the type of the value.
+ */
+public class StructuredRecordDatumWriter implements DatumWriter<StructuredRecord> {
+  private Schema schema;
+  private RecordWriter recordWriter;
+
+  public StructuredRecordDatumWriter() {
+  }
+
+  public StructuredRecordDatumWriter(Schema schema) {
+    setSchema(schema);
+  }
+
+  @Override
+  public void setSchema(Schema schema) {
+    if (schema.getType() != Schema.Type.RECORD) {
+      throw new IllegalArgumentException("Schema must be a record, but is " + schema.getType());
+    }
+    this.schema = schema;
+    this.recordWriter = (RecordWriter) new Compiler().compile(schema);
+  }
+
+  @Override
+  public void write(StructuredRecord record, Encoder out) throws IOException {
+    if (recordWriter == null) {
+      throw new IllegalStateException("Schema must be set before writing records.");
+    }
+    recordWriter.write(record, out);
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Writes a single value of a specific Avro schema.
+   */
+  private interface ValueWriter {
+    void write(Object value, Encoder out) throws IOException;
+  }
+
+  /**
+   * Builds the writer tree for an Avro schema.
+   */
+  private static final class Compiler {
+    // records are registered before their fields are compiled so that recursive schemas terminate
+    private final Map<String, RecordWriter> recordWriters = new HashMap<>();
+
+    ValueWriter compile(Schema schema) {
+      switch (schema.getType()) {
+        case NULL:
+          return (value, out) -> out.writeNull();
+        case BOOLEAN:
+          return (value, out) -> out.writeBoolean((Boolean) value);
+        case INT:
+          return (value, out) -> out.writeInt(((Number) value).intValue());
+        case LONG:
+          return (value, out) -> out.writeLong(((Number) value).longValue());
+        case FLOAT:
+          return (value, out) -> out.writeFloat(((Number) value).floatValue());
+        case DOUBLE:
+          return (value, out) -> out.writeDouble(((Number) value).doubleValue());
+        case STRING:
+          return StructuredRecordDatumWriter::writeString;
+        case BYTES:
+          return StructuredRecordDatumWriter::writeBytes;
+        case FIXED:
+          return (value, out) -> out.writeFixed(toBytes(value));
+        case ENUM:
+          return (value, out) -> writeEnum(schema, value, out);
+        case ARRAY:
+          return new ArrayWriter(compile(schema.getElementType()));
+        case MAP:
+          return new MapWriter(compile(schema.getValueType()));
+        case UNION:
+          List<Schema> branches = schema.getTypes();
+          ValueWriter[] branchWriters = new ValueWriter[branches.size()];
+          for (int i = 0; i < branchWriters.length; i++) {
+            branchWriters[i] = compile(branches.get(i));
+          }
+          return new UnionWriter(schema, branchWriters);
+        case RECORD:
+          RecordWriter recordWriter = recordWriters.get(schema.getFullName());
+          if (recordWriter == null) {
+            recordWriter = new RecordWriter(schema);
+            recordWriters.put(schema.getFullName(), recordWriter);
+            List<Schema.Field> fields = schema.getFields();
+            for (int i = 0; i < fields.size(); i++) {
+              recordWriter.fieldWriters[i] = compile(fields.get(i).schema());
+            }
+          }
+          return recordWriter;
+        default:
+          throw new IllegalArgumentException("Unsupported Avro schema type " + schema.getType());
+      }
+    }
+  }
+
+  private static void writeEnum(Schema schema, Object value, Encoder out) throws IOException {
+    String symbol = value.toString();
+    if (!schema.hasEnumSymbol(symbol)) {
+      throw new AvroTypeException("Not an enum: " + symbol + " for schema: " + schema);
+    }
+    out.writeEnum(schema.getEnumOrdinal(symbol));
+  }
+
+  private static void writeString(Object value, Encoder out) throws IOException {
+    if (value instanceof Utf8) {
+      out.writeString((Utf8) value);
+    } else {
+      out.writeString(value.toString());
+    }
+  }
+
+  private static void writeBytes(Object value, Encoder out) throws IOException {
+    if (value instanceof ByteBuffer) {
+      out.writeBytes((ByteBuffer) value);
+    } else {
+      out.writeBytes((byte[]) value);
+    }
+  }
+
+  private static byte[] toBytes(Object value) {
+    if (value instanceof byte[]) {
+      return (byte[]) value;
+    }
+    ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Writes StructuredRecords as Avro records.
+   */
+  private static final class RecordWriter implements ValueWriter {
+    private final String[] fieldNames;
+    private final boolean[] nullable;
+    private final ValueWriter[] fieldWriters;
+    // the last StructuredRecord schema verified to contain all fields
+    private io.cdap.cdap.api.data.schema.Schema checkedSchema;
+
+    RecordWriter(Schema schema) {
+      List<Schema.Field> fields = schema.getFields();
+      this.fieldNames = new String[fields.size()];
+      this.nullable = new boolean[fields.size()];
+      this.fieldWriters = new ValueWriter[fields.size()];
+      for (int i = 0; i < fieldNames.length; i++) {
+        Schema fieldSchema = fields.get(i).schema();
+        fieldNames[i] = fields.get(i).name();
+        nullable[i] = fieldSchema.getType() == Schema.Type.NULL || fieldSchema.isNullable();
+      }
+    }
+
+    @Override
+    public void write(Object value, Encoder out) throws IOException {
+      StructuredRecord record = (StructuredRecord) value;
+      io.cdap.cdap.api.data.schema.Schema recordSchema = record.getSchema();
+      if (recordSchema != checkedSchema) {
+        for (String fieldName : fieldNames) {
+          if (recordSchema.getField(fieldName) == null) {
+            throw new IllegalArgumentException("Input record does not contain the " + fieldName + " field.");
+          }
+        }
+        checkedSchema = recordSchema;
+      }
+
+      for (int i = 0; i < fieldNames.length; i++) {
+        Object fieldValue = record.get(fieldNames[i]);
+        if (fieldValue == null && !nullable[i]) {
+          throw new IllegalArgumentException(
+            String.format("Error converting field '%s': Found a null value for a non-nullable field.",
+                          fieldNames[i]));
+        }
+        try {
+          fieldWriters[i].write(fieldValue, out);
+        } catch (ClassCastException | UnresolvedUnionException e) {
+          throw new IllegalArgumentException(
+            String.format("Error converting field '%s': %s", fieldNames[i], e.getMessage()), e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes Collections and Java arrays as Avro arrays.
+   */
+  private static final class ArrayWriter implements ValueWriter {
+    private final ValueWriter elementWriter;
+
+    ArrayWriter(ValueWriter elementWriter) {
+      this.elementWriter = elementWriter;
+    }
+
+    @Override
+    public void write(Object value, Encoder out) throws IOException {
+      out.writeArrayStart();
+      if (value instanceof Collection) {
+        Collection<?> collection = (Collection<?>) value;
+        out.setItemCount(collection.size());
+        for (Object element : collection) {
+          out.startItem();
+          elementWriter.write(element, out);
+        }
+      } else {
+        int length = Array.getLength(value);
+        out.setItemCount(length);
+        for (int i = 0; i < length; i++) {
+          out.startItem();
+          elementWriter.write(Array.get(value, i), out);
+        }
+      }
+      out.writeArrayEnd();
+    }
+  }
+
+  /**
+   * Writes Maps as Avro maps.
+   */
+  private static final class MapWriter implements ValueWriter {
+    private final ValueWriter valueWriter;
+
+    MapWriter(ValueWriter valueWriter) {
+      this.valueWriter = valueWriter;
+    }
+
+    @Override
+    public void write(Object value, Encoder out) throws IOException {
+      Map<?, ?> map = (Map<?, ?>) value;
+      out.writeMapStart();
+      out.setItemCount(map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        out.startItem();
+        writeString(entry.getKey(), out);
+        valueWriter.write(entry.getValue(), out);
+      }
+      out.writeMapEnd();
+    }
+  }
+
+  /**
+   * Writes Avro unions, picking the branch based on the type of the value.
+   */
+  private static final class UnionWriter implements ValueWriter {
+    private final Schema schema;
+    private final ValueWriter[] branchWriters;
+    private final int nullIndex;
+    // set when the union is a single type plus null, which is how CDAP nullable fields are represented
+    private final int nonNullIndex;
+    private final Map<Schema.Type, Integer> typeIndexes;
+    private final Map<String, Integer> recordIndexes;
+
+    UnionWriter(Schema schema, ValueWriter[] branchWriters) {
+      this.schema = schema;
+      this.branchWriters = branchWriters;
+      this.typeIndexes = new HashMap<>();
+      this.recordIndexes = new HashMap<>();
+      List<Schema> branches = schema.getTypes();
+      int nullIdx = -1;
+      for (int i = 0; i < branches.size(); i++) {
+        Schema branch = branches.get(i);
+        if (branch.getType() == Schema.Type.NULL) {
+          nullIdx = i;
+        }
+        typeIndexes.putIfAbsent(branch.getType(), i);
+        if (branch.getType() == Schema.Type.RECORD) {
+          recordIndexes.put(branch.getName(), i);
+        }
+      }
+      this.nullIndex = nullIdx;
+      this.nonNullIndex = nullIdx >= 0 && branches.size() == 2 ? 1 - nullIdx : -1;
+    }
+
+    @Override
+    public void write(Object value, Encoder out) throws IOException {
+      int index = resolve(value);
+      out.writeIndex(index);
+      branchWriters[index].write(value, out);
+    }
+
+    private int resolve(Object value) {
+      if (value == null) {
+        if (nullIndex < 0) {
+          throw new UnresolvedUnionException(schema, null);
+        }
+        return nullIndex;
+      }
+      if (nonNullIndex >= 0) {
+        return nonNullIndex;
+      }
+      Integer index;
+      if (value instanceof StructuredRecord) {
+        index = recordIndexes.get(((StructuredRecord) value).getSchema().getRecordName());
+        if (index == null) {
+          index = typeIndexes.get(Schema.Type.RECORD);
+        }
+      } else if (value instanceof CharSequence) {
+        index = firstOf(Schema.Type.STRING, Schema.Type.ENUM);
+      } else if (value instanceof Integer) {
+        index = typeIndexes.get(Schema.Type.INT);
+      } else if (value instanceof Long) {
+        index = typeIndexes.get(Schema.Type.LONG);
+      } else if (value instanceof Float) {
+        index = typeIndexes.get(Schema.Type.FLOAT);
+      } else if (value instanceof Double) {
+        index = typeIndexes.get(Schema.Type.DOUBLE);
+      } else if (value instanceof Boolean) {
+        index = typeIndexes.get(Schema.Type.BOOLEAN);
+      } else if (value instanceof ByteBuffer || value instanceof byte[]) {
+        index = firstOf(Schema.Type.BYTES, Schema.Type.FIXED);
+      } else if (value instanceof Map) {
+        index = typeIndexes.get(Schema.Type.MAP);
+      } else if (value instanceof Collection || value.getClass().isArray()) {
+        index = typeIndexes.get(Schema.Type.ARRAY);
+      } else {
+        index = null;
+      }
+      if (index == null) {
+        throw new UnresolvedUnionException(schema, value);
+      }
+      return index;
+    }
+
+    private Integer firstOf(Schema.Type type, Schema.Type alternative) {
+      Integer index = typeIndexes.get(type);
+      return index == null ? typeIndexes.get(alternative) : index;
+    }
+  }
+}
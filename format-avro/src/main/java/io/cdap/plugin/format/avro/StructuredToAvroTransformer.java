@@ -17,28 +17,33 @@
 
 package io.cdap.plugin.format.avro;
 
-import com.google.common.collect.Maps;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.plugin.common.RecordConverter;
+import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.generic.GenericRecordBuilder;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
 
 /**
- * Creates GenericRecords from StructuredRecords
+ * Creates GenericRecords from StructuredRecords.
+ *
+ * To write StructuredRecords to Avro files, use {@link StructuredRecordDatumWriter} instead, which encodes
+ * records directly without creating GenericRecords.
  */
 public class StructuredToAvroTransformer extends RecordConverter<StructuredRecord, GenericRecord> {
 
-  private final Map<Integer, Schema> schemaCache;
+  private final Map<io.cdap.cdap.api.data.schema.Schema, AvroRecordSchema> schemaCache;
   private final io.cdap.cdap.api.data.schema.Schema outputCDAPSchema;
 
   public StructuredToAvroTransformer(@Nullable io.cdap.cdap.api.data.schema.Schema outputSchema) {
-    this.schemaCache = Maps.newHashMap();
+    this.schemaCache = new HashMap<>();
     this.outputCDAPSchema = outputSchema;
   }
 
@@ -52,18 +57,25 @@ public class StructuredToAvroTransformer extends RecordConverter<StructuredRecor
                                  io.cdap.cdap.api.data.schema.Schema schema) throws IOException {
     io.cdap.cdap.api.data.schema.Schema structuredRecordSchema = structuredRecord.getSchema();
 
-    Schema avroSchema = getAvroSchema(schema);
+    AvroRecordSchema avroSchema = getAvroSchema(schema);
 
-    GenericRecordBuilder recordBuilder = new GenericRecordBuilder(avroSchema);
-    for (Schema.Field field : avroSchema.getFields()) {
+    // every field is set below, so the record is created directly instead of through GenericRecordBuilder,
+    // which would also resolve default values and copy them for each record
+    GenericRecord record = new GenericData.Record(avroSchema.schema);
+    for (int i = 0; i < avroSchema.fields.length; i++) {
+      Schema.Field field = avroSchema.fields[i];
       String fieldName = field.name();
       io.cdap.cdap.api.data.schema.Schema.Field schemaField = structuredRecordSchema.getField(fieldName);
       if (schemaField == null) {
         throw new IllegalArgumentException("Input record does not contain the " + fieldName + " field.");
       }
-      recordBuilder.set(fieldName, convertField(structuredRecord.get(fieldName), schemaField));
+      Object value = convertField(structuredRecord.get(fieldName), schemaField);
+      if (value == null && !avroSchema.nullable[i]) {
+        throw new AvroRuntimeException("Field " + field + " does not accept null values");
+      }
+      record.put(i, value);
     }
-    return recordBuilder.build();
+    return record;
   }
 
   @Override
@@ -74,14 +86,32 @@ public class StructuredToAvroTransformer extends RecordConverter<StructuredRecor
     return ByteBuffer.wrap((byte[]) field);
   }
 
-  private Schema getAvroSchema(io.cdap.cdap.api.data.schema.Schema cdapSchema) {
-    int hashCode = cdapSchema.hashCode();
-    if (schemaCache.containsKey(hashCode)) {
-      return schemaCache.get(hashCode);
-    } else {
-      Schema avroSchema = new Schema.Parser().parse(cdapSchema.toString());
-      schemaCache.put(hashCode, avroSchema);
-      return avroSchema;
+  private AvroRecordSchema getAvroSchema(io.cdap.cdap.api.data.schema.Schema cdapSchema) {
+    AvroRecordSchema avroSchema = schemaCache.get(cdapSchema);
+    if (avroSchema == null) {
+      avroSchema = new AvroRecordSchema(new Schema.Parser().parse(cdapSchema.toString()));
+      schemaCache.put(cdapSchema, avroSchema);
+    }
+    return avroSchema;
+  }
+
+  /**
+   * Avro record schema along with the per-field information needed to build records.
+   */
+  private static final class AvroRecordSchema {
+    private final Schema schema;
+    private final Schema.Field[] fields;
+    private final boolean[] nullable;
+
+    AvroRecordSchema(Schema schema) {
+      List<Schema.Field> fieldList = schema.getFields();
+      this.schema = schema;
+      this.fields = fieldList.toArray(new Schema.Field[0]);
+      this.nullable = new boolean[fields.length];
+      for (int i = 0; i < fields.length; i++) {
+        Schema fieldSchema = fields[i].schema();
+        nullable[i] = fieldSchema.getType() == Schema.Type.NULL || fieldSchema.isNullable();
+      }
     }
   }
 }
@@ -24,9 +24,9 @@ import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.api.plugin.PluginClass;
 import io.cdap.cdap.etl.api.validation.FormatContext;
-import io.cdap.cdap.etl.api.validation.InputFile;
 import io.cdap.cdap.etl.api.validation.InputFiles;
 import io.cdap.cdap.etl.api.validation.ValidatingInputFormat;
+import io.cdap.plugin.format.MergedSchemaReader;
 import io.cdap.plugin.format.avro.AvroToStructuredTransformer;
 import io.cdap.plugin.format.input.PathTrackingConfig;
 import io.cdap.plugin.format.input.PathTrackingInputFormatProvider;
@@ -92,16 +92,12 @@ public class AvroInputFormatProvider extends PathTrackingInputFormatProvider<Avr
   @Nullable
   @Override
   public Schema detectSchema(FormatContext context, InputFiles inputFiles) throws IOException {
-    DatumReader<GenericRecord> datumReader = new GenericDatumReader<>();
-    for (InputFile inputFile : inputFiles) {
-      if (!inputFile.getName().toLowerCase().endsWith(".avro")) {
-        continue;
-      }
+    Schema schema = MergedSchemaReader.read(NAME, inputFiles, ".avro", inputFile -> {
+      DatumReader<GenericRecord> datumReader = new GenericDatumReader<>();
       try (DataFileStream<GenericRecord> dataFileStream = new DataFileStream<>(inputFile.open(), datumReader)) {
-        Schema schema = new AvroToStructuredTransformer().convertSchema(dataFileStream.getSchema());
-        return addPathField(schema, context.getFailureCollector());
+        return new AvroToStructuredTransformer().convertSchema(dataFileStream.getSchema());
       }
-    }
-    throw new IOException("Unable to find any files that end in .avro");
+    });
+    return addPathField(schema, context.getFailureCollector());
   }
 }
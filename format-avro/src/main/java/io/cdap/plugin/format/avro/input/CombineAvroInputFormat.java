@@ -17,39 +17,24 @@
 package io.cdap.plugin.format.avro.input;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
-import io.cdap.plugin.common.batch.JobUtils;
+import io.cdap.plugin.format.input.CombinePathTrackingInputFormat;
 import io.cdap.plugin.format.input.PathTrackingInputFormat;
 import org.apache.hadoop.io.NullWritable;
-import org.apache.hadoop.mapreduce.InputSplit;
-import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
-import org.apache.hadoop.mapreduce.lib.input.CombineFileInputFormat;
-import org.apache.hadoop.mapreduce.lib.input.CombineFileRecordReader;
 import org.apache.hadoop.mapreduce.lib.input.CombineFileRecordReaderWrapper;
 import org.apache.hadoop.mapreduce.lib.input.CombineFileSplit;
 
 import java.io.IOException;
-import java.util.List;
 
 /**
  * Combined input format that tracks which file each avro record was read from.
  */
-public class CombineAvroInputFormat extends CombineFileInputFormat<NullWritable, StructuredRecord> {
+public class CombineAvroInputFormat extends CombinePathTrackingInputFormat {
 
   @Override
-  public List<InputSplit> getSplits(JobContext job) throws IOException {
-    return JobUtils.applyWithExtraClassLoader(job, getClass().getClassLoader(),
-                                              CombineAvroInputFormat.super::getSplits);
-  }
-
-  /**
-   * Creates a RecordReader that delegates to some other RecordReader for each path in the input split.
-   */
-  @Override
-  public RecordReader<NullWritable, StructuredRecord> createRecordReader(InputSplit split, TaskAttemptContext context)
-    throws IOException {
-    return new CombineFileRecordReader<>((CombineFileSplit) split, context, WrapperReader.class);
+  protected Class<? extends RecordReader<NullWritable, StructuredRecord>> getRecordReaderClass() {
+    return WrapperReader.class;
   }
 
   /**
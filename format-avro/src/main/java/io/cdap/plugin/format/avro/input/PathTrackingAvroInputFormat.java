@@ -18,11 +18,18 @@ package io.cdap.plugin.format.avro.input;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.format.avro.AvroReaderSchema;
 import io.cdap.plugin.format.avro.AvroToStructuredTransformer;
 import io.cdap.plugin.format.input.PathTrackingInputFormat;
+import io.cdap.plugin.format.input.ReaderPlanCache;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DatumReader;
 import org.apache.avro.mapred.AvroKey;
 import org.apache.avro.mapreduce.AvroKeyInputFormat;
+import org.apache.avro.mapreduce.AvroKeyRecordReader;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.RecordReader;
@@ -36,6 +43,9 @@ import javax.annotation.Nullable;
 
 /**
  * Avro format that tracks which file each record was read from.
+ *
+ * If the schema is known, files are read with an {@link AvroReaderSchema} derived from it, so that files written
+ * with fewer fields or narrower numeric types are resolved against the schema by Avro.
  */
 public class PathTrackingAvroInputFormat extends PathTrackingInputFormat {
 
@@ -44,15 +54,43 @@ public class PathTrackingAvroInputFormat extends PathTrackingInputFormat {
     FileSplit split, TaskAttemptContext context,
     @Nullable String pathField, @Nullable Schema schema) throws IOException, InterruptedException {
 
-    RecordReader<AvroKey<GenericRecord>, NullWritable> delegate = (new AvroKeyInputFormat<GenericRecord>())
-      .createRecordReader(split, context);
+    org.apache.avro.Schema readerSchema = schema == null ? null : AvroReaderSchema.of(schema, pathField);
+    RecordReader<AvroKey<GenericRecord>, NullWritable> delegate = readerSchema == null ?
+      new AvroKeyInputFormat<GenericRecord>().createRecordReader(split, context) :
+      new ReaderSchemaRecordReader(readerSchema);
     return new AvroRecordReader(delegate, schema, pathField);
   }
 
+  /**
+   * Reads a file with a reader schema that has the enum names of the file, since Avro only resolves enums with the
+   * same name.
+   */
+  static class ReaderSchemaRecordReader extends AvroKeyRecordReader<GenericRecord> {
+    private final org.apache.avro.Schema readerSchema;
+
+    ReaderSchemaRecordReader(org.apache.avro.Schema readerSchema) {
+      super(readerSchema);
+      this.readerSchema = readerSchema;
+    }
+
+    @Override
+    protected DataFileReader<GenericRecord> createAvroFileReader(SeekableInput input,
+                                                                 DatumReader<GenericRecord> datumReader)
+      throws IOException {
+      DataFileReader<GenericRecord> fileReader = super.createAvroFileReader(input, datumReader);
+      if (datumReader instanceof GenericDatumReader) {
+        ((GenericDatumReader<GenericRecord>) datumReader).setExpected(
+          AvroReaderSchema.withEnumNames(readerSchema, fileReader.getSchema()));
+      }
+      return fileReader;
+    }
+  }
+
   /**
    * Transforms GenericRecords into StructuredRecord.
    */
   static class AvroRecordReader extends RecordReader<NullWritable, StructuredRecord.Builder> {
+    private static final String FORMAT_SCHEMA = "avro.schema";
     private final RecordReader<AvroKey<GenericRecord>, NullWritable> delegate;
     private final AvroToStructuredTransformer recordTransformer;
     private final String pathField;
@@ -87,20 +125,25 @@ public class PathTrackingAvroInputFormat extends PathTrackingInputFormat {
       // if schema is null, but we're still able to read, that means the file contains the schema information
       // set the schema based on the schema of the record
       if (schema == null) {
-        if (pathField == null) {
-          schema = Schema.parseJson(genericRecord.getSchema().toString());
-        } else {
-          // if there is a path field, add the path as a field in the schema
-          Schema schemaWithoutPath = Schema.parseJson(genericRecord.getSchema().toString());
-          List<Schema.Field> fields = new ArrayList<>(schemaWithoutPath.getFields().size() + 1);
-          fields.addAll(schemaWithoutPath.getFields());
-          fields.add(Schema.Field.of(pathField, Schema.of(Schema.Type.STRING)));
-          schema = Schema.recordOf(schemaWithoutPath.getRecordName(), fields);
-        }
+        schema = ReaderPlanCache.getPlan(() -> getSchema(genericRecord.getSchema(), pathField),
+                                         FORMAT_SCHEMA, genericRecord.getSchema(), pathField);
       }
       return recordTransformer.transform(genericRecord, schema, pathField);
     }
 
+    private static Schema getSchema(org.apache.avro.Schema avroSchema, @Nullable String pathField)
+      throws IOException {
+      Schema schemaWithoutPath = Schema.parseJson(avroSchema.toString());
+      if (pathField == null) {
+        return schemaWithoutPath;
+      }
+      // if there is a path field, add the path as a field in the schema
+      List<Schema.Field> fields = new ArrayList<>(schemaWithoutPath.getFields().size() + 1);
+      fields.addAll(schemaWithoutPath.getFields());
+      fields.add(Schema.Field.of(pathField, Schema.of(Schema.Type.STRING)));
+      return Schema.recordOf(schemaWithoutPath.getRecordName(), fields);
+    }
+
     @Override
     public float getProgress() throws IOException, InterruptedException {
       return delegate.getProgress();
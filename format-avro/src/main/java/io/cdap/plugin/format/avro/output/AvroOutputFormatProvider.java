@@ -23,9 +23,12 @@ import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.cdap.api.plugin.PluginClass;
 import io.cdap.cdap.api.plugin.PluginConfig;
 import io.cdap.cdap.api.plugin.PluginPropertyField;
+import io.cdap.cdap.etl.api.validation.FormatContext;
 import io.cdap.cdap.etl.api.validation.ValidatingOutputFormat;
 import io.cdap.plugin.format.output.AbstractOutputFormatProvider;
 import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.mapred.AvroOutputFormat;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -44,6 +47,9 @@ public class AvroOutputFormatProvider extends AbstractOutputFormatProvider {
   static final String DESC = "Plugin for writing files in avro format.";
   private static final String AVRO_OUTPUT_CODEC = "avro.output.codec";
   private static final String MAPRED_OUTPUT_COMPRESS = "mapred.output.compress";
+  private static final String COMPRESSION_CODEC = "compressionCodec";
+  private static final String COMPRESSION_LEVEL = "compressionLevel";
+  private static final String SYNC_INTERVAL = "syncInterval";
   private final Conf conf;
 
   public AvroOutputFormatProvider(Conf conf) {
@@ -59,14 +65,20 @@ public class AvroOutputFormatProvider extends AbstractOutputFormatProvider {
     }
   }
 
+  @Override
+  public void validate(FormatContext context) {
+    conf.validate();
+  }
+
   @Override
   public Map<String, String> getOutputFormatConfiguration() {
+    conf.validate();
     Map<String, String> configuration = new HashMap<>();
     if (conf.schema != null && !conf.containsMacro("schema")) {
       configuration.put(SCHEMA_KEY, conf.schema);
     }
 
-    if (conf.compressionCodec != null && !conf.containsMacro("compressionCodec") &&
+    if (conf.compressionCodec != null && !conf.containsMacro(COMPRESSION_CODEC) &&
       !"none".equalsIgnoreCase(conf.compressionCodec)) {
 
       try {
@@ -76,17 +88,51 @@ public class AvroOutputFormatProvider extends AbstractOutputFormatProvider {
       } catch (Exception e) {
         throw new IllegalArgumentException("Unsupported compression codec " + conf.compressionCodec);
       }
+      String levelKey = getCompressionLevelKey(conf.compressionCodec);
+      if (conf.compressionLevel != null && levelKey != null) {
+        configuration.put(levelKey, String.valueOf(conf.compressionLevel));
+      }
+    }
+
+    if (conf.syncInterval != null) {
+      configuration.put(AvroOutputFormat.SYNC_INTERVAL_KEY, String.valueOf(conf.syncInterval));
     }
     return configuration;
   }
 
+  /**
+   * Returns the configuration key holding the compression level of the given codec,
+   * or null if the codec does not support levels.
+   */
+  @Nullable
+  private static String getCompressionLevelKey(String codec) {
+    switch (codec.toLowerCase()) {
+      case DataFileConstants.DEFLATE_CODEC:
+        return AvroOutputFormat.DEFLATE_LEVEL_KEY;
+      case DataFileConstants.XZ_CODEC:
+        return AvroOutputFormat.XZ_LEVEL_KEY;
+      case DataFileConstants.ZSTANDARD_CODEC:
+        return AvroOutputFormat.ZSTD_LEVEL_KEY;
+      default:
+        return null;
+    }
+  }
+
   /**
    * Configuration for the output format plugin.
    */
   public static class Conf extends PluginConfig {
     private static final String SCHEMA_DESC = "Schema of the data to write.";
     private static final String CODEC_DESC =
-      "Compression codec to use when writing data. Must be 'snappy', 'deflate', 'bzip2', 'xz', or 'none.'";
+      "Compression codec to use when writing data. Must be 'snappy', 'deflate', 'bzip2', 'xz', 'zstandard', " +
+        "or 'none.'";
+    private static final String LEVEL_DESC =
+      "Compression level to use with the 'deflate' (1-9), 'xz' (0-9) or 'zstandard' (1-22) codecs. " +
+        "Higher levels produce smaller files but are slower to write. Defaults to the codec default.";
+    private static final String SYNC_INTERVAL_DESC =
+      "Approximate number of uncompressed bytes written to each block of the Avro file. Larger blocks " +
+        "compress better, smaller blocks allow finer grained splits. Must be between 32 and 1073741824. " +
+        "Defaults to 64000.";
 
     @Macro
     @Nullable
@@ -97,13 +143,60 @@ public class AvroOutputFormatProvider extends AbstractOutputFormatProvider {
     @Nullable
     @Description(CODEC_DESC)
     private String compressionCodec;
+
+    @Macro
+    @Nullable
+    @Description(LEVEL_DESC)
+    private Integer compressionLevel;
+
+    @Macro
+    @Nullable
+    @Description(SYNC_INTERVAL_DESC)
+    private Integer syncInterval;
+
+    private void validate() {
+      if (compressionLevel != null && !containsMacro(COMPRESSION_LEVEL) && compressionCodec != null
+        && !containsMacro(COMPRESSION_CODEC)) {
+        int min;
+        int max;
+        switch (compressionCodec.toLowerCase()) {
+          case DataFileConstants.DEFLATE_CODEC:
+            min = 1;
+            max = 9;
+            break;
+          case DataFileConstants.XZ_CODEC:
+            min = 0;
+            max = 9;
+            break;
+          case DataFileConstants.ZSTANDARD_CODEC:
+            min = 1;
+            max = 22;
+            break;
+          default:
+            throw new IllegalArgumentException(String.format(
+              "Compression level is not supported for the '%s' codec.", compressionCodec));
+        }
+        if (compressionLevel < min || compressionLevel > max) {
+          throw new IllegalArgumentException(String.format(
+            "Compression level for the '%s' codec must be between %d and %d.", compressionCodec, min, max));
+        }
+      }
+      // same bounds as DataFileWriter.setSyncInterval
+      if (syncInterval != null && !containsMacro(SYNC_INTERVAL) && (syncInterval < 32 || syncInterval > (1 << 30))) {
+        throw new IllegalArgumentException("Sync interval must be between 32 and 1073741824 bytes.");
+      }
+    }
   }
 
   private static PluginClass getPluginClass() {
     Map<String, PluginPropertyField> properties = new HashMap<>();
     properties.put("schema", new PluginPropertyField("schema", Conf.SCHEMA_DESC, "string", false, true));
-    properties.put("compressionCodec",
-                   new PluginPropertyField("compressionCodec", Conf.CODEC_DESC, "string", false, true));
+    properties.put(COMPRESSION_CODEC,
+                   new PluginPropertyField(COMPRESSION_CODEC, Conf.CODEC_DESC, "string", false, true));
+    properties.put(COMPRESSION_LEVEL,
+                   new PluginPropertyField(COMPRESSION_LEVEL, Conf.LEVEL_DESC, "int", false, true));
+    properties.put(SYNC_INTERVAL,
+                   new PluginPropertyField(SYNC_INTERVAL, Conf.SYNC_INTERVAL_DESC, "int", false, true));
     return new PluginClass(ValidatingOutputFormat.PLUGIN_TYPE, NAME, DESC, AvroOutputFormatProvider.class.getName(),
                            "conf", properties);
   }
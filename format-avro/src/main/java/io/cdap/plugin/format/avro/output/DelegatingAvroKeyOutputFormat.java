@@ -16,9 +16,8 @@
 
 package io.cdap.plugin.format.avro.output;
 
-import org.apache.avro.generic.GenericRecord;
+import io.cdap.cdap.api.data.format.StructuredRecord;
 import org.apache.avro.mapred.AvroKey;
-import org.apache.avro.mapreduce.AvroKeyOutputFormat;
 import org.apache.avro.mapreduce.AvroOutputFormatBase;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.RecordWriter;
@@ -31,10 +30,10 @@ import java.util.function.Function;
 /**
  * Output format for Avro files which uses the DelegatingAvroKeyRecordWriter to write records.
  */
-public class DelegatingAvroKeyOutputFormat extends AvroKeyOutputFormat<GenericRecord> {
+public class DelegatingAvroKeyOutputFormat extends AvroOutputFormatBase<AvroKey<StructuredRecord>, NullWritable> {
 
   @Override
-  public RecordWriter<AvroKey<GenericRecord>, NullWritable> getRecordWriter(TaskAttemptContext context) {
+  public RecordWriter<AvroKey<StructuredRecord>, NullWritable> getRecordWriter(TaskAttemptContext context) {
     Function<TaskAttemptContext, OutputStream> outputStreamSupplier = (ctx) -> {
       try {
         return getAvroFileOutputStream(ctx);
@@ -16,15 +16,10 @@
 
 package io.cdap.plugin.format.avro.output;
 
-import org.apache.avro.Schema;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
 import org.apache.avro.file.CodecFactory;
-import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.hadoop.io.AvroSerialization;
 import org.apache.avro.mapred.AvroKey;
-import org.apache.avro.mapreduce.AvroJob;
-import org.apache.avro.mapreduce.AvroKeyRecordWriter;
-import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
@@ -36,14 +31,16 @@ import java.util.Map;
 import java.util.function.Function;
 
 /**
- * Record Writer for Avro records that delegates to additional record writers based on the Schema hash.
+ * Record Writer for Avro records that delegates to additional record writers based on the record Schema.
  */
-public class DelegatingAvroKeyRecordWriter extends RecordWriter<AvroKey<GenericRecord>, NullWritable> {
-  private final Map<Integer, RecordWriter<AvroKey<GenericRecord>, NullWritable>> delegateMap;
+public class DelegatingAvroKeyRecordWriter extends RecordWriter<AvroKey<StructuredRecord>, NullWritable> {
+  private final Map<Schema, RecordWriter<AvroKey<StructuredRecord>, NullWritable>> delegateMap;
   private final TaskAttemptContext context;
   private final CodecFactory codecFactory;
   private final Function<TaskAttemptContext, OutputStream> outputStreamSupplier;
   private final int syncInterval;
+  private Schema lastSchema;
+  private RecordWriter<AvroKey<StructuredRecord>, NullWritable> lastDelegate;
 
   public DelegatingAvroKeyRecordWriter(TaskAttemptContext context,
                                        CodecFactory codecFactory,
@@ -58,32 +55,31 @@ public class DelegatingAvroKeyRecordWriter extends RecordWriter<AvroKey<GenericR
   }
 
   @Override
-  public void write(AvroKey<GenericRecord> key, NullWritable value) throws IOException, InterruptedException {
-    RecordWriter<AvroKey<GenericRecord>, NullWritable> delegate;
-    int schemaHash = key.datum().getSchema().hashCode();
-
-    if (delegateMap.containsKey(schemaHash)) {
-      delegate = delegateMap.get(schemaHash);
-    } else {
-      Configuration conf = context.getConfiguration();
-      GenericData dataModel = AvroSerialization.createDataModel(conf);
-
-      delegate = new AvroKeyRecordWriter<>(key.datum().getSchema(),
-                                           dataModel,
-                                           codecFactory,
-                                           outputStreamSupplier.apply(context),
-                                           syncInterval);
-      delegateMap.put(schemaHash, delegate);
+  public void write(AvroKey<StructuredRecord> key, NullWritable value) throws IOException, InterruptedException {
+    Schema schema = key.datum().getSchema();
+    // records mostly share the same schema instance, which avoids hashing the schema for every record
+    if (schema != lastSchema) {
+      RecordWriter<AvroKey<StructuredRecord>, NullWritable> delegate = delegateMap.get(schema);
+      if (delegate == null) {
+        org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser().parse(schema.toString());
+        delegate = new StructuredAvroKeyRecordWriter(avroSchema,
+                                                     codecFactory,
+                                                     outputStreamSupplier.apply(context),
+                                                     syncInterval);
+        delegateMap.put(schema, delegate);
+      }
+      lastSchema = schema;
+      lastDelegate = delegate;
     }
 
-    delegate.write(key, value);
+    lastDelegate.write(key, value);
   }
 
   @Override
   public void close(TaskAttemptContext context) throws IOException, InterruptedException {
     IOException ex = null;
 
-    for (RecordWriter<AvroKey<GenericRecord>, NullWritable> delegate : delegateMap.values()) {
+    for (RecordWriter<AvroKey<StructuredRecord>, NullWritable> delegate : delegateMap.values()) {
       try {
         delegate.close(context);
       } catch (IOException e) {
@@ -17,44 +17,29 @@
 package io.cdap.plugin.format.avro.output;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
-import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.api.dataset.lib.KeyValue;
-import io.cdap.plugin.format.avro.StructuredToAvroTransformer;
 import io.cdap.plugin.format.output.DelegatingOutputFormat;
-import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.mapred.AvroKey;
-import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.OutputFormat;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 
-import java.io.IOException;
 import java.util.function.Function;
 
 /**
- * Converts StructuredRecord into GenericRecord before delegating to DelegatingAvroKeyOutputFormat.
+ * Writes StructuredRecords using the schema of each record by delegating to DelegatingAvroKeyOutputFormat.
  */
 public class RuntimeSuppliedSchemaAvroOutputFormat extends
-  DelegatingOutputFormat<AvroKey<GenericRecord>, NullWritable> {
+  DelegatingOutputFormat<AvroKey<StructuredRecord>, NullWritable> {
 
   @Override
-  protected OutputFormat<AvroKey<GenericRecord>, NullWritable> createDelegate() {
+  protected OutputFormat<AvroKey<StructuredRecord>, NullWritable> createDelegate() {
     return new DelegatingAvroKeyOutputFormat();
   }
 
   @Override
-  protected Function<StructuredRecord, KeyValue<AvroKey<GenericRecord>, NullWritable>> getConversion(
-    TaskAttemptContext context) throws IOException {
-
-    Configuration hConf = context.getConfiguration();
-
-    StructuredToAvroTransformer transformer = new StructuredToAvroTransformer(null);
-    return record -> {
-      try {
-        return new KeyValue<>(new AvroKey<>(transformer.transform(record)), NullWritable.get());
-      } catch (IOException e) {
-        throw new RuntimeException("Unable to transform structured record into a generic record", e);
-      }
-    };
+  protected Function<StructuredRecord, KeyValue<AvroKey<StructuredRecord>, NullWritable>> getConversion(
+    TaskAttemptContext context) {
+    return StructuredAvroOutputFormat.wrap();
   }
 }
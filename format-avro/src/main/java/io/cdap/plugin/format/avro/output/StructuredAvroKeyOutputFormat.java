@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.avro.output;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import org.apache.avro.Schema;
+import org.apache.avro.mapred.AvroKey;
+import org.apache.avro.mapreduce.AvroOutputFormatBase;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import java.io.IOException;
+
+/**
+ * Output format for Avro files with a schema known up front, which encodes StructuredRecords directly.
+ */
+public class StructuredAvroKeyOutputFormat extends AvroOutputFormatBase<AvroKey<StructuredRecord>, NullWritable> {
+
+  @Override
+  public RecordWriter<AvroKey<StructuredRecord>, NullWritable> getRecordWriter(TaskAttemptContext context)
+    throws IOException {
+    String schema = context.getConfiguration().get(AvroOutputFormatProvider.SCHEMA_KEY);
+    if (schema == null) {
+      throw new IOException("Avro output schema is not set in the configuration.");
+    }
+    Schema writerSchema = new Schema.Parser().parse(schema);
+    return new StructuredAvroKeyRecordWriter(writerSchema, getCompressionCodec(context),
+                                             getAvroFileOutputStream(context), getSyncInterval(context));
+  }
+}
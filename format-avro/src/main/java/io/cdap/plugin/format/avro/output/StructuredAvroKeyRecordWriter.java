@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.avro.output;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.plugin.format.avro.StructuredRecordDatumWriter;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.mapred.AvroKey;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes StructuredRecords to an Avro container file using a {@link StructuredRecordDatumWriter}.
+ */
+public class StructuredAvroKeyRecordWriter extends RecordWriter<AvroKey<StructuredRecord>, NullWritable> {
+  private final DataFileWriter<StructuredRecord> fileWriter;
+
+  public StructuredAvroKeyRecordWriter(Schema writerSchema, CodecFactory codecFactory,
+                                       OutputStream outputStream, int syncInterval) throws IOException {
+    this.fileWriter = new DataFileWriter<>(new StructuredRecordDatumWriter(writerSchema));
+    fileWriter.setCodec(codecFactory);
+    fileWriter.setSyncInterval(syncInterval);
+    fileWriter.create(writerSchema, outputStream);
+  }
+
+  @Override
+  public void write(AvroKey<StructuredRecord> key, NullWritable value) throws IOException {
+    fileWriter.append(key.datum());
+  }
+
+  @Override
+  public void close(TaskAttemptContext context) throws IOException {
+    fileWriter.close();
+  }
+}
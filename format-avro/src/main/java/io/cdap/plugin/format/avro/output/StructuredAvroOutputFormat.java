@@ -17,44 +17,42 @@
 package io.cdap.plugin.format.avro.output;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
-import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.api.dataset.lib.KeyValue;
-import io.cdap.plugin.format.avro.StructuredToAvroTransformer;
 import io.cdap.plugin.format.output.DelegatingOutputFormat;
-import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.mapred.AvroKey;
-import org.apache.avro.mapreduce.AvroKeyOutputFormat;
-import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.OutputFormat;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 
-import java.io.IOException;
 import java.util.function.Function;
 
 /**
- * Converts StructuredRecord into GenericRecord before delegating to AvroKeyOutputFormat.
+ * Writes StructuredRecords with the configured schema by delegating to StructuredAvroKeyOutputFormat,
+ * which encodes them directly without going through GenericRecord.
  */
-public class StructuredAvroOutputFormat extends DelegatingOutputFormat<AvroKey<GenericRecord>, NullWritable> {
+public class StructuredAvroOutputFormat extends DelegatingOutputFormat<AvroKey<StructuredRecord>, NullWritable> {
 
   @Override
-  protected OutputFormat<AvroKey<GenericRecord>, NullWritable> createDelegate() {
-    return new AvroKeyOutputFormat<>();
+  protected OutputFormat<AvroKey<StructuredRecord>, NullWritable> createDelegate() {
+    return new StructuredAvroKeyOutputFormat();
   }
 
   @Override
-  protected Function<StructuredRecord, KeyValue<AvroKey<GenericRecord>, NullWritable>> getConversion(
-    TaskAttemptContext context) throws IOException {
+  protected Function<StructuredRecord, KeyValue<AvroKey<StructuredRecord>, NullWritable>> getConversion(
+    TaskAttemptContext context) {
+    return wrap();
+  }
 
-    Configuration hConf = context.getConfiguration();
-    Schema schema = Schema.parseJson(hConf.get(AvroOutputFormatProvider.SCHEMA_KEY));
-    StructuredToAvroTransformer transformer = new StructuredToAvroTransformer(schema);
+  /**
+   * Returns a conversion that wraps each record in the same AvroKey.
+   * This is safe because the delegate writer encodes the record before the next one is converted.
+   */
+  static Function<StructuredRecord, KeyValue<AvroKey<StructuredRecord>, NullWritable>> wrap() {
+    AvroKey<StructuredRecord> key = new AvroKey<>();
+    KeyValue<AvroKey<StructuredRecord>, NullWritable> keyValue = new KeyValue<>(key, NullWritable.get());
     return record -> {
-      try {
-        return new KeyValue<>(new AvroKey<>(transformer.transform(record)), NullWritable.get());
-      } catch (IOException e) {
-        throw new RuntimeException("Unable to transform structured record into a generic record", e);
-      }
+      key.datum(record);
+      return keyValue;
     };
   }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.avro;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import org.apache.avro.JsonProperties;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Tests for {@link AvroReaderSchema}.
+ */
+public class AvroReaderSchemaTest {
+
+  @Test
+  public void testConvert() {
+    Schema inner = Schema.recordOf("inner", Schema.Field.of("x", Schema.of(Schema.Type.INT)));
+    Schema schema = Schema.recordOf(
+      "rec",
+      Schema.Field.of("a", inner),
+      Schema.Field.of("b", Schema.nullableOf(inner)),
+      Schema.Field.of("c", Schema.enumWith("RED", "GREEN")),
+      Schema.Field.of("e", Schema.enumWith("A", "B")),
+      Schema.Field.of("d", Schema.of(Schema.LogicalType.DATE)),
+      Schema.Field.of("path", Schema.of(Schema.Type.STRING)));
+    org.apache.avro.Schema avroSchema = AvroReaderSchema.of(schema, "path");
+
+    Assert.assertNotNull(avroSchema);
+    Assert.assertNull(avroSchema.getField("path"));
+    Assert.assertSame(avroSchema.getField("a").schema(), avroSchema.getField("b").schema().getTypes().get(1));
+    Assert.assertEquals(JsonProperties.NULL_VALUE, avroSchema.getField("b").defaultVal());
+    Assert.assertEquals(Arrays.asList("RED", "GREEN"), avroSchema.getField("c").schema().getEnumSymbols());
+    Assert.assertNotEquals(avroSchema.getField("c").schema().getName(), avroSchema.getField("e").schema().getName());
+    Assert.assertEquals("date", avroSchema.getField("d").schema().getProp("logicalType"));
+    // the schema is valid Avro
+    Assert.assertEquals(avroSchema, new org.apache.avro.Schema.Parser().parse(avroSchema.toString()));
+  }
+
+  @Test
+  public void testEnumNamesOfFile() {
+    Schema schema = Schema.recordOf("rec", Schema.Field.of("c", Schema.nullableOf(Schema.enumWith("RED", "GREEN"))));
+    org.apache.avro.Schema readerSchema = AvroReaderSchema.of(schema, null);
+    org.apache.avro.Schema writerSchema = new org.apache.avro.Schema.Parser().parse(
+      "{\"type\":\"record\",\"name\":\"Rec\",\"namespace\":\"com.example\",\"fields\":[{\"name\":\"c\"," +
+        "\"type\":[\"null\",{\"type\":\"enum\",\"name\":\"Color\",\"symbols\":[\"RED\",\"GREEN\"]}]}]}");
+
+    org.apache.avro.Schema fileSchema = AvroReaderSchema.withEnumNames(readerSchema, writerSchema);
+    Assert.assertEquals("com.example.Color", fileSchema.getField("c").schema().getTypes().get(1).getFullName());
+    // schemas without enums are not copied
+    Schema noEnums = Schema.recordOf("rec", Schema.Field.of("i", Schema.of(Schema.Type.INT)));
+    org.apache.avro.Schema noEnumsSchema = AvroReaderSchema.of(noEnums, null);
+    Assert.assertSame(noEnumsSchema, AvroReaderSchema.withEnumNames(noEnumsSchema, writerSchema));
+  }
+
+  @Test
+  public void testUnsupportedSchema() {
+    // maps with keys other than strings can not be read with a reader schema, so files are read with their own
+    Schema schema = Schema.recordOf("rec", Schema.Field.of("m", Schema.mapOf(Schema.of(Schema.Type.INT),
+                                                                             Schema.of(Schema.Type.STRING))));
+    Assert.assertNull(AvroReaderSchema.of(schema, null));
+  }
+}
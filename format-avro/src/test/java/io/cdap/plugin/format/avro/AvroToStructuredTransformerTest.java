@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.avro;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.avro.util.Utf8;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AvroToStructuredTransformer}.
+ */
+public class AvroToStructuredTransformerTest {
+
+  @Test
+  public void testFieldsResolvedByPosition() throws Exception {
+    // record fields are in a different order than the output schema and one output field is missing
+    org.apache.avro.Schema avroSchema = convertSchema(
+      Schema.recordOf("record",
+                      Schema.Field.of("name", Schema.of(Schema.Type.STRING)),
+                      Schema.Field.of("score", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+                      Schema.Field.of("id", Schema.of(Schema.Type.LONG))));
+    Schema schema = Schema.recordOf("record",
+                                    Schema.Field.of("id", Schema.of(Schema.Type.LONG)),
+                                    Schema.Field.of("name", Schema.of(Schema.Type.STRING)),
+                                    Schema.Field.of("score", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+                                    Schema.Field.of("extra", Schema.nullableOf(Schema.of(Schema.Type.INT))));
+
+    AvroToStructuredTransformer transformer = new AvroToStructuredTransformer();
+    for (long i = 0; i < 3; i++) {
+      GenericRecord record = new GenericRecordBuilder(avroSchema)
+        .set("name", new Utf8("name" + i))
+        .set("score", i == 1 ? null : (double) i)
+        .set("id", i)
+        .build();
+      StructuredRecord result = transformer.transform(record, schema);
+      Assert.assertEquals(i, result.<Long>get("id").longValue());
+      Assert.assertEquals("name" + i, result.get("name"));
+      Assert.assertEquals(i == 1 ? null : (double) i, result.<Double>get("score"));
+      Assert.assertNull(result.get("extra"));
+    }
+  }
+
+  @Test
+  public void testSkipField() throws Exception {
+    Schema schema = Schema.recordOf("record",
+                                    Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                    Schema.Field.of("path", Schema.of(Schema.Type.STRING)));
+    org.apache.avro.Schema avroSchema = convertSchema(
+      Schema.recordOf("record", Schema.Field.of("id", Schema.of(Schema.Type.INT))));
+    GenericRecord record = new GenericRecordBuilder(avroSchema).set("id", 5).build();
+
+    AvroToStructuredTransformer transformer = new AvroToStructuredTransformer();
+    StructuredRecord result = transformer.transform(record, schema, "path").set("path", "/a/b").build();
+    Assert.assertEquals(5, result.<Integer>get("id").intValue());
+    Assert.assertEquals("/a/b", result.get("path"));
+
+    // the same output schema without a skipped field must not reuse the plan above
+    try {
+      transformer.transform(record, schema);
+      Assert.fail("Conversion should fail for the missing non-nullable field.");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testDifferentRecordSchemas() throws Exception {
+    Schema schema = Schema.recordOf("record",
+                                    Schema.Field.of("a", Schema.nullableOf(Schema.of(Schema.Type.INT))),
+                                    Schema.Field.of("b", Schema.nullableOf(Schema.of(Schema.Type.INT))));
+    org.apache.avro.Schema schemaAB = convertSchema(schema);
+    org.apache.avro.Schema schemaBA = convertSchema(
+      Schema.recordOf("record",
+                      Schema.Field.of("b", Schema.nullableOf(Schema.of(Schema.Type.INT))),
+                      Schema.Field.of("a", Schema.nullableOf(Schema.of(Schema.Type.INT)))));
+
+    AvroToStructuredTransformer transformer = new AvroToStructuredTransformer();
+    for (int i = 0; i < 2; i++) {
+      StructuredRecord ab = transformer.transform(
+        new GenericRecordBuilder(schemaAB).set("a", 1).set("b", 2).build(), schema);
+      StructuredRecord ba = transformer.transform(
+        new GenericRecordBuilder(schemaBA).set("a", 1).set("b", 2).build(), schema);
+      Assert.assertEquals(ab, ba);
+      Assert.assertEquals(1, ab.<Integer>get("a").intValue());
+      Assert.assertEquals(2, ab.<Integer>get("b").intValue());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidDatetime() throws Exception {
+    Schema schema = Schema.recordOf("record", Schema.Field.of("dt", Schema.of(Schema.LogicalType.DATETIME)));
+    GenericRecord record = new GenericRecordBuilder(convertSchema(schema)).set("dt", "2020-13-45").build();
+    new AvroToStructuredTransformer().transform(record, schema);
+  }
+
+  private static org.apache.avro.Schema convertSchema(Schema cdapSchema) {
+    return new org.apache.avro.Schema.Parser().parse(cdapSchema.toString());
+  }
+}
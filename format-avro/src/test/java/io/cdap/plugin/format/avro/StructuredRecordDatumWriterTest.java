@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.avro;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.format.avro.output.StructuredAvroKeyRecordWriter;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.mapred.AvroKey;
+import org.apache.hadoop.io.NullWritable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for {@link StructuredRecordDatumWriter}.
+ */
+public class StructuredRecordDatumWriterTest {
+  private static final Schema INNER_SCHEMA = Schema.recordOf(
+    "inner",
+    Schema.Field.of("x", Schema.of(Schema.Type.INT)),
+    Schema.Field.of("y", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+  private static final Schema SCHEMA = Schema.recordOf(
+    "record",
+    Schema.Field.of("int", Schema.of(Schema.Type.INT)),
+    Schema.Field.of("long", Schema.nullableOf(Schema.of(Schema.Type.LONG))),
+    Schema.Field.of("float", Schema.of(Schema.Type.FLOAT)),
+    Schema.Field.of("double", Schema.of(Schema.Type.DOUBLE)),
+    Schema.Field.of("boolean", Schema.of(Schema.Type.BOOLEAN)),
+    Schema.Field.of("string", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("bytes", Schema.of(Schema.Type.BYTES)),
+    Schema.Field.of("date", Schema.nullableOf(Schema.of(Schema.LogicalType.DATE))),
+    Schema.Field.of("decimal", Schema.nullableOf(Schema.decimalOf(10, 2))),
+    Schema.Field.of("array", Schema.arrayOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("map", Schema.mapOf(Schema.of(Schema.Type.STRING), Schema.of(Schema.Type.LONG))),
+    Schema.Field.of("inner", Schema.nullableOf(INNER_SCHEMA)),
+    Schema.Field.of("inners", Schema.arrayOf(INNER_SCHEMA)),
+    Schema.Field.of("union", Schema.unionOf(Schema.of(Schema.Type.NULL), Schema.of(Schema.Type.INT),
+                                            Schema.of(Schema.Type.STRING))));
+
+  @Test
+  public void testSameEncodingAsGenericRecords() throws Exception {
+    org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser().parse(SCHEMA.toString());
+    StructuredToAvroTransformer transformer = new StructuredToAvroTransformer(SCHEMA);
+    GenericDatumWriter<GenericRecord> genericWriter = new GenericDatumWriter<>(avroSchema);
+    StructuredRecordDatumWriter writer = new StructuredRecordDatumWriter(avroSchema);
+
+    for (StructuredRecord record : createRecords()) {
+      ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(expected, null);
+      genericWriter.write(transformer.transform(record), encoder);
+
+      ByteArrayOutputStream actual = new ByteArrayOutputStream();
+      encoder = EncoderFactory.get().directBinaryEncoder(actual, null);
+      writer.write(record, encoder);
+
+      Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+  }
+
+  @Test
+  public void testRecordWriter() throws Exception {
+    org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser().parse(SCHEMA.toString());
+    List<StructuredRecord> records = createRecords();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    StructuredAvroKeyRecordWriter recordWriter =
+      new StructuredAvroKeyRecordWriter(avroSchema, CodecFactory.deflateCodec(1), out, 64);
+    AvroKey<StructuredRecord> key = new AvroKey<>();
+    for (StructuredRecord record : records) {
+      key.datum(record);
+      recordWriter.write(key, NullWritable.get());
+    }
+    recordWriter.close(null);
+
+    AvroToStructuredTransformer transformer = new AvroToStructuredTransformer();
+    List<StructuredRecord> read = new ArrayList<>();
+    try (DataFileStream<GenericRecord> stream = new DataFileStream<>(new ByteArrayInputStream(out.toByteArray()),
+                                                                     new GenericDatumReader<>())) {
+      for (GenericRecord genericRecord : stream) {
+        read.add(transformer.transform(genericRecord, SCHEMA));
+      }
+    }
+    Assert.assertEquals(records.size(), read.size());
+    for (int i = 0; i < records.size(); i++) {
+      StructuredRecord expected = records.get(i);
+      StructuredRecord actual = read.get(i);
+      Assert.assertEquals(expected.<Integer>get("int"), actual.get("int"));
+      Assert.assertEquals(expected.<Long>get("long"), actual.get("long"));
+      Assert.assertEquals(expected.<String>get("string"), actual.get("string"));
+      Assert.assertEquals(expected.getDate("date"), actual.getDate("date"));
+      Assert.assertEquals(expected.<List<String>>get("array"), actual.get("array"));
+      Assert.assertEquals(expected.<StructuredRecord>get("inner"), actual.get("inner"));
+      Assert.assertEquals(String.valueOf(expected.<Object>get("union")), String.valueOf(actual.<Object>get("union")));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullForNonNullableField() throws Exception {
+    org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser().parse(INNER_SCHEMA.toString());
+    Schema nullableSchema = Schema.recordOf(
+      "inner",
+      Schema.Field.of("x", Schema.nullableOf(Schema.of(Schema.Type.INT))),
+      Schema.Field.of("y", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    StructuredRecord record = StructuredRecord.builder(nullableSchema).set("y", "y").build();
+    new StructuredRecordDatumWriter(avroSchema)
+      .write(record, EncoderFactory.get().directBinaryEncoder(new ByteArrayOutputStream(), null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingField() throws Exception {
+    org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser().parse(INNER_SCHEMA.toString());
+    Schema schema = Schema.recordOf("inner", Schema.Field.of("x", Schema.of(Schema.Type.INT)));
+    StructuredRecord record = StructuredRecord.builder(schema).set("x", 1).build();
+    new StructuredRecordDatumWriter(avroSchema)
+      .write(record, EncoderFactory.get().directBinaryEncoder(new ByteArrayOutputStream(), null));
+  }
+
+  @Test
+  public void testUnknownEnumSymbol() throws Exception {
+    Schema schema = Schema.recordOf("enums", Schema.Field.of("e", Schema.enumWith("A", "B", "C")));
+    org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser().parse(
+      "{\"type\": \"record\", \"name\": \"enums\", \"fields\": " +
+        "[{\"name\": \"e\", \"type\": {\"type\": \"enum\", \"name\": \"e\", \"symbols\": [\"A\", \"B\"]}}]}");
+    StructuredRecordDatumWriter writer = new StructuredRecordDatumWriter(avroSchema);
+    writer.write(StructuredRecord.builder(schema).set("e", "B").build(),
+                 EncoderFactory.get().directBinaryEncoder(new ByteArrayOutputStream(), null));
+    try {
+      writer.write(StructuredRecord.builder(schema).set("e", "C").build(),
+                   EncoderFactory.get().directBinaryEncoder(new ByteArrayOutputStream(), null));
+      Assert.fail("Expected an AvroTypeException for an unknown enum symbol");
+    } catch (AvroTypeException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Not an enum: C for schema: "));
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("\"symbols\":[\"A\",\"B\"]"));
+    }
+  }
+
+  private static List<StructuredRecord> createRecords() {
+    List<StructuredRecord> records = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      StructuredRecord inner = StructuredRecord.builder(INNER_SCHEMA)
+        .set("x", i)
+        .set("y", i % 2 == 0 ? null : "y" + i)
+        .build();
+      StructuredRecord.Builder builder = StructuredRecord.builder(SCHEMA)
+        .set("int", i)
+        .set("long", i % 2 == 0 ? null : (long) i * Integer.MAX_VALUE)
+        .set("float", i / 3.0f)
+        .set("double", i / 7.0d)
+        .set("boolean", i % 3 == 0)
+        .set("string", i == 3 ? null : "string é中 " + i)
+        .set("bytes", i % 2 == 0 ? new byte[] { (byte) i, 1, 2 } : ByteBuffer.wrap(new byte[] { 3, (byte) i }))
+        .set("array", ImmutableList.of("a" + i, "b"))
+        .set("map", ImmutableMap.of("k" + i, (long) i))
+        .set("inner", i == 4 ? null : inner)
+        .set("inners", ImmutableList.of(inner, inner))
+        .set("union", i % 3 == 0 ? null : (i % 3 == 1 ? (Object) i : "u" + i));
+      if (i != 2) {
+        builder.setDate("date", LocalDate.of(2020, 1, i + 1));
+        builder.setDecimal("decimal", new BigDecimal("12.3" + i));
+      }
+      records.add(builder.build());
+    }
+    return records;
+  }
+}
@@ -149,4 +149,34 @@ public class AvroInputFormatProviderTest {
     expectedCauses.add(expectedCause);
     Assert.assertEquals(expectedCauses, actualCauses);
   }
+
+  @Test
+  public void testMergedSchemaDetection() throws IOException {
+    File dir = TMP_FOLDER.newFolder();
+    Schema oldSchema = Schema.recordOf("Avro",
+                                       Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                       Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    Schema newSchema = Schema.recordOf("Avro",
+                                       Schema.Field.of("id", Schema.of(Schema.Type.LONG)),
+                                       Schema.Field.of("score", Schema.of(Schema.Type.DOUBLE)));
+    writeFile(new File(dir, "old.avro"), oldSchema);
+    writeFile(new File(dir, "new.avro"), newSchema);
+
+    AvroInputFormatProvider formatProvider = new AvroInputFormatProvider(new AvroInputFormatProvider.Conf());
+    FormatContext formatContext = new FormatContext(new MockFailureCollector(), null);
+    Schema schema = new SchemaDetector(formatProvider).detectSchema(dir.getPath(), formatContext,
+                                                                    Collections.emptyMap());
+    Schema expected = Schema.recordOf("Avro",
+                                      Schema.Field.of("id", Schema.of(Schema.Type.LONG)),
+                                      Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                                      Schema.Field.of("score", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))));
+    Assert.assertEquals(expected, schema);
+  }
+
+  private static void writeFile(File file, Schema schema) throws IOException {
+    org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser().parse(schema.toString());
+    try (DataFileWriter<GenericRecord> dataFileWriter = new DataFileWriter<>(new GenericDatumWriter<>(avroSchema))) {
+      dataFileWriter.create(avroSchema, file);
+    }
+  }
 }
@@ -19,10 +19,12 @@ package io.cdap.plugin.format.blob.input;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Macro;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.api.plugin.PluginClass;
+import io.cdap.cdap.api.plugin.PluginPropertyField;
 import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.cdap.etl.api.validation.FormatContext;
 import io.cdap.cdap.etl.api.validation.ValidatingInputFormat;
@@ -31,10 +33,18 @@ import io.cdap.plugin.format.input.PathTrackingInputFormatProvider;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
- * Reads the entire contents of a File into a single record
+ * Reads the entire contents of a File into a single record, into a sequence of chunk records,
+ * or into a record that references the file, depending on the blob mode.
  */
 @Plugin(type = ValidatingInputFormat.PLUGIN_TYPE)
 @Name(BlobInputFormatProvider.NAME)
@@ -44,7 +54,7 @@ public class BlobInputFormatProvider extends PathTrackingInputFormatProvider<Blo
   static final String DESC = "Plugin for reading files in blob format.";
   public static final PluginClass PLUGIN_CLASS =
     new PluginClass(ValidatingInputFormat.PLUGIN_TYPE, NAME, DESC, BlobInputFormatProvider.class.getName(),
-                    "conf", PathTrackingConfig.FIELDS);
+                    "conf", BlobConfig.BLOB_FIELDS);
 
   public BlobInputFormatProvider(BlobConfig conf) {
     super(conf);
@@ -57,48 +67,59 @@ public class BlobInputFormatProvider extends PathTrackingInputFormatProvider<Blo
 
   @Override
   public void validate() {
-    if (conf.containsMacro("schema")) {
+    if (conf.containsMacro("schema") || conf.containsMacro(BlobConfig.NAME_MODE)) {
       return;
     }
 
+    BlobReadMode mode = conf.getMode();
     Schema schema = conf.getSchema();
     String pathField = conf.getPathField();
-    Schema.Field bodyField = schema.getField("body");
-    if (bodyField == null) {
-      throw new IllegalArgumentException("The schema for the 'blob' format must have a field named 'body'");
-    }
-    Schema bodySchema = bodyField.getSchema();
-    Schema.Type bodyType = bodySchema.isNullable() ? bodySchema.getNonNullable().getType() : bodySchema.getType();
-    if (bodyType != Schema.Type.BYTES) {
-      throw new IllegalArgumentException(String.format("The 'body' field must be of type 'bytes', but found '%s'",
-                                                       bodyType.name().toLowerCase()));
+    if (mode == BlobReadMode.REFERENCE) {
+      checkType(schema, BlobConfig.NAME_URI, Schema.Type.STRING, true);
+      checkType(schema, BlobConfig.NAME_LENGTH, Schema.Type.LONG, false);
+    } else {
+      checkType(schema, BlobConfig.NAME_BODY, Schema.Type.BYTES, true);
+      if (mode == BlobReadMode.CHUNKED) {
+        checkType(schema, BlobConfig.NAME_CHUNK, Schema.Type.LONG, false);
+        checkType(schema, BlobConfig.NAME_OFFSET, Schema.Type.LONG, false);
+      }
     }
 
-    // blob must contain 'body' as type 'bytes'.
-    // it can optionally contain a path field of type 'string'
-    int numExpectedFields = pathField == null ? 1 : 2;
-    int numFields = schema.getFields().size();
-    if (numFields > numExpectedFields) {
-      int numExtra = numFields - numExpectedFields;
-      if (pathField == null) {
+    Set<String> allowedFields = getAllowedFields(mode, pathField);
+    for (Schema.Field field : schema.getFields()) {
+      if (!allowedFields.contains(field.getName())) {
         throw new IllegalArgumentException(
-          String.format("The schema for the 'blob' format must only contain the 'body' field, "
-                          + "but found %d other field%s.", numFields - 1, numExtra > 1 ? "s" : ""));
-      } else {
-        throw new IllegalArgumentException(
-          String.format("The schema for the 'blob' format must only contain the 'body' field and the '%s' field, "
-                          + "but found %d other field%s.", pathField, numFields - 2, numExtra > 1 ? "s" : ""));
+          String.format("The schema for the 'blob' format in '%s' mode must only contain the %s fields, "
+                          + "but found field '%s'.", mode.name().toLowerCase(), describe(allowedFields),
+                        field.getName()));
       }
     }
   }
 
   @Override
   public void validate(FormatContext context) {
-    if (conf.containsMacro(BlobConfig.NAME_SCHEMA)) {
+    FailureCollector collector = context.getFailureCollector();
+    BlobReadMode mode = null;
+    if (!conf.containsMacro(BlobConfig.NAME_MODE)) {
+      try {
+        mode = conf.getMode();
+      } catch (IllegalArgumentException e) {
+        collector.addFailure(e.getMessage(), null).withConfigProperty(BlobConfig.NAME_MODE);
+      }
+    }
+    if (!conf.containsMacro(BlobConfig.NAME_CHUNK_SIZE)) {
+      try {
+        conf.getChunkSize();
+      } catch (IllegalArgumentException e) {
+        collector.addFailure(e.getMessage(), null).withConfigProperty(BlobConfig.NAME_CHUNK_SIZE);
+      }
+    }
+
+    // the expected fields depend on the mode, so the schema can only be checked once the mode is known
+    if (conf.containsMacro(BlobConfig.NAME_SCHEMA) || mode == null) {
       return;
     }
 
-    FailureCollector collector = context.getFailureCollector();
     Schema schema;
     try {
       schema = conf.getSchema();
@@ -109,41 +130,105 @@ public class BlobInputFormatProvider extends PathTrackingInputFormatProvider<Blo
     }
 
     String pathField = conf.getPathField();
-    Schema.Field bodyField = schema.getField(BlobConfig.NAME_BODY);
-    if (bodyField == null) {
-      collector.addFailure("The schema for the 'blob' format must have a field named 'body' of type 'bytes'.", null)
-        .withOutputSchemaField(BlobConfig.NAME_SCHEMA);
+    if (mode == BlobReadMode.REFERENCE) {
+      // reference records must contain 'uri' as type 'string' and can optionally contain 'length' as type 'long'
+      checkType(collector, schema, BlobConfig.NAME_URI, Schema.Type.STRING, true);
+      checkType(collector, schema, BlobConfig.NAME_LENGTH, Schema.Type.LONG, false);
     } else {
-      Schema bodySchema = bodyField.getSchema();
-      Schema nonNullableSchema = bodySchema.isNullable() ? bodySchema.getNonNullable() : bodySchema;
-      if (nonNullableSchema.getType() != Schema.Type.BYTES) {
-        collector.addFailure(
-          String.format("Field 'body' is of unexpected type '%s'.", nonNullableSchema.getDisplayName()),
-          "Change type to 'bytes'.").withOutputSchemaField(BlobConfig.NAME_BODY);
+      // blob must contain 'body' as type 'bytes'.
+      // chunks can optionally contain 'chunk' and 'offset' as type 'long'
+      checkType(collector, schema, BlobConfig.NAME_BODY, Schema.Type.BYTES, true);
+      if (mode == BlobReadMode.CHUNKED) {
+        checkType(collector, schema, BlobConfig.NAME_CHUNK, Schema.Type.LONG, false);
+        checkType(collector, schema, BlobConfig.NAME_OFFSET, Schema.Type.LONG, false);
       }
     }
 
-    // blob must contain 'body' as type 'bytes'.
     // it can optionally contain a path field of type 'string'
-    int numExpectedFields = pathField == null ? 1 : 2;
-    int numFields = schema.getFields().size();
-    if (numFields > numExpectedFields) {
-      for (Schema.Field field : schema.getFields()) {
-        if (pathField == null) {
-          if (!field.getName().equals(BlobConfig.NAME_BODY)) {
-            collector.addFailure("The schema for the 'blob' format must only contain the 'body' field.",
-                                 String.format("Remove additional field '%s'.", field.getName()))
-              .withOutputSchemaField(field.getName());
-          }
-        } else {
-          if (!field.getName().equals(BlobConfig.NAME_BODY) && !field.getName().equals(pathField)) {
-            collector.addFailure(
-              String.format("The schema for the 'blob' format must only contain the 'body' field and '%s' field.",
-                            pathField), String.format("Remove additional field '%s'.", field.getName()))
-              .withOutputSchemaField(field.getName());
-          }
-        }
+    Set<String> allowedFields = getAllowedFields(mode, pathField);
+    for (Schema.Field field : schema.getFields()) {
+      if (!allowedFields.contains(field.getName())) {
+        collector.addFailure(
+          String.format("The schema for the 'blob' format in '%s' mode must only contain the %s fields.",
+                        mode.name().toLowerCase(), describe(allowedFields)),
+          String.format("Remove additional field '%s'.", field.getName()))
+          .withOutputSchemaField(field.getName());
+      }
+    }
+  }
+
+  @Override
+  protected void addFormatProperties(Map<String, String> properties) {
+    super.addFormatProperties(properties);
+    if (!conf.containsMacro(BlobConfig.NAME_MODE)) {
+      properties.put(PathTrackingBlobInputFormat.MODE, conf.getMode().name());
+    }
+    if (!conf.containsMacro(BlobConfig.NAME_CHUNK_SIZE)) {
+      properties.put(PathTrackingBlobInputFormat.CHUNK_SIZE, String.valueOf(conf.getChunkSize()));
+    }
+  }
+
+  private static Set<String> getAllowedFields(BlobReadMode mode, @Nullable String pathField) {
+    Set<String> fields = new LinkedHashSet<>();
+    switch (mode) {
+      case CHUNKED:
+        fields.add(BlobConfig.NAME_BODY);
+        fields.add(BlobConfig.NAME_CHUNK);
+        fields.add(BlobConfig.NAME_OFFSET);
+        break;
+      case REFERENCE:
+        fields.add(BlobConfig.NAME_URI);
+        fields.add(BlobConfig.NAME_LENGTH);
+        break;
+      default:
+        fields.add(BlobConfig.NAME_BODY);
+    }
+    if (pathField != null) {
+      fields.add(pathField);
+    }
+    return fields;
+  }
+
+  private static String describe(Set<String> fields) {
+    return fields.stream().map(name -> "'" + name + "'").collect(Collectors.joining(", "));
+  }
+
+  private static void checkType(Schema schema, String name, Schema.Type expected, boolean required) {
+    Schema.Field field = schema.getField(name);
+    if (field == null) {
+      if (required) {
+        throw new IllegalArgumentException(
+          String.format("The schema for the 'blob' format must have a field named '%s'", name));
+      }
+      return;
+    }
+    Schema fieldSchema = field.getSchema();
+    Schema.Type type = fieldSchema.isNullable() ? fieldSchema.getNonNullable().getType() : fieldSchema.getType();
+    if (type != expected) {
+      throw new IllegalArgumentException(String.format("The '%s' field must be of type '%s', but found '%s'",
+                                                       name, expected.name().toLowerCase(),
+                                                       type.name().toLowerCase()));
+    }
+  }
+
+  private static void checkType(FailureCollector collector, Schema schema, String name, Schema.Type expected,
+                                boolean required) {
+    Schema.Field field = schema.getField(name);
+    if (field == null) {
+      if (required) {
+        collector.addFailure(
+          String.format("The schema for the 'blob' format must have a field named '%s' of type '%s'.",
+                        name, expected.name().toLowerCase()), null)
+          .withOutputSchemaField(BlobConfig.NAME_SCHEMA);
       }
+      return;
+    }
+    Schema fieldSchema = field.getSchema();
+    Schema nonNullableSchema = fieldSchema.isNullable() ? fieldSchema.getNonNullable() : fieldSchema;
+    if (nonNullableSchema.getType() != expected) {
+      collector.addFailure(
+        String.format("Field '%s' is of unexpected type '%s'.", name, nonNullableSchema.getDisplayName()),
+        String.format("Change type to '%s'.", expected.name().toLowerCase())).withOutputSchemaField(name);
     }
   }
 
@@ -151,8 +236,40 @@ public class BlobInputFormatProvider extends PathTrackingInputFormatProvider<Blo
    * Config for blob format. Overrides getSchema method to return the default schema if it is not provided.
    */
   public static class BlobConfig extends PathTrackingConfig {
+    public static final Map<String, PluginPropertyField> BLOB_FIELDS;
     static final String NAME_SCHEMA = "schema";
     static final String NAME_BODY = "body";
+    static final String NAME_CHUNK = "chunk";
+    static final String NAME_OFFSET = "offset";
+    static final String NAME_URI = "uri";
+    static final String NAME_LENGTH = "length";
+    static final String NAME_MODE = "blobMode";
+    static final String NAME_CHUNK_SIZE = "chunkSize";
+
+    private static final String MODE_DESC = "How each file is turned into records. " +
+      "'whole' reads the entire file into a single record and only supports files smaller than 2GB. " +
+      "'chunked' reads the file as a sequence of records that each contain at most 'chunkSize' bytes. " +
+      "'reference' emits a single record with the uri and length of the file without reading it. " +
+      "Defaults to 'whole'.";
+    private static final String CHUNK_SIZE_DESC = "Maximum number of bytes in each record when the blob mode " +
+      "is 'chunked'. Defaults to 8388608 (8MB).";
+
+    static {
+      Map<String, PluginPropertyField> fields = new HashMap<>(FIELDS);
+      fields.put(NAME_MODE, new PluginPropertyField(NAME_MODE, MODE_DESC, "string", false, true));
+      fields.put(NAME_CHUNK_SIZE, new PluginPropertyField(NAME_CHUNK_SIZE, CHUNK_SIZE_DESC, "int", false, true));
+      BLOB_FIELDS = Collections.unmodifiableMap(fields);
+    }
+
+    @Macro
+    @Nullable
+    @Description(MODE_DESC)
+    private String blobMode;
+
+    @Macro
+    @Nullable
+    @Description(CHUNK_SIZE_DESC)
+    private Integer chunkSize;
 
     @VisibleForTesting
     public BlobConfig(String pathField) {
@@ -163,6 +280,28 @@ public class BlobInputFormatProvider extends PathTrackingInputFormatProvider<Blo
       super();
     }
 
+    @VisibleForTesting
+    public BlobConfig(@Nullable String pathField, @Nullable String blobMode, @Nullable Integer chunkSize) {
+      super(pathField);
+      this.blobMode = blobMode;
+      this.chunkSize = chunkSize;
+    }
+
+    public BlobReadMode getMode() {
+      return BlobReadMode.fromString(blobMode);
+    }
+
+    public int getChunkSize() {
+      if (chunkSize == null) {
+        return PathTrackingBlobInputFormat.DEFAULT_CHUNK_SIZE;
+      }
+      if (chunkSize <= 0) {
+        throw new IllegalArgumentException(
+          String.format("Invalid chunk size %d. It must be a positive number of bytes.", chunkSize));
+      }
+      return chunkSize;
+    }
+
     /**
      * Return the configured schema, or the default schema if none was given. Should never be called if the
      * schema contains a macro
@@ -184,7 +323,17 @@ public class BlobInputFormatProvider extends PathTrackingInputFormatProvider<Blo
 
     private Schema getDefaultSchema() {
       List<Schema.Field> fields = new ArrayList<>();
-      fields.add(Schema.Field.of(NAME_BODY, Schema.of(Schema.Type.BYTES)));
+      BlobReadMode mode = containsMacro(NAME_MODE) ? BlobReadMode.WHOLE : getMode();
+      if (mode == BlobReadMode.REFERENCE) {
+        fields.add(Schema.Field.of(NAME_URI, Schema.of(Schema.Type.STRING)));
+        fields.add(Schema.Field.of(NAME_LENGTH, Schema.of(Schema.Type.LONG)));
+      } else {
+        fields.add(Schema.Field.of(NAME_BODY, Schema.of(Schema.Type.BYTES)));
+        if (mode == BlobReadMode.CHUNKED) {
+          fields.add(Schema.Field.of(NAME_CHUNK, Schema.of(Schema.Type.LONG)));
+          fields.add(Schema.Field.of(NAME_OFFSET, Schema.of(Schema.Type.LONG)));
+        }
+      }
       if (pathField != null && !pathField.isEmpty()) {
         fields.add(Schema.Field.of(pathField, Schema.of(Schema.Type.STRING)));
       }
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.blob.input;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * How the blob format turns a file into records.
+ */
+public enum BlobReadMode {
+  /**
+   * The entire file is read into a single record. Files must be smaller than 2GB.
+   */
+  WHOLE,
+  /**
+   * The file is read as a sequence of records, each containing at most the configured chunk size in bytes.
+   */
+  CHUNKED,
+  /**
+   * A single record describing the file is emitted without reading its contents.
+   */
+  REFERENCE;
+
+  /**
+   * Get the mode for the specified string. Null or empty values map to {@link #WHOLE}.
+   *
+   * @param mode the name of the mode, case insensitive
+   * @return the mode
+   * @throws IllegalArgumentException if the mode is not valid
+   */
+  public static BlobReadMode fromString(@Nullable String mode) {
+    if (mode == null || mode.isEmpty()) {
+      return WHOLE;
+    }
+    for (BlobReadMode value : values()) {
+      if (value.name().equalsIgnoreCase(mode)) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException(
+      String.format("Invalid blob mode '%s'. Must be one of %s.", mode,
+                    Arrays.stream(values()).map(v -> v.name().toLowerCase()).collect(Collectors.joining(", "))));
+  }
+}
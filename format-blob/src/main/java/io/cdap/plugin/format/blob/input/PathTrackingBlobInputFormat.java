@@ -21,7 +21,9 @@ import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.plugin.common.batch.JobUtils;
 import io.cdap.plugin.format.input.PathTrackingInputFormat;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
@@ -36,9 +38,13 @@ import java.util.List;
 import javax.annotation.Nullable;
 
 /**
- * Blob input format
+ * Blob input format. Depending on the configured {@link BlobReadMode}, each file is read into a single record,
+ * into a sequence of bounded size chunk records, or into a single record that references the file.
  */
 public class PathTrackingBlobInputFormat extends PathTrackingInputFormat {
+  static final String MODE = "blob.mode";
+  static final String CHUNK_SIZE = "blob.chunk.size";
+  static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
 
   @Override
   public List<InputSplit> getSplits(JobContext job) throws IOException {
@@ -48,8 +54,8 @@ public class PathTrackingBlobInputFormat extends PathTrackingInputFormat {
 
   @Override
   protected boolean isSplitable(JobContext context, Path filename) {
-    // Blobs should not be splitable.
-    return false;
+    // Whole blobs should not be splitable. Chunks are assigned to the split that contains their start offset.
+    return getMode(context.getConfiguration()) == BlobReadMode.CHUNKED;
   }
 
   @Override
@@ -57,8 +63,18 @@ public class PathTrackingBlobInputFormat extends PathTrackingInputFormat {
                                                                                     TaskAttemptContext context,
                                                                                     @Nullable String pathField,
                                                                                     @Nullable Schema schema) {
+    Configuration hConf = context.getConfiguration();
+    BlobReadMode mode = getMode(hConf);
+    if (mode == BlobReadMode.CHUNKED) {
+      return new ChunkRecordReader(split, schema, hConf.getInt(CHUNK_SIZE, DEFAULT_CHUNK_SIZE));
+    }
+    if (mode == BlobReadMode.REFERENCE) {
+      return new ReferenceRecordReader(split, schema);
+    }
+
     if (split.getLength() > Integer.MAX_VALUE) {
-      throw new IllegalArgumentException("Blob format cannot be used with files larger than 2GB");
+      throw new IllegalArgumentException("Blob format cannot be used with files larger than 2GB. "
+                                           + "Use the 'chunked' or 'reference' blob mode to read larger files.");
     }
     return new RecordReader<NullWritable, StructuredRecord.Builder>() {
       boolean hasNext;
@@ -112,4 +128,162 @@ public class PathTrackingBlobInputFormat extends PathTrackingInputFormat {
     };
 
   }
+
+  private static BlobReadMode getMode(Configuration hConf) {
+    return BlobReadMode.fromString(hConf.get(MODE));
+  }
+
+  /**
+   * Reads the chunks that start within a split. Every chunk except the last one of a file contains exactly
+   * chunkSize bytes, so memory used per record is bounded regardless of the size of the file.
+   */
+  private static class ChunkRecordReader extends RecordReader<NullWritable, StructuredRecord.Builder> {
+    private final FileSplit split;
+    private final Schema schema;
+    private final int chunkSize;
+    private final boolean hasChunkField;
+    private final boolean hasOffsetField;
+    private FSDataInputStream input;
+    private long fileLength;
+    private long end;
+    private long chunkIndex;
+    private long offset;
+    private byte[] val;
+
+    ChunkRecordReader(FileSplit split, Schema schema, int chunkSize) {
+      if (chunkSize <= 0) {
+        throw new IllegalArgumentException(String.format("Invalid chunk size %d. It must be positive.", chunkSize));
+      }
+      this.split = split;
+      this.schema = schema;
+      this.chunkSize = chunkSize;
+      this.hasChunkField = schema.getField(BlobInputFormatProvider.BlobConfig.NAME_CHUNK) != null;
+      this.hasOffsetField = schema.getField(BlobInputFormatProvider.BlobConfig.NAME_OFFSET) != null;
+    }
+
+    @Override
+    public void initialize(InputSplit inputSplit, TaskAttemptContext context) throws IOException {
+      Path path = split.getPath();
+      FileSystem fs = path.getFileSystem(context.getConfiguration());
+      fileLength = fs.getFileStatus(path).getLen();
+      end = Math.min(split.getStart() + split.getLength(), fileLength);
+      // first chunk that starts at or after the beginning of the split
+      chunkIndex = (split.getStart() + chunkSize - 1) / chunkSize;
+      offset = chunkIndex * chunkSize;
+      if (offset < end) {
+        input = fs.open(path);
+        input.seek(offset);
+      }
+      // the index is incremented before each record is read
+      chunkIndex--;
+    }
+
+    @Override
+    public boolean nextKeyValue() throws IOException {
+      if (input == null) {
+        return false;
+      }
+      if (val != null) {
+        offset += val.length;
+      }
+      if (offset >= end) {
+        val = null;
+        return false;
+      }
+      chunkIndex++;
+      val = new byte[(int) Math.min(chunkSize, fileLength - offset)];
+      input.readFully(val);
+      return true;
+    }
+
+    @Override
+    public NullWritable getCurrentKey() {
+      return NullWritable.get();
+    }
+
+    @Override
+    public StructuredRecord.Builder getCurrentValue() {
+      StructuredRecord.Builder builder = StructuredRecord.builder(schema)
+        .set(BlobInputFormatProvider.BlobConfig.NAME_BODY, val);
+      if (hasChunkField) {
+        builder.set(BlobInputFormatProvider.BlobConfig.NAME_CHUNK, chunkIndex);
+      }
+      if (hasOffsetField) {
+        builder.set(BlobInputFormatProvider.BlobConfig.NAME_OFFSET, offset);
+      }
+      return builder;
+    }
+
+    @Override
+    public float getProgress() {
+      long start = split.getStart();
+      if (end <= start) {
+        return 1.0f;
+      }
+      return Math.min(1.0f, (offset - start) / (float) (end - start));
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (input != null) {
+        input.close();
+      }
+    }
+  }
+
+  /**
+   * Emits a single record that references the file, without opening it.
+   */
+  private static class ReferenceRecordReader extends RecordReader<NullWritable, StructuredRecord.Builder> {
+    private final FileSplit split;
+    private final Schema schema;
+    private FileStatus status;
+    private boolean hasNext;
+
+    ReferenceRecordReader(FileSplit split, Schema schema) {
+      this.split = split;
+      this.schema = schema;
+    }
+
+    @Override
+    public void initialize(InputSplit inputSplit, TaskAttemptContext context) throws IOException {
+      Path path = split.getPath();
+      status = path.getFileSystem(context.getConfiguration()).getFileStatus(path);
+      hasNext = true;
+    }
+
+    @Override
+    public boolean nextKeyValue() {
+      boolean result = hasNext;
+      hasNext = false;
+      return result;
+    }
+
+    @Override
+    public NullWritable getCurrentKey() {
+      return NullWritable.get();
+    }
+
+    @Override
+    public StructuredRecord.Builder getCurrentValue() {
+      StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+      if (schema.getField(BlobInputFormatProvider.BlobConfig.NAME_URI) != null) {
+        builder.set(BlobInputFormatProvider.BlobConfig.NAME_URI, status.getPath().toUri().toString());
+      }
+      if (schema.getField(BlobInputFormatProvider.BlobConfig.NAME_LENGTH) != null) {
+        builder.set(BlobInputFormatProvider.BlobConfig.NAME_LENGTH, status.getLen());
+      }
+      return builder;
+    }
+
+    @Override
+    public float getProgress() {
+      return hasNext ? 0.0f : 1.0f;
+    }
+
+    @Override
+    public void close() {
+      // no-op
+    }
+  }
 }
@@ -55,4 +55,28 @@ public class BlobInputFormatProviderTest {
                                        Schema.Field.of("body", Schema.of(Schema.Type.BYTES)));
     Assert.assertEquals(expected, providerSchema);
   }
+
+  @Test
+  public void testChunkedModeSchema() {
+    BlobInputFormatProvider.BlobConfig blobConfig =
+      new BlobInputFormatProvider.BlobConfig("pathField", "chunked", 1024);
+    FormatContext formatContext = new FormatContext(new MockFailureCollector(), blobConfig.getSchema());
+    BlobInputFormatProvider provider = new BlobInputFormatProvider(blobConfig);
+    provider.validate(formatContext);
+    Assert.assertTrue(formatContext.getFailureCollector().getValidationFailures().isEmpty());
+    Schema expected = Schema.recordOf("blob",
+                                      Schema.Field.of("body", Schema.of(Schema.Type.BYTES)),
+                                      Schema.Field.of("chunk", Schema.of(Schema.Type.LONG)),
+                                      Schema.Field.of("offset", Schema.of(Schema.Type.LONG)),
+                                      Schema.Field.of("pathField", Schema.of(Schema.Type.STRING)));
+    Assert.assertEquals(expected, provider.getSchema(formatContext));
+  }
+
+  @Test
+  public void testInvalidModeAndChunkSize() {
+    BlobInputFormatProvider.BlobConfig blobConfig = new BlobInputFormatProvider.BlobConfig(null, "streaming", 0);
+    FormatContext formatContext = new FormatContext(new MockFailureCollector(), null);
+    new BlobInputFormatProvider(blobConfig).validate(formatContext);
+    Assert.assertEquals(2, formatContext.getFailureCollector().getValidationFailures().size());
+  }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.blob.input;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link PathTrackingBlobInputFormat}.
+ */
+public class PathTrackingBlobInputFormatTest {
+  @ClassRule
+  public static final TemporaryFolder TMP_FOLDER = new TemporaryFolder();
+
+  @Test
+  public void testChunkedMode() throws Exception {
+    byte[] contents = new byte[1000];
+    for (int i = 0; i < contents.length; i++) {
+      contents[i] = (byte) i;
+    }
+    File file = TMP_FOLDER.newFile("chunked.bin");
+    Files.write(file.toPath(), contents);
+
+    BlobInputFormatProvider.BlobConfig config = new BlobInputFormatProvider.BlobConfig("path", "chunked", 64);
+    // splits that are not aligned with the chunk size must neither drop nor duplicate chunks
+    List<StructuredRecord> records = read(file, new BlobInputFormatProvider(config), 150);
+
+    Assert.assertEquals(16, records.size());
+    ByteArrayOutputStream combined = new ByteArrayOutputStream();
+    for (int i = 0; i < records.size(); i++) {
+      StructuredRecord record = records.get(i);
+      Assert.assertEquals(i, (long) record.<Long>get("chunk"));
+      Assert.assertEquals(i * 64L, (long) record.<Long>get("offset"));
+      Assert.assertEquals(file.toURI().getPath(), URI.create(record.get("path")).getPath());
+      byte[] body = getBytes(record.get("body"));
+      Assert.assertEquals(i == 15 ? 40 : 64, body.length);
+      combined.write(body);
+    }
+    Assert.assertArrayEquals(contents, combined.toByteArray());
+  }
+
+  @Test
+  public void testReferenceMode() throws Exception {
+    File file = TMP_FOLDER.newFile("reference.bin");
+    Files.write(file.toPath(), new byte[123]);
+
+    BlobInputFormatProvider.BlobConfig config = new BlobInputFormatProvider.BlobConfig(null, "reference", null);
+    List<StructuredRecord> records = read(file, new BlobInputFormatProvider(config), Long.MAX_VALUE);
+
+    Assert.assertEquals(1, records.size());
+    StructuredRecord record = records.get(0);
+    Assert.assertEquals(123L, (long) record.<Long>get("length"));
+    Assert.assertEquals(file.toURI().getPath(), URI.create(record.get("uri")).getPath());
+  }
+
+  @Test
+  public void testWholeMode() throws Exception {
+    File file = TMP_FOLDER.newFile("whole.bin");
+    byte[] contents = new byte[] { 1, 2, 3 };
+    Files.write(file.toPath(), contents);
+
+    BlobInputFormatProvider.BlobConfig config = new BlobInputFormatProvider.BlobConfig(null, null, 1);
+    List<StructuredRecord> records = read(file, new BlobInputFormatProvider(config), 1);
+
+    Assert.assertEquals(1, records.size());
+    Assert.assertArrayEquals(contents, getBytes(records.get(0).get("body")));
+  }
+
+  private static List<StructuredRecord> read(File file, BlobInputFormatProvider provider,
+                                             long maxSplitSize) throws Exception {
+    Configuration conf = new Configuration();
+    for (Map.Entry<String, String> entry : provider.getInputFormatConfiguration().entrySet()) {
+      conf.set(entry.getKey(), entry.getValue());
+    }
+    Job job = Job.getInstance(conf);
+    FileInputFormat.addInputPath(job, new org.apache.hadoop.fs.Path(file.toURI()));
+    FileInputFormat.setMaxInputSplitSize(job, maxSplitSize);
+
+    PathTrackingBlobInputFormat inputFormat = new PathTrackingBlobInputFormat();
+    List<StructuredRecord> records = new ArrayList<>();
+    for (InputSplit split : inputFormat.getSplits(job)) {
+      TaskAttemptContext context = new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID());
+      try (RecordReader<NullWritable, StructuredRecord> reader = inputFormat.createRecordReader(split, context)) {
+        reader.initialize(split, context);
+        while (reader.nextKeyValue()) {
+          records.add(reader.getCurrentValue());
+        }
+      }
+    }
+    return records;
+  }
+
+  private static byte[] getBytes(Object value) {
+    if (value instanceof byte[]) {
+      return (byte[]) value;
+    }
+    ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin.format;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.etl.api.validation.InputFile;
+import io.cdap.cdap.etl.api.validation.InputFiles;
+import io.cdap.plugin.format.input.ReaderPlanCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Detects the schema of files that store their schema, such as the footer of parquet files or the header of avro
+ * files, by reading the schema of every file and merging them with {@link SchemaMerger}. Files written with
+ * different, but compatible schemas, for example because nullable columns were added over time, are read with a
+ * schema that contains the columns of all of them.
+ *
+ * The schemas are read concurrently, since reading each of them takes at least one round trip to the file system.
+ * The schemas of files on a Hadoop FileSystem are cached by path, length and modification time, so that the files
+ * are not read again when the schema is detected again in the same JVM.
+ */
+public final class MergedSchemaReader {
+  static final int THREADS = 8;
+
+  private MergedSchemaReader() {
+    // no-op
+  }
+
+  /**
+   * Reads and merges the schemas of all input files with the given extension.
+   *
+   * @param format name of the format, used to keep the cached schemas of different formats apart
+   * @param inputFiles the files to read the schemas of
+   * @param extension extension of the files to read, such as '.parquet'. Other files are skipped.
+   * @param schemaReader reads the schema of a single file
+   * @return the merged schema of the files
+   * @throws IOException if there is no file with the extension, a schema could not be read, or the schemas of the
+   *                     files are not compatible
+   */
+  public static Schema read(String format, InputFiles inputFiles, String extension,
+                            SchemaReader schemaReader) throws IOException {
+    List<InputFile> files = new ArrayList<>();
+    for (InputFile inputFile : inputFiles) {
+      if (inputFile.getName().toLowerCase().endsWith(extension)) {
+        files.add(inputFile);
+      }
+    }
+    if (files.isEmpty()) {
+      throw new IOException(String.format("Unable to find any files that end with %s", extension));
+    }
+
+    List<Schema> schemas = readAll(format, files, schemaReader);
+    Schema merged = schemas.get(0);
+    for (int i = 1; i < schemas.size(); i++) {
+      try {
+        merged = SchemaMerger.merge(merged, schemas.get(i));
+      } catch (IllegalArgumentException e) {
+        throw new IOException(String.format("The schema of file '%s' is not compatible with the schema of the "
+                                              + "other files. %s", files.get(i).getName(), e.getMessage()), e);
+      }
+    }
+    return merged;
+  }
+
+  private static List<Schema> readAll(String format, List<InputFile> files,
+                                      SchemaReader schemaReader) throws IOException {
+    List<Schema> schemas = new ArrayList<>(files.size());
+    if (files.size() == 1) {
+      schemas.add(read(format, files.get(0), schemaReader));
+      return schemas;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+      Math.min(THREADS, files.size()),
+      new ThreadFactoryBuilder().setNameFormat("schema-reader-%d").setDaemon(true).build());
+    try {
+      List<Future<Schema>> futures = new ArrayList<>(files.size());
+      for (InputFile file : files) {
+        futures.add(executor.submit(() -> read(format, file, schemaReader)));
+      }
+      for (Future<Schema> future : futures) {
+        schemas.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading the schemas of the input files", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to read the schemas of the input files: " + e.getCause().getMessage(),
+                            e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    return schemas;
+  }
+
+  private static Schema read(String format, InputFile file, SchemaReader schemaReader) throws IOException {
+    if (!(file instanceof FileSystemInputFile)) {
+      return schemaReader.read(file);
+    }
+    FileSystemInputFile fsFile = (FileSystemInputFile) file;
+    try {
+      return ReaderPlanCache.getPlan(() -> {
+        try {
+          return schemaReader.read(file);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, format + ".file.schema", fsFile.getPath(), fsFile.getLength(), fsFile.getModificationTime());
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Reads the schema of a file.
+   */
+  public interface SchemaReader {
+
+    /**
+     * Reads the schema stored in the given file.
+     */
+    Schema read(InputFile file) throws IOException;
+  }
+}
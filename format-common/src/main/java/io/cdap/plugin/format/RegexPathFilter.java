@@ -18,6 +18,7 @@ package io.cdap.plugin.format;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.PathFilter;
@@ -30,7 +31,10 @@ import java.util.regex.Pattern;
  */
 public class RegexPathFilter extends Configured implements PathFilter {
   private static final String REGEX = "path.filter.regex";
+  private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
   private Pattern pattern;
+  // literal text that every matching path must start with
+  private String literalPrefix;
 
   public static void configure(Configuration conf, Pattern regex) {
     conf.set(REGEX, regex.pattern());
@@ -51,6 +55,29 @@ public class RegexPathFilter extends Configured implements PathFilter {
     }
   }
 
+  /**
+   * Same as {@link #accept(Path)}, but uses an already known status instead of looking it up in the FileSystem.
+   */
+  public boolean accept(FileStatus status) {
+    if (status.isDirectory()) {
+      return true;
+    }
+    return pattern == null || pattern.matcher(status.getPath().toUri().getPath()).matches();
+  }
+
+  /**
+   * Returns whether a file under the given directory could match the regex. Directories that can not contain
+   * any match do not need to be listed.
+   */
+  public boolean canContainMatches(Path directory) {
+    if (literalPrefix == null || literalPrefix.isEmpty()) {
+      return true;
+    }
+    String dirPrefix = directory.toUri().getPath();
+    dirPrefix = dirPrefix.endsWith("/") ? dirPrefix : dirPrefix + "/";
+    return dirPrefix.startsWith(literalPrefix) || literalPrefix.startsWith(dirPrefix);
+  }
+
   @Override
   public void setConf(Configuration conf) {
     super.setConf(conf);
@@ -59,5 +86,26 @@ public class RegexPathFilter extends Configured implements PathFilter {
     }
     String regex = conf.get(REGEX);
     pattern = regex == null ? null : Pattern.compile(regex);
+    literalPrefix = regex == null ? null : getLiteralPrefix(regex);
+  }
+
+  /**
+   * Returns the literal text at the start of the regex, up to the first special character.
+   */
+  static String getLiteralPrefix(String regex) {
+    if (regex.indexOf('|') >= 0) {
+      // an alternation can make any part of the regex optional
+      return "";
+    }
+    int start = regex.startsWith("^") ? 1 : 0;
+    int end = start;
+    while (end < regex.length() && REGEX_META_CHARS.indexOf(regex.charAt(end)) < 0) {
+      end++;
+    }
+    if (end < regex.length() && end > start && "?*{".indexOf(regex.charAt(end)) >= 0) {
+      // the last literal character is optional or repeated
+      end--;
+    }
+    return regex.substring(start, end);
   }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin.format;
+
+import io.cdap.cdap.api.data.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges the schemas of files that were written with different, but compatible schemas into a single schema
+ * that all of them can be read with.
+ *
+ * Fields are matched by name. Fields that are missing from some of the schemas become nullable, so that they can
+ * be read as null from the files that do not contain them. Numeric types are widened the same way as in Avro schema
+ * resolution: int to long, and int, long and float to double. All other types must be the same in every schema.
+ */
+public final class SchemaMerger {
+
+  private SchemaMerger() {
+    // no-op
+  }
+
+  /**
+   * Merges two schemas.
+   *
+   * @param first the first schema. Its field order and record names are kept.
+   * @param second the schema to merge into the first one
+   * @return a schema that data of both schemas can be read with
+   * @throws IllegalArgumentException if the schemas are not compatible
+   */
+  public static Schema merge(Schema first, Schema second) {
+    return merge(first, second, null);
+  }
+
+  private static Schema merge(Schema first, Schema second, String fieldPath) {
+    if (first.equals(second)) {
+      return first;
+    }
+    if (first.isNullable() || second.isNullable()) {
+      Schema nonNullable = merge(first.isNullable() ? first.getNonNullable() : first,
+                                 second.isNullable() ? second.getNonNullable() : second, fieldPath);
+      return Schema.nullableOf(nonNullable);
+    }
+    if (first.getType() == Schema.Type.RECORD && second.getType() == Schema.Type.RECORD) {
+      return mergeRecords(first, second, fieldPath);
+    }
+    if (first.getType() == Schema.Type.ARRAY && second.getType() == Schema.Type.ARRAY) {
+      return Schema.arrayOf(merge(first.getComponentSchema(), second.getComponentSchema(), fieldPath));
+    }
+    if (first.getType() == Schema.Type.MAP && second.getType() == Schema.Type.MAP) {
+      Map.Entry<Schema, Schema> firstMap = first.getMapSchema();
+      Map.Entry<Schema, Schema> secondMap = second.getMapSchema();
+      return Schema.mapOf(merge(firstMap.getKey(), secondMap.getKey(), fieldPath),
+                          merge(firstMap.getValue(), secondMap.getValue(), fieldPath));
+    }
+    if (first.getLogicalType() == null && second.getLogicalType() == null) {
+      Schema.Type widened = widen(first.getType(), second.getType());
+      if (widened != null) {
+        return Schema.of(widened);
+      }
+    }
+    throw new IllegalArgumentException(
+      String.format("%s is of type '%s' in one schema and of type '%s' in the other.",
+                    fieldPath == null ? "The schema" : String.format("Field '%s'", fieldPath),
+                    first.getDisplayName(), second.getDisplayName()));
+  }
+
+  private static Schema mergeRecords(Schema first, Schema second, String fieldPath) {
+    Map<String, Schema.Field> secondFields = new LinkedHashMap<>();
+    for (Schema.Field field : second.getFields()) {
+      secondFields.put(field.getName(), field);
+    }
+    List<Schema.Field> fields = new ArrayList<>(first.getFields().size() + secondFields.size());
+    for (Schema.Field field : first.getFields()) {
+      Schema.Field other = secondFields.remove(field.getName());
+      if (other == null) {
+        fields.add(Schema.Field.of(field.getName(), toNullable(field.getSchema())));
+      } else {
+        String path = fieldPath == null ? field.getName() : fieldPath + "." + field.getName();
+        fields.add(Schema.Field.of(field.getName(), merge(field.getSchema(), other.getSchema(), path)));
+      }
+    }
+    for (Schema.Field field : secondFields.values()) {
+      fields.add(Schema.Field.of(field.getName(), toNullable(field.getSchema())));
+    }
+    return Schema.recordOf(first.getRecordName(), fields);
+  }
+
+  private static Schema toNullable(Schema schema) {
+    return schema.isNullable() ? schema : Schema.nullableOf(schema);
+  }
+
+  /**
+   * Returns the type that values of two different types can be read as, or null if there is none.
+   */
+  private static Schema.Type widen(Schema.Type first, Schema.Type second) {
+    if (isNumeric(first) && isNumeric(second)) {
+      if (first == Schema.Type.DOUBLE || second == Schema.Type.DOUBLE
+        || first == Schema.Type.FLOAT || second == Schema.Type.FLOAT) {
+        // long values can lose precision as floats, so they are widened to doubles like Avro allows
+        return Schema.Type.DOUBLE;
+      }
+      return Schema.Type.LONG;
+    }
+    return null;
+  }
+
+  private static boolean isNumeric(Schema.Type type) {
+    return type == Schema.Type.INT || type == Schema.Type.LONG || type == Schema.Type.FLOAT
+      || type == Schema.Type.DOUBLE;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.charset;
+
+import org.apache.hadoop.fs.PositionedReadable;
+import org.apache.hadoop.fs.Seekable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that replaces each byte of a seekable stream with the byte at its position in a mapping table.
+ */
+final class ByteMappingInputStream extends FilterInputStream implements Seekable, PositionedReadable {
+  private final byte[] mapping;
+
+  ByteMappingInputStream(InputStream in, byte[] mapping) {
+    super(in);
+    if (!(in instanceof Seekable) || !(in instanceof PositionedReadable)) {
+      throw new IllegalArgumentException("The stream must be seekable and support positioned reads.");
+    }
+    this.mapping = mapping;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = in.read();
+    return b < 0 ? b : mapping[b] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    int read = in.read(b, off, len);
+    map(b, off, read);
+    return read;
+  }
+
+  @Override
+  public int read(long position, byte[] buffer, int offset, int length) throws IOException {
+    int read = ((PositionedReadable) in).read(position, buffer, offset, length);
+    map(buffer, offset, read);
+    return read;
+  }
+
+  @Override
+  public void readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+    ((PositionedReadable) in).readFully(position, buffer, offset, length);
+    map(buffer, offset, length);
+  }
+
+  @Override
+  public void readFully(long position, byte[] buffer) throws IOException {
+    readFully(position, buffer, 0, buffer.length);
+  }
+
+  @Override
+  public void seek(long pos) throws IOException {
+    ((Seekable) in).seek(pos);
+  }
+
+  @Override
+  public long getPos() throws IOException {
+    return ((Seekable) in).getPos();
+  }
+
+  @Override
+  public boolean seekToNewSource(long targetPos) throws IOException {
+    return ((Seekable) in).seekToNewSource(targetPos);
+  }
+
+  private void map(byte[] b, int off, int len) {
+    for (int i = off; i < off + len; i++) {
+      b[i] = mapping[b[i] & 0xFF];
+    }
+  }
+}
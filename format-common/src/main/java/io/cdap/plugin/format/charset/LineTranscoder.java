@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.charset;
+
+import com.google.common.collect.ImmutableSet;
+import io.cdap.plugin.format.charset.fixedlength.FixedLengthCharset;
+import io.cdap.plugin.format.charset.fixedlength.FixedLengthCharsetTransformingDecompressor;
+import org.apache.hadoop.io.Text;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Transcodes lines of text from a source charset to UTF-8.
+ *
+ * Lines are split on the bytes of the source file, so that split offsets are the byte offsets of the original file.
+ * This works for charsets in which line delimiters are single bytes that can not be part of another character:
+ * <ul>
+ *   <li>Single-byte charsets, such as the ISO-8859, Windows-125x and EBCDIC charsets, which are transcoded with
+ *   a lookup table from each byte to its UTF-8 bytes.</li>
+ *   <li>ASCII compatible variable-length charsets, such as Shift_JIS, EUC-JP, GBK and Big5, where every byte of a
+ *   multi-byte character is either larger than 0x7F or, for trailing bytes, at least 0x30.</li>
+ * </ul>
+ * Charsets whose line delimiters are not 0x0A and 0x0D, such as EBCDIC, are read through a stream that maps the
+ * delimiter bytes to 0x0A and 0x0D, so that the line reader can find them. The transcoder is given the mapped bytes.
+ */
+public abstract class LineTranscoder {
+  // canonical names of the supported variable-length charsets
+  private static final Set<String> VARIABLE_LENGTH_CHARSETS = ImmutableSet.of(
+    "Shift_JIS", "windows-31j", "EUC-JP", "EUC-KR", "GBK", "GB2312", "GB18030", "Big5", "Big5-HKSCS");
+
+  protected final Charset charset;
+
+  LineTranscoder(Charset charset) {
+    this.charset = charset;
+  }
+
+  /**
+   * Returns whether lines in the given charset can be transcoded.
+   */
+  public static boolean isSupported(String charsetName) {
+    Charset charset = lookup(charsetName);
+    return charset != null && (isSingleByte(charset) || VARIABLE_LENGTH_CHARSETS.contains(charset.name()));
+  }
+
+  /**
+   * Returns the transcoder for the given charset.
+   *
+   * @throws IllegalArgumentException if the charset is not supported
+   */
+  public static LineTranscoder forName(String charsetName) {
+    Charset charset = lookup(charsetName);
+    if (charset != null && isSingleByte(charset)) {
+      return new SingleByteLineTranscoder(charset);
+    }
+    if (charset != null && VARIABLE_LENGTH_CHARSETS.contains(charset.name())) {
+      return new VariableLengthLineTranscoder(charset);
+    }
+    throw new IllegalArgumentException("Charset not supported: " + charsetName);
+  }
+
+  /**
+   * Returns the stream to find lines in. It is the given stream unless the delimiter bytes need to be swapped.
+   */
+  public InputStream wrap(InputStream in) {
+    return in;
+  }
+
+  /**
+   * Returns the bytes of a custom record delimiter as they appear in the stream returned by {@link #wrap}.
+   *
+   * @throws IllegalArgumentException if the delimiter can not be represented in the charset, or could be confused
+   *   with part of a character
+   */
+  public byte[] encodeDelimiter(String delimiter) {
+    CharsetEncoder encoder = charset.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPORT)
+      .onUnmappableCharacter(CodingErrorAction.REPORT);
+    try {
+      ByteBuffer encoded = encoder.encode(CharBuffer.wrap(delimiter));
+      byte[] bytes = new byte[encoded.remaining()];
+      encoded.get(bytes);
+      return bytes;
+    } catch (CharacterCodingException e) {
+      throw new IllegalArgumentException(
+        String.format("Record delimiter '%s' can not be represented in charset '%s'.", delimiter, charset.name()), e);
+    }
+  }
+
+  /**
+   * Transcodes a line read from the stream returned by {@link #wrap} to UTF-8.
+   *
+   * @param line the line in the source charset
+   * @param target the text to set to the UTF-8 line
+   * @throws RuntimeException if the line is not valid in the source charset, which is a
+   *   {@link FixedLengthCharsetTransformingDecompressor.CharacterDecodingException}
+   */
+  public abstract void transcode(Text line, Text target);
+
+  @Nullable
+  private static Charset lookup(String charsetName) {
+    try {
+      return Charset.forName(charsetName);
+    } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+      return null;
+    }
+  }
+
+  private static boolean isSingleByte(Charset charset) {
+    // UTF-32 is fixed length, but its delimiters are four bytes, so it is read by a CharsetTransformingLineRecordReader
+    return charset.canEncode() && FixedLengthCharset.isValidEncoding(charset.name())
+      && !FixedLengthCharset.UTF_32.getCharset().equals(charset);
+  }
+
+  /**
+   * Encodes a char sequence to UTF-8, returning the new position in the output.
+   */
+  static int encodeUtf8(char[] chars, int offset, int length, byte[] out, int position) {
+    int end = offset + length;
+    for (int i = offset; i < end; i++) {
+      char c = chars[i];
+      if (c < 0x80) {
+        out[position++] = (byte) c;
+      } else if (c < 0x800) {
+        out[position++] = (byte) (0xC0 | (c >> 6));
+        out[position++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+        int codePoint = Character.toCodePoint(c, chars[++i]);
+        out[position++] = (byte) (0xF0 | (codePoint >> 18));
+        out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else {
+        out[position++] = (byte) (0xE0 | (c >> 12));
+        out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        out[position++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return position;
+  }
+}
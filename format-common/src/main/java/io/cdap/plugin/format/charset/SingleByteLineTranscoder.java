@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.charset;
+
+import io.cdap.plugin.format.charset.fixedlength.FixedLengthCharsetTransformingDecompressor;
+import org.apache.hadoop.io.Text;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Transcodes lines of a single-byte charset with a table that holds the UTF-8 bytes of each of the 256 source bytes.
+ * Bytes that do not map to a character in the charset have no entry and fail the line, the same as decoding it with
+ * a {@link CharsetDecoder} would.
+ */
+final class SingleByteLineTranscoder extends LineTranscoder {
+  // at most three UTF-8 bytes per character, since single-byte charsets only map to the basic multilingual plane
+  private static final int MAX_UTF8_BYTES_PER_BYTE = 3;
+
+  // maps source bytes to the bytes of the stream the lines are read from, null if they are the same
+  private final byte[] streamBytes;
+  // UTF-8 bytes of each byte of the stream, null if the byte is not a character in the charset
+  private final byte[][] utf8;
+  private byte[] buffer;
+
+  SingleByteLineTranscoder(Charset charset) {
+    super(charset);
+    CharsetDecoder decoder = charset.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPORT)
+      .onUnmappableCharacter(CodingErrorAction.REPORT);
+    char[] chars = new char[256];
+    boolean[] mapped = new boolean[256];
+    for (int b = 0; b < 256; b++) {
+      CharBuffer decoded = CharBuffer.allocate(2);
+      CoderResult result = decoder.reset().decode(ByteBuffer.wrap(new byte[] { (byte) b }), decoded, true);
+      if (result.isError() || decoded.position() != 1) {
+        continue;
+      }
+      chars[b] = decoded.get(0);
+      mapped[b] = true;
+    }
+
+    // Map the bytes of line feeds and carriage returns to 0x0A and 0x0D, moving the bytes that were there to the
+    // freed up values. Some EBCDIC charsets decode two bytes to a line feed, which both map to 0x0A.
+    int[] mapping = new int[256];
+    for (int b = 0; b < 256; b++) {
+      mapping[b] = b;
+    }
+    for (int b = 0; b < 256; b++) {
+      if (mapped[b] && (chars[b] == '\n' || chars[b] == '\r')) {
+        mapInto(mapping, mapped, chars, b, chars[b]);
+      }
+    }
+    boolean identity = true;
+    for (int b = 0; b < 256; b++) {
+      identity &= mapping[b] == b;
+    }
+    if (identity) {
+      this.streamBytes = null;
+    } else {
+      this.streamBytes = new byte[256];
+      for (int b = 0; b < 256; b++) {
+        streamBytes[b] = (byte) mapping[b];
+      }
+    }
+
+    // bytes only share a stream byte if they decode to the same character
+    this.utf8 = new byte[256][];
+    for (int b = 0; b < 256; b++) {
+      if (mapped[b]) {
+        utf8[mapping[b]] = String.valueOf(chars[b]).getBytes(StandardCharsets.UTF_8);
+      }
+    }
+    this.buffer = new byte[0];
+  }
+
+  /**
+   * Maps a source byte to the given stream byte. The source byte that was mapped to the stream byte, unless it decodes
+   * to the same character, is moved to the stream byte the given source byte was mapped to.
+   */
+  private static void mapInto(int[] mapping, boolean[] mapped, char[] chars, int sourceByte, char streamByte) {
+    if (mapping[sourceByte] == streamByte) {
+      return;
+    }
+    for (int b = 0; b < 256; b++) {
+      if (mapping[b] == streamByte && !(mapped[b] && chars[b] == streamByte)) {
+        mapping[b] = mapping[sourceByte];
+        break;
+      }
+    }
+    mapping[sourceByte] = streamByte;
+  }
+
+  @Override
+  public InputStream wrap(InputStream in) {
+    return streamBytes == null ? in : new ByteMappingInputStream(in, streamBytes);
+  }
+
+  @Override
+  public byte[] encodeDelimiter(String delimiter) {
+    byte[] bytes = super.encodeDelimiter(delimiter);
+    if (streamBytes != null) {
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = streamBytes[bytes[i] & 0xFF];
+      }
+    }
+    return bytes;
+  }
+
+  @Override
+  public void transcode(Text line, Text target) {
+    byte[] source = line.getBytes();
+    int length = line.getLength();
+    if (buffer.length < length * MAX_UTF8_BYTES_PER_BYTE) {
+      buffer = new byte[length * MAX_UTF8_BYTES_PER_BYTE];
+    }
+    byte[] out = buffer;
+    int position = 0;
+    for (int i = 0; i < length; i++) {
+      byte[] bytes = utf8[source[i] & 0xFF];
+      if (bytes == null) {
+        throw new FixedLengthCharsetTransformingDecompressor.CharacterDecodingException(charset.newDecoder());
+      }
+      if (bytes.length == 1) {
+        out[position++] = bytes[0];
+      } else {
+        for (byte b : bytes) {
+          out[position++] = b;
+        }
+      }
+    }
+    target.set(out, 0, position);
+  }
+}
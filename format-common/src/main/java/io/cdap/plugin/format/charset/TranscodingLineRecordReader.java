@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.charset;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.lib.input.SplitLineReader;
+import org.apache.hadoop.mapreduce.lib.input.UncompressedSplitLineReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import javax.annotation.Nullable;
+
+/**
+ * Line record reader for files in a charset other than UTF-8, which returns each line transcoded to UTF-8.
+ *
+ * Lines are found in the bytes of the file the same way as Hadoop's LineRecordReader does for uncompressed files,
+ * and each line is then transcoded by a {@link LineTranscoder}. Keys and split boundaries are byte offsets in the
+ * original file, and the maximum line length is measured in bytes of the original file.
+ */
+public class TranscodingLineRecordReader extends RecordReader<LongWritable, Text> {
+  private static final Logger LOG = LoggerFactory.getLogger(TranscodingLineRecordReader.class);
+  public static final String MAX_LINE_LENGTH = CharsetTransformingLineRecordReader.MAX_LINE_LENGTH;
+
+  private final LineTranscoder transcoder;
+  private final byte[] recordDelimiterBytes;
+  private final Text line;
+  private long start;
+  private long pos;
+  private long end;
+  private SplitLineReader in;
+  private int maxLineLength;
+  private LongWritable key;
+  private Text value;
+
+  /**
+   * @param transcoder transcoder of the charset of the file
+   * @param recordDelimiter custom record delimiter, or null to split lines on line feeds and carriage returns
+   */
+  public TranscodingLineRecordReader(LineTranscoder transcoder, @Nullable String recordDelimiter) {
+    this.transcoder = transcoder;
+    this.recordDelimiterBytes = recordDelimiter == null ? null : transcoder.encodeDelimiter(recordDelimiter);
+    this.line = new Text();
+  }
+
+  @Override
+  public void initialize(InputSplit genericSplit, TaskAttemptContext context) throws IOException {
+    FileSplit split = (FileSplit) genericSplit;
+    Configuration job = context.getConfiguration();
+    maxLineLength = job.getInt(MAX_LINE_LENGTH, Integer.MAX_VALUE);
+    start = split.getStart();
+    end = start + split.getLength();
+    Path file = split.getPath();
+
+    FileSystem fs = file.getFileSystem(job);
+    FSDataInputStream fileIn = fs.open(file);
+    fileIn.seek(start);
+    InputStream lineStream = transcoder.wrap(fileIn);
+    FSDataInputStream lineIn = lineStream == fileIn ? fileIn : new FSDataInputStream(lineStream);
+    in = new UncompressedSplitLineReader(lineIn, job, recordDelimiterBytes, split.getLength());
+
+    // If this is not the first split, we always throw away first record
+    // because we always (except the last split) read one extra line in
+    // next() method.
+    if (start != 0) {
+      start += in.readLine(new Text(), 0, maxBytesToConsume(start));
+    }
+    pos = start;
+  }
+
+  private int maxBytesToConsume(long pos) {
+    return (int) Math.max(Math.min(Integer.MAX_VALUE, end - pos), maxLineLength);
+  }
+
+  @Override
+  public boolean nextKeyValue() throws IOException {
+    if (key == null) {
+      key = new LongWritable();
+    }
+    key.set(pos);
+    if (value == null) {
+      value = new Text();
+    }
+    int newSize = 0;
+    // We always read one extra line, which lies outside the upper
+    // split limit i.e. (end - 1)
+    while (pos <= end || in.needAdditionalRecordAfterSplit()) {
+      newSize = in.readLine(line, maxLineLength, maxBytesToConsume(pos));
+      pos += newSize;
+      if (newSize == 0 || newSize < maxLineLength) {
+        break;
+      }
+
+      // line too long. try again
+      LOG.info("Skipped line of size {} at pos {}", newSize, pos - newSize);
+    }
+    if (newSize == 0) {
+      key = null;
+      value = null;
+      return false;
+    }
+    transcoder.transcode(line, value);
+    return true;
+  }
+
+  @Override
+  public LongWritable getCurrentKey() {
+    return key;
+  }
+
+  @Override
+  public Text getCurrentValue() {
+    return value;
+  }
+
+  @Override
+  public float getProgress() {
+    if (start == end) {
+      return 0.0f;
+    }
+    return Math.min(1.0f, (pos - start) / (float) (end - start));
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (in != null) {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.charset;
+
+import io.cdap.plugin.format.charset.fixedlength.FixedLengthCharsetTransformingDecompressor;
+import org.apache.hadoop.io.Text;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Transcodes lines of an ASCII compatible variable-length charset, such as Shift_JIS, by decoding each line with a
+ * reused {@link CharsetDecoder} and encoding the characters to UTF-8.
+ */
+final class VariableLengthLineTranscoder extends LineTranscoder {
+  // the trailing bytes of multi-byte characters are at least 0x30 in all supported charsets
+  private static final int MIN_TRAILING_BYTE = 0x30;
+  // a character takes at least one byte and at most three UTF-8 bytes, or four for a surrogate pair of two chars
+  private static final int MAX_UTF8_BYTES_PER_BYTE = 3;
+
+  private final CharsetDecoder decoder;
+  private CharBuffer chars;
+  private byte[] buffer;
+
+  VariableLengthLineTranscoder(Charset charset) {
+    super(charset);
+    this.decoder = charset.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPORT)
+      .onUnmappableCharacter(CodingErrorAction.REPORT);
+    this.chars = CharBuffer.allocate(0);
+    this.buffer = new byte[0];
+  }
+
+  @Override
+  public byte[] encodeDelimiter(String delimiter) {
+    byte[] bytes = super.encodeDelimiter(delimiter);
+    for (byte b : bytes) {
+      if ((b & 0xFF) >= MIN_TRAILING_BYTE) {
+        throw new IllegalArgumentException(
+          String.format("Record delimiter '%s' can not be used with charset '%s', since it could be confused with "
+                          + "part of a multi-byte character. Only characters below '0' can be used.",
+                        delimiter, charset.name()));
+      }
+    }
+    return bytes;
+  }
+
+  @Override
+  public void transcode(Text line, Text target) {
+    int length = line.getLength();
+    if (chars.capacity() < length) {
+      chars = CharBuffer.allocate(length);
+    }
+    if (buffer.length < length * MAX_UTF8_BYTES_PER_BYTE) {
+      buffer = new byte[length * MAX_UTF8_BYTES_PER_BYTE];
+    }
+    chars.clear();
+    decoder.reset();
+    CoderResult result = decoder.decode(ByteBuffer.wrap(line.getBytes(), 0, length), chars, true);
+    if (!result.isError()) {
+      result = decoder.flush(chars);
+    }
+    if (result.isError()) {
+      throw new FixedLengthCharsetTransformingDecompressor.CharacterDecodingException(decoder);
+    }
+    target.set(buffer, 0, encodeUtf8(chars.array(), 0, chars.position(), buffer, 0));
+  }
+}
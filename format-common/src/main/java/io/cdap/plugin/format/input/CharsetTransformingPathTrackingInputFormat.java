@@ -17,6 +17,8 @@
 package io.cdap.plugin.format.input;
 
 import io.cdap.plugin.format.charset.CharsetTransformingLineRecordReader;
+import io.cdap.plugin.format.charset.LineTranscoder;
+import io.cdap.plugin.format.charset.TranscodingLineRecordReader;
 import io.cdap.plugin.format.charset.fixedlength.FixedLengthCharset;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
@@ -25,26 +27,43 @@ import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
 
-import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import javax.annotation.Nullable;
 
 /**
  * An input format that tracks which the file path each record was read from. This InputFormat is a wrapper around
  * underlying input formats. The responsibility of this class is to keep track of which file each record is reading
  * from, and to add the file URI to each record. In addition, for text files, it can be configured to keep track
  * of the header for the file, which underlying record readers can use.
+ *
+ * Single-byte and variable-length charsets are read by a {@link TranscodingLineRecordReader}, which transcodes each
+ * line to UTF-8. UTF-32 is read by a {@link CharsetTransformingLineRecordReader}.
  */
 public class CharsetTransformingPathTrackingInputFormat extends TextInputFormat {
 
+  // null if the charset is read by a TranscodingLineRecordReader
+  @Nullable
   protected final FixedLengthCharset fixedLengthCharset;
+  @Nullable
+  private final String charsetName;
 
   public CharsetTransformingPathTrackingInputFormat(String charsetName) {
-    this.fixedLengthCharset = FixedLengthCharset.forName(charsetName);
+    if (LineTranscoder.isSupported(charsetName)) {
+      this.fixedLengthCharset = null;
+      this.charsetName = charsetName;
+    } else {
+      this.fixedLengthCharset = FixedLengthCharset.forName(charsetName);
+      this.charsetName = null;
+    }
   }
 
   @Override
   public RecordReader<LongWritable, Text> createRecordReader(InputSplit split, TaskAttemptContext context) {
     String delimiter = context.getConfiguration().get("textinputformat.record.delimiter");
+    if (charsetName != null) {
+      // a transcoder keeps buffers, so each reader gets its own
+      return new TranscodingLineRecordReader(LineTranscoder.forName(charsetName), delimiter);
+    }
     byte[] recordDelimiterBytes = null;
     if (null != delimiter) {
       recordDelimiterBytes = delimiter.getBytes(StandardCharsets.UTF_8);
@@ -17,21 +17,60 @@
 package io.cdap.plugin.format.input;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.plugin.common.batch.JobUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.CombineFileInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.CombineFileRecordReader;
 import org.apache.hadoop.mapreduce.lib.input.CombineFileSplit;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Similar to CombineTextInputFormat except it uses PathTrackingInputFormat to keep track of filepaths that
  * records were read from.
+ *
+ * Splits are planned by {@link CombineSplitPlanner}, which packs files by size toward the maximum split size
+ * instead of only capping the size of each split.
  */
 public abstract class CombinePathTrackingInputFormat extends CombineFileInputFormat<NullWritable, StructuredRecord> {
+  /**
+   * Whether to plan splits with {@link CombineSplitPlanner}. When false, the grouping of
+   * {@link CombineFileInputFormat} is used.
+   */
+  public static final String SIZE_PACKING = "path.tracking.combine.size.packing";
+  static final long DEFAULT_TARGET_SIZE = 128L * 1024 * 1024;
+
+  @Override
+  public List<InputSplit> getSplits(JobContext job) throws IOException {
+    return JobUtils.applyWithExtraClassLoader(job, getClass().getClassLoader(), this::planSplits);
+  }
+
+  private List<InputSplit> planSplits(JobContext job) throws IOException {
+    Configuration conf = job.getConfiguration();
+    if (!conf.getBoolean(SIZE_PACKING, true)) {
+      return super.getSplits(job);
+    }
+    long targetSize = conf.getLong(FileInputFormat.SPLIT_MAXSIZE, 0L);
+    CombineSplitPlanner planner = new CombineSplitPlanner(targetSize > 0 ? targetSize : DEFAULT_TARGET_SIZE,
+                                                          path -> isSplitable(job, path));
+    return new ArrayList<>(planner.plan(listStatus(job), conf));
+  }
+
+  @Override
+  protected List<FileStatus> listStatus(JobContext job) throws IOException {
+    List<FileStatus> files = ParallelFileLister.isEnabled(job.getConfiguration()) ?
+      ParallelFileLister.listStatus(job) : super.listStatus(job);
+    return IncrementalFileState.filter(job.getConfiguration(), files);
+  }
 
   /**
    * Creates a RecordReader that delegates to some other RecordReader for each path in the input split.
@@ -0,0 +1,300 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.input;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.lib.input.CombineFileSplit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Plans the splits of a {@link CombinePathTrackingInputFormat} by packing files into splits of a target size.
+ *
+ * Splittable files larger than the target size are first cut into pieces of the target size. The pieces are then
+ * grouped by the host that stores most of their bytes, and each group is packed with first-fit-decreasing, so that
+ * splits mostly read local data. Splits of a group that are less than half full are unpacked again and their pieces
+ * are packed together with first-fit-decreasing across all hosts. Compared to the grouping of
+ * {@link org.apache.hadoop.mapreduce.lib.input.CombineFileInputFormat}, this keeps split sizes close to the target
+ * even when small and very large files are mixed.
+ */
+final class CombineSplitPlanner {
+  private static final Logger LOG = LoggerFactory.getLogger(CombineSplitPlanner.class);
+  // same as FileInputFormat, the last piece of a file can be up to 10% larger than the target size
+  private static final double SPLIT_SLOP = 1.1;
+  private static final int MAX_LOCATIONS = 3;
+  private static final String NO_HOST = "";
+
+  private final long targetSize;
+  private final Predicate<Path> splittable;
+
+  CombineSplitPlanner(long targetSize, Predicate<Path> splittable) {
+    if (targetSize <= 0) {
+      throw new IllegalArgumentException("Target split size must be positive, but is " + targetSize);
+    }
+    this.targetSize = targetSize;
+    this.splittable = splittable;
+  }
+
+  /**
+   * Packs the given files into splits.
+   */
+  List<CombineFileSplit> plan(List<FileStatus> files, Configuration conf) throws IOException {
+    Map<String, List<Piece>> piecesByHost = new TreeMap<>();
+    long totalSize = 0;
+    for (FileStatus file : files) {
+      if (file.isDirectory()) {
+        continue;
+      }
+      totalSize += file.getLen();
+      for (Piece piece : cut(file, getBlockLocations(file, conf))) {
+        piecesByHost.computeIfAbsent(piece.primaryHost(), k -> new ArrayList<>()).add(piece);
+      }
+    }
+
+    List<Bin> bins = new ArrayList<>();
+    List<Piece> leftover = new ArrayList<>();
+    for (List<Piece> pieces : piecesByHost.values()) {
+      for (Bin bin : pack(pieces)) {
+        // bins that are at least half full are kept local, the rest are combined with pieces from other hosts
+        if (bin.size * 2 >= targetSize) {
+          bins.add(bin);
+        } else {
+          leftover.addAll(bin.pieces);
+        }
+      }
+    }
+    bins.addAll(pack(leftover));
+
+    List<CombineFileSplit> splits = new ArrayList<>(bins.size());
+    for (Bin bin : bins) {
+      splits.add(bin.toSplit());
+    }
+    logDistribution(files.size(), totalSize, splits);
+    return splits;
+  }
+
+  /**
+   * Cuts a file into pieces of the target size if it is splittable.
+   */
+  private List<Piece> cut(FileStatus file, BlockLocation[] blocks) {
+    Path path = file.getPath();
+    long length = file.getLen();
+    if (length <= targetSize * SPLIT_SLOP || !splittable.test(path)) {
+      return Collections.singletonList(new Piece(path, 0, length, blocks));
+    }
+    List<Piece> pieces = new ArrayList<>();
+    long remaining = length;
+    while (remaining > targetSize * SPLIT_SLOP) {
+      pieces.add(new Piece(path, length - remaining, targetSize, blocks));
+      remaining -= targetSize;
+    }
+    pieces.add(new Piece(path, length - remaining, remaining, blocks));
+    return pieces;
+  }
+
+  /**
+   * Packs pieces into bins of the target size using first-fit-decreasing. Pieces larger than the target size
+   * are placed in their own bin.
+   *
+   * Finding the first bin with enough room uses a tree of the maximum remaining capacity of each range of bins,
+   * so that packing takes O(n log n) time instead of comparing every piece against every open bin.
+   */
+  List<Bin> pack(List<Piece> pieces) {
+    List<Piece> sorted = new ArrayList<>(pieces);
+    sorted.sort((p1, p2) -> Long.compare(p2.length, p1.length));
+
+    List<Bin> bins = new ArrayList<>();
+    CapacityTree tree = new CapacityTree(sorted.size(), targetSize);
+    List<Bin> treeBins = new ArrayList<>();
+    for (Piece piece : sorted) {
+      if (piece.length > targetSize) {
+        Bin bin = new Bin();
+        bin.add(piece);
+        bins.add(bin);
+        continue;
+      }
+      // unused leaves have full capacity, so this is either an open bin or the next unused one
+      int index = tree.firstFit(piece.length);
+      if (index == treeBins.size()) {
+        treeBins.add(new Bin());
+      }
+      treeBins.get(index).add(piece);
+      tree.reduce(index, piece.length);
+    }
+    bins.addAll(treeBins);
+    return bins;
+  }
+
+  private static BlockLocation[] getBlockLocations(FileStatus file, Configuration conf) throws IOException {
+    if (file instanceof LocatedFileStatus) {
+      return ((LocatedFileStatus) file).getBlockLocations();
+    }
+    if (file.getLen() == 0) {
+      return new BlockLocation[0];
+    }
+    return file.getPath().getFileSystem(conf).getFileBlockLocations(file, 0, file.getLen());
+  }
+
+  private static void logDistribution(int numFiles, long totalSize, List<CombineFileSplit> splits) {
+    if (splits.isEmpty()) {
+      LOG.info("Planned 0 splits from {} files", numFiles);
+      return;
+    }
+    long[] sizes = new long[splits.size()];
+    for (int i = 0; i < sizes.length; i++) {
+      sizes[i] = splits.get(i).getLength();
+    }
+    Arrays.sort(sizes);
+    LOG.info("Planned {} splits from {} files of {} bytes. Split sizes: min={}, median={}, p90={}, max={}",
+             sizes.length, numFiles, totalSize, sizes[0], sizes[sizes.length / 2],
+             sizes[(int) Math.min(sizes.length - 1, (long) Math.ceil(sizes.length * 0.9) - 1)],
+             sizes[sizes.length - 1]);
+  }
+
+  /**
+   * A range of a file, along with the number of its bytes stored by each host.
+   */
+  static final class Piece {
+    private final Path path;
+    private final long start;
+    private final long length;
+    private final Map<String, Long> hostBytes;
+
+    Piece(Path path, long start, long length, BlockLocation[] blocks) {
+      this.path = path;
+      this.start = start;
+      this.length = length;
+      this.hostBytes = new HashMap<>();
+      long end = start + length;
+      for (BlockLocation block : blocks) {
+        long overlap = Math.min(end, block.getOffset() + block.getLength()) - Math.max(start, block.getOffset());
+        if (overlap <= 0) {
+          continue;
+        }
+        try {
+          for (String host : block.getHosts()) {
+            hostBytes.merge(host, overlap, Long::sum);
+          }
+        } catch (IOException e) {
+          // locations are only used for locality, so ignore hosts that can not be determined
+        }
+      }
+    }
+
+    private String primaryHost() {
+      String primary = NO_HOST;
+      long maxBytes = 0;
+      for (Map.Entry<String, Long> entry : hostBytes.entrySet()) {
+        if (entry.getValue() > maxBytes || entry.getValue() == maxBytes && entry.getKey().compareTo(primary) < 0) {
+          primary = entry.getKey();
+          maxBytes = entry.getValue();
+        }
+      }
+      return primary;
+    }
+  }
+
+  /**
+   * A group of pieces that becomes one split.
+   */
+  static final class Bin {
+    private final List<Piece> pieces = new ArrayList<>();
+    private long size;
+
+    private void add(Piece piece) {
+      pieces.add(piece);
+      size += piece.length;
+    }
+
+    long getSize() {
+      return size;
+    }
+
+    private CombineFileSplit toSplit() {
+      Path[] paths = new Path[pieces.size()];
+      long[] starts = new long[pieces.size()];
+      long[] lengths = new long[pieces.size()];
+      Map<String, Long> hostBytes = new HashMap<>();
+      for (int i = 0; i < paths.length; i++) {
+        Piece piece = pieces.get(i);
+        paths[i] = piece.path;
+        starts[i] = piece.start;
+        lengths[i] = piece.length;
+        piece.hostBytes.forEach((host, bytes) -> hostBytes.merge(host, bytes, Long::sum));
+      }
+      List<Map.Entry<String, Long>> hosts = new ArrayList<>(hostBytes.entrySet());
+      hosts.sort((e1, e2) -> e1.getValue().equals(e2.getValue()) ?
+        e1.getKey().compareTo(e2.getKey()) : Long.compare(e2.getValue(), e1.getValue()));
+      String[] locations = new String[Math.min(MAX_LOCATIONS, hosts.size())];
+      for (int i = 0; i < locations.length; i++) {
+        locations[i] = hosts.get(i).getKey();
+      }
+      return new CombineFileSplit(paths, starts, lengths, locations);
+    }
+  }
+
+  /**
+   * Tree over the remaining capacity of bins, where each node holds the maximum remaining capacity of its subtree.
+   */
+  private static final class CapacityTree {
+    private final int leaves;
+    private final long[] max;
+
+    private CapacityTree(int numBins, long capacity) {
+      int size = 1;
+      while (size < Math.max(1, numBins)) {
+        size <<= 1;
+      }
+      this.leaves = size;
+      this.max = new long[2 * size];
+      Arrays.fill(max, capacity);
+    }
+
+    /**
+     * @return the index of the first bin with at least the given remaining capacity
+     */
+    private int firstFit(long length) {
+      int node = 1;
+      while (node < leaves) {
+        node = max[2 * node] >= length ? 2 * node : 2 * node + 1;
+      }
+      return node - leaves;
+    }
+
+    private void reduce(int index, long length) {
+      int node = index + leaves;
+      max[node] -= length;
+      for (node >>= 1; node >= 1; node >>= 1) {
+        max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+      }
+    }
+  }
+}
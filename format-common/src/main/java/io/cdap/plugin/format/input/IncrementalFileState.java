@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.input;
+
+import com.google.gson.Gson;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * High-water mark of the files read by an incremental file source.
+ *
+ * The state is the largest modification time of the files read so far, plus the files that have exactly that
+ * modification time. A file is new if it was modified later than the mark, or if it was modified at the mark but is
+ * not one of the files already read. Keeping the files at the mark handles files that are added within the same
+ * timestamp granularity after a run has listed the directory.
+ *
+ * When {@link #STATE} is set, the input formats only plan splits over new files and write the advanced state to
+ * {@link #PENDING_STATE}. The source then {@link #commit commits} the pending state if the run succeeds, so that
+ * the files of a failed run are read again by the next run. Files that are added with a modification time older
+ * than the mark, for example by a copy that preserves modification times, are never read.
+ */
+public final class IncrementalFileState {
+  /**
+   * Path of the committed state file.
+   */
+  public static final String STATE = "path.tracking.incremental.state";
+  /**
+   * Path that the state after the current run is written to until it is committed.
+   */
+  public static final String PENDING_STATE = "path.tracking.incremental.pending.state";
+  private static final Logger LOG = LoggerFactory.getLogger(IncrementalFileState.class);
+  private static final Gson GSON = new Gson();
+
+  private final long modificationTime;
+  private final Set<String> files;
+
+  IncrementalFileState(long modificationTime, Set<String> files) {
+    this.modificationTime = modificationTime;
+    this.files = files;
+  }
+
+  long getModificationTime() {
+    return modificationTime;
+  }
+
+  Set<String> getFiles() {
+    return files;
+  }
+
+  /**
+   * @return whether the file has not been read by a previous run
+   */
+  boolean isNew(FileStatus status) {
+    long fileModificationTime = status.getModificationTime();
+    return fileModificationTime > modificationTime
+      || (fileModificationTime == modificationTime && !files.contains(status.getPath().toString()));
+  }
+
+  /**
+   * @return the state after reading the given new files
+   */
+  IncrementalFileState advance(Collection<FileStatus> newFiles) {
+    long maxModificationTime = modificationTime;
+    for (FileStatus status : newFiles) {
+      maxModificationTime = Math.max(maxModificationTime, status.getModificationTime());
+    }
+    Set<String> filesAtMark = maxModificationTime == modificationTime ? new HashSet<>(files) : new HashSet<>();
+    for (FileStatus status : newFiles) {
+      if (status.getModificationTime() == maxModificationTime) {
+        filesAtMark.add(status.getPath().toString());
+      }
+    }
+    return new IncrementalFileState(maxModificationTime, filesAtMark);
+  }
+
+  /**
+   * Removes the files that were read by previous runs, if incremental reads are configured, and writes the pending
+   * state that includes the remaining files.
+   *
+   * @param conf the job configuration
+   * @param files the listed input files
+   * @return the files that have not been read by a previous run
+   */
+  public static List<FileStatus> filter(Configuration conf, List<FileStatus> files) throws IOException {
+    String statePath = conf.get(STATE);
+    if (statePath == null) {
+      return files;
+    }
+    String pendingPath = conf.get(PENDING_STATE);
+    if (pendingPath == null) {
+      throw new IllegalArgumentException(String.format("'%s' must be set when '%s' is set.", PENDING_STATE, STATE));
+    }
+
+    IncrementalFileState state = read(new Path(statePath), conf);
+    List<FileStatus> newFiles = new ArrayList<>();
+    for (FileStatus status : files) {
+      if (status.isDirectory() || state.isNew(status)) {
+        newFiles.add(status);
+      }
+    }
+    LOG.debug("Reading {} of {} input files modified since {}", newFiles.size(), files.size(),
+              state.modificationTime);
+    state.advance(newFiles).write(new Path(pendingPath), conf);
+    return newFiles;
+  }
+
+  /**
+   * Replaces the committed state with the pending state. Does nothing if no pending state was written,
+   * which happens if there were no input files to list.
+   */
+  public static void commit(Configuration conf, Path statePath, Path pendingPath) throws IOException {
+    FileSystem fs = pendingPath.getFileSystem(conf);
+    if (!fs.exists(pendingPath)) {
+      return;
+    }
+    FileSystem stateFs = statePath.getFileSystem(conf);
+    if (stateFs.exists(statePath) && !stateFs.delete(statePath, false)) {
+      throw new IOException("Unable to delete the incremental state file " + statePath);
+    }
+    if (!fs.rename(pendingPath, statePath)) {
+      throw new IOException(String.format("Unable to rename the incremental state file %s to %s",
+                                          pendingPath, statePath));
+    }
+  }
+
+  /**
+   * Deletes the pending state, so that the files of the run are read again by the next run.
+   */
+  public static void abort(Configuration conf, Path pendingPath) throws IOException {
+    FileSystem fs = pendingPath.getFileSystem(conf);
+    if (fs.exists(pendingPath)) {
+      fs.delete(pendingPath, false);
+    }
+  }
+
+  static IncrementalFileState read(Path path, Configuration conf) throws IOException {
+    FileSystem fs = path.getFileSystem(conf);
+    if (!fs.exists(path)) {
+      return new IncrementalFileState(Long.MIN_VALUE, new HashSet<>());
+    }
+    try (FSDataInputStream is = fs.open(path);
+         Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+      IncrementalFileState state = GSON.fromJson(reader, IncrementalFileState.class);
+      if (state == null || state.files == null) {
+        throw new IOException("Invalid incremental state file " + path);
+      }
+      return state;
+    } catch (RuntimeException e) {
+      // unlike the listing manifest, ignoring a corrupt state would silently read all files again
+      throw new IOException(String.format("Unable to read the incremental state file %s: %s", path, e.getMessage()),
+                            e);
+    }
+  }
+
+  void write(Path path, Configuration conf) throws IOException {
+    FileSystem fs = path.getFileSystem(conf);
+    try (FSDataOutputStream os = fs.create(path, true);
+         Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
+      GSON.toJson(this, writer);
+    }
+  }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.input;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import io.cdap.plugin.format.RegexPathFilter;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.InvalidInputException;
+import org.apache.hadoop.mapreduce.security.TokenCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
+
+/**
+ * Lists the input files of a job, replacing the serial listing done by {@link FileInputFormat#listStatus(JobContext)}.
+ *
+ * Directories are listed level by level, with all directories of a level listed concurrently by a bounded pool.
+ * When the input path filter is a {@link RegexPathFilter}, the filter is applied to the listed statuses instead of
+ * looking up each path again, and directories that can not contain a match are not listed at all.
+ *
+ * If a manifest path is configured, the names of the directory entries are saved there and a directory is only listed
+ * again in a later run if its modification time changed. The files of a directory that is not listed again are still
+ * looked up, so that their length and modification time are current. This is only correct on file systems where the
+ * modification time of a directory changes whenever an entry is added to or removed from it, such as HDFS.
+ */
+public final class ParallelFileLister {
+  /**
+   * Number of threads used to list directories. Setting it to 0 uses the listing of {@link FileInputFormat}.
+   */
+  public static final String THREADS = "path.tracking.listing.threads";
+  /**
+   * Path of the listing manifest. No manifest is used if it is not set.
+   */
+  public static final String MANIFEST = "path.tracking.listing.manifest";
+  static final int DEFAULT_THREADS = 8;
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelFileLister.class);
+  private static final Gson GSON = new Gson();
+  private static final PathFilter HIDDEN_FILE_FILTER = path -> {
+    String name = path.getName();
+    return !name.startsWith("_") && !name.startsWith(".");
+  };
+
+  private final Configuration conf;
+  private final boolean recursive;
+  private final int threads;
+  @Nullable
+  private final PathFilter userFilter;
+  @Nullable
+  private final RegexPathFilter regexFilter;
+  private final boolean useManifest;
+  @Nullable
+  private final Manifest previousManifest;
+  private final Map<String, ManifestEntry> manifestEntries;
+
+  private ParallelFileLister(Configuration conf, boolean recursive, @Nullable PathFilter userFilter,
+                             boolean useManifest, @Nullable Manifest previousManifest) {
+    this.conf = conf;
+    this.recursive = recursive;
+    this.threads = Math.max(1, conf.getInt(THREADS, DEFAULT_THREADS));
+    this.userFilter = userFilter;
+    this.regexFilter = userFilter instanceof RegexPathFilter ? (RegexPathFilter) userFilter : null;
+    this.useManifest = useManifest;
+    this.previousManifest = previousManifest;
+    this.manifestEntries = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @return whether the parallel listing is enabled in the given configuration
+   */
+  public static boolean isEnabled(Configuration conf) {
+    return conf.getInt(THREADS, DEFAULT_THREADS) > 0;
+  }
+
+  /**
+   * Lists the files of the input paths of the job, with the same semantics as
+   * {@link FileInputFormat#listStatus(JobContext)}.
+   */
+  public static List<FileStatus> listStatus(JobContext job) throws IOException {
+    Path[] inputPaths = FileInputFormat.getInputPaths(job);
+    if (inputPaths.length == 0) {
+      throw new IOException("No input paths specified in job");
+    }
+    Configuration conf = job.getConfiguration();
+    TokenCache.obtainTokensForNamenodes(job.getCredentials(), inputPaths, conf);
+
+    String manifestPath = conf.get(MANIFEST);
+    Manifest manifest = manifestPath == null ? null : readManifest(new Path(manifestPath), conf);
+    ParallelFileLister lister = new ParallelFileLister(conf, FileInputFormat.getInputDirRecursive(job),
+                                                       FileInputFormat.getInputPathFilter(job), manifestPath != null,
+                                                       manifest);
+    long startTime = System.currentTimeMillis();
+    List<FileStatus> files = lister.list(inputPaths);
+    LOG.debug("Listed {} input files in {} ms", files.size(), System.currentTimeMillis() - startTime);
+    if (manifestPath != null) {
+      writeManifest(new Path(manifestPath), conf, new Manifest(lister.manifestEntries));
+    }
+    return files;
+  }
+
+  private List<FileStatus> list(Path[] inputPaths) throws IOException {
+    List<FileStatus> result = new ArrayList<>();
+    List<Directory> directories = new ArrayList<>();
+    List<IOException> errors = new ArrayList<>();
+    PathFilter inputFilter = path -> HIDDEN_FILE_FILTER.accept(path) && (userFilter == null || userFilter.accept(path));
+    for (Path inputPath : inputPaths) {
+      FileSystem fs = inputPath.getFileSystem(conf);
+      FileStatus[] matches = fs.globStatus(inputPath, inputFilter);
+      if (matches == null) {
+        errors.add(new IOException("Input path does not exist: " + inputPath));
+      } else if (matches.length == 0) {
+        errors.add(new IOException("Input Pattern " + inputPath + " matches 0 files"));
+      } else {
+        for (FileStatus match : matches) {
+          if (match.isDirectory()) {
+            directories.add(new Directory(fs, match.getPath(), match));
+          } else {
+            result.add(match);
+          }
+        }
+      }
+    }
+    if (!errors.isEmpty()) {
+      throw new InvalidInputException(errors);
+    }
+
+    ExecutorService executor = threads > 1 ?
+      Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+        .setNameFormat("file-lister-%d").setDaemon(true).build()) : null;
+    try {
+      while (!directories.isEmpty()) {
+        List<Directory> nextLevel = new ArrayList<>();
+        for (Listing listing : listAll(executor, directories)) {
+          for (FileStatus child : listing.children) {
+            if (!accept(child)) {
+              continue;
+            }
+            if (recursive && child.isDirectory()) {
+              if (regexFilter == null || regexFilter.canContainMatches(child.getPath())) {
+                // statuses from the manifest may be outdated, so they must be looked up again
+                nextLevel.add(new Directory(listing.fs, child.getPath(), listing.fromManifest ? null : child));
+              }
+            } else {
+              result.add(child);
+            }
+          }
+        }
+        directories = nextLevel;
+      }
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+    return result;
+  }
+
+  private boolean accept(FileStatus status) {
+    if (regexFilter != null) {
+      return regexFilter.accept(status);
+    }
+    return userFilter == null || userFilter.accept(status.getPath());
+  }
+
+  private List<Listing> listAll(@Nullable ExecutorService executor, List<Directory> directories) throws IOException {
+    List<Listing> listings = new ArrayList<>(directories.size());
+    if (executor == null || directories.size() == 1) {
+      for (Directory directory : directories) {
+        listings.add(list(directory));
+      }
+      return listings;
+    }
+
+    List<Future<Listing>> futures = new ArrayList<>(directories.size());
+    for (Directory directory : directories) {
+      futures.add(executor.submit(() -> list(directory)));
+    }
+    try {
+      for (Future<Listing> future : futures) {
+        listings.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while listing input files", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to list input files: " + e.getCause().getMessage(), e.getCause());
+    }
+    return listings;
+  }
+
+  private Listing list(Directory directory) throws IOException {
+    FileStatus status = directory.status == null ? directory.fs.getFileStatus(directory.path) : directory.status;
+    String key = directory.path.toString();
+    long modificationTime = status.getModificationTime();
+    if (previousManifest != null && modificationTime > 0) {
+      ManifestEntry entry = previousManifest.directories.get(key);
+      if (entry != null && entry.modificationTime == modificationTime) {
+        List<FileStatus> children = getStatuses(directory, entry);
+        if (children != null) {
+          manifestEntries.put(key, entry);
+          return new Listing(directory.fs, children, true);
+        }
+      }
+    }
+
+    List<FileStatus> children = new ArrayList<>();
+    RemoteIterator<LocatedFileStatus> iterator = directory.fs.listLocatedStatus(directory.path);
+    while (iterator.hasNext()) {
+      LocatedFileStatus child = iterator.next();
+      if (HIDDEN_FILE_FILTER.accept(child.getPath())) {
+        children.add(child);
+      }
+    }
+    if (useManifest) {
+      manifestEntries.put(key, ManifestEntry.of(modificationTime, children));
+    }
+    return new Listing(directory.fs, children, false);
+  }
+
+  /**
+   * Looks up the current statuses of the files in a directory listing from the manifest. Directories are not looked
+   * up, since they are listed anyway.
+   *
+   * @return the statuses of the entries, or {@code null} if a file no longer exists and the directory must be listed
+   */
+  @Nullable
+  private List<FileStatus> getStatuses(Directory directory, ManifestEntry entry) throws IOException {
+    if (entry.children == null) {
+      return Collections.emptyList();
+    }
+    List<FileStatus> statuses = new ArrayList<>(entry.children.size());
+    for (ManifestFile child : entry.children) {
+      Path path = new Path(directory.path, child.name);
+      FileStatus status = new FileStatus(0L, child.directory, 0, 0L, 0L, path);
+      // files that are filtered out are skipped later anyway, so they are not looked up
+      if (!child.directory && accept(status)) {
+        try {
+          status = directory.fs.getFileStatus(path);
+        } catch (FileNotFoundException e) {
+          LOG.debug("File {} from the listing manifest no longer exists. Listing {} again.", path, directory.path);
+          return null;
+        }
+      }
+      statuses.add(status);
+    }
+    return statuses;
+  }
+
+  private static Manifest readManifest(Path path, Configuration conf) {
+    try {
+      FileSystem fs = path.getFileSystem(conf);
+      if (!fs.exists(path)) {
+        return null;
+      }
+      try (FSDataInputStream is = fs.open(path);
+           Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+        return GSON.fromJson(reader, Manifest.class);
+      }
+    } catch (Exception e) {
+      // the manifest is only an optimization, so fall back to listing everything
+      LOG.warn("Unable to read the file listing manifest at {}. All directories will be listed.", path, e);
+      return null;
+    }
+  }
+
+  private static void writeManifest(Path path, Configuration conf, Manifest manifest) {
+    try {
+      FileSystem fs = path.getFileSystem(conf);
+      try (FSDataOutputStream os = fs.create(path, true);
+           Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
+        GSON.toJson(manifest, writer);
+      }
+    } catch (IOException e) {
+      LOG.warn("Unable to write the file listing manifest to {}.", path, e);
+    }
+  }
+
+  /**
+   * A directory to list, along with its status if it is already known.
+   */
+  private static final class Directory {
+    private final FileSystem fs;
+    private final Path path;
+    @Nullable
+    private final FileStatus status;
+
+    private Directory(FileSystem fs, Path path, @Nullable FileStatus status) {
+      this.fs = fs;
+      this.path = path;
+      this.status = status;
+    }
+  }
+
+  /**
+   * The children of a directory.
+   */
+  private static final class Listing {
+    private final FileSystem fs;
+    private final List<FileStatus> children;
+    private final boolean fromManifest;
+
+    private Listing(FileSystem fs, List<FileStatus> children, boolean fromManifest) {
+      this.fs = fs;
+      this.children = children;
+      this.fromManifest = fromManifest;
+    }
+  }
+
+  /**
+   * Directory listings from a previous run, keyed by directory path.
+   */
+  private static final class Manifest {
+    private final Map<String, ManifestEntry> directories;
+
+    private Manifest(Map<String, ManifestEntry> directories) {
+      this.directories = directories;
+    }
+  }
+
+  /**
+   * Listing of a single directory.
+   */
+  private static final class ManifestEntry {
+    private final long modificationTime;
+    private final List<ManifestFile> children;
+
+    private ManifestEntry(long modificationTime, List<ManifestFile> children) {
+      this.modificationTime = modificationTime;
+      this.children = children;
+    }
+
+    private static ManifestEntry of(long modificationTime, List<FileStatus> statuses) {
+      List<ManifestFile> children = new ArrayList<>(statuses.size());
+      for (FileStatus status : statuses) {
+        children.add(new ManifestFile(status));
+      }
+      return new ManifestEntry(modificationTime, children);
+    }
+  }
+
+  /**
+   * The name of a file or directory in a directory listing. Nothing else is saved, since the length and modification
+   * time of a file can change without changing the modification time of its directory.
+   */
+  private static final class ManifestFile {
+    private final String name;
+    private final boolean directory;
+
+    private ManifestFile(FileStatus status) {
+      this.name = status.getPath().getName();
+      this.directory = status.isDirectory();
+    }
+  }
+}
@@ -19,10 +19,12 @@ package io.cdap.plugin.format.input;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
@@ -30,6 +32,7 @@ import org.apache.hadoop.mapreduce.lib.input.FileSplit;
 import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
 
 import java.io.IOException;
+import java.util.List;
 import javax.annotation.Nullable;
 
 /**
@@ -52,6 +55,13 @@ public abstract class PathTrackingInputFormat extends FileInputFormat<NullWritab
   public static final String SCHEMA = "schema";
   public static final String TARGET_ENCODING = "utf-8";
 
+  @Override
+  protected List<FileStatus> listStatus(JobContext job) throws IOException {
+    List<FileStatus> files = ParallelFileLister.isEnabled(job.getConfiguration()) ?
+      ParallelFileLister.listStatus(job) : super.listStatus(job);
+    return IncrementalFileState.filter(job.getConfiguration(), files);
+  }
+
   @Override
   public RecordReader<NullWritable, StructuredRecord> createRecordReader(InputSplit split,
                                                                          TaskAttemptContext context)
@@ -67,7 +77,7 @@ public abstract class PathTrackingInputFormat extends FileInputFormat<NullWritab
     boolean userFilenameOnly = hConf.getBoolean(FILENAME_ONLY, false);
     String path = userFilenameOnly ? fileSplit.getPath().getName() : fileSplit.getPath().toUri().toString();
     String schema = hConf.get(SCHEMA);
-    Schema parsedSchema = schema == null ? null : Schema.parseJson(schema);
+    Schema parsedSchema = schema == null ? null : ReaderPlanCache.getSchema(schema);
 
     RecordReader<NullWritable, StructuredRecord.Builder> delegate = createRecordReader(fileSplit, context,
                                                                                        pathField, parsedSchema);
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.input;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.cdap.cdap.api.data.schema.Schema;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * JVM wide cache of parsed schemas and of the objects record readers derive from them.
+ *
+ * Every split creates a new record reader, and a combined split over small files creates one per file. Without the
+ * cache, each of them parses the schema from the job configuration and rebuilds whatever the format derives from it.
+ * Entries are softly referenced and the number of entries is bounded, so the cache never prevents garbage collection
+ * of the schemas of finished jobs.
+ */
+public final class ReaderPlanCache {
+  private static final int MAX_ENTRIES = 1024;
+  private static final Cache<String, Schema> SCHEMAS = CacheBuilder.newBuilder()
+    .maximumSize(MAX_ENTRIES)
+    .softValues()
+    .build();
+  private static final Cache<List<Object>, Object> PLANS = CacheBuilder.newBuilder()
+    .maximumSize(MAX_ENTRIES)
+    .softValues()
+    .build();
+
+  private ReaderPlanCache() {
+    // no-op
+  }
+
+  /**
+   * Returns the parsed form of the given schema json. Equal json strings return the same Schema instance.
+   *
+   * @param schemaJson the schema json
+   * @return the parsed schema
+   * @throws IOException if the schema could not be parsed
+   */
+  public static Schema getSchema(String schemaJson) throws IOException {
+    try {
+      return SCHEMAS.get(schemaJson, () -> Schema.parseJson(schemaJson));
+    } catch (ExecutionException e) {
+      Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+      throw Throwables.propagate(e.getCause());
+    } catch (UncheckedExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  /**
+   * Returns a plan derived from a schema and format options, creating it if it is not cached. Plans must be
+   * immutable, since they are shared by all readers in the JVM.
+   *
+   * @param loader creates the plan if it is not cached
+   * @param format name of the format and kind of plan, to keep plans of different formats apart
+   * @param keys the schema and options the plan is derived from. They must implement equals and hashCode.
+   * @param <T> type of plan
+   * @return the cached or newly created plan
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T getPlan(Callable<T> loader, String format, Object... keys) {
+    Object[] keyParts = new Object[keys.length + 1];
+    keyParts[0] = format;
+    System.arraycopy(keys, 0, keyParts, 1, keys.length);
+    try {
+      return (T) PLANS.get(Arrays.asList(keyParts), loader);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+}
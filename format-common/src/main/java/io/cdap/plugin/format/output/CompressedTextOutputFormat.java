@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.output;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output format for text based formats that encode records straight into the output stream of the file.
+ * Files are created and compressed the same way as by TextOutputFormat.
+ *
+ * @param <K> type of key
+ * @param <V> type of value
+ */
+public abstract class CompressedTextOutputFormat<K, V> extends FileOutputFormat<K, V> {
+
+  @Override
+  public RecordWriter<K, V> getRecordWriter(TaskAttemptContext job) throws IOException {
+    Configuration conf = job.getConfiguration();
+    CompressionCodec codec = null;
+    String extension = "";
+    if (getCompressOutput(job)) {
+      Class<? extends CompressionCodec> codecClass = getOutputCompressorClass(job, GzipCodec.class);
+      codec = ReflectionUtils.newInstance(codecClass, conf);
+      extension = codec.getDefaultExtension();
+    }
+    Path file = getDefaultWorkFile(job, extension);
+    FileSystem fs = file.getFileSystem(conf);
+    OutputStream out = fs.create(file, false);
+    if (codec != null) {
+      out = codec.createOutputStream(out);
+    }
+    return createWriter(out, conf);
+  }
+
+  /**
+   * Creates the writer of a file.
+   *
+   * @param out the stream of the file, which compresses the data if compression is enabled. It must be closed when
+   *   the writer is closed.
+   * @param conf the configuration of the task
+   */
+  protected abstract RecordWriter<K, V> createWriter(OutputStream out, Configuration conf) throws IOException;
+}
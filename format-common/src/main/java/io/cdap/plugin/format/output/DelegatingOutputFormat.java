@@ -18,32 +18,120 @@ package io.cdap.plugin.format.output;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.dataset.lib.KeyValue;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.OutputCommitter;
 import org.apache.hadoop.mapreduce.OutputFormat;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import javax.annotation.Nullable;
 
 /**
  * A output format that transforms a StructuredRecord into some other object, then delegates writing to another
  * output format.
  *
+ * If partition fields are configured, records are written into Hive style partition directories by a
+ * {@link PartitionedRecordWriter}. If a maximum file size or number of records is configured, each writer rolls
+ * over to a new file when the limit is reached. Additional files of a directory are named after the output name
+ * with the index of the file appended, such as 'part-1-m-00000'.
+ *
  * @param <K> output key type of the delegate
  * @param <V> output value type of the delegate
  */
 public abstract class DelegatingOutputFormat<K, V> extends OutputFormat<NullWritable, StructuredRecord> {
+  /**
+   * Comma separated list of fields to partition the output by. Output is not partitioned if it is not set.
+   */
+  public static final String PARTITION_FIELDS = "path.tracking.output.partition.fields";
+  /**
+   * Maximum number of partition writers each task keeps open.
+   */
+  public static final String MAX_OPEN_WRITERS = "path.tracking.output.max.open.writers";
+  public static final int DEFAULT_MAX_OPEN_WRITERS = 16;
+  /**
+   * Maximum number of bytes written to a file before rolling over to a new one. Files are not rolled by size if it
+   * is not set or not positive.
+   */
+  public static final String MAX_FILE_BYTES = "path.tracking.output.max.file.bytes";
+  /**
+   * Maximum number of records written to a file before rolling over to a new one. Files are not rolled by number of
+   * records if it is not set or not positive.
+   */
+  public static final String MAX_FILE_RECORDS = "path.tracking.output.max.file.records";
+  // same as FileOutputFormat.BASE_OUTPUT_NAME, which is not public
+  private static final String BASE_OUTPUT_NAME = "mapreduce.output.basename";
+  // Avro output formats name their files after this property instead of the base output name
+  private static final String AVRO_OUTPUT_NAME = "avro.mo.config.namedOutput";
+  private static final String DEFAULT_BASE_OUTPUT_NAME = "part";
   private OutputFormat<K, V> delegate;
 
   @Override
   public RecordWriter<NullWritable, StructuredRecord> getRecordWriter(TaskAttemptContext context)
     throws IOException, InterruptedException {
-    RecordWriter<K, V> delegateWriter = getDelegate().getRecordWriter(context);
-    return new DelegatingRecordWriter<>(delegateWriter, getConversion(context), getHeader(context));
+    Configuration conf = context.getConfiguration();
+    // number of files started in each directory by this task, used to give each file a unique name
+    Map<String, Integer> fileCounts = new HashMap<>();
+    String[] partitionFields = conf.getTrimmedStrings(PARTITION_FIELDS);
+    if (partitionFields.length > 0) {
+      int maxOpenWriters = conf.getInt(MAX_OPEN_WRITERS, DEFAULT_MAX_OPEN_WRITERS);
+      return new PartitionedRecordWriter(partitionFields, maxOpenWriters,
+                                         partition -> createWriter(context, partition, fileCounts), context);
+    }
+    return createWriter(context, "", fileCounts);
+  }
+
+  /**
+   * Creates a writer for the files in a directory, which is empty for the output directory itself.
+   */
+  private RecordWriter<NullWritable, StructuredRecord> createWriter(TaskAttemptContext context, String directory,
+                                                                    Map<String, Integer> fileCounts)
+    throws IOException, InterruptedException {
+    Configuration conf = context.getConfiguration();
+    long maxFileBytes = conf.getLong(MAX_FILE_BYTES, 0L);
+    long maxFileRecords = conf.getLong(MAX_FILE_RECORDS, 0L);
+    if (maxFileBytes <= 0 && maxFileRecords <= 0) {
+      TaskAttemptContext fileContext = getFileContext(context, directory, fileCounts);
+      return new DelegatingRecordWriter<>(getDelegate().getRecordWriter(fileContext), getConversion(fileContext),
+                                          getHeader(fileContext));
+    }
+    LongSupplier bytesWritten = null;
+    if (maxFileBytes > 0) {
+      Path outputPath = FileOutputFormat.getOutputPath(context);
+      bytesWritten = new ThreadBytesWritten(outputPath.getFileSystem(conf));
+    }
+    return new DelegatingRecordWriter<>(
+      () -> getDelegate().getRecordWriter(getFileContext(context, directory, fileCounts)),
+      getConversion(context), getHeader(context), maxFileBytes, maxFileRecords, bytesWritten, context);
+  }
+
+  /**
+   * Returns the context to create the writer of the next file in a directory with. The delegate names its file after
+   * the output name in the configuration, so the directory and file index are added to it, the same way as
+   * MultipleOutputs does.
+   */
+  private TaskAttemptContext getFileContext(TaskAttemptContext context, String directory,
+                                            Map<String, Integer> fileCounts) {
+    int fileIndex = fileCounts.merge(directory, 1, Integer::sum) - 1;
+    if (directory.isEmpty() && fileIndex == 0) {
+      return context;
+    }
+    Configuration conf = new Configuration(context.getConfiguration());
+    String baseName = conf.get(BASE_OUTPUT_NAME, DEFAULT_BASE_OUTPUT_NAME);
+    String fileName = fileIndex == 0 ? baseName : String.format("%s-%d", baseName, fileIndex);
+    String outputName = directory.isEmpty() ? fileName : String.format("%s/%s", directory, fileName);
+    conf.set(BASE_OUTPUT_NAME, outputName);
+    conf.set(AVRO_OUTPUT_NAME, outputName);
+    return new TaskAttemptContextImpl(conf, context.getTaskAttemptID());
   }
 
   @Override
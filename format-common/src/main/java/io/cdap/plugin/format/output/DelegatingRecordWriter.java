@@ -24,19 +24,32 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 
 import java.io.IOException;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import javax.annotation.Nullable;
 
 /**
  * A record writer that transforms a StructuredRecord into some other object and delegates the actual write.
  *
+ * When created with a {@link DelegateFactory}, the writer rolls over to a new file once the current one reaches a
+ * maximum number of bytes or records. The current delegate is closed, which finalizes the footer of formats such
+ * as Parquet, ORC and Avro, and the next record is written to a new delegate. Bytes are counted as they reach the
+ * file system, so formats that buffer a row group or stripe in memory only grow when the buffer is flushed.
+ *
  * @param <K> output key type of the delegate
  * @param <V> output value type of the delegate
  */
 public class DelegatingRecordWriter<K, V> extends RecordWriter<NullWritable, StructuredRecord> {
-  private final RecordWriter<K, V> delegate;
+  private final DelegateFactory<K, V> delegateFactory;
   private final Function<StructuredRecord, KeyValue<K, V>> conversion;
   private final Function<StructuredRecord, KeyValue<K, V>> header;
+  private final long maxFileBytes;
+  private final long maxFileRecords;
+  private final LongSupplier bytesWritten;
+  private final TaskAttemptContext context;
+  private RecordWriter<K, V> delegate;
   private boolean isHeader;
+  private long fileBytes;
+  private long fileRecords;
 
   public DelegatingRecordWriter(RecordWriter<K, V> delegate, Function<StructuredRecord, KeyValue<K, V>> conversion) {
     this(delegate, conversion, null);
@@ -44,14 +57,51 @@ public class DelegatingRecordWriter<K, V> extends RecordWriter<NullWritable, Str
 
   public DelegatingRecordWriter(RecordWriter<K, V> delegate, Function<StructuredRecord, KeyValue<K, V>> conversion,
                                 @Nullable Function<StructuredRecord, KeyValue<K, V>> header) {
+    this.delegateFactory = null;
     this.delegate = delegate;
     this.conversion = conversion;
     this.header = header;
+    this.maxFileBytes = 0L;
+    this.maxFileRecords = 0L;
+    this.bytesWritten = null;
+    this.context = null;
     this.isHeader = true;
   }
 
+  /**
+   * Creates a writer that rolls over to a new delegate when a file reaches the given size or number of records.
+   * A limit of zero or less disables it.
+   *
+   * @param delegateFactory creates the delegate for each file
+   * @param bytesWritten returns the number of bytes written to the file system by the current thread,
+   *                     only used if a maximum number of bytes is set
+   * @param context the context used to close delegates when rolling over
+   */
+  public DelegatingRecordWriter(DelegateFactory<K, V> delegateFactory,
+                                Function<StructuredRecord, KeyValue<K, V>> conversion,
+                                @Nullable Function<StructuredRecord, KeyValue<K, V>> header,
+                                long maxFileBytes, long maxFileRecords, @Nullable LongSupplier bytesWritten,
+                                TaskAttemptContext context) throws IOException, InterruptedException {
+    if (maxFileBytes > 0 && bytesWritten == null) {
+      throw new IllegalArgumentException("A count of bytes written is required to roll files by size.");
+    }
+    this.delegateFactory = delegateFactory;
+    this.conversion = conversion;
+    this.header = header;
+    this.maxFileBytes = maxFileBytes;
+    this.maxFileRecords = maxFileRecords;
+    this.bytesWritten = bytesWritten;
+    this.context = context;
+    // the first file is opened right away so that a task without records still writes a file, as without rolling
+    openDelegate();
+  }
+
   @Override
   public void write(NullWritable key, StructuredRecord value) throws IOException, InterruptedException {
+    if (delegate == null) {
+      openDelegate();
+    }
+    long bytesBefore = maxFileBytes > 0 ? bytesWritten.getAsLong() : 0L;
     if (isHeader && header != null) {
       // don't return here because we need to write both the header (using the record schema)
       // as well as the actual data from the record
@@ -61,10 +111,49 @@ public class DelegatingRecordWriter<K, V> extends RecordWriter<NullWritable, Str
     }
     KeyValue<K, V> converted = conversion.apply(value);
     delegate.write(converted.getKey(), converted.getValue());
+
+    if (delegateFactory == null) {
+      return;
+    }
+    fileRecords++;
+    if (maxFileBytes > 0) {
+      // only count the bytes written during this call, other writers of the task may share the thread
+      fileBytes += bytesWritten.getAsLong() - bytesBefore;
+    }
+    if ((maxFileRecords > 0 && fileRecords >= maxFileRecords) || (maxFileBytes > 0 && fileBytes >= maxFileBytes)) {
+      // the next file is opened by the next write, so that rolling after the last record leaves no empty file
+      RecordWriter<K, V> finished = delegate;
+      delegate = null;
+      finished.close(context);
+    }
   }
 
   @Override
   public void close(TaskAttemptContext context) throws IOException, InterruptedException {
-    delegate.close(context);
+    if (delegate != null) {
+      delegate.close(context);
+      delegate = null;
+    }
+  }
+
+  private void openDelegate() throws IOException, InterruptedException {
+    delegate = delegateFactory.create();
+    isHeader = true;
+    fileBytes = 0L;
+    fileRecords = 0L;
+  }
+
+  /**
+   * Creates the delegate writer for each file.
+   *
+   * @param <K> output key type of the delegate
+   * @param <V> output value type of the delegate
+   */
+  public interface DelegateFactory<K, V> {
+
+    /**
+     * Creates a writer for a new file.
+     */
+    RecordWriter<K, V> create() throws IOException, InterruptedException;
   }
 }
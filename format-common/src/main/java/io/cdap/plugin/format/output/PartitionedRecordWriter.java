@@ -0,0 +1,208 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.output;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A record writer that writes each record into a Hive style partition directory, such as
+ * 'country=US/date=2024-01-01', based on the values of the partition fields of the record.
+ *
+ * A writer is opened for each partition the task writes to. At most a fixed number of writers are kept open,
+ * closing the least recently used one when another partition is needed. If a partition is written to again after
+ * its writer was closed, a new file is started in the partition. When the records are sorted by the partition
+ * fields, a limit of one open writer writes a single file per partition.
+ */
+public class PartitionedRecordWriter extends RecordWriter<NullWritable, StructuredRecord> {
+  /**
+   * Value used for partitions of null field values, the same as Hive.
+   */
+  static final String DEFAULT_PARTITION = "__HIVE_DEFAULT_PARTITION__";
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionedRecordWriter.class);
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  private final String[] partitionFields;
+  private final int maxOpenWriters;
+  private final WriterFactory writerFactory;
+  private final TaskAttemptContext context;
+  private final LinkedHashMap<String, RecordWriter<NullWritable, StructuredRecord>> writers;
+  private final StringBuilder pathBuilder;
+
+  public PartitionedRecordWriter(String[] partitionFields, int maxOpenWriters, WriterFactory writerFactory,
+                                 TaskAttemptContext context) {
+    if (maxOpenWriters < 1) {
+      throw new IllegalArgumentException("The maximum number of open writers must be at least 1, but is "
+                                           + maxOpenWriters);
+    }
+    this.partitionFields = partitionFields;
+    this.maxOpenWriters = maxOpenWriters;
+    this.writerFactory = writerFactory;
+    this.context = context;
+    this.writers = new LinkedHashMap<>(16, 0.75f, true);
+    this.pathBuilder = new StringBuilder();
+  }
+
+  @Override
+  public void write(NullWritable key, StructuredRecord record) throws IOException, InterruptedException {
+    String partition = getPartitionPath(record);
+    RecordWriter<NullWritable, StructuredRecord> writer = writers.get(partition);
+    if (writer == null) {
+      if (writers.size() >= maxOpenWriters) {
+        closeLeastRecentlyUsed();
+      }
+      writer = writerFactory.create(partition);
+      writers.put(partition, writer);
+    }
+    writer.write(key, record);
+  }
+
+  @Override
+  public void close(TaskAttemptContext context) throws IOException, InterruptedException {
+    IOException failure = null;
+    for (RecordWriter<NullWritable, StructuredRecord> writer : writers.values()) {
+      try {
+        writer.close(context);
+      } catch (IOException e) {
+        // close the remaining writers so that their files and buffers are released
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    writers.clear();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void closeLeastRecentlyUsed() throws IOException, InterruptedException {
+    Iterator<Map.Entry<String, RecordWriter<NullWritable, StructuredRecord>>> iterator = writers.entrySet().iterator();
+    Map.Entry<String, RecordWriter<NullWritable, StructuredRecord>> eldest = iterator.next();
+    iterator.remove();
+    LOG.debug("Closing the writer for partition {} to stay within {} open writers", eldest.getKey(), maxOpenWriters);
+    eldest.getValue().close(context);
+  }
+
+  /**
+   * Returns the relative directory of the partition of the record, such as 'country=US/date=2024-01-01'.
+   */
+  String getPartitionPath(StructuredRecord record) {
+    StringBuilder builder = pathBuilder;
+    builder.setLength(0);
+    for (String field : partitionFields) {
+      if (builder.length() > 0) {
+        builder.append('/');
+      }
+      escape(field, builder);
+      builder.append('=');
+      String value = getPartitionValue(record, field);
+      if (value == null) {
+        builder.append(DEFAULT_PARTITION);
+      } else {
+        escape(value, builder);
+      }
+    }
+    return builder.toString();
+  }
+
+  private static String getPartitionValue(StructuredRecord record, String field) {
+    Object value = record.get(field);
+    if (value == null) {
+      return null;
+    }
+    Schema.Field schemaField = record.getSchema().getField(field);
+    Schema schema = schemaField == null ? null : schemaField.getSchema();
+    if (schema != null && schema.isNullable()) {
+      schema = schema.getNonNullable();
+    }
+    if (schema != null && schema.getLogicalType() == Schema.LogicalType.DATE) {
+      return record.getDate(field).toString();
+    }
+    return value.toString();
+  }
+
+  /**
+   * Escapes characters that are not allowed in a partition directory name, the same way as Hive.
+   */
+  static void escape(String value, StringBuilder builder) {
+    if (value.isEmpty()) {
+      builder.append(DEFAULT_PARTITION);
+      return;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (needsEscaping(c)) {
+        builder.append('%').append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+      } else {
+        builder.append(c);
+      }
+    }
+  }
+
+  private static boolean needsEscaping(char c) {
+    if (c < ' ' || c == 0x7F) {
+      return true;
+    }
+    switch (c) {
+      case '"':
+      case '#':
+      case '%':
+      case '\'':
+      case '*':
+      case '/':
+      case ':':
+      case '=':
+      case '?':
+      case '\\':
+      case '{':
+      case '[':
+      case ']':
+      case '^':
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Creates the writer for a file in a partition.
+   */
+  public interface WriterFactory {
+
+    /**
+     * Creates a writer for new files in the given partition directory. Files must not replace the files of
+     * writers previously created for the same partition.
+     *
+     * @param partition the relative directory of the partition
+     */
+    RecordWriter<NullWritable, StructuredRecord> create(String partition)
+      throws IOException, InterruptedException;
+  }
+}
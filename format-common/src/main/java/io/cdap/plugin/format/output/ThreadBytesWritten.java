@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.output;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FilterFileSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Returns the number of bytes the current thread has written to a file system, as counted by the
+ * {@link FileSystem.Statistics} of the file system. This includes bytes written by the file system on behalf of
+ * the writer, such as checksum files.
+ */
+final class ThreadBytesWritten implements LongSupplier {
+  private final List<FileSystem.Statistics> statistics;
+
+  // the storage statistics that replace FileSystem.Statistics only have counts for all threads together,
+  // which would include the bytes written by other tasks running in the same executor
+  @SuppressWarnings("deprecation")
+  ThreadBytesWritten(FileSystem fs) {
+    this.statistics = new ArrayList<>();
+    // a filter file system, such as the checksummed LocalFileSystem, counts the bytes written by the file system it
+    // wraps in the statistics of that file system
+    FileSystem current = fs;
+    while (true) {
+      statistics.add(FileSystem.getStatistics(current.getUri().getScheme(), current.getClass()));
+      if (!(current instanceof FilterFileSystem) || ((FilterFileSystem) current).getRawFileSystem() == current) {
+        break;
+      }
+      current = ((FilterFileSystem) current).getRawFileSystem();
+    }
+  }
+
+  @Override
+  public long getAsLong() {
+    long bytes = 0L;
+    for (FileSystem.Statistics stats : statistics) {
+      bytes += stats.getThreadStatistics().getBytesWritten();
+    }
+    return bytes;
+  }
+}
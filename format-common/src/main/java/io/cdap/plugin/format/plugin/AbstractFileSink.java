@@ -38,6 +38,7 @@ import io.cdap.cdap.etl.api.validation.ValidatingOutputFormat;
 import io.cdap.plugin.common.LineageRecorder;
 import io.cdap.plugin.common.batch.sink.SinkOutputFormatProvider;
 import io.cdap.plugin.format.FileFormat;
+import io.cdap.plugin.format.output.DelegatingOutputFormat;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 import org.slf4j.Logger;
@@ -45,6 +46,7 @@ import org.slf4j.LoggerFactory;
 
 import java.text.SimpleDateFormat;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -62,6 +64,8 @@ public abstract class AbstractFileSink<T extends PluginConfig & FileSinkProperti
   extends BatchSink<StructuredRecord, NullWritable, StructuredRecord> {
   private static final Logger LOG = LoggerFactory.getLogger(AbstractFileSink.class);
   private static final String NAME_FORMAT = "format";
+  private static final Set<Schema.Type> PARTITION_TYPES =
+    EnumSet.of(Schema.Type.STRING, Schema.Type.INT, Schema.Type.LONG, Schema.Type.BOOLEAN);
   private final T config;
 
   protected AbstractFileSink(T config) {
@@ -96,6 +100,7 @@ public abstract class AbstractFileSink<T extends PluginConfig & FileSinkProperti
     ValidatingOutputFormat validatingOutputFormat = getValidatingOutputFormat(pipelineConfigurer);
     FormatContext context = new FormatContext(collector, pipelineConfigurer.getStageConfigurer().getInputSchema());
     validateOutputFormatProvider(context, format, validatingOutputFormat);
+    validatePartitionFields(collector, pipelineConfigurer.getStageConfigurer().getInputSchema());
   }
 
   protected ValidatingOutputFormat getValidatingOutputFormat(PipelineConfigurer pipelineConfigurer) {
@@ -111,6 +116,7 @@ public abstract class AbstractFileSink<T extends PluginConfig & FileSinkProperti
     ValidatingOutputFormat validatingOutputFormat = getOutputFormatForRun(context);
     FormatContext formatContext = new FormatContext(collector, context.getInputSchema());
     validateOutputFormatProvider(formatContext, format, validatingOutputFormat);
+    validatePartitionFields(collector, context.getInputSchema());
     collector.getOrThrowException();
 
     // record field level lineage information
@@ -129,6 +135,17 @@ public abstract class AbstractFileSink<T extends PluginConfig & FileSinkProperti
     Map<String, String> outputProperties = new HashMap<>(validatingOutputFormat.getOutputFormatConfiguration());
     outputProperties.putAll(getFileSystemProperties(context));
     outputProperties.put(FileOutputFormat.OUTDIR, getOutputDir(context));
+    List<String> partitionFields = config.getPartitionFields();
+    if (!partitionFields.isEmpty()) {
+      outputProperties.put(DelegatingOutputFormat.PARTITION_FIELDS, String.join(",", partitionFields));
+      outputProperties.put(DelegatingOutputFormat.MAX_OPEN_WRITERS, String.valueOf(config.getMaxOpenPartitions()));
+    }
+    if (config.getMaxFileSize() > 0) {
+      outputProperties.put(DelegatingOutputFormat.MAX_FILE_BYTES, String.valueOf(config.getMaxFileSize()));
+    }
+    if (config.getMaxRecordsPerFile() > 0) {
+      outputProperties.put(DelegatingOutputFormat.MAX_FILE_RECORDS, String.valueOf(config.getMaxRecordsPerFile()));
+    }
     if (!Strings.isNullOrEmpty(getErrorDetailsProviderClassName())) {
       context.setErrorDetailsProvider(
           new ErrorDetailsProviderSpec(getErrorDetailsProviderClassName()));
@@ -210,6 +227,32 @@ public abstract class AbstractFileSink<T extends PluginConfig & FileSinkProperti
     return new LineageRecorder(context, config.getReferenceName());
   }
 
+  private void validatePartitionFields(FailureCollector collector, @Nullable Schema inputSchema) {
+    if (inputSchema == null || config.containsMacro(AbstractFileSinkConfig.NAME_PARTITION_FIELDS)) {
+      return;
+    }
+    for (String partitionField : config.getPartitionFields()) {
+      Schema.Field field = inputSchema.getField(partitionField);
+      if (field == null) {
+        collector.addFailure(String.format("Partition field '%s' does not exist in the input schema.", partitionField),
+                             "Remove it from the partition fields.")
+          .withConfigElement(AbstractFileSinkConfig.NAME_PARTITION_FIELDS, partitionField);
+        continue;
+      }
+      Schema fieldSchema = field.getSchema().isNullable() ? field.getSchema().getNonNullable() : field.getSchema();
+      Schema.LogicalType logicalType = fieldSchema.getLogicalType();
+      boolean supported = logicalType == null ? PARTITION_TYPES.contains(fieldSchema.getType()) :
+        logicalType == Schema.LogicalType.DATE;
+      if (!supported) {
+        collector.addFailure(String.format("Partition field '%s' is of unsupported type '%s'.", partitionField,
+                                           fieldSchema.getDisplayName()),
+                             "Partition fields must be of type string, int, long, boolean or date.")
+          .withConfigElement(AbstractFileSinkConfig.NAME_PARTITION_FIELDS, partitionField)
+          .withInputSchemaField(partitionField);
+      }
+    }
+  }
+
   private void validateOutputFormatProvider(FormatContext context, String format,
                                             @Nullable ValidatingOutputFormat validatingOutputFormat) {
     FailureCollector collector = context.getFailureCollector();
@@ -27,10 +27,13 @@ import io.cdap.cdap.api.plugin.PluginConfig;
 import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.plugin.common.IdUtils;
 import io.cdap.plugin.format.FileFormat;
+import io.cdap.plugin.format.output.DelegatingOutputFormat;
 
 import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
 
@@ -42,6 +45,10 @@ public abstract class AbstractFileSinkConfig extends PluginConfig implements Fil
   public static final String NAME_FORMAT = "format";
   public static final String NAME_SCHEMA = "schema";
   public static final String NAME_SUFFIX = "suffix";
+  public static final String NAME_PARTITION_FIELDS = "partitionFields";
+  public static final String NAME_MAX_OPEN_PARTITIONS = "maxOpenPartitions";
+  public static final String NAME_MAX_FILE_SIZE = "maxFileSize";
+  public static final String NAME_MAX_RECORDS_PER_FILE = "maxRecordsPerFile";
 
   @Description("Name be used to uniquely identify this sink for lineage, annotating metadata, etc.")
   private String referenceName;
@@ -75,6 +82,35 @@ public abstract class AbstractFileSinkConfig extends PluginConfig implements Fil
   @Description("The schema of the data to write.")
   private String schema;
 
+  @Macro
+  @Nullable
+  @Description("Comma separated list of fields to partition the output by. Each record is written to a directory "
+    + "of the form 'field1=value1/field2=value2' under the output directory. Partition fields must be of type "
+    + "string, int, long, boolean or date. If not specified, the output is not partitioned.")
+  private String partitionFields;
+
+  @Macro
+  @Nullable
+  @Description("Maximum number of partitions each task keeps a file open for. When a task writes to more partitions, "
+    + "the least recently used file is closed and a new file is started if the partition is written to again. "
+    + "Sorting the records by the partition fields before the sink allows this to be 1. The default value is 16.")
+  private Integer maxOpenPartitions;
+
+  @Macro
+  @Nullable
+  @Description("Maximum size in bytes of each output file. Once a file reaches this size, it is closed and the "
+    + "task continues writing to a new file. Formats that buffer data in memory, such as parquet and orc, only grow "
+    + "when a row group or stripe is flushed, so their files can exceed this size by up to one row group. "
+    + "If not specified or 0, files are not limited in size.")
+  private Long maxFileSize;
+
+  @Macro
+  @Nullable
+  @Description("Maximum number of records in each output file. Once a file contains this many records, it is "
+    + "closed and the task continues writing to a new file. If not specified or 0, files are not limited in the "
+    + "number of records.")
+  private Long maxRecordsPerFile;
+
   public void validate() {
     IdUtils.validateId(referenceName);
     if (suffix != null && !containsMacro(NAME_SUFFIX)) {
@@ -100,6 +136,19 @@ public abstract class AbstractFileSinkConfig extends PluginConfig implements Fil
       }
     }
 
+    if (!containsMacro(NAME_MAX_OPEN_PARTITIONS) && maxOpenPartitions != null && maxOpenPartitions < 1) {
+      collector.addFailure(String.format("Invalid maximum number of open partitions '%d'.", maxOpenPartitions),
+                           "Set it to at least 1.").withConfigProperty(NAME_MAX_OPEN_PARTITIONS);
+    }
+    if (!containsMacro(NAME_MAX_FILE_SIZE) && maxFileSize != null && maxFileSize < 0) {
+      collector.addFailure(String.format("Invalid maximum file size '%d'.", maxFileSize),
+                           "Set it to 0 or a positive number of bytes.").withConfigProperty(NAME_MAX_FILE_SIZE);
+    }
+    if (!containsMacro(NAME_MAX_RECORDS_PER_FILE) && maxRecordsPerFile != null && maxRecordsPerFile < 0) {
+      collector.addFailure(String.format("Invalid maximum number of records per file '%d'.", maxRecordsPerFile),
+                           "Set it to 0 or a positive number.").withConfigProperty(NAME_MAX_RECORDS_PER_FILE);
+    }
+
     // if failure collector has not collected any errors, that would mean either validation has succeeded or config
     // is using deprecated validate method without collector. In that case, call deprecated validate method.
     if (collector.getValidationFailures().isEmpty()) {
@@ -138,6 +187,35 @@ public abstract class AbstractFileSinkConfig extends PluginConfig implements Fil
     }
   }
 
+  @Override
+  public List<String> getPartitionFields() {
+    if (Strings.isNullOrEmpty(partitionFields)) {
+      return Collections.emptyList();
+    }
+    List<String> fields = new ArrayList<>();
+    for (String field : partitionFields.split(",")) {
+      if (!field.trim().isEmpty()) {
+        fields.add(field.trim());
+      }
+    }
+    return fields;
+  }
+
+  @Override
+  public int getMaxOpenPartitions() {
+    return maxOpenPartitions == null ? DelegatingOutputFormat.DEFAULT_MAX_OPEN_WRITERS : maxOpenPartitions;
+  }
+
+  @Override
+  public long getMaxFileSize() {
+    return maxFileSize == null ? 0L : maxFileSize;
+  }
+
+  @Override
+  public long getMaxRecordsPerFile() {
+    return maxRecordsPerFile == null ? 0L : maxRecordsPerFile;
+  }
+
   @Override
   public String getFormatName() {
     // need to do this for backwards compatibility, where the pre-packaged format names were case insensitive.
@@ -42,6 +42,7 @@ import io.cdap.plugin.format.FileFormat;
 import io.cdap.plugin.format.RegexPathFilter;
 import io.cdap.plugin.format.SchemaDetector;
 import io.cdap.plugin.format.input.EmptyInputFormat;
+import io.cdap.plugin.format.input.IncrementalFileState;
 import io.cdap.plugin.format.input.PathTrackingInputFormat;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
@@ -79,7 +80,11 @@ public abstract class AbstractFileSource<T extends PluginConfig & FileSourceProp
   extends BatchSource<NullWritable, StructuredRecord, StructuredRecord> {
   private static final Logger LOG = LoggerFactory.getLogger(AbstractFileSource.class);
   private static final String NAME_FORMAT = "format";
+  private static final String DEFAULT_INCREMENTAL_STATE_FILE = "_incremental_state.json";
   private final T config;
+  // set in prepareRun when reading incrementally, used to commit the state in onRunFinish
+  private Path incrementalStatePath;
+  private Path pendingStatePath;
 
   protected AbstractFileSource(T config) {
     this.config = config;
@@ -259,6 +264,9 @@ public abstract class AbstractFileSource<T extends PluginConfig & FileSourceProp
         // schema will not be in the inputformat configuration if it was auto-detected, so need to add it here
         hConf.set(PathTrackingInputFormat.SCHEMA, schema.toString());
       }
+      if (config.isIncremental()) {
+        configureIncrementalState(collector, hConf, fileStatus, context.getLogicalStartTime());
+      }
     }
 
     // set entries here again, in case anything set by PathTrackingInputFormat should be overridden
@@ -272,6 +280,54 @@ public abstract class AbstractFileSource<T extends PluginConfig & FileSourceProp
     context.setInput(Input.of(config.getReferenceName(), new SourceInputFormatProvider(inputFormatClass, conf)));
   }
 
+  @Override
+  public void onRunFinish(boolean succeeded, BatchSourceContext context) {
+    super.onRunFinish(succeeded, context);
+    if (pendingStatePath == null) {
+      return;
+    }
+    Configuration conf = new Configuration();
+    for (Map.Entry<String, String> entry : getFileSystemProperties(context).entrySet()) {
+      conf.set(entry.getKey(), entry.getValue());
+    }
+    try {
+      if (succeeded) {
+        IncrementalFileState.commit(conf, incrementalStatePath, pendingStatePath);
+      } else {
+        IncrementalFileState.abort(conf, pendingStatePath);
+      }
+    } catch (IOException e) {
+      String errorReason = String.format("Failed to update the incremental state file %s, %s: %s",
+                                         incrementalStatePath, e.getClass().getName(), e.getMessage());
+      throw ErrorUtils.getProgramFailureException(new ErrorCategory(ErrorCategory.ErrorCategoryEnum.PLUGIN),
+        errorReason, errorReason, ErrorType.SYSTEM, true, e);
+    }
+  }
+
+  /**
+   * Configures the input format to only read files added since the last successful run. The state is stored in
+   * the configured path, or in the input directory by default. The state of this run is written next to it and
+   * renamed once the run succeeds.
+   */
+  private void configureIncrementalState(FailureCollector collector, Configuration hConf, FileStatus[] fileStatus,
+                                         long logicalStartTime) {
+    String statePath = config.getIncrementalStatePath();
+    if (statePath != null) {
+      incrementalStatePath = new Path(statePath);
+    } else if (fileStatus.length == 1 && fileStatus[0].isDirectory()) {
+      // files starting with '_' are hidden from the input listing
+      incrementalStatePath = new Path(fileStatus[0].getPath(), DEFAULT_INCREMENTAL_STATE_FILE);
+    } else {
+      collector.addFailure("An incremental state path must be set when the path is not a single directory.", null)
+        .withConfigProperty(AbstractFileSourceConfig.NAME_INCREMENTAL_STATE_PATH);
+      throw collector.getOrThrowException();
+    }
+    pendingStatePath = new Path(incrementalStatePath.getParent(),
+                                String.format("%s.%d.pending", incrementalStatePath.getName(), logicalStartTime));
+    hConf.set(IncrementalFileState.STATE, incrementalStatePath.toString());
+    hConf.set(IncrementalFileState.PENDING_STATE, pendingStatePath.toString());
+  }
+
   protected String getErrorDetailsProviderClassName() {
     return null;
   }
@@ -25,6 +25,7 @@ import io.cdap.cdap.api.plugin.PluginConfig;
 import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.plugin.common.IdUtils;
 import io.cdap.plugin.format.FileFormat;
+import io.cdap.plugin.format.charset.LineTranscoder;
 import io.cdap.plugin.format.charset.fixedlength.FixedLengthCharset;
 
 import java.util.regex.Pattern;
@@ -39,6 +40,8 @@ public abstract class AbstractFileSourceConfig extends PluginConfig implements F
   public static final String NAME_FORMAT = "format";
   public static final String NAME_SCHEMA = "schema";
   public static final String NAME_DELIMITER = "delimiter";
+  public static final String NAME_INCREMENTAL = "incremental";
+  public static final String NAME_INCREMENTAL_STATE_PATH = "incrementalStatePath";
   public static final String DEFAULT_FILE_ENCODING = "UTF-8";
 
   @Description("Name be used to uniquely identify this source for lineage, annotating metadata, etc.")
@@ -120,6 +123,21 @@ public abstract class AbstractFileSourceConfig extends PluginConfig implements F
   @Description("File encoding for the source files. The default encoding is 'UTF-8'")
   private String fileEncoding;
 
+  @Name(NAME_INCREMENTAL)
+  @Macro
+  @Nullable
+  @Description("Whether to only read files that were added since the last successful run. Files are considered "
+    + "added if their modification time is later than that of the files read by previous runs. "
+    + "The default value is false.")
+  private Boolean incremental;
+
+  @Name(NAME_INCREMENTAL_STATE_PATH)
+  @Macro
+  @Nullable
+  @Description("Path of the file used to remember which files were read when reading incrementally. "
+    + "If not specified, a file named '_incremental_state.json' in the input directory is used.")
+  private String incrementalStatePath;
+
   // this is a hidden property that only exists for wrangler's parse-as-csv that uses the header as the schema
   // when this is true and the format is text, the header will be the first record returned by every record reader
   @Nullable
@@ -133,6 +151,7 @@ public abstract class AbstractFileSourceConfig extends PluginConfig implements F
     recursive = false;
     filenameOnly = false;
     copyHeader = false;
+    incremental = false;
   }
 
   public void validate() {
@@ -149,7 +168,7 @@ public abstract class AbstractFileSourceConfig extends PluginConfig implements F
     }
 
     if (getFileEncoding() != null && !getFileEncoding().equals(getDefaultFileEncoding())) {
-      if (!FixedLengthCharset.isValidEncoding(getFileEncoding())) {
+      if (!FixedLengthCharset.isValidEncoding(getFileEncoding()) && !LineTranscoder.isSupported(getFileEncoding())) {
         collector.addFailure("Specified file encoding is not valid.",
                              "Use one of the supported file encodings.");
       }
@@ -224,6 +243,17 @@ public abstract class AbstractFileSourceConfig extends PluginConfig implements F
     return skipHeader == null ? false : skipHeader;
   }
 
+  @Override
+  public boolean isIncremental() {
+    return incremental != null && incremental;
+  }
+
+  @Nullable
+  @Override
+  public String getIncrementalStatePath() {
+    return Strings.isNullOrEmpty(incrementalStatePath) ? null : incrementalStatePath;
+  }
+
   @Nullable
   public String getFileEncoding() {
     String encoding = fileEncoding == null || fileEncoding.isEmpty() ?
@@ -20,7 +20,10 @@ import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.cdap.etl.api.StageContext;
 import io.cdap.plugin.format.FileFormat;
+import io.cdap.plugin.format.output.DelegatingOutputFormat;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
 
@@ -117,4 +120,35 @@ public interface FileSinkProperties {
    */
   @Nullable
   String getSuffix();
+
+  /**
+   * Get the fields to partition the output by. Each record is written to a directory of the form
+   * 'field1=value1/field2=value2' under the output directory. If empty, the output is not partitioned.
+   */
+  default List<String> getPartitionFields() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Get the maximum number of partitions each task keeps a file open for, if the output is partitioned.
+   */
+  default int getMaxOpenPartitions() {
+    return DelegatingOutputFormat.DEFAULT_MAX_OPEN_WRITERS;
+  }
+
+  /**
+   * Get the maximum size in bytes of each output file. A task rolls over to a new file once the current one reaches
+   * this size. If zero, files are not rolled by size.
+   */
+  default long getMaxFileSize() {
+    return 0L;
+  }
+
+  /**
+   * Get the maximum number of records in each output file. A task rolls over to a new file once the current one
+   * contains this many records. If zero, files are not rolled by number of records.
+   */
+  default long getMaxRecordsPerFile() {
+    return 0L;
+  }
 }
@@ -138,4 +138,20 @@ public interface FileSourceProperties {
    */
   @Nullable
   Schema getSchema();
+
+  /**
+   * Whether to only read files that were added since the last successful run.
+   */
+  default boolean isIncremental() {
+    return false;
+  }
+
+  /**
+   * The path of the file that stores the files read by previous runs, if {@link #isIncremental()} is true.
+   * If not specified, the state is stored in the input directory.
+   */
+  @Nullable
+  default String getIncrementalStatePath() {
+    return null;
+  }
 }
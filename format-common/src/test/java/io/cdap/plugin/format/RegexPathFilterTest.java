@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tests for {@link RegexPathFilter}.
+ */
+public class RegexPathFilterTest {
+
+  @Test
+  public void testLiteralPrefix() {
+    Assert.assertEquals("/data/2024/", RegexPathFilter.getLiteralPrefix("/data/2024/.*\\.csv"));
+    Assert.assertEquals("/data/2024/", RegexPathFilter.getLiteralPrefix("^/data/2024/[0-9]+/.*"));
+    Assert.assertEquals("/data/202", RegexPathFilter.getLiteralPrefix("/data/2024?/.*"));
+    Assert.assertEquals("/data/", RegexPathFilter.getLiteralPrefix("/data/\\d+"));
+    Assert.assertEquals("", RegexPathFilter.getLiteralPrefix(".*\\.csv"));
+    Assert.assertEquals("", RegexPathFilter.getLiteralPrefix("/data/a.*|/other/.*"));
+  }
+
+  @Test
+  public void testCanContainMatches() {
+    Configuration conf = new Configuration();
+    RegexPathFilter.configure(conf, Pattern.compile("/data/2024/0[1-6]/.*"));
+    RegexPathFilter filter = new RegexPathFilter();
+    filter.setConf(conf);
+
+    Assert.assertTrue(filter.canContainMatches(new Path("file:/data")));
+    Assert.assertTrue(filter.canContainMatches(new Path("file:/data/2024")));
+    Assert.assertTrue(filter.canContainMatches(new Path("file:/data/2024/01")));
+    Assert.assertTrue(filter.canContainMatches(new Path("file:/data/2024/01/nested")));
+    Assert.assertFalse(filter.canContainMatches(new Path("file:/data/2023")));
+    Assert.assertFalse(filter.canContainMatches(new Path("file:/data/20245")));
+    Assert.assertFalse(filter.canContainMatches(new Path("file:/other")));
+  }
+}
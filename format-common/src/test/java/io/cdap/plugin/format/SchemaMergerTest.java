@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin.format;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SchemaMerger}.
+ */
+public class SchemaMergerTest {
+
+  @Test
+  public void testAddedFieldsBecomeNullable() {
+    Schema first = Schema.recordOf("x",
+                                   Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                   Schema.Field.of("name", Schema.of(Schema.Type.STRING)));
+    Schema second = Schema.recordOf("y",
+                                    Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                    Schema.Field.of("score", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+                                    Schema.Field.of("tags", Schema.arrayOf(Schema.of(Schema.Type.STRING))));
+    Schema expected = Schema.recordOf("x",
+                                      Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                      Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                                      Schema.Field.of("score", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+                                      Schema.Field.of("tags", Schema.nullableOf(
+                                        Schema.arrayOf(Schema.of(Schema.Type.STRING)))));
+    Assert.assertEquals(expected, SchemaMerger.merge(first, second));
+    Assert.assertSame(first, SchemaMerger.merge(first, first));
+  }
+
+  @Test
+  public void testNumericWidening() {
+    Schema first = Schema.recordOf("x",
+                                   Schema.Field.of("a", Schema.of(Schema.Type.INT)),
+                                   Schema.Field.of("b", Schema.of(Schema.Type.FLOAT)),
+                                   Schema.Field.of("c", Schema.nullableOf(Schema.of(Schema.Type.LONG))),
+                                   Schema.Field.of("d", Schema.arrayOf(Schema.of(Schema.Type.INT))));
+    Schema second = Schema.recordOf("x",
+                                    Schema.Field.of("a", Schema.of(Schema.Type.LONG)),
+                                    Schema.Field.of("b", Schema.of(Schema.Type.LONG)),
+                                    Schema.Field.of("c", Schema.of(Schema.Type.INT)),
+                                    Schema.Field.of("d", Schema.arrayOf(Schema.of(Schema.Type.DOUBLE))));
+    Schema expected = Schema.recordOf("x",
+                                      Schema.Field.of("a", Schema.of(Schema.Type.LONG)),
+                                      Schema.Field.of("b", Schema.of(Schema.Type.DOUBLE)),
+                                      Schema.Field.of("c", Schema.nullableOf(Schema.of(Schema.Type.LONG))),
+                                      Schema.Field.of("d", Schema.arrayOf(Schema.of(Schema.Type.DOUBLE))));
+    Assert.assertEquals(expected, SchemaMerger.merge(first, second));
+  }
+
+  @Test
+  public void testNestedRecords() {
+    Schema first = Schema.recordOf("x", Schema.Field.of("inner", Schema.recordOf(
+      "inner", Schema.Field.of("a", Schema.of(Schema.Type.INT)))));
+    Schema second = Schema.recordOf("x", Schema.Field.of("inner", Schema.nullableOf(Schema.recordOf(
+      "inner", Schema.Field.of("b", Schema.of(Schema.Type.STRING))))));
+    Schema expected = Schema.recordOf("x", Schema.Field.of("inner", Schema.nullableOf(Schema.recordOf(
+      "inner",
+      Schema.Field.of("a", Schema.nullableOf(Schema.of(Schema.Type.INT))),
+      Schema.Field.of("b", Schema.nullableOf(Schema.of(Schema.Type.STRING)))))));
+    Assert.assertEquals(expected, SchemaMerger.merge(first, second));
+  }
+
+  @Test
+  public void testIncompatibleTypes() {
+    Schema first = Schema.recordOf("x", Schema.Field.of("inner", Schema.recordOf(
+      "inner", Schema.Field.of("a", Schema.of(Schema.Type.INT)))));
+    Schema second = Schema.recordOf("x", Schema.Field.of("inner", Schema.recordOf(
+      "inner", Schema.Field.of("a", Schema.of(Schema.Type.STRING)))));
+    try {
+      SchemaMerger.merge(first, second);
+      Assert.fail("Merging incompatible schemas should fail");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("Field 'inner.a' is of type 'int' in one schema and of type 'string' in the other.",
+                          e.getMessage());
+    }
+
+    // logical types are not widened
+    Schema date = Schema.recordOf("x", Schema.Field.of("a", Schema.of(Schema.LogicalType.DATE)));
+    Schema integer = Schema.recordOf("x", Schema.Field.of("a", Schema.of(Schema.Type.LONG)));
+    try {
+      SchemaMerger.merge(date, integer);
+      Assert.fail("Merging incompatible schemas should fail");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
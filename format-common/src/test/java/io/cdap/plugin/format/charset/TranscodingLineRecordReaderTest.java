@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.charset;
+
+import io.cdap.plugin.format.charset.fixedlength.FixedLengthCharsetTransformingDecompressor;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Tests for {@link TranscodingLineRecordReader}.
+ */
+public class TranscodingLineRecordReaderTest {
+  private static final List<String> LINES = Arrays.asList("abc", "Grüße, café", "", "déjà vu", "¿qué?");
+
+  @Rule
+  public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void testSingleByteCharsets() throws IOException {
+    for (String charset : new String[] { "ISO-8859-1", "windows-1252", "ISO-8859-15" }) {
+      File file = write(charset, String.join("\n", LINES) + "\n");
+      Assert.assertEquals(charset, LINES, read(file, charset, null, 0, file.length()));
+    }
+  }
+
+  @Test
+  public void testEbcdic() throws IOException {
+    // IBM037 decodes both 0x15 and 0x25 to a line feed, and 0x0A is a control character
+    File file = write("IBM037", "abc\nDEF 123\r\nxyz\n\u008E");
+    Assert.assertEquals(Arrays.asList("abc", "DEF 123", "xyz", "\u008E"), read(file, "IBM037", null, 0, file.length()));
+    file = tmpFolder.newFile();
+    Files.write(file.toPath(), new byte[] { (byte) 0x81, 0x25, (byte) 0x82, 0x15, (byte) 0x83 });
+    Assert.assertEquals(Arrays.asList("a", "b", "c"), read(file, "IBM037", null, 0, file.length()));
+  }
+
+  @Test
+  public void testVariableLengthCharsets() throws IOException {
+    List<String> lines = Arrays.asList("日本語のテキスト", "ソース", "表示", "abc");
+    for (String charset : new String[] { "Shift_JIS", "windows-31j", "EUC-JP" }) {
+      File file = write(charset, String.join("\r\n", lines));
+      Assert.assertEquals(charset, lines, read(file, charset, null, 0, file.length()));
+    }
+    List<String> chinese = Arrays.asList("中文文本", "繁體", "abc");
+    for (String charset : new String[] { "GBK", "GB18030", "Big5" }) {
+      File file = write(charset, String.join("\n", chinese));
+      Assert.assertEquals(charset, chinese, read(file, charset, null, 0, file.length()));
+    }
+  }
+
+  @Test
+  public void testSplitsAtEveryOffset() throws IOException {
+    List<String> lines = Arrays.asList("表示ソース", "Grüße", "", "日本", "abc\\", "ｱｲｳ");
+    for (String charset : new String[] { "windows-1252", "Shift_JIS", "IBM037" }) {
+      List<String> expected = new ArrayList<>();
+      for (String line : lines) {
+        if (Charset.forName(charset).newEncoder().canEncode(line)) {
+          expected.add(line);
+        }
+      }
+      File file = write(charset, String.join("\n", expected) + "\n");
+      long length = file.length();
+      for (long splitPoint = 1; splitPoint <= length; splitPoint++) {
+        List<String> actual = new ArrayList<>(read(file, charset, null, 0, splitPoint));
+        actual.addAll(read(file, charset, null, splitPoint, length - splitPoint));
+        Assert.assertEquals(charset + " split at " + splitPoint, expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void testCustomDelimiter() throws IOException {
+    File file = write("Shift_JIS", "表示,ソース\n,abc");
+    Assert.assertEquals(Arrays.asList("表示", "ソース\n", "abc"), read(file, "Shift_JIS", ",", 0, file.length()));
+    file = write("IBM037", "abc\n|def");
+    Assert.assertEquals(Arrays.asList("abc\n", "def"), read(file, "IBM037", "|", 0, file.length()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAmbiguousDelimiter() {
+    // the second byte of some Shift_JIS characters is the ASCII 'a'
+    new TranscodingLineRecordReader(LineTranscoder.forName("Shift_JIS"), "a");
+  }
+
+  @Test(expected = FixedLengthCharsetTransformingDecompressor.CharacterDecodingException.class)
+  public void testUnmappableByte() throws IOException {
+    // 0x81 is not a character in windows-1252
+    File file = tmpFolder.newFile();
+    Files.write(file.toPath(), new byte[] { 'a', '\n', 'b', (byte) 0x81, '\n' });
+    read(file, "windows-1252", null, 0, file.length());
+  }
+
+  @Test
+  public void testIsSupported() {
+    Assert.assertTrue(LineTranscoder.isSupported("ISO-8859-1"));
+    Assert.assertTrue(LineTranscoder.isSupported("IBM037"));
+    Assert.assertTrue(LineTranscoder.isSupported("SHIFT_JIS"));
+    Assert.assertTrue(LineTranscoder.isSupported("GB18030"));
+    Assert.assertFalse(LineTranscoder.isSupported("UTF-32"));
+    Assert.assertFalse(LineTranscoder.isSupported("UTF-16"));
+    Assert.assertFalse(LineTranscoder.isSupported("ISO-2022-JP"));
+    Assert.assertFalse(LineTranscoder.isSupported("not-a-charset"));
+  }
+
+  private File write(String charset, String content) throws IOException {
+    File file = tmpFolder.newFile();
+    Files.write(file.toPath(), content.getBytes(charset));
+    return file;
+  }
+
+  private static List<String> read(File file, String charset, @Nullable String delimiter,
+                                   long start, long length) throws IOException {
+    List<String> lines = new ArrayList<>();
+    Configuration conf = new Configuration();
+    FileSplit split = new FileSplit(new Path(file.toURI()), start, length, new String[0]);
+    try (TranscodingLineRecordReader reader = new TranscodingLineRecordReader(LineTranscoder.forName(charset),
+                                                                              delimiter)) {
+      reader.initialize(split, new TaskAttemptContextImpl(conf, new TaskAttemptID()));
+      while (reader.nextKeyValue()) {
+        lines.add(reader.getCurrentValue().toString());
+      }
+    }
+    return lines;
+  }
+}
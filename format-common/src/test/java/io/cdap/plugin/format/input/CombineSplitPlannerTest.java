@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.input;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.lib.input.CombineFileSplit;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link CombineSplitPlanner}.
+ */
+public class CombineSplitPlannerTest {
+
+  @Test
+  public void testFirstFitDecreasing() throws Exception {
+    List<FileStatus> files = new ArrayList<>();
+    for (long size : new long[] { 1, 5, 3, 7, 4 }) {
+      files.add(file("f" + size, size));
+    }
+    List<CombineFileSplit> splits = new CombineSplitPlanner(10, path -> true).plan(files, new Configuration());
+    Assert.assertEquals(2, splits.size());
+    Assert.assertEquals(10, splits.get(0).getLength());
+    Assert.assertEquals(10, splits.get(1).getLength());
+    Assert.assertEquals(5, splits.get(0).getNumPaths() + splits.get(1).getNumPaths());
+  }
+
+  @Test
+  public void testLargeFilesAreCut() throws Exception {
+    List<FileStatus> files = new ArrayList<>();
+    files.add(file("large", 350));
+    for (int i = 0; i < 50; i++) {
+      files.add(file("small" + i, 1));
+    }
+    List<CombineFileSplit> splits = new CombineSplitPlanner(100, path -> true).plan(files, new Configuration());
+
+    Assert.assertEquals(4, splits.size());
+    Map<Long, Long> largeRanges = new HashMap<>();
+    long total = 0;
+    for (CombineFileSplit split : splits) {
+      Assert.assertTrue(split.getLength() <= 100);
+      total += split.getLength();
+      for (int i = 0; i < split.getNumPaths(); i++) {
+        if (split.getPath(i).getName().equals("large")) {
+          largeRanges.put(split.getOffset(i), split.getLength(i));
+        }
+      }
+    }
+    Assert.assertEquals(400, total);
+    Map<Long, Long> expected = new HashMap<>();
+    expected.put(0L, 100L);
+    expected.put(100L, 100L);
+    expected.put(200L, 100L);
+    expected.put(300L, 50L);
+    Assert.assertEquals(expected, largeRanges);
+  }
+
+  @Test
+  public void testUnsplittableFilesAreNotCut() throws Exception {
+    List<FileStatus> files = Arrays.asList(file("large.gz", 350), file("small.gz", 10));
+    List<CombineFileSplit> splits = new CombineSplitPlanner(100, path -> !path.getName().endsWith(".gz"))
+      .plan(files, new Configuration());
+    Assert.assertEquals(2, splits.size());
+    for (CombineFileSplit split : splits) {
+      Assert.assertEquals(1, split.getNumPaths());
+      Assert.assertEquals(0, split.getOffset(0));
+      Assert.assertEquals(split.getPath(0).getName().equals("large.gz") ? 350 : 10, split.getLength());
+    }
+  }
+
+  @Test
+  public void testLocality() throws Exception {
+    List<FileStatus> files = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      files.add(file("a" + i, 25, "hostA"));
+      files.add(file("b" + i, 25, "hostB"));
+    }
+    // too little data on hostC for a split of its own
+    files.add(file("c", 10, "hostC"));
+    List<CombineFileSplit> splits = new CombineSplitPlanner(100, path -> true).plan(files, new Configuration());
+
+    Assert.assertEquals(3, splits.size());
+    for (CombineFileSplit split : splits) {
+      if (split.getLength() == 100) {
+        String host = split.getLocations()[0];
+        Assert.assertEquals(1, split.getLocations().length);
+        for (Path path : split.getPaths()) {
+          Assert.assertEquals(host.substring(4).toLowerCase(), path.getName().substring(0, 1));
+        }
+      } else {
+        Assert.assertEquals(10, split.getLength());
+        Assert.assertArrayEquals(new String[] { "hostC" }, split.getLocations());
+      }
+    }
+  }
+
+  @Test
+  public void testEmptyInput() throws Exception {
+    Assert.assertTrue(new CombineSplitPlanner(100, path -> true).plan(new ArrayList<>(), new Configuration())
+                        .isEmpty());
+  }
+
+  private static FileStatus file(String name, long length, String... hosts) {
+    FileStatus status = new FileStatus(length, false, 1, 1024, 0L, new Path("file:///input/" + name));
+    BlockLocation[] blocks = hosts.length == 0 ? new BlockLocation[0] :
+      new BlockLocation[] { new BlockLocation(hosts, hosts, 0, length) };
+    return new LocatedFileStatus(status, blocks);
+  }
+}
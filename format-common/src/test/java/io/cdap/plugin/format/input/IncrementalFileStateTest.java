@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.input;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Tests for {@link IncrementalFileState}.
+ */
+public class IncrementalFileStateTest {
+  @Rule
+  public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private File root;
+  private Path statePath;
+  private Path pendingPath;
+
+  @Before
+  public void setup() throws IOException {
+    root = tmpFolder.newFolder("input");
+    statePath = new Path(root.toURI().toString(), "_incremental_state.json");
+    pendingPath = new Path(root.toURI().toString(), "_incremental_state.json.1.pending");
+  }
+
+  @Test
+  public void testOnlyNewFilesAreRead() throws Exception {
+    createFile("a.csv", 1000L);
+    createFile("b.csv", 2000L);
+    Assert.assertEquals(new TreeSet<>(Arrays.asList("a.csv", "b.csv")), listNewFiles());
+    IncrementalFileState.commit(new Configuration(), statePath, pendingPath);
+
+    // nothing new
+    Assert.assertEquals(new TreeSet<>(), listNewFiles());
+    IncrementalFileState.commit(new Configuration(), statePath, pendingPath);
+
+    // a file with the same modification time as the mark and a newer file
+    createFile("c.csv", 2000L);
+    createFile("d.csv", 3000L);
+    // older than the mark, so it is never read
+    createFile("e.csv", 500L);
+    Assert.assertEquals(new TreeSet<>(Arrays.asList("c.csv", "d.csv")), listNewFiles());
+    IncrementalFileState.commit(new Configuration(), statePath, pendingPath);
+
+    createFile("f.csv", 3000L);
+    Assert.assertEquals(new TreeSet<>(Arrays.asList("f.csv")), listNewFiles());
+
+    IncrementalFileState state = IncrementalFileState.read(pendingPath, new Configuration());
+    Assert.assertEquals(3000L, state.getModificationTime());
+    Assert.assertEquals(2, state.getFiles().size());
+  }
+
+  @Test
+  public void testFailedRunIsReadAgain() throws Exception {
+    createFile("a.csv", 1000L);
+    Assert.assertEquals(new TreeSet<>(Arrays.asList("a.csv")), listNewFiles());
+    IncrementalFileState.commit(new Configuration(), statePath, pendingPath);
+
+    createFile("b.csv", 2000L);
+    Assert.assertEquals(new TreeSet<>(Arrays.asList("b.csv")), listNewFiles());
+    IncrementalFileState.abort(new Configuration(), pendingPath);
+    Assert.assertFalse(new File(root, pendingPath.getName()).exists());
+
+    Assert.assertEquals(new TreeSet<>(Arrays.asList("b.csv")), listNewFiles());
+  }
+
+  @Test
+  public void testCommitWithoutPendingState() throws Exception {
+    IncrementalFileState.commit(new Configuration(), statePath, pendingPath);
+    Assert.assertFalse(new File(root, statePath.getName()).exists());
+  }
+
+  @Test
+  public void testNotConfigured() throws Exception {
+    createFile("a.csv", 1000L);
+    Job job = createJob();
+    job.getConfiguration().unset(IncrementalFileState.STATE);
+    List<FileStatus> files = new ListingInputFormat().listAll(job);
+    Assert.assertEquals(files, IncrementalFileState.filter(job.getConfiguration(), files));
+    Assert.assertFalse(new File(root, pendingPath.getName()).exists());
+  }
+
+  @Test(expected = IOException.class)
+  public void testCorruptState() throws Exception {
+    createFile("a.csv", 1000L);
+    createFile(statePath.getName(), 1000L);
+    listNewFiles();
+  }
+
+  private void createFile(String name, long modificationTime) throws IOException {
+    File file = new File(root, name);
+    Assert.assertTrue(file.createNewFile());
+    Assert.assertTrue(file.setLastModified(modificationTime));
+  }
+
+  private Set<String> listNewFiles() throws IOException {
+    Job job = createJob();
+    Set<String> names = new TreeSet<>();
+    for (FileStatus status : IncrementalFileState.filter(job.getConfiguration(),
+                                                         new ListingInputFormat().listAll(job))) {
+      names.add(status.getPath().getName());
+    }
+    return names;
+  }
+
+  private Job createJob() throws IOException {
+    Job job = Job.getInstance(new Configuration());
+    FileInputFormat.addInputPath(job, new Path(root.toURI()));
+    job.getConfiguration().set(IncrementalFileState.STATE, statePath.toString());
+    job.getConfiguration().set(IncrementalFileState.PENDING_STATE, pendingPath.toString());
+    return job;
+  }
+
+  /**
+   * Exposes the listing of {@link FileInputFormat}.
+   */
+  private static final class ListingInputFormat extends FileInputFormat<Object, Object> {
+    List<FileStatus> listAll(Job job) throws IOException {
+      return super.listStatus(job);
+    }
+
+    @Override
+    public RecordReader<Object, Object> createRecordReader(InputSplit split, TaskAttemptContext context) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
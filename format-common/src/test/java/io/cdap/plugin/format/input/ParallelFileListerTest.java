@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.input;
+
+import io.cdap.plugin.format.RegexPathFilter;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.InvalidInputException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Tests for {@link ParallelFileLister}.
+ */
+public class ParallelFileListerTest {
+  @Rule
+  public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private File root;
+
+  @Before
+  public void setup() throws IOException {
+    root = tmpFolder.newFolder("input");
+    for (String file : new String[] {
+      "a.csv", "b.txt", "_SUCCESS", ".hidden.csv",
+      "2024/01/c.csv", "2024/01/d.txt", "2024/02/e.csv", "2023/12/f.csv", "2024/_tmp/g.csv"}) {
+      File f = new File(root, file);
+      f.getParentFile().mkdirs();
+      Assert.assertTrue(f.createNewFile());
+    }
+  }
+
+  @Test
+  public void testSameAsFileInputFormat() throws Exception {
+    for (boolean recursive : new boolean[] { true, false }) {
+      for (Pattern pattern : new Pattern[] { null, Pattern.compile(".*\\.csv"),
+        Pattern.compile(root.toURI().getPath() + "2024/0[1-9]/.*") }) {
+        Job job = createJob(recursive, pattern);
+        Assert.assertEquals("recursive=" + recursive + " pattern=" + pattern,
+                            getPaths(new ListingInputFormat().listAll(job)),
+                            getPaths(ParallelFileLister.listStatus(job)));
+      }
+    }
+  }
+
+  @Test
+  public void testRegexPushdown() throws Exception {
+    Job job = createJob(true, Pattern.compile(root.toURI().getPath() + "2024/01/.*"));
+    Assert.assertEquals(new TreeSet<>(Arrays.asList("2024/01/c.csv", "2024/01/d.txt")),
+                        getPaths(ParallelFileLister.listStatus(job)));
+  }
+
+  @Test(expected = InvalidInputException.class)
+  public void testMissingInput() throws Exception {
+    Job job = createJob(true, null);
+    FileInputFormat.setInputPaths(job, new Path(new File(root, "missing").toURI()));
+    ParallelFileLister.listStatus(job);
+  }
+
+  @Test
+  public void testManifest() throws Exception {
+    File manifest = new File(tmpFolder.getRoot(), "manifest.json");
+    Job job = createJob(true, null);
+    job.getConfiguration().set(ParallelFileLister.MANIFEST, manifest.getAbsolutePath());
+    Set<String> expected = getPaths(ParallelFileLister.listStatus(job));
+    Assert.assertTrue(manifest.exists());
+
+    // add a file without changing the modification time of its directory, so the listing from the manifest is used
+    File dir = new File(root, "2024/02");
+    long modificationTime = dir.lastModified();
+    Assert.assertTrue(new File(dir, "new.csv").createNewFile());
+    Assert.assertTrue(dir.setLastModified(modificationTime));
+    Assert.assertEquals(expected, getPaths(ParallelFileLister.listStatus(job)));
+
+    // files from the manifest are looked up again, so a changed length is seen
+    File existing = new File(dir, "e.csv");
+    Files.write(existing.toPath(), "abc".getBytes(StandardCharsets.UTF_8));
+    Assert.assertTrue(dir.setLastModified(modificationTime));
+    long length = -1L;
+    for (FileStatus status : ParallelFileLister.listStatus(job)) {
+      if (status.getPath().getName().equals(existing.getName())) {
+        length = status.getLen();
+      }
+    }
+    Assert.assertEquals(3L, length);
+
+    // once the directory is modified it is listed again
+    Assert.assertTrue(dir.setLastModified(modificationTime + 1000));
+    expected.add("2024/02/new.csv");
+    Assert.assertEquals(expected, getPaths(ParallelFileLister.listStatus(job)));
+  }
+
+  private Job createJob(boolean recursive, Pattern pattern) throws IOException {
+    Configuration conf = new Configuration();
+    conf.setInt(ParallelFileLister.THREADS, 4);
+    Job job = Job.getInstance(conf);
+    if (pattern != null) {
+      RegexPathFilter.configure(job.getConfiguration(), pattern);
+      FileInputFormat.setInputPathFilter(job, RegexPathFilter.class);
+    }
+    FileInputFormat.setInputDirRecursive(job, recursive);
+    FileInputFormat.addInputPath(job, new Path(root.toURI()));
+    return job;
+  }
+
+  private Set<String> getPaths(List<FileStatus> statuses) {
+    Set<String> paths = new TreeSet<>();
+    String rootPath = root.toURI().getPath();
+    for (FileStatus status : statuses) {
+      paths.add(status.getPath().toUri().getPath().substring(rootPath.length()));
+    }
+    return paths;
+  }
+
+  /**
+   * Exposes the listing of {@link FileInputFormat}.
+   */
+  private static class ListingInputFormat extends FileInputFormat<Object, Object> {
+    List<FileStatus> listAll(Job job) throws IOException {
+      return super.listStatus(job);
+    }
+
+    @Override
+    public RecordReader<Object, Object> createRecordReader(InputSplit split, TaskAttemptContext context) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.input;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link ReaderPlanCache}.
+ */
+public class ReaderPlanCacheTest {
+  private static final Schema SCHEMA = Schema.recordOf("cached",
+                                                       Schema.Field.of("x", Schema.of(Schema.Type.INT)),
+                                                       Schema.Field.of("y", Schema.of(Schema.Type.STRING)));
+
+  @Test
+  public void testSchemaParsedOnce() throws IOException {
+    // use a new string instance to make sure lookups are by value
+    Schema first = ReaderPlanCache.getSchema(new String(SCHEMA.toString()));
+    Schema second = ReaderPlanCache.getSchema(new String(SCHEMA.toString()));
+    Assert.assertEquals(SCHEMA, first);
+    Assert.assertSame(first, second);
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidSchema() throws IOException {
+    ReaderPlanCache.getSchema("{\"type\":\"record\"");
+  }
+
+  @Test
+  public void testPlanKeys() {
+    AtomicInteger loads = new AtomicInteger();
+    String plan1 = ReaderPlanCache.getPlan(() -> "plan" + loads.incrementAndGet(), "test", SCHEMA, "path");
+    String plan2 = ReaderPlanCache.getPlan(() -> "plan" + loads.incrementAndGet(), "test", SCHEMA, "path");
+    Assert.assertSame(plan1, plan2);
+    Assert.assertEquals(1, loads.get());
+
+    // different options, formats, and null options are separate entries
+    ReaderPlanCache.getPlan(() -> "plan" + loads.incrementAndGet(), "test", SCHEMA, "other");
+    ReaderPlanCache.getPlan(() -> "plan" + loads.incrementAndGet(), "other", SCHEMA, "path");
+    ReaderPlanCache.getPlan(() -> "plan" + loads.incrementAndGet(), "test", SCHEMA, null);
+    ReaderPlanCache.getPlan(() -> "plan" + loads.incrementAndGet(), "test", SCHEMA, null);
+    Assert.assertEquals(4, loads.get());
+  }
+}
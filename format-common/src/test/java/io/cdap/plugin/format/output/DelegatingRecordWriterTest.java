@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.output;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.api.dataset.lib.KeyValue;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests for {@link DelegatingRecordWriter}.
+ */
+public class DelegatingRecordWriterTest {
+  private static final Schema SCHEMA = Schema.recordOf("record", Schema.Field.of("id", Schema.of(Schema.Type.INT)));
+
+  @Rule
+  public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void testRollByRecords() throws Exception {
+    List<String> events = new ArrayList<>();
+    DelegatingRecordWriter<String, String> writer = new DelegatingRecordWriter<>(
+      new EventWriterFactory(events, null), record -> new KeyValue<>("", String.valueOf(record.<Integer>get("id"))),
+      record -> new KeyValue<>("", "header"), 0L, 2L, null, null);
+    for (int i = 0; i < 4; i++) {
+      writer.write(NullWritable.get(), record(i));
+    }
+    writer.close(null);
+
+    // the header is written to every file and no empty file is opened after the last roll
+    Assert.assertEquals(Arrays.asList("open 0", "0: header", "0: 0", "0: 1", "close 0",
+                                      "open 1", "1: header", "1: 2", "1: 3", "close 1"), events);
+  }
+
+  @Test
+  public void testRollByBytes() throws Exception {
+    List<String> events = new ArrayList<>();
+    AtomicLong bytesWritten = new AtomicLong();
+    DelegatingRecordWriter<String, String> writer = new DelegatingRecordWriter<>(
+      new EventWriterFactory(events, bytesWritten),
+      record -> new KeyValue<>("", String.valueOf(record.<Integer>get("id"))), null, 5L, 0L, bytesWritten::get, null);
+    for (int i = 0; i < 3; i++) {
+      writer.write(NullWritable.get(), record(i));
+      // bytes written by other writers between writes are not counted
+      bytesWritten.addAndGet(100L);
+    }
+    writer.close(null);
+
+    // each write is three bytes, so the file is rolled after the second write
+    Assert.assertEquals(Arrays.asList("open 0", "0: 0", "0: 1", "close 0", "open 1", "1: 2", "close 1"), events);
+  }
+
+  @Test
+  public void testEmptyTaskWritesFile() throws Exception {
+    List<String> events = new ArrayList<>();
+    DelegatingRecordWriter<String, String> writer = new DelegatingRecordWriter<>(
+      new EventWriterFactory(events, null), record -> null, null, 0L, 10L, null, null);
+    writer.close(null);
+    Assert.assertEquals(Arrays.asList("open 0", "close 0"), events);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRollByBytesWithoutCount() throws Exception {
+    new DelegatingRecordWriter<String, String>(() -> null, record -> null, null, 10L, 0L, null, null);
+  }
+
+  @Test
+  public void testThreadBytesWrittenCountsWrappedFileSystem() throws Exception {
+    // the checksummed LocalFileSystem counts the bytes in the statistics of the file system it wraps
+    Path path = new Path(new File(tmpFolder.getRoot(), "bytes.bin").toURI());
+    FileSystem fs = path.getFileSystem(new Configuration());
+    ThreadBytesWritten bytesWritten = new ThreadBytesWritten(fs);
+    long before = bytesWritten.getAsLong();
+    try (FSDataOutputStream os = fs.create(path, true)) {
+      os.write(new byte[1000]);
+    }
+    Assert.assertTrue(bytesWritten.getAsLong() - before >= 1000L);
+  }
+
+  @Test
+  public void testRollingOutput() throws Exception {
+    File outputDir = new File(tmpFolder.getRoot(), "records");
+    Configuration conf = new Configuration();
+    conf.setLong(DelegatingOutputFormat.MAX_FILE_RECORDS, 2L);
+    TextDelegatingOutputFormat.write(conf, outputDir, record(0), record(1), record(2));
+
+    Map<String, String> expected = new TreeMap<>();
+    expected.put("part-m-00000", "0\n1\n");
+    expected.put("part-1-m-00000", "2\n");
+    Assert.assertEquals(expected, TextDelegatingOutputFormat.readFiles(outputDir));
+
+    outputDir = new File(tmpFolder.getRoot(), "bytes");
+    conf = new Configuration();
+    // the checksummed local file system buffers writes, so bytes only reach the file system when a file is closed
+    conf.set("fs.file.impl", RawLocalFileSystem.class.getName());
+    conf.setBoolean("fs.file.impl.disable.cache", true);
+    conf.setLong(DelegatingOutputFormat.MAX_FILE_BYTES, 4L);
+    TextDelegatingOutputFormat.write(conf, outputDir, record(0), record(1), record(22), record(3),
+                                     record(4));
+
+    expected = new TreeMap<>();
+    expected.put("part-m-00000", "0\n1\n");
+    expected.put("part-1-m-00000", "22\n3\n");
+    expected.put("part-2-m-00000", "4\n");
+    Assert.assertEquals(expected, TextDelegatingOutputFormat.readFiles(outputDir));
+  }
+
+  private static StructuredRecord record(int id) {
+    return StructuredRecord.builder(SCHEMA).set("id", id).build();
+  }
+
+  /**
+   * Creates delegates that record their writes, optionally counting the bytes of each written value.
+   */
+  private static final class EventWriterFactory implements DelegatingRecordWriter.DelegateFactory<String, String> {
+    private final List<String> events;
+    private final AtomicLong bytesWritten;
+    private int files;
+
+    private EventWriterFactory(List<String> events, AtomicLong bytesWritten) {
+      this.events = events;
+      this.bytesWritten = bytesWritten;
+    }
+
+    @Override
+    public RecordWriter<String, String> create() {
+      int file = files++;
+      events.add("open " + file);
+      return new RecordWriter<String, String>() {
+        @Override
+        public void write(String key, String value) {
+          events.add(file + ": " + value);
+          if (bytesWritten != null) {
+            bytesWritten.addAndGet(3L);
+          }
+        }
+
+        @Override
+        public void close(TaskAttemptContext context) {
+          events.add("close " + file);
+        }
+      };
+    }
+  }
+}
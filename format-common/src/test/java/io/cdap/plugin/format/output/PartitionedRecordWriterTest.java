@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.output;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tests for {@link PartitionedRecordWriter}.
+ */
+public class PartitionedRecordWriterTest {
+  private static final Schema SCHEMA = Schema.recordOf(
+    "record",
+    Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+    Schema.Field.of("country", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("day", Schema.of(Schema.LogicalType.DATE)));
+
+  @Rule
+  public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void testPartitionPath() {
+    PartitionedRecordWriter writer = new PartitionedRecordWriter(new String[] { "country", "day" }, 1,
+                                                                 partition -> null, null);
+    Assert.assertEquals("country=US/day=2024-01-01", writer.getPartitionPath(record(0, "US", 1)));
+    Assert.assertEquals("country=a%2Fb%3Dc/day=2024-01-02", writer.getPartitionPath(record(0, "a/b=c", 2)));
+    Assert.assertEquals("country=__HIVE_DEFAULT_PARTITION__/day=2024-01-01",
+                        writer.getPartitionPath(record(0, null, 1)));
+    Assert.assertEquals("country=__HIVE_DEFAULT_PARTITION__/day=2024-01-01",
+                        writer.getPartitionPath(record(0, "", 1)));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedWriterIsClosed() throws Exception {
+    List<String> events = new ArrayList<>();
+    Map<String, Integer> fileCounts = new HashMap<>();
+    PartitionedRecordWriter writer = new PartitionedRecordWriter(new String[] { "country" }, 2, partition -> {
+      int fileIndex = fileCounts.merge(partition, 1, Integer::sum) - 1;
+      return new RecordWriter<NullWritable, StructuredRecord>() {
+        @Override
+        public void write(NullWritable key, StructuredRecord value) {
+          events.add("write " + partition + " " + fileIndex);
+        }
+
+        @Override
+        public void close(TaskAttemptContext context) {
+          events.add("close " + partition + " " + fileIndex);
+        }
+      };
+    }, null);
+
+    for (String country : new String[] { "US", "FR", "US", "DE", "FR" }) {
+      writer.write(NullWritable.get(), record(0, country, 1));
+    }
+    writer.close(null);
+
+    Assert.assertEquals(Arrays.asList("write country=US 0", "write country=FR 0", "write country=US 0",
+                                      // FR is the least recently used partition when DE is opened
+                                      "close country=FR 0", "write country=DE 0",
+                                      // FR is opened again with a new file
+                                      "close country=US 0", "write country=FR 1",
+                                      "close country=DE 0", "close country=FR 1"), events);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxOpenWriters() {
+    new PartitionedRecordWriter(new String[] { "country" }, 0, partition -> null, null);
+  }
+
+  @Test
+  public void testPartitionedOutput() throws Exception {
+    File outputDir = new File(tmpFolder.getRoot(), "output");
+    Configuration conf = new Configuration();
+    conf.set(DelegatingOutputFormat.PARTITION_FIELDS, "country, day");
+    conf.setInt(DelegatingOutputFormat.MAX_OPEN_WRITERS, 1);
+
+    TextDelegatingOutputFormat.write(conf, outputDir, record(0, "US", 1), record(1, "US", 1), record(2, "FR", 1),
+                                     record(3, "US", 1), record(4, null, 2));
+
+    Map<String, String> expected = new TreeMap<>();
+    expected.put("country=US/day=2024-01-01/part-m-00000", "0\n1\n");
+    expected.put("country=FR/day=2024-01-01/part-m-00000", "2\n");
+    expected.put("country=US/day=2024-01-01/part-1-m-00000", "3\n");
+    expected.put("country=__HIVE_DEFAULT_PARTITION__/day=2024-01-02/part-m-00000", "4\n");
+    Assert.assertEquals(expected, TextDelegatingOutputFormat.readFiles(outputDir));
+  }
+
+  @Test
+  public void testPartitionedRollingOutput() throws Exception {
+    File outputDir = new File(tmpFolder.getRoot(), "output");
+    Configuration conf = new Configuration();
+    conf.set(DelegatingOutputFormat.PARTITION_FIELDS, "country");
+    conf.setInt(DelegatingOutputFormat.MAX_OPEN_WRITERS, 1);
+    conf.setLong(DelegatingOutputFormat.MAX_FILE_RECORDS, 2L);
+
+    TextDelegatingOutputFormat.write(conf, outputDir, record(0, "US", 1), record(1, "US", 1), record(2, "US", 1),
+                                     record(3, "FR", 1), record(4, "US", 1));
+
+    Map<String, String> expected = new TreeMap<>();
+    expected.put("country=US/part-m-00000", "0\n1\n");
+    expected.put("country=US/part-1-m-00000", "2\n");
+    expected.put("country=FR/part-m-00000", "3\n");
+    // the reopened partition continues the numbering of the rolled files
+    expected.put("country=US/part-2-m-00000", "4\n");
+    Assert.assertEquals(expected, TextDelegatingOutputFormat.readFiles(outputDir));
+  }
+
+  private static StructuredRecord record(int id, String country, int day) {
+    return StructuredRecord.builder(SCHEMA)
+      .set("id", id)
+      .set("country", country)
+      .setDate("day", LocalDate.of(2024, 1, day))
+      .build();
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.output;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.dataset.lib.KeyValue;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.OutputCommitter;
+import org.apache.hadoop.mapreduce.OutputFormat;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskType;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes the id of each record as a line of text, for testing {@link DelegatingOutputFormat}.
+ */
+final class TextDelegatingOutputFormat extends DelegatingOutputFormat<NullWritable, Text> {
+
+  @Override
+  protected OutputFormat<NullWritable, Text> createDelegate() {
+    return new TextOutputFormat<>();
+  }
+
+  @Override
+  protected Function<StructuredRecord, KeyValue<NullWritable, Text>> getConversion(TaskAttemptContext context) {
+    return record -> new KeyValue<>(NullWritable.get(), new Text(String.valueOf(record.<Object>get("id"))));
+  }
+
+  /**
+   * Writes the records with a single task and commits the output.
+   */
+  static void write(Configuration conf, File outputDir, StructuredRecord... records) throws Exception {
+    conf.set(FileOutputFormat.OUTDIR, outputDir.toURI().toString());
+    TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID("test", 1, TaskType.MAP, 0, 0));
+
+    TextDelegatingOutputFormat outputFormat = new TextDelegatingOutputFormat();
+    OutputCommitter committer = outputFormat.getOutputCommitter(context);
+    committer.setupJob(context);
+    committer.setupTask(context);
+    RecordWriter<NullWritable, StructuredRecord> writer = outputFormat.getRecordWriter(context);
+    for (StructuredRecord record : records) {
+      writer.write(NullWritable.get(), record);
+    }
+    writer.close(context);
+    committer.commitTask(context);
+    committer.commitJob(context);
+  }
+
+  /**
+   * Returns the contents of the output files by their path relative to the output directory.
+   */
+  static Map<String, String> readFiles(File outputDir) throws Exception {
+    Map<String, String> files = new TreeMap<>();
+    try (Stream<Path> paths = Files.walk(outputDir.toPath())) {
+      for (Path path : (Iterable<Path>) paths::iterator) {
+        String name = path.getFileName().toString();
+        if (Files.isRegularFile(path) && !name.startsWith(".") && !name.startsWith("_")) {
+          files.put(outputDir.toPath().relativize(path).toString(),
+                    new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        }
+      }
+    }
+    return files;
+  }
+}
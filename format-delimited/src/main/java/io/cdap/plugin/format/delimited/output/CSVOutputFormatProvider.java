@@ -52,6 +52,7 @@ public class CSVOutputFormatProvider extends AbstractOutputFormatProvider {
 
   @Override
   public void validate(FormatContext context) {
+    conf.validate(context.getFailureCollector());
     Schema inputSchema = context.getInputSchema();
     // this is possible if schema is macro enabled
     if (inputSchema == null) {
@@ -70,13 +71,22 @@ public class CSVOutputFormatProvider extends AbstractOutputFormatProvider {
 
   @Override
   public Map<String, String> getOutputFormatConfiguration() {
-    return StructuredDelimitedOutputFormat.getConfiguration(",", conf.shouldWriteHeader());
+    return StructuredDelimitedOutputFormat.getConfiguration(",", conf);
   }
 
   private static PluginClass getPluginClass() {
     Map<String, PluginPropertyField> properties = new HashMap<>();
     properties.put("writeHeader", new PluginPropertyField("writeHeader", DelimitedOutputFormatProvider.Conf.HEADER_DESC,
                                                           "boolean", false, true));
+    properties.put(DelimitedPluginConfig.QUOTE_VALUES,
+                   new PluginPropertyField(DelimitedPluginConfig.QUOTE_VALUES, DelimitedPluginConfig.QUOTE_VALUES_DESC,
+                                           "boolean", false, true));
+    properties.put(DelimitedPluginConfig.COMPRESSION_CODEC,
+                   new PluginPropertyField(DelimitedPluginConfig.COMPRESSION_CODEC, DelimitedPluginConfig.CODEC_DESC,
+                                           "string", false, true));
+    properties.put(DelimitedPluginConfig.WRITE_BUFFER_SIZE,
+                   new PluginPropertyField(DelimitedPluginConfig.WRITE_BUFFER_SIZE,
+                                           DelimitedPluginConfig.BUFFER_SIZE_DESC, "int", false, true));
     return new PluginClass(ValidatingOutputFormat.PLUGIN_TYPE, NAME, DESC, CSVOutputFormatProvider.class.getName(),
                            "conf", properties);
   }
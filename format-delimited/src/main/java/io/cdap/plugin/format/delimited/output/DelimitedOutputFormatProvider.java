@@ -51,6 +51,7 @@ public class DelimitedOutputFormatProvider extends AbstractOutputFormatProvider
 
   @Override
   public void validate(FormatContext context) {
+    conf.validate(context.getFailureCollector());
     Schema inputSchema = context.getInputSchema();
     // this is possible if schema is macro enabled
     if (inputSchema == null) {
@@ -77,7 +78,7 @@ public class DelimitedOutputFormatProvider extends AbstractOutputFormatProvider
     if (conf.containsMacro("delimiter")) {
       return Collections.emptyMap();
     }
-    return StructuredDelimitedOutputFormat.getConfiguration(conf.delimiter, conf.shouldWriteHeader());
+    return StructuredDelimitedOutputFormat.getConfiguration(conf.delimiter, conf);
   }
 
   /**
@@ -101,6 +102,15 @@ public class DelimitedOutputFormatProvider extends AbstractOutputFormatProvider
     Map<String, PluginPropertyField> properties = new HashMap<>();
     properties.put("delimiter", new PluginPropertyField("delimiter", Conf.DELIMITER_DESC, "string", false, true));
     properties.put("writeHeader", new PluginPropertyField("writeHeader", Conf.HEADER_DESC, "boolean", false, true));
+    properties.put(DelimitedPluginConfig.QUOTE_VALUES,
+                   new PluginPropertyField(DelimitedPluginConfig.QUOTE_VALUES, DelimitedPluginConfig.QUOTE_VALUES_DESC,
+                                           "boolean", false, true));
+    properties.put(DelimitedPluginConfig.COMPRESSION_CODEC,
+                   new PluginPropertyField(DelimitedPluginConfig.COMPRESSION_CODEC, DelimitedPluginConfig.CODEC_DESC,
+                                           "string", false, true));
+    properties.put(DelimitedPluginConfig.WRITE_BUFFER_SIZE,
+                   new PluginPropertyField(DelimitedPluginConfig.WRITE_BUFFER_SIZE,
+                                           DelimitedPluginConfig.BUFFER_SIZE_DESC, "int", false, true));
     return new PluginClass(ValidatingOutputFormat.PLUGIN_TYPE, NAME, DESC,
                            DelimitedOutputFormatProvider.class.getName(), "conf", properties);
   }
@@ -16,10 +16,20 @@
 
 package io.cdap.plugin.format.delimited.output;
 
+import com.google.common.collect.ImmutableMap;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Macro;
 import io.cdap.cdap.api.plugin.PluginConfig;
+import io.cdap.cdap.etl.api.FailureCollector;
+import org.apache.hadoop.io.compress.BZip2Codec;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.io.compress.Lz4Codec;
+import org.apache.hadoop.io.compress.SnappyCodec;
+import org.apache.hadoop.io.compress.ZStandardCodec;
 
+import java.util.Locale;
+import java.util.Map;
 import javax.annotation.Nullable;
 
 /**
@@ -27,13 +37,98 @@ import javax.annotation.Nullable;
  */
 public class DelimitedPluginConfig extends PluginConfig {
   protected static final String HEADER_DESC = "Whether to write a header to each output file.";
+  protected static final String QUOTE_VALUES_DESC =
+    "Whether to enclose values that contain the delimiter or a line break in double quotes, doubling the double " +
+      "quotes within them. Defaults to false, which writes values unchanged.";
+  protected static final String CODEC_DESC =
+    "Compression codec to use when writing data. Must be 'gzip', 'snappy', 'bzip2', 'deflate', 'lz4', 'zstd', " +
+      "or 'none'. The 'zstd' codec requires the native Hadoop libraries.";
+  protected static final String BUFFER_SIZE_DESC =
+    "Size in bytes of the buffer that records are encoded into before they are written to the file. " +
+      "Defaults to 65536.";
+  static final String QUOTE_VALUES = "quoteValues";
+  static final String COMPRESSION_CODEC = "compressionCodec";
+  static final String WRITE_BUFFER_SIZE = "writeBufferSize";
+  private static final Map<String, String> CODECS = ImmutableMap.<String, String>builder()
+    .put("gzip", GzipCodec.class.getName())
+    .put("snappy", SnappyCodec.class.getName())
+    .put("bzip2", BZip2Codec.class.getName())
+    .put("deflate", DefaultCodec.class.getName())
+    .put("lz4", Lz4Codec.class.getName())
+    .put("zstd", ZStandardCodec.class.getName())
+    .build();
 
   @Macro
   @Nullable
   @Description(HEADER_DESC)
   private Boolean writeHeader;
 
+  @Macro
+  @Nullable
+  @Description(QUOTE_VALUES_DESC)
+  private Boolean quoteValues;
+
+  @Macro
+  @Nullable
+  @Description(CODEC_DESC)
+  private String compressionCodec;
+
+  @Macro
+  @Nullable
+  @Description(BUFFER_SIZE_DESC)
+  private Integer writeBufferSize;
+
   public boolean shouldWriteHeader() {
     return writeHeader == null ? false : writeHeader;
   }
+
+  public boolean shouldQuoteValues() {
+    return quoteValues == null ? false : quoteValues;
+  }
+
+  @Nullable
+  public Integer getWriteBufferSize() {
+    if (writeBufferSize != null && writeBufferSize <= 0) {
+      throw new IllegalArgumentException("Write buffer size must be a positive number of bytes.");
+    }
+    return writeBufferSize;
+  }
+
+  /**
+   * Returns the class name of the Hadoop compression codec to write files with, or null if files are not compressed.
+   *
+   * @throws IllegalArgumentException if the codec is not supported
+   */
+  @Nullable
+  public String getCompressionCodecClass() {
+    if (compressionCodec == null || compressionCodec.isEmpty() || "none".equalsIgnoreCase(compressionCodec)) {
+      return null;
+    }
+    String codecClass = CODECS.get(compressionCodec.toLowerCase(Locale.ROOT));
+    if (codecClass == null) {
+      throw new IllegalArgumentException("Unsupported compression codec " + compressionCodec);
+    }
+    return codecClass;
+  }
+
+  /**
+   * Validates the compression codec and buffer size.
+   */
+  public void validate(FailureCollector collector) {
+    if (!containsMacro(COMPRESSION_CODEC)) {
+      try {
+        getCompressionCodecClass();
+      } catch (IllegalArgumentException e) {
+        collector.addFailure(e.getMessage(), "Use one of the supported codecs.")
+          .withConfigProperty(COMPRESSION_CODEC);
+      }
+    }
+    if (!containsMacro(WRITE_BUFFER_SIZE)) {
+      try {
+        getWriteBufferSize();
+      } catch (IllegalArgumentException e) {
+        collector.addFailure(e.getMessage(), null).withConfigProperty(WRITE_BUFFER_SIZE);
+      }
+    }
+  }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.delimited.output;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Writes records as lines of delimited text, encoding the field values straight into a byte buffer that is written
+ * to the output stream when it is full.
+ *
+ * Values are written the same way as {@link io.cdap.cdap.format.StructuredRecordStringConverter#toDelimitedString}:
+ * null values are empty, decimals are written in plain notation, bytes are base64 encoded, and other values, including
+ * dates and timestamps, are written the same as their {@link Object#toString()}. If quoting is enabled, values that
+ * contain the delimiter or a line break are enclosed in double quotes, doubling the quotes they contain.
+ */
+public class DelimitedRecordWriter extends RecordWriter<NullWritable, StructuredRecord> {
+  private static final byte QUOTE = '"';
+  private static final byte NEWLINE = '\n';
+  private static final byte[] TRUE = "true".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] FALSE = "false".getBytes(StandardCharsets.UTF_8);
+  // enough for the UTF-8 bytes of a character and a quote, or the digits and sign of a long
+  private static final int MIN_BUFFER_SIZE = 32;
+
+  private final OutputStream out;
+  private final String delimiter;
+  private final byte[] delimiterBytes;
+  private final byte[] buffer;
+  private final byte[] digits;
+  private final boolean quoteValues;
+  private boolean writeHeader;
+  private int position;
+  // the schema the field kinds were computed for, compared by reference since records usually share one instance
+  private Schema schema;
+  private FieldKind[] kinds;
+  private String[] names;
+
+  /**
+   * @param out the stream to write to, which is closed when the writer is closed
+   * @param delimiter the delimiter to separate field values with
+   * @param writeHeader whether to write a line with the field names before the first record
+   * @param quoteValues whether to quote values that contain the delimiter or a line break
+   * @param bufferSize size of the buffer that values are encoded into
+   */
+  public DelimitedRecordWriter(OutputStream out, String delimiter, boolean writeHeader, boolean quoteValues,
+                               int bufferSize) {
+    if (delimiter.isEmpty()) {
+      throw new IllegalArgumentException("The delimiter must not be empty.");
+    }
+    this.out = out;
+    this.delimiter = delimiter;
+    this.delimiterBytes = delimiter.getBytes(StandardCharsets.UTF_8);
+    this.buffer = new byte[Math.max(bufferSize, MIN_BUFFER_SIZE)];
+    this.digits = new byte[20];
+    this.writeHeader = writeHeader;
+    this.quoteValues = quoteValues;
+  }
+
+  @Override
+  public void write(NullWritable key, StructuredRecord record) throws IOException {
+    if (record.getSchema() != schema) {
+      setSchema(record.getSchema());
+    }
+    if (writeHeader) {
+      for (int i = 0; i < names.length; i++) {
+        if (i > 0) {
+          writeBytes(delimiterBytes);
+        }
+        writeString(names[i]);
+      }
+      writeByte(NEWLINE);
+      writeHeader = false;
+    }
+
+    for (int i = 0; i < names.length; i++) {
+      if (i > 0) {
+        writeBytes(delimiterBytes);
+      }
+      Object value = record.get(names[i]);
+      if (value != null) {
+        writeValue(record, i, value);
+      }
+    }
+    writeByte(NEWLINE);
+  }
+
+  private void writeValue(StructuredRecord record, int field, Object value) throws IOException {
+    switch (kinds[field]) {
+      case STRING:
+        writeString(value.toString());
+        break;
+      case INTEGRAL:
+        if (value instanceof Integer || value instanceof Long) {
+          writeLong(((Number) value).longValue());
+        } else {
+          writeString(value.toString());
+        }
+        break;
+      case BOOLEAN:
+        if (value instanceof Boolean) {
+          writeBytes((Boolean) value ? TRUE : FALSE);
+        } else {
+          writeString(value.toString());
+        }
+        break;
+      case DECIMAL:
+        BigDecimal decimal = record.getDecimal(names[field]);
+        writeString(decimal.toPlainString());
+        break;
+      case BYTES:
+        writeBase64(names[field], value);
+        break;
+      default:
+        writeString(value.toString());
+    }
+  }
+
+  private void setSchema(Schema schema) {
+    List<Schema.Field> fields = schema.getFields();
+    FieldKind[] kinds = new FieldKind[fields.size()];
+    String[] names = new String[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      Schema.Field field = fields.get(i);
+      names[i] = field.getName();
+      kinds[i] = FieldKind.of(field.getSchema());
+    }
+    this.schema = schema;
+    this.kinds = kinds;
+    this.names = names;
+  }
+
+  /**
+   * Writes a string as UTF-8, enclosing it in quotes if quoting is enabled and it contains the delimiter or a line
+   * break.
+   */
+  private void writeString(String value) throws IOException {
+    boolean quote = quoteValues && needsQuotes(value);
+    if (quote) {
+      writeByte(QUOTE);
+    }
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      if (position + 4 > buffer.length) {
+        flushBuffer();
+      }
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        if (c == QUOTE && quote) {
+          buffer[position++] = QUOTE;
+        }
+        buffer[position++] = (byte) c;
+      } else if (c < 0x800) {
+        buffer[position++] = (byte) (0xC0 | (c >> 6));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+        buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        // unpaired surrogates are replaced the same way as String.getBytes does
+        buffer[position++] = '?';
+      } else {
+        buffer[position++] = (byte) (0xE0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    if (quote) {
+      writeByte(QUOTE);
+    }
+  }
+
+  private boolean needsQuotes(String value) {
+    return value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0 || value.contains(delimiter);
+  }
+
+  private void writeLong(long value) throws IOException {
+    if (value == Long.MIN_VALUE) {
+      writeString(Long.toString(value));
+      return;
+    }
+    if (position + digits.length > buffer.length) {
+      flushBuffer();
+    }
+    if (value < 0) {
+      buffer[position++] = '-';
+      value = -value;
+    }
+    int start = digits.length;
+    do {
+      digits[--start] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while (value != 0);
+    int count = digits.length - start;
+    System.arraycopy(digits, start, buffer, position, count);
+    position += count;
+  }
+
+  private void writeBase64(String field, Object value) throws IOException {
+    byte[] bytes;
+    if (value instanceof ByteBuffer) {
+      ByteBuffer byteBuffer = ((ByteBuffer) value).duplicate();
+      bytes = new byte[byteBuffer.remaining()];
+      byteBuffer.get(bytes);
+    } else if (value instanceof byte[]) {
+      bytes = (byte[]) value;
+    } else {
+      throw new IllegalArgumentException(String.format(
+        "Invalid value for field %s. ByteBuffer or byte array was expected, but found %s.", field, value.getClass()));
+    }
+    writeBytes(Base64.getEncoder().encode(bytes));
+  }
+
+  private void writeBytes(byte[] bytes) throws IOException {
+    if (position + bytes.length > buffer.length) {
+      flushBuffer();
+      if (bytes.length > buffer.length) {
+        out.write(bytes);
+        return;
+      }
+    }
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  private void writeByte(byte b) throws IOException {
+    if (position == buffer.length) {
+      flushBuffer();
+    }
+    buffer[position++] = b;
+  }
+
+  private void flushBuffer() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+
+  @Override
+  public void close(TaskAttemptContext context) throws IOException {
+    try {
+      flushBuffer();
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * How the values of a field are written.
+   */
+  private enum FieldKind {
+    STRING,
+    INTEGRAL,
+    BOOLEAN,
+    DECIMAL,
+    BYTES,
+    OTHER;
+
+    static FieldKind of(Schema schema) {
+      Schema nonNullable = schema.isNullable() ? schema.getNonNullable() : schema;
+      if (nonNullable.getLogicalType() == Schema.LogicalType.DECIMAL) {
+        return DECIMAL;
+      }
+      switch (nonNullable.getType()) {
+        case STRING:
+          return STRING;
+        case INT:
+        case LONG:
+          return INTEGRAL;
+        case BOOLEAN:
+          return BOOLEAN;
+        case BYTES:
+          return BYTES;
+        default:
+          return OTHER;
+      }
+    }
+  }
+}
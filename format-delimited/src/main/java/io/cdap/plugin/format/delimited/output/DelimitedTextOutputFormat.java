@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.delimited.output;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.plugin.format.output.CompressedTextOutputFormat;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+
+import java.io.OutputStream;
+
+/**
+ * Output format that writes records as delimited text with a {@link DelimitedRecordWriter}. Files are compressed
+ * the same way as by TextOutputFormat.
+ */
+public class DelimitedTextOutputFormat extends CompressedTextOutputFormat<NullWritable, StructuredRecord> {
+
+  @Override
+  protected RecordWriter<NullWritable, StructuredRecord> createWriter(OutputStream out, Configuration conf) {
+    String delimiter = StructuredDelimitedOutputFormat.getDelimiter(conf);
+    boolean writeHeader = conf.getBoolean(StructuredDelimitedOutputFormat.HEADER_KEY, false);
+    boolean quoteValues = conf.getBoolean(StructuredDelimitedOutputFormat.QUOTE_VALUES_KEY, false);
+    int bufferSize = conf.getInt(StructuredDelimitedOutputFormat.BUFFER_SIZE_KEY,
+                                 StructuredDelimitedOutputFormat.DEFAULT_BUFFER_SIZE);
+    return new DelimitedRecordWriter(out, delimiter, writeHeader, quoteValues, bufferSize);
+  }
+}
@@ -17,16 +17,13 @@
 package io.cdap.plugin.format.delimited.output;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
-import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.api.dataset.lib.KeyValue;
-import io.cdap.cdap.format.StructuredRecordStringConverter;
 import io.cdap.plugin.format.output.DelegatingOutputFormat;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.NullWritable;
-import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.OutputFormat;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
-import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
@@ -34,54 +31,52 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import javax.annotation.Nullable;
 
 /**
- * Converts StructuredRecord into string before delegating to TextOutputFormat.
+ * Writes StructuredRecords as delimited text with a {@link DelimitedTextOutputFormat}, which encodes the field values
+ * directly into its output buffer.
  */
-public class StructuredDelimitedOutputFormat extends DelegatingOutputFormat<NullWritable, Text> {
+public class StructuredDelimitedOutputFormat extends DelegatingOutputFormat<NullWritable, StructuredRecord> {
   static final String DELIMITER_KEY = "delimiter";
   static final String HEADER_KEY = "write.header";
+  static final String QUOTE_VALUES_KEY = "write.quote.values";
+  static final String BUFFER_SIZE_KEY = "write.buffer.size";
+  static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
 
-  static Map<String, String> getConfiguration(String delimiter, boolean writeHeader) {
+  static Map<String, String> getConfiguration(String delimiter, DelimitedPluginConfig conf) {
     // base64 encode the delimiter to deal with some common delimiters that are illegal XML characters.
     // most control characters fall into this category.
     // trying to set it in the Hadoop conf will cause parse errors
     String encoded = Base64.getEncoder().encodeToString(delimiter.getBytes(StandardCharsets.UTF_8));
     Map<String, String> configs = new HashMap<>();
     configs.put(DELIMITER_KEY, encoded);
-    configs.put(HEADER_KEY, String.valueOf(writeHeader));
+    configs.put(HEADER_KEY, String.valueOf(conf.shouldWriteHeader()));
+    configs.put(QUOTE_VALUES_KEY, String.valueOf(conf.shouldQuoteValues()));
+    Integer bufferSize = conf.getWriteBufferSize();
+    if (bufferSize != null) {
+      configs.put(BUFFER_SIZE_KEY, String.valueOf(bufferSize));
+    }
+    String codecClass = conf.getCompressionCodecClass();
+    if (codecClass != null) {
+      configs.put(FileOutputFormat.COMPRESS, "true");
+      configs.put(FileOutputFormat.COMPRESS_CODEC, codecClass);
+    }
     return Collections.unmodifiableMap(configs);
   }
 
   @Override
-  protected OutputFormat<NullWritable, Text> createDelegate() {
-    return new TextOutputFormat<>();
-  }
-
-  @Override
-  protected Function<StructuredRecord, KeyValue<NullWritable, Text>> getConversion(TaskAttemptContext context) {
-    String delimiter = getDelimiter(context.getConfiguration());
-    return record -> new KeyValue<>(NullWritable.get(),
-                                    new Text(StructuredRecordStringConverter.toDelimitedString(record, delimiter)));
+  protected OutputFormat<NullWritable, StructuredRecord> createDelegate() {
+    return new DelimitedTextOutputFormat();
   }
 
-  @Nullable
   @Override
-  protected Function<StructuredRecord, KeyValue<NullWritable, Text>> getHeader(TaskAttemptContext context) {
-    Configuration hConf = context.getConfiguration();
-    boolean writeHeader = Boolean.parseBoolean(hConf.get(HEADER_KEY));
-    if (!writeHeader) {
-      return null;
-    }
-    String delimiter = getDelimiter(hConf);
-    return record -> new KeyValue<>(NullWritable.get(), new Text(record.getSchema().getFields().stream()
-                                                                   .map(Schema.Field::getName)
-                                                                   .collect(Collectors.joining(delimiter))));
+  protected Function<StructuredRecord, KeyValue<NullWritable, StructuredRecord>> getConversion(
+    TaskAttemptContext context) {
+    // the header is written by the DelimitedRecordWriter of each file
+    return record -> new KeyValue<>(NullWritable.get(), record);
   }
 
-  private String getDelimiter(Configuration hConf) {
+  static String getDelimiter(Configuration hConf) {
     String encodedDelimiter = hConf.get(DELIMITER_KEY);
     return new String(Base64.getDecoder().decode(encodedDelimiter), StandardCharsets.UTF_8);
   }
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.delimited.output;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.format.StructuredRecordStringConverter;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+/**
+ * Tests for {@link DelimitedRecordWriter}.
+ */
+public class DelimitedRecordWriterTest {
+  private static final Schema SCHEMA = Schema.recordOf(
+    "record",
+    Schema.Field.of("string", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("int", Schema.of(Schema.Type.INT)),
+    Schema.Field.of("long", Schema.nullableOf(Schema.of(Schema.Type.LONG))),
+    Schema.Field.of("float", Schema.of(Schema.Type.FLOAT)),
+    Schema.Field.of("double", Schema.of(Schema.Type.DOUBLE)),
+    Schema.Field.of("boolean", Schema.of(Schema.Type.BOOLEAN)),
+    Schema.Field.of("bytes", Schema.nullableOf(Schema.of(Schema.Type.BYTES))),
+    Schema.Field.of("decimal", Schema.decimalOf(10, 3)),
+    Schema.Field.of("date", Schema.of(Schema.LogicalType.DATE)),
+    Schema.Field.of("timestamp", Schema.of(Schema.LogicalType.TIMESTAMP_MICROS)));
+
+  @Rule
+  public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void testSameAsStringConverter() throws IOException {
+    StringBuilder expected = new StringBuilder();
+    for (StructuredRecord record : records()) {
+      expected.append(StructuredRecordStringConverter.toDelimitedString(record, ",")).append('\n');
+    }
+    // a small buffer is flushed in the middle of values
+    Assert.assertEquals(expected.toString(), write(",", false, false, 7, records()));
+    Assert.assertEquals(expected.toString(), write(",", false, false, 65536, records()));
+  }
+
+  // the string converter consumes byte buffers, so each call returns new records
+  private static StructuredRecord[] records() {
+    return new StructuredRecord[] {
+      record("abc", 1, 2L, new byte[] { 1, 2, 3 }),
+      record("Grüße 日本 😀", Integer.MIN_VALUE, Long.MIN_VALUE, new byte[0]),
+      record(null, -45, null, null),
+      record("", 0, Long.MAX_VALUE, ByteBuffer.wrap(new byte[] { 0, 1, 2, 3, 4 }, 1, 3))
+    };
+  }
+
+  @Test
+  public void testQuoting() throws IOException {
+    Schema schema = Schema.recordOf("record", Schema.Field.of("a", Schema.of(Schema.Type.STRING)),
+                                    Schema.Field.of("b", Schema.of(Schema.Type.STRING)));
+    StructuredRecord record1 = StructuredRecord.builder(schema).set("a", "x,y").set("b", "say \"hi\"").build();
+    StructuredRecord record2 = StructuredRecord.builder(schema).set("a", "line\nbreak").set("b", "\"x\",\r").build();
+    Assert.assertEquals("\"x,y\",say \"hi\"\n\"line\nbreak\",\"\"\"x\"\",\r\"\n",
+                        write(",", false, true, 65536, record1, record2));
+    // values are only quoted for the configured delimiter
+    Assert.assertEquals("x,y::say \"hi\"\n", write("::", false, true, 65536, record1));
+    StructuredRecord record3 = StructuredRecord.builder(schema).set("a", "a::b").set("b", "c").build();
+    Assert.assertEquals("\"a::b\"::c\n", write("::", false, true, 65536, record3));
+    // without quoting, values are written unchanged
+    Assert.assertEquals("x,y,say \"hi\"\nline\nbreak,\"x\",\r\n", write(",", false, false, 65536, record1, record2));
+  }
+
+  @Test
+  public void testHeader() throws IOException {
+    Assert.assertEquals("string\tint\tlong\tfloat\tdouble\tboolean\tbytes\tdecimal\tdate\ttimestamp\n"
+                          + "a\t1\t2\t1.5\t2.25\ttrue\tAQ==\t123.450\t19723\t1700000000000000\n"
+                          + "b\t1\t2\t1.5\t2.25\ttrue\tAQ==\t123.450\t19723\t1700000000000000\n",
+                        write("\t", true, false, 65536, record("a", 1, 2L, new byte[] { 1 }),
+                              record("b", 1, 2L, new byte[] { 1 })));
+  }
+
+  @Test
+  public void testCompressedOutput() throws Exception {
+    File outputDir = new File(tmpFolder.getRoot(), "output");
+    Configuration conf = new Configuration();
+    conf.set(StructuredDelimitedOutputFormat.DELIMITER_KEY,
+             Base64.getEncoder().encodeToString("|".getBytes(StandardCharsets.UTF_8)));
+    conf.setBoolean(StructuredDelimitedOutputFormat.HEADER_KEY, true);
+    conf.setBoolean(FileOutputFormat.COMPRESS, true);
+    conf.set(FileOutputFormat.COMPRESS_CODEC, GzipCodec.class.getName());
+    conf.set(FileOutputFormat.OUTDIR, outputDir.toURI().toString());
+    TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID("job", 0, true, 0, 0));
+
+    RecordWriter<NullWritable, StructuredRecord> writer = new DelimitedTextOutputFormat().getRecordWriter(context);
+    writer.write(NullWritable.get(), record("a", 1, 2L, null));
+    writer.close(context);
+
+    Path file = new DelimitedTextOutputFormat().getDefaultWorkFile(context, ".gz");
+    Assert.assertTrue(new File(file.toUri()).exists());
+    CompressionCodec codec = ReflectionUtils.newInstance(GzipCodec.class, conf);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = codec.createInputStream(Files.newInputStream(new File(file.toUri()).toPath()))) {
+      byte[] buffer = new byte[1024];
+      int length;
+      while ((length = in.read(buffer)) > 0) {
+        out.write(buffer, 0, length);
+      }
+    }
+    Assert.assertEquals("string|int|long|float|double|boolean|bytes|decimal|date|timestamp\n"
+                          + "a|1|2|1.5|2.25|true||123.450|19723|1700000000000000\n",
+                        new String(out.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testCompressionCodecs() {
+    Assert.assertNull(codecClass(null));
+    Assert.assertNull(codecClass("none"));
+    Assert.assertEquals(GzipCodec.class.getName(), codecClass("GZIP"));
+    try {
+      codecClass("brotli");
+      Assert.fail("Expected an unsupported codec to fail");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  private static String codecClass(String codec) {
+    DelimitedPluginConfig config = new DelimitedPluginConfig();
+    try {
+      Field field = DelimitedPluginConfig.class.getDeclaredField(DelimitedPluginConfig.COMPRESSION_CODEC);
+      field.setAccessible(true);
+      field.set(config, codec);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+    return config.getCompressionCodecClass();
+  }
+
+  private static String write(String delimiter, boolean writeHeader, boolean quoteValues, int bufferSize,
+                              StructuredRecord... records) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DelimitedRecordWriter writer = new DelimitedRecordWriter(out, delimiter, writeHeader, quoteValues, bufferSize);
+    for (StructuredRecord record : records) {
+      writer.write(NullWritable.get(), record);
+    }
+    writer.close(null);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static StructuredRecord record(String string, int intValue, Long longValue, Object bytes) {
+    return StructuredRecord.builder(SCHEMA)
+      .set("string", string)
+      .set("int", intValue)
+      .set("long", longValue)
+      .set("float", 1.5f)
+      .set("double", 2.25d)
+      .set("boolean", true)
+      .set("bytes", bytes)
+      .setDecimal("decimal", new BigDecimal("123.450"))
+      .setDate("date", LocalDate.of(2024, 1, 1))
+      .setTimestamp("timestamp", ZonedDateTime.of(2023, 11, 14, 22, 13, 20, 0, ZoneOffset.UTC))
+      .build();
+  }
+}
@@ -21,6 +21,7 @@ import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.format.StructuredRecordStringConverter;
 import io.cdap.plugin.common.SchemaValidator;
 import io.cdap.plugin.format.input.PathTrackingInputFormat;
+import io.cdap.plugin.format.input.ReaderPlanCache;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
@@ -40,7 +41,7 @@ import javax.annotation.Nullable;
 public class PathTrackingJsonInputFormat extends PathTrackingInputFormat {
 
 
-  private Schema getModifiedSchema(Schema schema, @Nullable String pathField) {
+  private static Schema getModifiedSchema(Schema schema, @Nullable String pathField) {
     // if the path field is set, it might not be nullable
     // if it's not nullable, decoding a string into a StructuredRecord will fail because a non-nullable
     // field will have a null value.
@@ -69,7 +70,8 @@ public class PathTrackingJsonInputFormat extends PathTrackingInputFormat {
     if (schema == null) {
       throw new IllegalStateException("The file you have selected requires a schema to be parsed.");
     }
-    Schema modifiedSchema = getModifiedSchema(schema, pathField);
+    Schema modifiedSchema = ReaderPlanCache.getPlan(() -> getModifiedSchema(schema, pathField),
+                                                    "json.schema", schema, pathField);
 
     return new RecordReader<NullWritable, StructuredRecord.Builder>() {
 
@@ -0,0 +1,466 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.json.output;
+
+import com.google.gson.stream.JsonWriter;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.common.io.Encoder;
+import io.cdap.cdap.format.io.JsonEncoder;
+import io.cdap.cdap.format.io.JsonStructuredRecordDatumWriter;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes each record as a line of JSON, in the same format as
+ * {@link io.cdap.cdap.format.StructuredRecordStringConverter#toJsonString(StructuredRecord)}.
+ *
+ * The schema of the records is compiled once into a {@link RecordPlan}, which holds the escaped bytes of each field
+ * name. Strings, numbers, booleans and nested records are then encoded straight into a byte buffer that is written
+ * to the output stream when it is full. Other values, such as arrays, maps, bytes and decimals, are encoded by a
+ * {@link JsonStructuredRecordDatumWriter}.
+ */
+public class JsonRecordWriter extends RecordWriter<NullWritable, StructuredRecord> {
+  private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] TRUE = "true".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] FALSE = "false".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+  // enough for the escaped UTF-8 bytes of a character, or the digits and sign of a long
+  private static final int MIN_BUFFER_SIZE = 32;
+
+  private final OutputStream out;
+  private final byte[] buffer;
+  private final byte[] digits;
+  private final ValueWriter valueWriter;
+  private final CharSink chars;
+  private int position;
+  // the schema the plan was compiled for, compared by reference since records usually share one instance
+  private Schema schema;
+  private RecordPlan plan;
+
+  /**
+   * @param out the stream to write to, which is closed when the writer is closed
+   * @param bufferSize size of the buffer that values are encoded into
+   */
+  public JsonRecordWriter(OutputStream out, int bufferSize) {
+    this.out = out;
+    this.buffer = new byte[Math.max(bufferSize, MIN_BUFFER_SIZE)];
+    this.digits = new byte[20];
+    this.valueWriter = new ValueWriter();
+    this.chars = new CharSink();
+  }
+
+  @Override
+  public void write(NullWritable key, StructuredRecord record) throws IOException {
+    if (record.getSchema() != schema) {
+      plan = new RecordPlan(record.getSchema());
+      schema = record.getSchema();
+    }
+    writeRecord(plan, record);
+    writeByte((byte) '\n');
+  }
+
+  private void writeRecord(RecordPlan plan, StructuredRecord record) throws IOException {
+    writeByte((byte) '{');
+    for (int i = 0; i < plan.names.length; i++) {
+      writeBytes(plan.prefixes[i]);
+      Object value = record.get(plan.names[i]);
+      if (!writeFast(plan, i, value)) {
+        writeWithDatumWriter(plan.names[i], plan.schemas[i], value);
+      }
+    }
+    writeByte((byte) '}');
+  }
+
+  /**
+   * Writes the value of a field if it is of a type that can be encoded directly, returning whether it was written.
+   */
+  private boolean writeFast(RecordPlan plan, int field, Object value) throws IOException {
+    if (value == null) {
+      if (!plan.nullable[field]) {
+        return false;
+      }
+      writeBytes(NULL);
+      return true;
+    }
+    switch (plan.kinds[field]) {
+      case STRING:
+        if (value instanceof String) {
+          writeString((String) value);
+          return true;
+        }
+        return false;
+      case INT:
+        if (value instanceof Integer) {
+          writeLong((Integer) value);
+          return true;
+        }
+        return false;
+      case LONG:
+        if (value instanceof Long) {
+          writeLong((Long) value);
+          return true;
+        }
+        return false;
+      case FLOAT:
+        // floats are written as the double they widen to, and non-finite values fail the same as the datum writer
+        if (value instanceof Float && Float.isFinite((Float) value)) {
+          writeAscii(Double.toString((Float) value));
+          return true;
+        }
+        return false;
+      case DOUBLE:
+        if (value instanceof Double && Double.isFinite((Double) value)) {
+          writeAscii(Double.toString((Double) value));
+          return true;
+        }
+        return false;
+      case BOOLEAN:
+        if (value instanceof Boolean) {
+          writeBytes((Boolean) value ? TRUE : FALSE);
+          return true;
+        }
+        return false;
+      case RECORD:
+        if (value instanceof StructuredRecord) {
+          writeRecord(plan.nested[field], (StructuredRecord) value);
+          return true;
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  private void writeWithDatumWriter(String field, Schema schema, Object value) throws IOException {
+    chars.length = 0;
+    JsonWriter jsonWriter = new JsonWriter(chars);
+    try {
+      valueWriter.encodeValue(new JsonEncoder(jsonWriter), schema, value);
+    } catch (ClassCastException e) {
+      throw new IllegalArgumentException(String.format(
+        "A value for field '%s' is of type '%s', which does not match schema '%s'.",
+        field, value.getClass().getName(), schema), e);
+    }
+    jsonWriter.flush();
+    // the characters are already escaped
+    writeUtf8(chars.chars, chars.length);
+  }
+
+  /**
+   * Writes a JSON string, escaping the same characters as Gson's JsonWriter.
+   */
+  private void writeString(String value) throws IOException {
+    writeByte((byte) '"');
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      if (position + 6 > buffer.length) {
+        flushBuffer();
+      }
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        if (c >= 0x20 && c != '"' && c != '\\') {
+          buffer[position++] = (byte) c;
+        } else {
+          writeEscaped(c);
+        }
+      } else if (c == '\u2028' || c == '\u2029') {
+        writeEscaped(c);
+      } else {
+        i = writeNonAscii(value, i, length);
+      }
+    }
+    writeByte((byte) '"');
+  }
+
+  private void writeEscaped(char c) {
+    buffer[position++] = '\\';
+    switch (c) {
+      case '"':
+      case '\\':
+        buffer[position++] = (byte) c;
+        break;
+      case '\t':
+        buffer[position++] = 't';
+        break;
+      case '\b':
+        buffer[position++] = 'b';
+        break;
+      case '\n':
+        buffer[position++] = 'n';
+        break;
+      case '\r':
+        buffer[position++] = 'r';
+        break;
+      case '\f':
+        buffer[position++] = 'f';
+        break;
+      default:
+        buffer[position++] = 'u';
+        buffer[position++] = HEX[(c >> 12) & 0xF];
+        buffer[position++] = HEX[(c >> 8) & 0xF];
+        buffer[position++] = HEX[(c >> 4) & 0xF];
+        buffer[position++] = HEX[c & 0xF];
+    }
+  }
+
+  /**
+   * Writes the UTF-8 bytes of the non-ASCII character at the given index, returning the index of its last char.
+   * Unpaired surrogates are replaced with '?', the same as when the string is converted to a Text.
+   */
+  private int writeNonAscii(CharSequence value, int i, int length) {
+    char c = value.charAt(i);
+    if (c < 0x800) {
+      buffer[position++] = (byte) (0xC0 | (c >> 6));
+      buffer[position++] = (byte) (0x80 | (c & 0x3F));
+    } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+      int codePoint = Character.toCodePoint(c, value.charAt(++i));
+      buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+      buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+      buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+      buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+    } else if (Character.isSurrogate(c)) {
+      buffer[position++] = '?';
+    } else {
+      buffer[position++] = (byte) (0xE0 | (c >> 12));
+      buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+      buffer[position++] = (byte) (0x80 | (c & 0x3F));
+    }
+    return i;
+  }
+
+  private void writeUtf8(char[] chars, int length) throws IOException {
+    CharSequence sequence = CharBuffer.wrap(chars, 0, length);
+    for (int i = 0; i < length; i++) {
+      if (position + 4 > buffer.length) {
+        flushBuffer();
+      }
+      char c = chars[i];
+      if (c < 0x80) {
+        buffer[position++] = (byte) c;
+      } else {
+        i = writeNonAscii(sequence, i, length);
+      }
+    }
+  }
+
+  private void writeAscii(String value) throws IOException {
+    int length = value.length();
+    if (position + length > buffer.length) {
+      flushBuffer();
+    }
+    for (int i = 0; i < length; i++) {
+      buffer[position++] = (byte) value.charAt(i);
+    }
+  }
+
+  private void writeLong(long value) throws IOException {
+    if (value == Long.MIN_VALUE) {
+      writeAscii(Long.toString(value));
+      return;
+    }
+    if (position + digits.length > buffer.length) {
+      flushBuffer();
+    }
+    if (value < 0) {
+      buffer[position++] = '-';
+      value = -value;
+    }
+    int start = digits.length;
+    do {
+      digits[--start] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while (value != 0);
+    int count = digits.length - start;
+    System.arraycopy(digits, start, buffer, position, count);
+    position += count;
+  }
+
+  private void writeBytes(byte[] bytes) throws IOException {
+    if (position + bytes.length > buffer.length) {
+      flushBuffer();
+      if (bytes.length > buffer.length) {
+        out.write(bytes);
+        return;
+      }
+    }
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  private void writeByte(byte b) throws IOException {
+    if (position == buffer.length) {
+      flushBuffer();
+    }
+    buffer[position++] = b;
+  }
+
+  private void flushBuffer() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+
+  @Override
+  public void close(TaskAttemptContext context) throws IOException {
+    try {
+      flushBuffer();
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * How the values of a field are written.
+   */
+  private enum FieldKind {
+    STRING,
+    INT,
+    LONG,
+    FLOAT,
+    DOUBLE,
+    BOOLEAN,
+    RECORD,
+    OTHER
+  }
+
+  /**
+   * The fields of a record schema, with the bytes written before each field value.
+   */
+  private static final class RecordPlan {
+    private final String[] names;
+    private final Schema[] schemas;
+    private final boolean[] nullable;
+    private final FieldKind[] kinds;
+    private final RecordPlan[] nested;
+    private final byte[][] prefixes;
+
+    RecordPlan(Schema schema) {
+      List<Schema.Field> fields = schema.getFields();
+      int size = fields.size();
+      names = new String[size];
+      schemas = new Schema[size];
+      nullable = new boolean[size];
+      kinds = new FieldKind[size];
+      nested = new RecordPlan[size];
+      prefixes = new byte[size][];
+      for (int i = 0; i < size; i++) {
+        Schema.Field field = fields.get(i);
+        names[i] = field.getName();
+        schemas[i] = field.getSchema();
+        nullable[i] = field.getSchema().isNullable();
+        Schema fieldSchema = nullable[i] ? field.getSchema().getNonNullable() : field.getSchema();
+        kinds[i] = getKind(fieldSchema);
+        if (kinds[i] == FieldKind.RECORD) {
+          nested[i] = new RecordPlan(fieldSchema);
+        }
+        prefixes[i] = encodeName(field.getName(), i > 0);
+      }
+    }
+
+    /**
+     * Returns the bytes of the escaped field name and a colon, preceded by a comma if it is not the first field.
+     */
+    private static byte[] encodeName(String name, boolean comma) {
+      StringWriter writer = new StringWriter();
+      if (comma) {
+        writer.write(',');
+      }
+      try {
+        new JsonWriter(writer).value(name).flush();
+      } catch (IOException e) {
+        // can not happen with a StringWriter
+        throw new IllegalStateException(e);
+      }
+      writer.write(':');
+      return writer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static FieldKind getKind(Schema schema) {
+      // logical types other than decimal are written as their underlying type
+      if (schema.getLogicalType() == Schema.LogicalType.DECIMAL) {
+        return FieldKind.OTHER;
+      }
+      switch (schema.getType()) {
+        case STRING:
+          return FieldKind.STRING;
+        case INT:
+          return FieldKind.INT;
+        case LONG:
+          return FieldKind.LONG;
+        case FLOAT:
+          return FieldKind.FLOAT;
+        case DOUBLE:
+          return FieldKind.DOUBLE;
+        case BOOLEAN:
+          return FieldKind.BOOLEAN;
+        case RECORD:
+          return FieldKind.RECORD;
+        default:
+          return FieldKind.OTHER;
+      }
+    }
+  }
+
+  /**
+   * Exposes the encoding of a single value of the datum writer.
+   */
+  private static final class ValueWriter extends JsonStructuredRecordDatumWriter {
+
+    void encodeValue(Encoder encoder, Schema schema, Object value) throws IOException {
+      encode(encoder, schema, value);
+    }
+  }
+
+  /**
+   * A writer that collects characters into a reused array.
+   */
+  private static final class CharSink extends Writer {
+    private char[] chars = new char[256];
+    private int length;
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+      if (length + len > chars.length) {
+        chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + len));
+      }
+      System.arraycopy(cbuf, off, chars, length, len);
+      length += len;
+    }
+
+    @Override
+    public void flush() {
+      // nothing to flush
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+  }
+}
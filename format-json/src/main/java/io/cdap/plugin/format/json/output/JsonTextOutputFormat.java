@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.json.output;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.plugin.format.output.CompressedTextOutputFormat;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+
+import java.io.OutputStream;
+
+/**
+ * Output format that writes records as lines of JSON with a {@link JsonRecordWriter}. Files are compressed the same
+ * way as by TextOutputFormat.
+ */
+public class JsonTextOutputFormat extends CompressedTextOutputFormat<NullWritable, StructuredRecord> {
+  /**
+   * Size in bytes of the buffer that records are encoded into before they are written to the file.
+   */
+  public static final String BUFFER_SIZE = "json.output.buffer.size";
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  @Override
+  protected RecordWriter<NullWritable, StructuredRecord> createWriter(OutputStream out, Configuration conf) {
+    return new JsonRecordWriter(out, conf.getInt(BUFFER_SIZE, DEFAULT_BUFFER_SIZE));
+  }
+}
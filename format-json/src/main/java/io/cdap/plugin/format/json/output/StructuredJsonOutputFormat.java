@@ -18,36 +18,28 @@ package io.cdap.plugin.format.json.output;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.dataset.lib.KeyValue;
-import io.cdap.cdap.format.StructuredRecordStringConverter;
 import io.cdap.plugin.format.output.DelegatingOutputFormat;
 import org.apache.hadoop.io.NullWritable;
-import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.OutputFormat;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
-import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
 
-import java.io.IOException;
 import java.util.function.Function;
 
 /**
- * Converts StructuredRecord into string before delegating to TextOutputFormat.
+ * Writes StructuredRecords as lines of JSON with a {@link JsonTextOutputFormat}, which encodes the records directly
+ * into its output buffer.
  */
-public class StructuredJsonOutputFormat extends DelegatingOutputFormat<NullWritable, Text> {
+public class StructuredJsonOutputFormat extends DelegatingOutputFormat<NullWritable, StructuredRecord> {
 
   @Override
-  protected OutputFormat<NullWritable, Text> createDelegate() {
-    return new TextOutputFormat<>();
+  protected OutputFormat<NullWritable, StructuredRecord> createDelegate() {
+    return new JsonTextOutputFormat();
   }
 
   @Override
-  protected Function<StructuredRecord, KeyValue<NullWritable, Text>> getConversion(TaskAttemptContext context) {
-    return record -> {
-      try {
-        return new KeyValue<>(NullWritable.get(), new Text(StructuredRecordStringConverter.toJsonString(record)));
-      } catch (IOException e) {
-        throw new RuntimeException("Unable to convert record into a json object", e);
-      }
-    };
+  protected Function<StructuredRecord, KeyValue<NullWritable, StructuredRecord>> getConversion(
+    TaskAttemptContext context) {
+    return record -> new KeyValue<>(NullWritable.get(), record);
   }
 
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.json.output;
+
+import com.google.common.collect.ImmutableMap;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.format.StructuredRecordStringConverter;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+/**
+ * Tests for {@link JsonRecordWriter}.
+ */
+public class JsonRecordWriterTest {
+  private static final Schema INNER = Schema.recordOf(
+    "inner",
+    Schema.Field.of("x", Schema.of(Schema.Type.INT)),
+    Schema.Field.of("y", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+  private static final Schema SCHEMA = Schema.recordOf(
+    "record",
+    Schema.Field.of("string", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("int", Schema.of(Schema.Type.INT)),
+    Schema.Field.of("long", Schema.nullableOf(Schema.of(Schema.Type.LONG))),
+    Schema.Field.of("float", Schema.of(Schema.Type.FLOAT)),
+    Schema.Field.of("double", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+    Schema.Field.of("boolean", Schema.of(Schema.Type.BOOLEAN)),
+    Schema.Field.of("bytes", Schema.nullableOf(Schema.of(Schema.Type.BYTES))),
+    Schema.Field.of("decimal", Schema.nullableOf(Schema.decimalOf(10, 3))),
+    Schema.Field.of("date", Schema.nullableOf(Schema.of(Schema.LogicalType.DATE))),
+    Schema.Field.of("timestamp", Schema.of(Schema.LogicalType.TIMESTAMP_MICROS)),
+    Schema.Field.of("enum", Schema.enumWith("A", "B")),
+    Schema.Field.of("array", Schema.arrayOf(Schema.of(Schema.Type.LONG))),
+    Schema.Field.of("map", Schema.nullableOf(Schema.mapOf(Schema.of(Schema.Type.STRING), Schema.of(Schema.Type.INT)))),
+    Schema.Field.of("union", Schema.unionOf(Schema.of(Schema.Type.INT), Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("inner", Schema.nullableOf(INNER)));
+
+  @Test
+  public void testSameAsStringConverter() throws IOException {
+    StructuredRecord[] records = {
+      record("abc", 1, 2L, 1.1f, 2.25d, new byte[] { 1, 2, 3 }, "x"),
+      record("quote \" backslash \\ slash / tab \t newline \n control \u0001 \u001f html <>&='",
+             Integer.MIN_VALUE, Long.MIN_VALUE, -0.0f, 1e300, new byte[0], 7),
+      record("Grüße 日本 😀 \u2028 \u2029 \u007f", Integer.MAX_VALUE, Long.MAX_VALUE, Float.MIN_VALUE, null, null,
+             8),
+      StructuredRecord.builder(SCHEMA).set("int", 0).set("float", 0f).set("boolean", false)
+        .setTimestamp("timestamp", ZonedDateTime.of(1969, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC))
+        .set("enum", "A").set("array", Arrays.asList()).set("union", "u").build()
+    };
+    StringBuilder expected = new StringBuilder();
+    for (StructuredRecord record : records) {
+      expected.append(StructuredRecordStringConverter.toJsonString(record)).append('\n');
+    }
+    // a small buffer is flushed in the middle of values
+    Assert.assertEquals(expected.toString(), write(7, records));
+    Assert.assertEquals(expected.toString(), write(65536, records));
+  }
+
+  @Test
+  public void testUnpairedSurrogate() throws IOException {
+    StructuredRecord record = record("a\ud800b", 1, 2L, 1f, 2d, null, 1);
+    Text expected = new Text(StructuredRecordStringConverter.toJsonString(record) + "\n");
+    Assert.assertEquals(expected.toString(), write(65536, record));
+  }
+
+  @Test
+  public void testSchemaChange() throws IOException {
+    StructuredRecord first = StructuredRecord.builder(INNER).set("x", 1).build();
+    Schema other = Schema.recordOf("other", Schema.Field.of("z", Schema.of(Schema.Type.BOOLEAN)));
+    StructuredRecord second = StructuredRecord.builder(other).set("z", true).build();
+    Assert.assertEquals("{\"x\":1,\"y\":null}\n{\"z\":true}\n{\"x\":1,\"y\":null}\n",
+                        write(65536, first, second, first));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonFiniteDouble() throws IOException {
+    write(65536, record("a", 1, 2L, 1f, Double.NaN, null, 1));
+  }
+
+  private static String write(int bufferSize, StructuredRecord... records) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    JsonRecordWriter writer = new JsonRecordWriter(out, bufferSize);
+    for (StructuredRecord record : records) {
+      writer.write(NullWritable.get(), record);
+    }
+    writer.close(null);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static StructuredRecord record(String string, int intValue, Long longValue, float floatValue,
+                                         Double doubleValue, byte[] bytes, Object union) {
+    return StructuredRecord.builder(SCHEMA)
+      .set("string", string)
+      .set("int", intValue)
+      .set("long", longValue)
+      .set("float", floatValue)
+      .set("double", doubleValue)
+      .set("boolean", true)
+      .set("bytes", bytes == null ? null : ByteBuffer.wrap(bytes))
+      .setDecimal("decimal", new BigDecimal("123.450"))
+      .setDate("date", LocalDate.of(2024, 1, 1))
+      .setTimestamp("timestamp", ZonedDateTime.of(2023, 11, 14, 22, 13, 20, 0, ZoneOffset.UTC))
+      .set("enum", "B")
+      .set("array", Arrays.asList(1L, 2L))
+      .set("map", ImmutableMap.of("k\"1", 1, "k2", 2))
+      .set("union", union)
+      .set("inner", StructuredRecord.builder(INNER).set("x", intValue).set("y", string).build())
+      .build();
+  }
+}
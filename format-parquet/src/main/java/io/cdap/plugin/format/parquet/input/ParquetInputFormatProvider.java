@@ -28,6 +28,7 @@ import io.cdap.cdap.etl.api.validation.InputFile;
 import io.cdap.cdap.etl.api.validation.InputFiles;
 import io.cdap.cdap.etl.api.validation.SeekableInputStream;
 import io.cdap.cdap.etl.api.validation.ValidatingInputFormat;
+import io.cdap.plugin.format.MergedSchemaReader;
 import io.cdap.plugin.format.avro.AvroToStructuredTransformer;
 import io.cdap.plugin.format.input.PathTrackingConfig;
 import io.cdap.plugin.format.input.PathTrackingInputFormatProvider;
@@ -76,18 +77,13 @@ public class ParquetInputFormatProvider extends PathTrackingInputFormatProvider<
   @Override
   public Schema detectSchema(FormatContext context, InputFiles inputFiles) throws IOException {
     ParquetReadOptions readOptions = ParquetReadOptions.builder().build();
-    for (InputFile inputFile : inputFiles) {
-      if (!inputFile.getName().toLowerCase().endsWith(".parquet")) {
-        continue;
-      }
+    Schema schema = MergedSchemaReader.read(NAME, inputFiles, ".parquet", inputFile -> {
       try (ParquetFileReader parquetFileReader = ParquetFileReader.open(new HadoopInputFile(inputFile), readOptions)) {
         MessageType parquetSchema = parquetFileReader.getFooter().getFileMetaData().getSchema();
-        Schema schema = new AvroToStructuredTransformer()
-          .convertSchema(new AvroSchemaConverter().convert(parquetSchema));
-        return addPathField(schema, context.getFailureCollector());
+        return new AvroToStructuredTransformer().convertSchema(new AvroSchemaConverter().convert(parquetSchema));
       }
-    }
-    throw new IOException("Unable to find any files that end with .parquet");
+    });
+    return addPathField(schema, context.getFailureCollector());
   }
 
   private static class HadoopInputFile implements org.apache.parquet.io.InputFile {
@@ -18,8 +18,10 @@ package io.cdap.plugin.format.parquet.input;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.format.avro.AvroReaderSchema;
 import io.cdap.plugin.format.avro.AvroToStructuredTransformer;
 import io.cdap.plugin.format.input.PathTrackingInputFormat;
+import io.cdap.plugin.format.input.ReaderPlanCache;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.InputSplit;
@@ -27,6 +29,7 @@ import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.FileSplit;
 import org.apache.parquet.avro.AvroParquetInputFormat;
+import org.apache.parquet.hadoop.ParquetInputFormat;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -35,6 +38,10 @@ import javax.annotation.Nullable;
 
 /**
  * Parquet format that tracks which file each record was read from.
+ *
+ * If the schema is known, files are read with an {@link AvroReaderSchema} derived from it through a
+ * {@link ReaderSchemaReadSupport}, so that files written with fewer columns or narrower numeric types are read with
+ * the same schema as all other files.
  */
 public class PathTrackingParquetInputFormat extends PathTrackingInputFormat {
 
@@ -44,8 +51,15 @@ public class PathTrackingParquetInputFormat extends PathTrackingInputFormat {
                                                                                     @Nullable String pathField,
                                                                                     @Nullable Schema schema)
     throws IOException, InterruptedException {
-    RecordReader<Void, GenericRecord> delegate = (new AvroParquetInputFormat<GenericRecord>())
-      .createRecordReader(split, context);
+    org.apache.avro.Schema readerSchema = schema == null ? null : AvroReaderSchema.of(schema, pathField);
+    RecordReader<Void, GenericRecord> delegate;
+    if (readerSchema == null) {
+      delegate = new AvroParquetInputFormat<GenericRecord>().createRecordReader(split, context);
+    } else {
+      ReaderSchemaReadSupport readSupport = new ReaderSchemaReadSupport(readerSchema);
+      delegate = new org.apache.parquet.hadoop.ParquetRecordReader<>(
+        readSupport, ParquetInputFormat.getFilter(context.getConfiguration()));
+    }
     return new ParquetRecordReader(delegate, schema, pathField);
   }
 
@@ -53,6 +67,7 @@ public class PathTrackingParquetInputFormat extends PathTrackingInputFormat {
    * Transforms GenericRecords into StructuredRecord.
    */
   static class ParquetRecordReader extends RecordReader<NullWritable, StructuredRecord.Builder> {
+    private static final String FORMAT_SCHEMA = "parquet.schema";
     private final RecordReader<Void, GenericRecord> delegate;
     private final AvroToStructuredTransformer recordTransformer;
     private final String pathField;
@@ -87,20 +102,25 @@ public class PathTrackingParquetInputFormat extends PathTrackingInputFormat {
       // if schema is null, but we're still able to read, that means the file contains the schema information
       // set the schema based on the schema of the record
       if (schema == null) {
-        if (pathField == null) {
-          schema = Schema.parseJson(genericRecord.getSchema().toString());
-        } else {
-          // if there is a path field, add the path as a field in the schema
-          Schema schemaWithoutPath = Schema.parseJson(genericRecord.getSchema().toString());
-          List<Schema.Field> fields = new ArrayList<>(schemaWithoutPath.getFields().size() + 1);
-          fields.addAll(schemaWithoutPath.getFields());
-          fields.add(Schema.Field.of(pathField, Schema.of(Schema.Type.STRING)));
-          schema = Schema.recordOf(schemaWithoutPath.getRecordName(), fields);
-        }
+        schema = ReaderPlanCache.getPlan(() -> getSchema(genericRecord.getSchema(), pathField),
+                                         FORMAT_SCHEMA, genericRecord.getSchema(), pathField);
       }
       return recordTransformer.transform(genericRecord, schema, pathField);
     }
 
+    private static Schema getSchema(org.apache.avro.Schema avroSchema, @Nullable String pathField)
+      throws IOException {
+      Schema schemaWithoutPath = Schema.parseJson(avroSchema.toString());
+      if (pathField == null) {
+        return schemaWithoutPath;
+      }
+      // if there is a path field, add the path as a field in the schema
+      List<Schema.Field> fields = new ArrayList<>(schemaWithoutPath.getFields().size() + 1);
+      fields.addAll(schemaWithoutPath.getFields());
+      fields.add(Schema.Field.of(pathField, Schema.of(Schema.Type.STRING)));
+      return Schema.recordOf(schemaWithoutPath.getRecordName(), fields);
+    }
+
     @Override
     public float getProgress() throws IOException, InterruptedException {
       return delegate.getProgress();
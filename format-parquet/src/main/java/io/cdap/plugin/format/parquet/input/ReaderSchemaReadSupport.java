@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin.format.parquet.input;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads parquet files with a fixed Avro reader schema, whatever the schema of each file is.
+ *
+ * The Avro converters of parquet fill in the fields of the reader schema that are missing from a file and widen
+ * numeric values, but fail on columns that the reader schema does not contain, and require the requested columns
+ * to have the types of the file. The columns requested from each file are therefore the columns of its own schema
+ * that are in the reader schema, which also skips reading the columns that are not needed.
+ */
+class ReaderSchemaReadSupport extends AvroReadSupport<GenericRecord> {
+  // same as AvroReadSupport.AVRO_READ_SCHEMA_METADATA_KEY, which is not public
+  private static final String AVRO_READ_SCHEMA_METADATA_KEY = "avro.read.schema";
+  private final Schema readerSchema;
+
+  ReaderSchemaReadSupport(Schema readerSchema) {
+    this.readerSchema = readerSchema;
+  }
+
+  @Override
+  public ReadContext init(Configuration configuration, Map<String, String> keyValueMetaData,
+                          MessageType fileSchema) {
+    ReadContext context = super.init(configuration, keyValueMetaData, fileSchema);
+    MessageType requestedSchema = context.getRequestedSchema();
+    Map<String, String> metadata = new HashMap<>(context.getReadSupportMetadata());
+    metadata.put(AVRO_READ_SCHEMA_METADATA_KEY, readerSchema.toString());
+    List<Type> fields = project(requestedSchema, readerSchema);
+    return new ReadContext(new MessageType(requestedSchema.getName(), fields), metadata);
+  }
+
+  /**
+   * Returns the fields of the group that are in the given record schema, with nested groups projected the same way.
+   */
+  private static List<Type> project(GroupType group, Schema recordSchema) {
+    List<Type> fields = new ArrayList<>(group.getFieldCount());
+    for (Type field : group.getFields()) {
+      Schema.Field readerField = recordSchema.getField(field.getName());
+      if (readerField == null) {
+        continue;
+      }
+      Schema readerFieldSchema = getNonNullable(readerField.schema());
+      if (field.isPrimitive() || readerFieldSchema.getType() != Schema.Type.RECORD) {
+        fields.add(field);
+        continue;
+      }
+      List<Type> nestedFields = project(field.asGroupType(), readerFieldSchema);
+      // a group without any of the fields of the reader schema is read as null
+      if (!nestedFields.isEmpty()) {
+        fields.add(field.asGroupType().withNewFields(nestedFields));
+      }
+    }
+    return fields;
+  }
+
+  private static Schema getNonNullable(Schema schema) {
+    if (schema.getType() != Schema.Type.UNION) {
+      return schema;
+    }
+    for (Schema type : schema.getTypes()) {
+      if (type.getType() != Schema.Type.NULL) {
+        return type;
+      }
+    }
+    return schema;
+  }
+}
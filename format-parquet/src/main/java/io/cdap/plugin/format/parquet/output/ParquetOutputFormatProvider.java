@@ -28,15 +28,22 @@ import io.cdap.cdap.api.plugin.PluginPropertyField;
 import io.cdap.cdap.etl.api.validation.FormatContext;
 import io.cdap.cdap.etl.api.validation.ValidatingOutputFormat;
 import io.cdap.plugin.format.output.AbstractOutputFormatProvider;
+import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.format.CompressionCodec;
+import org.apache.parquet.hadoop.ParquetOutputFormat;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import javax.annotation.Nullable;
 
 /**
  * Output format plugin for parquet.
+ *
+ * Besides the compression codec, the row group size, page sizes, dictionary encoding, writer version and column
+ * bloom filters of the parquet writer can be configured. Dictionary encoding and bloom filters can be set for
+ * individual columns, which are passed to the writer as 'property#column' settings.
  */
 @Plugin(type = ValidatingOutputFormat.PLUGIN_TYPE)
 @Name(ParquetOutputFormatProvider.NAME)
@@ -79,6 +86,33 @@ public class ParquetOutputFormatProvider extends AbstractOutputFormatProvider {
         throw new IllegalArgumentException("Unsupported compression codec " + conf.compressionCodec, e);
       }
     }
+
+    if (conf.rowGroupSize != null) {
+      configuration.put(ParquetOutputFormat.BLOCK_SIZE, String.valueOf(conf.rowGroupSize));
+    }
+    if (conf.pageSize != null) {
+      configuration.put(ParquetOutputFormat.PAGE_SIZE, String.valueOf(conf.pageSize));
+    }
+    if (conf.dictionaryPageSize != null) {
+      configuration.put(ParquetOutputFormat.DICTIONARY_PAGE_SIZE, String.valueOf(conf.dictionaryPageSize));
+    }
+    if (conf.enableDictionary != null) {
+      configuration.put(ParquetOutputFormat.ENABLE_DICTIONARY, String.valueOf(conf.enableDictionary));
+    }
+    if (!Strings.isNullOrEmpty(conf.writerVersion)) {
+      configuration.put(ParquetOutputFormat.WRITER_VERSION, conf.getWriterVersion().name());
+    }
+    for (Map.Entry<String, Boolean> entry : conf.getDictionaryOverrides().entrySet()) {
+      configuration.put(ParquetOutputFormat.ENABLE_DICTIONARY + "#" + entry.getKey(),
+                        String.valueOf(entry.getValue()));
+    }
+    for (Map.Entry<String, Long> entry : conf.getBloomFilterColumns().entrySet()) {
+      configuration.put(ParquetOutputFormat.BLOOM_FILTER_ENABLED + "#" + entry.getKey(), "true");
+      if (entry.getValue() != null) {
+        configuration.put(ParquetOutputFormat.BLOOM_FILTER_EXPECTED_NDV + "#" + entry.getKey(),
+                          String.valueOf(entry.getValue()));
+      }
+    }
     return configuration;
   }
 
@@ -88,7 +122,25 @@ public class ParquetOutputFormatProvider extends AbstractOutputFormatProvider {
   public static class Conf extends PluginConfig {
     private static final String SCHEMA_DESC = "Schema of the data to write.";
     private static final String CODEC_DESC =
-      "Compression codec to use when writing data. Must be 'snappy', 'gzip', or 'none'.";
+      "Compression codec to use when writing data. Must be 'snappy', 'gzip', 'zstd', 'lz4', or 'none'.";
+    private static final String ROW_GROUP_SIZE_DESC = "Size in bytes of the row groups to write. Larger row groups "
+      + "compress better and allow fewer, larger reads, but are buffered in memory while they are written. "
+      + "Defaults to 134217728 (128 MB).";
+    private static final String PAGE_SIZE_DESC = "Size in bytes of the data pages within a column chunk. "
+      + "Defaults to 1048576 (1 MB).";
+    private static final String DICTIONARY_PAGE_SIZE_DESC = "Maximum size in bytes of the dictionary of a column "
+      + "chunk. Columns fall back to plain encoding when their dictionary grows larger. Defaults to 1048576 (1 MB).";
+    private static final String ENABLE_DICTIONARY_DESC = "Whether to use dictionary encoding for columns. "
+      + "Defaults to true.";
+    private static final String WRITER_VERSION_DESC = "Version of the parquet data pages to write. Must be 'v1' or "
+      + "'v2'. Version 2 pages use more efficient encodings, but are not supported by some older readers. "
+      + "Defaults to 'v1'.";
+    private static final String DICTIONARY_OVERRIDES_DESC = "Comma separated list of column:enabled pairs that turn "
+      + "dictionary encoding on or off for individual columns, such as 'id:false,country:true'. Nested columns are "
+      + "named by their dot separated path.";
+    private static final String BLOOM_FILTER_COLUMNS_DESC = "Comma separated list of columns to write bloom filters "
+      + "for, optionally with the expected number of distinct values, such as 'user_id:1000000,email'. Readers use "
+      + "bloom filters to skip row groups that do not contain a value of an equality filter.";
 
     @Macro
     @Description(SCHEMA_DESC)
@@ -99,7 +151,50 @@ public class ParquetOutputFormatProvider extends AbstractOutputFormatProvider {
     @Description(CODEC_DESC)
     private String compressionCodec;
 
+    @Macro
+    @Nullable
+    @Description(ROW_GROUP_SIZE_DESC)
+    private Long rowGroupSize;
+
+    @Macro
+    @Nullable
+    @Description(PAGE_SIZE_DESC)
+    private Integer pageSize;
+
+    @Macro
+    @Nullable
+    @Description(DICTIONARY_PAGE_SIZE_DESC)
+    private Integer dictionaryPageSize;
+
+    @Macro
+    @Nullable
+    @Description(ENABLE_DICTIONARY_DESC)
+    private Boolean enableDictionary;
+
+    @Macro
+    @Nullable
+    @Description(WRITER_VERSION_DESC)
+    private String writerVersion;
+
+    @Macro
+    @Nullable
+    @Description(DICTIONARY_OVERRIDES_DESC)
+    private String dictionaryOverrides;
+
+    @Macro
+    @Nullable
+    @Description(BLOOM_FILTER_COLUMNS_DESC)
+    private String bloomFilterColumns;
+
     private void validate() {
+      validateSizes();
+      if (!containsMacro("writerVersion") && !Strings.isNullOrEmpty(writerVersion)) {
+        getWriterVersion();
+      }
+      Map<String, Boolean> dictionaryColumns = containsMacro("dictionaryOverrides") ?
+        new HashMap<>() : getDictionaryOverrides();
+      Map<String, Long> bloomFilters = containsMacro("bloomFilterColumns") ? new HashMap<>() : getBloomFilterColumns();
+
       if (containsMacro("schema")) {
         return;
       }
@@ -108,11 +203,124 @@ public class ParquetOutputFormatProvider extends AbstractOutputFormatProvider {
         throw new IllegalArgumentException("Output schema must not be null or empty.");
       }
 
+      Schema parsedSchema;
       try {
-        Schema.parseJson(schema);
+        parsedSchema = Schema.parseJson(schema);
       } catch (IOException e) {
         throw new IllegalArgumentException("Unable to parse output schema: " + e.getMessage(), e);
       }
+
+      for (String column : dictionaryColumns.keySet()) {
+        getColumnField(parsedSchema, column, "dictionary encoding");
+      }
+      for (String column : bloomFilters.keySet()) {
+        Schema fieldSchema = getColumnField(parsedSchema, column, "a bloom filter").getSchema();
+        fieldSchema = fieldSchema.isNullable() ? fieldSchema.getNonNullable() : fieldSchema;
+        if (fieldSchema.getType() == Schema.Type.BOOLEAN) {
+          throw new IllegalArgumentException(
+            String.format("Bloom filters are not supported for boolean column '%s'.", column));
+        }
+      }
+    }
+
+    private void validateSizes() {
+      if (!containsMacro("rowGroupSize") && rowGroupSize != null && rowGroupSize <= 0) {
+        throw new IllegalArgumentException(String.format("Invalid row group size '%d'. It must be positive.",
+                                                         rowGroupSize));
+      }
+      if (!containsMacro("pageSize") && pageSize != null && pageSize <= 0) {
+        throw new IllegalArgumentException(String.format("Invalid page size '%d'. It must be positive.", pageSize));
+      }
+      if (!containsMacro("dictionaryPageSize") && dictionaryPageSize != null && dictionaryPageSize <= 0) {
+        throw new IllegalArgumentException(String.format("Invalid dictionary page size '%d'. It must be positive.",
+                                                         dictionaryPageSize));
+      }
+    }
+
+    /**
+     * Returns the top level field of a column, which is named by its dot separated path.
+     */
+    private static Schema.Field getColumnField(Schema schema, String column, String setting) {
+      String fieldName = column.split("\\.", 2)[0];
+      Schema.Field field = schema.getField(fieldName);
+      if (field == null) {
+        throw new IllegalArgumentException(
+          String.format("Column '%s' configured for %s does not exist in the output schema.", column, setting));
+      }
+      return field;
+    }
+
+    private ParquetProperties.WriterVersion getWriterVersion() {
+      String version = writerVersion.trim().toLowerCase();
+      if (!"v1".equals(version) && !"v2".equals(version)) {
+        throw new IllegalArgumentException(
+          String.format("Unsupported writer version '%s'. It must be 'v1' or 'v2'.", writerVersion));
+      }
+      return ParquetProperties.WriterVersion.fromString(version);
+    }
+
+    private Map<String, Boolean> getDictionaryOverrides() {
+      Map<String, Boolean> overrides = new LinkedHashMap<>();
+      for (Map.Entry<String, String> entry : parseColumns(dictionaryOverrides, "dictionary override").entrySet()) {
+        String value = entry.getValue() == null ? "" : entry.getValue().toLowerCase();
+        if (!"true".equals(value) && !"false".equals(value)) {
+          throw new IllegalArgumentException(
+            String.format("Invalid dictionary override '%s' for column '%s'. It must be 'true' or 'false'.",
+                          entry.getValue(), entry.getKey()));
+        }
+        overrides.put(entry.getKey(), Boolean.parseBoolean(value));
+      }
+      return overrides;
+    }
+
+    private Map<String, Long> getBloomFilterColumns() {
+      Map<String, Long> columns = new LinkedHashMap<>();
+      for (Map.Entry<String, String> entry : parseColumns(bloomFilterColumns, "bloom filter column").entrySet()) {
+        if (entry.getValue() == null) {
+          columns.put(entry.getKey(), null);
+          continue;
+        }
+        String error = String.format("Invalid expected number of distinct values '%s' for column '%s'. "
+                                       + "It must be a positive number.", entry.getValue(), entry.getKey());
+        long distinctValues;
+        try {
+          distinctValues = Long.parseLong(entry.getValue());
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException(error, e);
+        }
+        if (distinctValues <= 0) {
+          throw new IllegalArgumentException(error);
+        }
+        columns.put(entry.getKey(), distinctValues);
+      }
+      return columns;
+    }
+
+    /**
+     * Parses a comma separated list of column[:value] pairs. The value is null if it is not given.
+     */
+    private static Map<String, String> parseColumns(@Nullable String value, String setting) {
+      Map<String, String> columns = new LinkedHashMap<>();
+      if (Strings.isNullOrEmpty(value)) {
+        return columns;
+      }
+      for (String pair : value.split(",")) {
+        if (pair.trim().isEmpty()) {
+          continue;
+        }
+        String[] parts = pair.split(":", 2);
+        String column = parts[0].trim();
+        if (column.isEmpty()) {
+          throw new IllegalArgumentException(String.format("Invalid %s '%s'. A column name is required.",
+                                                           setting, pair));
+        }
+        String columnValue = parts.length > 1 && !parts[1].trim().isEmpty() ? parts[1].trim() : null;
+        if (columns.put(column, columnValue) != null) {
+          throw new IllegalArgumentException(String.format("Column '%s' is given more than once for %s.",
+                                                           column, setting));
+        }
+      }
+      return columns;
     }
   }
 
@@ -121,6 +329,21 @@ public class ParquetOutputFormatProvider extends AbstractOutputFormatProvider {
     properties.put("schema", new PluginPropertyField("schema", Conf.SCHEMA_DESC, "string", true, true));
     properties.put("compressionCodec",
                    new PluginPropertyField("compressionCodec", Conf.CODEC_DESC, "string", false, true));
+    properties.put("rowGroupSize",
+                   new PluginPropertyField("rowGroupSize", Conf.ROW_GROUP_SIZE_DESC, "long", false, true));
+    properties.put("pageSize", new PluginPropertyField("pageSize", Conf.PAGE_SIZE_DESC, "int", false, true));
+    properties.put("dictionaryPageSize",
+                   new PluginPropertyField("dictionaryPageSize", Conf.DICTIONARY_PAGE_SIZE_DESC, "int", false, true));
+    properties.put("enableDictionary",
+                   new PluginPropertyField("enableDictionary", Conf.ENABLE_DICTIONARY_DESC, "boolean", false, true));
+    properties.put("writerVersion",
+                   new PluginPropertyField("writerVersion", Conf.WRITER_VERSION_DESC, "string", false, true));
+    properties.put("dictionaryOverrides",
+                   new PluginPropertyField("dictionaryOverrides", Conf.DICTIONARY_OVERRIDES_DESC, "string", false,
+                                           true));
+    properties.put("bloomFilterColumns",
+                   new PluginPropertyField("bloomFilterColumns", Conf.BLOOM_FILTER_COLUMNS_DESC, "string", false,
+                                           true));
     return new PluginClass(ValidatingOutputFormat.PLUGIN_TYPE, NAME, DESC, ParquetOutputFormatProvider.class.getName(),
                            "conf", properties);
   }
@@ -154,4 +154,73 @@ public class ParquetInputFormatProviderTest {
     expectedCauses.add(expectedCause);
     Assert.assertEquals(expectedCauses, actualCauses);
   }
+
+  @Test
+  public void testMergedSchemaDetection() throws IOException {
+    File dir = TMP_FOLDER.newFolder();
+    Schema oldSchema = Schema.recordOf("x",
+                                       Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                       Schema.Field.of("name", Schema.of(Schema.Type.STRING)));
+    Schema newSchema = Schema.recordOf("x",
+                                       Schema.Field.of("id", Schema.of(Schema.Type.LONG)),
+                                       Schema.Field.of("name", Schema.of(Schema.Type.STRING)),
+                                       Schema.Field.of("score", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))));
+    writeFile(new File(dir, "old.parquet"), oldSchema);
+    writeFile(new File(dir, "new.parquet"), newSchema);
+
+    ParquetInputFormatProvider formatProvider = new ParquetInputFormatProvider(new ParquetInputFormatProvider.Conf());
+    FormatContext formatContext = new FormatContext(new MockFailureCollector(), null);
+    Schema schema = new SchemaDetector(formatProvider).detectSchema(dir.getAbsolutePath(), formatContext,
+                                                                    Collections.emptyMap());
+    // parquet files store nullable columns as optional, which are read back as unions with null first
+    Schema expected = Schema.recordOf("x",
+                                      Schema.Field.of("id", Schema.of(Schema.Type.LONG)),
+                                      Schema.Field.of("name", Schema.of(Schema.Type.STRING)),
+                                      Schema.Field.of("score", Schema.unionOf(Schema.of(Schema.Type.NULL),
+                                                                              Schema.of(Schema.Type.DOUBLE))));
+    Assert.assertEquals(expected, schema);
+  }
+
+  @Test
+  public void testIncompatibleSchemaDetection() throws IOException {
+    File dir = TMP_FOLDER.newFolder();
+    writeFile(new File(dir, "a.parquet"), Schema.recordOf("x", Schema.Field.of("id", Schema.of(Schema.Type.INT))));
+    writeFile(new File(dir, "b.parquet"), Schema.recordOf("x", Schema.Field.of("id", Schema.of(Schema.Type.STRING))));
+
+    ParquetInputFormatProvider formatProvider = new ParquetInputFormatProvider(new ParquetInputFormatProvider.Conf());
+    FormatContext formatContext = new FormatContext(new MockFailureCollector(), null);
+    try {
+      new SchemaDetector(formatProvider).detectSchema(dir.getAbsolutePath(), formatContext, Collections.emptyMap());
+      Assert.fail("Schema detection should fail for incompatible schemas");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains("Field 'id'"));
+    }
+  }
+
+  private static void writeFile(File file, Schema schema) throws IOException {
+    org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser().parse(schema.toString());
+    try (ParquetWriter<GenericRecord> parquetWriter =
+           AvroParquetWriter.<GenericRecord>builder(HadoopOutputFile.fromPath(new Path(file.toURI()),
+                                                                              new Configuration()))
+             .withSchema(avroSchema)
+             .build()) {
+      GenericRecordBuilder builder = new GenericRecordBuilder(avroSchema);
+      for (org.apache.avro.Schema.Field field : avroSchema.getFields()) {
+        switch (field.schema().getType()) {
+          case INT:
+            builder.set(field, 0);
+            break;
+          case LONG:
+            builder.set(field, 0L);
+            break;
+          case STRING:
+            builder.set(field, "a");
+            break;
+          default:
+            builder.set(field, null);
+        }
+      }
+      parquetWriter.write(builder.build());
+    }
+  }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin.format.parquet.input;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.format.input.PathTrackingInputFormat;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link PathTrackingParquetInputFormat}.
+ */
+public class PathTrackingParquetInputFormatTest {
+  @ClassRule
+  public static final TemporaryFolder TMP_FOLDER = new TemporaryFolder();
+
+  @Test
+  public void testReadWithMergedSchema() throws Exception {
+    Schema inner = Schema.recordOf("inner",
+                                   Schema.Field.of("a", Schema.of(Schema.Type.INT)),
+                                   Schema.Field.of("b", Schema.of(Schema.Type.STRING)));
+    Schema fileSchema = Schema.recordOf("x",
+                                        Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                        Schema.Field.of("dropped", Schema.of(Schema.Type.STRING)),
+                                        Schema.Field.of("inner", inner),
+                                        Schema.Field.of("score", Schema.of(Schema.Type.FLOAT)));
+    org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser().parse(fileSchema.toString());
+    org.apache.avro.Schema avroInner = avroSchema.getField("inner").schema();
+    File file = new File(TMP_FOLDER.newFolder(), "old.parquet");
+    try (ParquetWriter<GenericRecord> writer =
+           AvroParquetWriter.<GenericRecord>builder(HadoopOutputFile.fromPath(new Path(file.toURI()),
+                                                                              new Configuration()))
+             .withSchema(avroSchema)
+             .build()) {
+      writer.write(new GenericRecordBuilder(avroSchema)
+                     .set("id", 1)
+                     .set("dropped", "x")
+                     .set("inner", new GenericRecordBuilder(avroInner).set("a", 2).set("b", "y").build())
+                     .set("score", 0.5f)
+                     .build());
+    }
+
+    // the read schema drops columns, widens types and adds nullable fields
+    Schema readInner = Schema.recordOf("inner",
+                                       Schema.Field.of("a", Schema.of(Schema.Type.LONG)),
+                                       Schema.Field.of("c", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    Schema readSchema = Schema.recordOf("x",
+                                        Schema.Field.of("id", Schema.of(Schema.Type.LONG)),
+                                        Schema.Field.of("inner", readInner),
+                                        Schema.Field.of("score", Schema.of(Schema.Type.DOUBLE)),
+                                        Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                                        Schema.Field.of("file", Schema.of(Schema.Type.STRING)));
+    List<StructuredRecord> records = read(file, readSchema, "file");
+
+    Assert.assertEquals(1, records.size());
+    StructuredRecord record = records.get(0);
+    Assert.assertEquals(1L, (long) record.<Long>get("id"));
+    Assert.assertEquals(0.5d, record.<Double>get("score"), 0d);
+    Assert.assertNull(record.get("name"));
+    Assert.assertTrue(record.<String>get("file").endsWith("/old.parquet"));
+    StructuredRecord innerRecord = record.get("inner");
+    Assert.assertEquals(2L, (long) innerRecord.<Long>get("a"));
+    Assert.assertNull(innerRecord.get("c"));
+  }
+
+  @Test
+  public void testReadEnums() throws Exception {
+    org.apache.avro.Schema color = org.apache.avro.Schema.createEnum("Color", null, "com.example",
+                                                                     Arrays.asList("RED", "GREEN"));
+    org.apache.avro.Schema avroSchema = org.apache.avro.Schema.createRecord("Colors", null, "com.example", false);
+    avroSchema.setFields(Arrays.asList(
+      new org.apache.avro.Schema.Field("color", color),
+      new org.apache.avro.Schema.Field("shade", org.apache.avro.Schema.createUnion(
+        org.apache.avro.Schema.create(org.apache.avro.Schema.Type.NULL), color)),
+      new org.apache.avro.Schema.Field("colors", org.apache.avro.Schema.createArray(color))));
+    GenericRecord fileRecord = new GenericRecordBuilder(avroSchema)
+      .set("color", new GenericData.EnumSymbol(color, "GREEN"))
+      .set("shade", new GenericData.EnumSymbol(color, "RED"))
+      .set("colors", Arrays.asList(new GenericData.EnumSymbol(color, "RED")))
+      .build();
+    File file = new File(TMP_FOLDER.newFolder(), "enums.parquet");
+    try (ParquetWriter<GenericRecord> writer =
+           AvroParquetWriter.<GenericRecord>builder(HadoopOutputFile.fromPath(new Path(file.toURI()),
+                                                                              new Configuration()))
+             .withSchema(avroSchema)
+             .build()) {
+      writer.write(fileRecord);
+    }
+
+    // enums of CDAP schemas have no names, so they are read with the names of the file
+    Schema colorSchema = Schema.enumWith("RED", "GREEN");
+    Schema readSchema = Schema.recordOf("Colors",
+                                        Schema.Field.of("color", colorSchema),
+                                        Schema.Field.of("shade", Schema.nullableOf(colorSchema)),
+                                        Schema.Field.of("colors", Schema.arrayOf(colorSchema)),
+                                        Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                                        Schema.Field.of("file", Schema.of(Schema.Type.STRING)));
+    List<StructuredRecord> records = read(file, readSchema, "file");
+
+    Assert.assertEquals(1, records.size());
+    StructuredRecord record = records.get(0);
+    Assert.assertEquals("GREEN", record.get("color"));
+    Assert.assertEquals("RED", record.get("shade"));
+    Assert.assertEquals(Collections.singletonList("RED"), record.get("colors"));
+    Assert.assertNull(record.get("name"));
+  }
+
+  private static List<StructuredRecord> read(File file, Schema schema, String pathField) throws Exception {
+    Configuration conf = new Configuration();
+    conf.set(PathTrackingInputFormat.SCHEMA, schema.toString());
+    conf.set("path.tracking.path.field", pathField);
+    TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+    FileSplit split = new FileSplit(new Path(file.toURI()), 0, file.length(), null);
+    List<StructuredRecord> records = new ArrayList<>();
+    try (RecordReader<NullWritable, StructuredRecord> reader =
+           new PathTrackingParquetInputFormat().createRecordReader(split, context)) {
+      reader.initialize(split, context);
+      while (reader.nextKeyValue()) {
+        records.add(reader.getCurrentValue());
+      }
+    }
+    return records;
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.parquet.output;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.OutputCommitter;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskType;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests for {@link ParquetOutputFormatProvider}.
+ */
+public class ParquetOutputFormatProviderTest {
+  @ClassRule
+  public static final TemporaryFolder TMP_FOLDER = new TemporaryFolder();
+
+  private static final Gson GSON = new Gson();
+  private static final Schema SCHEMA = Schema.recordOf(
+    "record",
+    Schema.Field.of("user_id", Schema.of(Schema.Type.LONG)),
+    Schema.Field.of("uuid", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("country", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("active", Schema.of(Schema.Type.BOOLEAN)));
+
+  @Test
+  public void testWriterProperties() {
+    JsonObject properties = properties();
+    properties.addProperty("compressionCodec", "zstd");
+    properties.addProperty("rowGroupSize", 1048576L);
+    properties.addProperty("pageSize", 8192);
+    properties.addProperty("dictionaryPageSize", 4096);
+    properties.addProperty("enableDictionary", true);
+    properties.addProperty("writerVersion", "v2");
+    properties.addProperty("dictionaryOverrides", "uuid:false, country:true");
+    properties.addProperty("bloomFilterColumns", "user_id:1000, uuid");
+
+    Map<String, String> expected = new HashMap<>();
+    expected.put(ParquetOutputFormatProvider.SCHEMA_KEY, SCHEMA.toString());
+    expected.put("parquet.compression", "ZSTD");
+    expected.put("parquet.block.size", "1048576");
+    expected.put("parquet.page.size", "8192");
+    expected.put("parquet.dictionary.page.size", "4096");
+    expected.put("parquet.enable.dictionary", "true");
+    expected.put("parquet.writer.version", "PARQUET_2_0");
+    expected.put("parquet.enable.dictionary#uuid", "false");
+    expected.put("parquet.enable.dictionary#country", "true");
+    expected.put("parquet.bloom.filter.enabled#user_id", "true");
+    expected.put("parquet.bloom.filter.expected.ndv#user_id", "1000");
+    expected.put("parquet.bloom.filter.enabled#uuid", "true");
+    Assert.assertEquals(expected, provider(properties).getOutputFormatConfiguration());
+  }
+
+  @Test
+  public void testDefaults() {
+    Map<String, String> expected = new HashMap<>();
+    expected.put(ParquetOutputFormatProvider.SCHEMA_KEY, SCHEMA.toString());
+    Assert.assertEquals(expected, provider(properties()).getOutputFormatConfiguration());
+  }
+
+  @Test
+  public void testInvalidProperties() {
+    assertInvalid("rowGroupSize", 0);
+    assertInvalid("pageSize", -1);
+    assertInvalid("dictionaryPageSize", 0);
+    assertInvalid("writerVersion", "v3");
+    assertInvalid("dictionaryOverrides", "uuid:maybe");
+    assertInvalid("dictionaryOverrides", "missing:false");
+    assertInvalid("dictionaryOverrides", "uuid:false,uuid:true");
+    assertInvalid("bloomFilterColumns", "user_id:0");
+    assertInvalid("bloomFilterColumns", "user_id:many");
+    assertInvalid("bloomFilterColumns", ":10");
+    assertInvalid("bloomFilterColumns", "active");
+    assertInvalid("bloomFilterColumns", "missing");
+  }
+
+  @Test
+  public void testWriteWithColumnSettings() throws Exception {
+    JsonObject properties = properties();
+    properties.addProperty("compressionCodec", "zstd");
+    properties.addProperty("dictionaryOverrides", "uuid:false");
+    properties.addProperty("bloomFilterColumns", "user_id:100");
+
+    Configuration hConf = new Configuration();
+    provider(properties).getOutputFormatConfiguration().forEach(hConf::set);
+    File outputDir = new File(TMP_FOLDER.newFolder(), "output");
+    hConf.set(FileOutputFormat.OUTDIR, outputDir.toURI().toString());
+    TaskAttemptContext context = new TaskAttemptContextImpl(hConf, new TaskAttemptID("test", 1, TaskType.MAP, 0, 0));
+
+    StructuredParquetOutputFormat outputFormat = new StructuredParquetOutputFormat();
+    OutputCommitter committer = outputFormat.getOutputCommitter(context);
+    committer.setupJob(context);
+    committer.setupTask(context);
+    RecordWriter<NullWritable, StructuredRecord> writer = outputFormat.getRecordWriter(context);
+    for (int i = 0; i < 100; i++) {
+      writer.write(NullWritable.get(), StructuredRecord.builder(SCHEMA)
+        .set("user_id", (long) i)
+        .set("uuid", "uuid-" + i)
+        .set("country", i % 2 == 0 ? "US" : "FR")
+        .set("active", true)
+        .build());
+    }
+    writer.close(context);
+    committer.commitTask(context);
+    committer.commitJob(context);
+
+    // the codec is part of the file extension, such as 'part-m-00000.zstd.parquet'
+    File[] files = outputDir.listFiles((dir, name) -> name.startsWith("part-"));
+    Assert.assertEquals(1, files.length);
+    Path file = new Path(files[0].toURI());
+    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(file, hConf))) {
+      Map<String, ColumnChunkMetaData> columns = new HashMap<>();
+      for (BlockMetaData block : reader.getFooter().getBlocks()) {
+        for (ColumnChunkMetaData column : block.getColumns()) {
+          columns.put(column.getPath().toDotString(), column);
+        }
+      }
+      for (ColumnChunkMetaData column : columns.values()) {
+        Assert.assertEquals(CompressionCodecName.ZSTD, column.getCodec());
+      }
+      Assert.assertTrue(columns.get("user_id").getBloomFilterOffset() >= 0);
+      Assert.assertTrue(columns.get("uuid").getBloomFilterOffset() < 0);
+      Assert.assertFalse(isDictionaryEncoded(columns.get("uuid")));
+      Assert.assertTrue(isDictionaryEncoded(columns.get("country")));
+    }
+  }
+
+  private static boolean isDictionaryEncoded(ColumnChunkMetaData column) {
+    return column.getEncodings().contains(Encoding.PLAIN_DICTIONARY)
+      || column.getEncodings().contains(Encoding.RLE_DICTIONARY);
+  }
+
+  private static void assertInvalid(String property, Object value) {
+    JsonObject properties = properties();
+    properties.add(property, GSON.toJsonTree(value));
+    try {
+      provider(properties).getOutputFormatConfiguration();
+      Assert.fail(String.format("Expected %s '%s' to be invalid", property, value));
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  private static JsonObject properties() {
+    JsonObject properties = new JsonObject();
+    properties.addProperty("schema", SCHEMA.toString());
+    return properties;
+  }
+
+  private static ParquetOutputFormatProvider provider(JsonObject properties) {
+    return new ParquetOutputFormatProvider(GSON.fromJson(properties, ParquetOutputFormatProvider.Conf.class));
+  }
+}
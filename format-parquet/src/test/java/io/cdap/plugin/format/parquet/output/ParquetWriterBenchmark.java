@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.parquet.output;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.OutputCommitter;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskType;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Writes a synthetic dataset with different parquet writer settings and reports the size of the output, the time to
+ * write it, the time to scan all of it, and the time of a lookup of a value that does not exist. The lookup shows the
+ * effect of bloom filters, since the value is within the min/max statistics of every row group. It also checks that
+ * every setting reads back all records, finds nothing in the lookup and, when compressed, writes less than no
+ * compression.
+ *
+ * Run it with the benchmarks profile, for example with 'mvn test -Pbenchmarks -pl format-parquet'. The number of
+ * records defaults to 1000000 and can be set with -Dbenchmark.records.
+ */
+public class ParquetWriterBenchmark {
+  private static final Gson GSON = new Gson();
+  private static final Schema SCHEMA = Schema.recordOf(
+    "event",
+    Schema.Field.of("user_id", Schema.of(Schema.Type.LONG)),
+    Schema.Field.of("event_id", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("country", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("amount", Schema.of(Schema.Type.DOUBLE)),
+    Schema.Field.of("ts", Schema.of(Schema.Type.LONG)));
+  private static final String[] COUNTRIES = { "US", "FR", "DE", "IN", "BR", "JP", "GB", "CA" };
+  private static final long MAX_USER_ID = 1_000_000L;
+  private static final int ROW_GROUP_SIZE = 8 * 1024 * 1024;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testWriterSettings() throws Exception {
+    int numRecords = Integer.getInteger("benchmark.records", 1_000_000);
+    File baseDir = temporaryFolder.newFolder();
+
+    Map<String, JsonObject> settings = new LinkedHashMap<>();
+    settings.put("snappy", settings("snappy"));
+    settings.put("gzip", settings("gzip"));
+    settings.put("zstd", settings("zstd"));
+    settings.put("lz4", settings("lz4"));
+    settings.put("none", settings("none"));
+    JsonObject v2 = settings("zstd");
+    v2.addProperty("writerVersion", "v2");
+    settings.put("zstd, v2 pages", v2);
+    JsonObject tuned = settings("zstd");
+    tuned.addProperty("dictionaryOverrides", "event_id:false");
+    tuned.addProperty("bloomFilterColumns", "user_id:" + MAX_USER_ID);
+    settings.put("zstd, no event_id dictionary, user_id bloom filter", tuned);
+    JsonObject noDictionary = settings("zstd");
+    noDictionary.addProperty("enableDictionary", false);
+    settings.put("zstd, no dictionary", noDictionary);
+
+    // warm up the JIT so that the first setting is not measured with interpreted code
+    Configuration warmUpConf = new Configuration();
+    new ParquetOutputFormatProvider(GSON.fromJson(settings("snappy"), ParquetOutputFormatProvider.Conf.class))
+      .getOutputFormatConfiguration().forEach(warmUpConf::set);
+    File warmUpDir = new File(baseDir, "warm-up");
+    write(warmUpConf, warmUpDir, Math.min(numRecords, 100_000));
+    scan(warmUpConf, getOutputFile(warmUpDir), FilterCompat.NOOP);
+
+    System.out.printf("Writing %d records to %s%n", numRecords, baseDir);
+    System.out.printf("%-52s %12s %10s %10s %10s%n", "settings", "bytes", "write ms", "scan ms", "lookup ms");
+    Map<String, Long> sizes = new LinkedHashMap<>();
+    int i = 0;
+    for (Map.Entry<String, JsonObject> entry : settings.entrySet()) {
+      File outputDir = new File(baseDir, "output-" + i++);
+      Configuration hConf = new Configuration();
+      ParquetOutputFormatProvider provider =
+        new ParquetOutputFormatProvider(GSON.fromJson(entry.getValue(), ParquetOutputFormatProvider.Conf.class));
+      provider.getOutputFormatConfiguration().forEach(hConf::set);
+
+      long start = System.nanoTime();
+      write(hConf, outputDir, numRecords);
+      long writeMillis = (System.nanoTime() - start) / 1_000_000;
+
+      Path file = getOutputFile(outputDir);
+      long size = file.getFileSystem(hConf).getFileStatus(file).getLen();
+      start = System.nanoTime();
+      long scanned = scan(hConf, file, FilterCompat.NOOP);
+      long scanMillis = (System.nanoTime() - start) / 1_000_000;
+      Assert.assertEquals(entry.getKey(), numRecords, scanned);
+      // user ids are even, so an odd id is within the statistics of every row group but never matches
+      start = System.nanoTime();
+      long found = scan(hConf, file,
+                        FilterCompat.get(FilterApi.eq(FilterApi.longColumn("user_id"), MAX_USER_ID / 2 + 1)));
+      long lookupMillis = (System.nanoTime() - start) / 1_000_000;
+      Assert.assertEquals(entry.getKey(), 0, found);
+      System.out.printf("%-52s %12d %10d %10d %10d%n", entry.getKey(), size, writeMillis, scanMillis, lookupMillis);
+      sizes.put(entry.getKey(), size);
+    }
+    for (Map.Entry<String, Long> entry : sizes.entrySet()) {
+      if (!entry.getKey().equals("none")) {
+        Assert.assertTrue(entry.getKey(), entry.getValue() < sizes.get("none"));
+      }
+    }
+  }
+
+  private static JsonObject settings(String compressionCodec) {
+    JsonObject properties = new JsonObject();
+    properties.addProperty("schema", SCHEMA.toString());
+    properties.addProperty("compressionCodec", compressionCodec);
+    properties.addProperty("rowGroupSize", ROW_GROUP_SIZE);
+    return properties;
+  }
+
+  private static void write(Configuration hConf, File outputDir, int numRecords) throws Exception {
+    hConf.set(FileOutputFormat.OUTDIR, outputDir.toURI().toString());
+    TaskAttemptContext context = new TaskAttemptContextImpl(hConf, new TaskAttemptID("bench", 1, TaskType.MAP, 0, 0));
+    StructuredParquetOutputFormat outputFormat = new StructuredParquetOutputFormat();
+    OutputCommitter committer = outputFormat.getOutputCommitter(context);
+    committer.setupJob(context);
+    committer.setupTask(context);
+    RecordWriter<NullWritable, StructuredRecord> writer = outputFormat.getRecordWriter(context);
+    // the same seed writes the same records for every setting
+    Random random = new Random(0L);
+    long ts = 1700000000000L;
+    for (int i = 0; i < numRecords; i++) {
+      writer.write(NullWritable.get(), StructuredRecord.builder(SCHEMA)
+        .set("user_id", (random.nextLong() & Long.MAX_VALUE) % (MAX_USER_ID / 2) * 2)
+        .set("event_id", new UUID(random.nextLong(), random.nextLong()).toString())
+        .set("country", COUNTRIES[random.nextInt(COUNTRIES.length)])
+        .set("amount", Math.round(random.nextDouble() * 10000) / 100d)
+        .set("ts", ts += random.nextInt(1000))
+        .build());
+    }
+    writer.close(context);
+    committer.commitTask(context);
+    committer.commitJob(context);
+  }
+
+  private static Path getOutputFile(File outputDir) {
+    File[] files = outputDir.listFiles((dir, name) -> name.startsWith("part-"));
+    if (files == null || files.length != 1) {
+      throw new IllegalStateException("Expected a single output file in " + outputDir);
+    }
+    return new Path(files[0].toURI());
+  }
+
+  private static long scan(Configuration hConf, Path file, FilterCompat.Filter filter) throws IOException {
+    long count = 0;
+    try (ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(
+      HadoopInputFile.fromPath(file, hConf)).withConf(hConf).withFilter(filter).build()) {
+      while (reader.read() != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -17,7 +17,7 @@
 package io.cdap.plugin.format.text.input;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
-import io.cdap.plugin.common.batch.JobUtils;
+import io.cdap.plugin.format.input.CombinePathTrackingInputFormat;
 import io.cdap.plugin.format.input.PathTrackingInputFormat;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -32,7 +32,6 @@ import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
-import org.apache.hadoop.mapreduce.lib.input.CombineFileInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.CombineFileRecordReader;
 import org.apache.hadoop.mapreduce.lib.input.CombineFileRecordReaderWrapper;
 import org.apache.hadoop.mapreduce.lib.input.CombineFileSplit;
@@ -50,12 +49,12 @@ import javax.annotation.Nullable;
  * Combined input format that tracks which file each text record was read from and optionally emits a file header
  * as the first record for each split.
  */
-public class CombineTextInputFormat extends CombineFileInputFormat<NullWritable, StructuredRecord> {
+public class CombineTextInputFormat extends CombinePathTrackingInputFormat {
   static final String HEADER = "combine.path.tracking.header";
   static final String SKIP_HEADER = "skip_header";
 
   /**
-   * Converts the CombineFileSplits derived by CombineFileInputFormat into CombineHeaderFileSplits
+   * Converts the CombineFileSplits planned by CombinePathTrackingInputFormat into CombineHeaderFileSplits
    * that optionally keep track of the header for each file.
    *
    * It is assumed that every file has the same header. It would be possible to read the header for each individual
@@ -64,8 +63,7 @@ public class CombineTextInputFormat extends CombineFileInputFormat<NullWritable,
    */
   @Override
   public List<InputSplit> getSplits(JobContext job) throws IOException {
-    List<InputSplit> fileSplits = JobUtils.applyWithExtraClassLoader(job, getClass().getClassLoader(),
-                                                                     CombineTextInputFormat.super::getSplits);
+    List<InputSplit> fileSplits = super.getSplits(job);
     Configuration hConf = job.getConfiguration();
 
     boolean shouldCopyHeader = hConf.getBoolean(PathTrackingInputFormat.COPY_HEADER, false);
@@ -127,6 +125,11 @@ public class CombineTextInputFormat extends CombineFileInputFormat<NullWritable,
     return new CombineFileRecordReader<>(combineSplit, context, WrapperReader.class);
   }
 
+  @Override
+  protected Class<? extends RecordReader<NullWritable, StructuredRecord>> getRecordReaderClass() {
+    return WrapperReader.class;
+  }
+
   /**
    * A wrapper class that's responsible for delegating to a corresponding RecordReader in
    * {@link PathTrackingInputFormat}. All it does is pick the i'th path in the CombineFileSplit to create a
@@ -17,10 +17,12 @@
 package io.cdap.plugin.format.xls.input;
 
 
+import com.github.pjfanning.xlsx.SharedStringsImplementationType;
 import com.github.pjfanning.xlsx.StreamingReader;
 import com.google.common.base.Preconditions;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.common.batch.JobUtils;
 import io.cdap.plugin.format.input.PathTrackingInputFormat;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -44,7 +46,9 @@ import org.apache.poi.util.IOUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import javax.annotation.Nullable;
 
 
@@ -52,7 +56,8 @@ import javax.annotation.Nullable;
  * {@link XlsInputFormat} is {@link TextInputFormat} implementation for reading Excel files.
  * <p>
  * The {@link XlsInputFormat.XlsRecordReader} reads a given sheet, and within a sheet reads
- * all columns and all rows.
+ * all columns and all rows. When several sheet numbers are configured, each sheet of a workbook becomes a separate
+ * {@link XlsSheetSplit} so that the sheets are read concurrently.
  */
 public class XlsInputFormat extends PathTrackingInputFormat {
 
@@ -60,7 +65,34 @@ public class XlsInputFormat extends PathTrackingInputFormat {
   public static final String SHEET_VALUE = "sheetValue";
   public static final String NAME_SKIP_HEADER = "skipHeader";
   public static final String TERMINATE_IF_EMPTY_ROW = "terminateIfEmptyRow";
+  // Workbooks at least this large keep their shared strings table in a temp file instead of on the heap
+  public static final String SST_TEMP_FILE_THRESHOLD = "xls.sst.temp.file.threshold";
   protected static final int EXCEL_BYTE_ARRAY_MAX_OVERRIDE_DEFAULT = Integer.MAX_VALUE / 2;
+  static final long SST_TEMP_FILE_THRESHOLD_DEFAULT = 64L * 1024 * 1024;
+
+  @Override
+  public List<InputSplit> getSplits(JobContext job) throws IOException {
+    List<InputSplit> splits = JobUtils.applyWithExtraClassLoader(job, getClass().getClassLoader(),
+                                                                 XlsInputFormat.super::getSplits);
+    Configuration jobConf = job.getConfiguration();
+    String sheetValue = jobConf.get(SHEET_VALUE);
+    if (!XlsInputFormatConfig.SHEET_NUMBER.equals(jobConf.get(SHEET_NUM)) || sheetValue == null
+      || sheetValue.indexOf(',') < 0) {
+      return splits;
+    }
+
+    // one split per sheet, each reading the entire workbook file but only parsing its own sheet
+    List<Integer> sheetNumbers = XlsInputFormatUtils.getSheetNumbers(sheetValue);
+    List<InputSplit> sheetSplits = new ArrayList<>(splits.size() * sheetNumbers.size());
+    for (InputSplit split : splits) {
+      FileSplit fileSplit = (FileSplit) split;
+      for (Integer sheetNumber : sheetNumbers) {
+        sheetSplits.add(new XlsSheetSplit(fileSplit.getPath(), fileSplit.getStart(), fileSplit.getLength(),
+                                          fileSplit.getLocations(), String.valueOf(sheetNumber)));
+      }
+    }
+    return sheetSplits;
+  }
 
   @Override
   protected RecordReader<NullWritable, StructuredRecord.Builder> createRecordReader(
@@ -69,10 +101,10 @@ public class XlsInputFormat extends PathTrackingInputFormat {
     Configuration jobConf = context.getConfiguration();
     boolean skipFirstRow = jobConf.getBoolean(NAME_SKIP_HEADER, false);
     boolean terminateIfEmptyRow = jobConf.getBoolean(TERMINATE_IF_EMPTY_ROW, false);
-    Schema outputSchema = schema != null ? Schema.parseJson(context.getConfiguration().get("schema")) : null;
     String sheet = jobConf.get(SHEET_NUM);
-    String sheetValue = jobConf.get(SHEET_VALUE, "0");
-    return new XlsRecordReader(sheet, sheetValue, outputSchema, terminateIfEmptyRow, skipFirstRow);
+    String sheetValue = split instanceof XlsSheetSplit ?
+      ((XlsSheetSplit) split).getSheetValue() : jobConf.get(SHEET_VALUE, "0");
+    return new XlsRecordReader(sheet, sheetValue, schema, terminateIfEmptyRow, skipFirstRow);
   }
 
   public boolean isSplitable(JobContext context, Path file) {
@@ -144,7 +176,15 @@ public class XlsInputFormat extends PathTrackingInputFormat {
         final FileMagic fm = FileMagic.valueOf(is);
         switch (fm) {
           case OOXML:
-            workbook = StreamingReader.builder().rowCacheSize(10).open(is);
+            // only the selected sheet is parsed, using SAX. For large workbooks, the shared strings table is kept
+            // in a temp file so that memory does not grow with the number of distinct strings.
+            SharedStringsImplementationType sharedStringsType =
+              fileSplit.getLength() >= jobConf.getLong(SST_TEMP_FILE_THRESHOLD, SST_TEMP_FILE_THRESHOLD_DEFAULT) ?
+                SharedStringsImplementationType.TEMP_FILE_BACKED : SharedStringsImplementationType.POI_DEFAULT;
+            workbook = StreamingReader.builder()
+              .rowCacheSize(10)
+              .setSharedStringsImplementationType(sharedStringsType)
+              .open(is);
             isStreaming = true;
             break;
           case OLE2:
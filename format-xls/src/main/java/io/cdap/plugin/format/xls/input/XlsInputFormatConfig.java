@@ -46,7 +46,9 @@ public class XlsInputFormatConfig extends PathTrackingConfig {
   public static final String DESC_SHEET = "Select the sheet by name or number. Default is 'Sheet Number'.";
   public static final String DESC_SHEET_VALUE = "Specifies the value corresponding to 'sheet' input. " +
     "Can be either sheet name or sheet no; for example: 'Sheet1' or '0' in case user selects 'Sheet Name' or " +
-    "'Sheet Number' as 'sheet' input respectively. Sheet number starts with 0. Default is 'Sheet Number' 0.";
+    "'Sheet Number' as 'sheet' input respectively. Sheet number starts with 0. Default is 'Sheet Number' 0. " +
+    "Several sheet numbers can be given as a comma-separated list, for example '0,1,2'. Each sheet is then read " +
+    "in parallel and all of them must match the schema.";
   public static final String DESC_TERMINATE_ROW = "Specify whether to stop reading after " +
     "encountering the first empty row. Defaults to false.";
   public static final Map<String, PluginPropertyField> XLS_FIELDS;
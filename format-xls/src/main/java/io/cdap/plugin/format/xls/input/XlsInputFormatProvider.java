@@ -195,15 +195,21 @@ public class XlsInputFormatProvider extends PathTrackingInputFormatProvider<XlsI
     return null;
   }
 
+  /**
+   * Returns the first configured sheet number. Each sheet number in a comma-separated list is validated.
+   */
   private Integer getSheetAsNumber(FailureCollector failureCollector) {
     if (!Strings.isNullOrEmpty(conf.getSheetValue())) {
       try {
-        int sheetValue = Integer.parseInt(conf.getSheetValue());
-        if (sheetValue >= 0) {
-          return sheetValue;
+        List<Integer> sheetNumbers = XlsInputFormatUtils.getSheetNumbers(conf.getSheetValue());
+        for (int sheetValue : sheetNumbers) {
+          if (sheetValue < 0) {
+            failureCollector.addFailure("Sheet number must be a positive number.", null)
+              .withConfigProperty(XlsInputFormatConfig.NAME_SHEET_VALUE);
+            return 0;
+          }
         }
-        failureCollector.addFailure("Sheet number must be a positive number.", null)
-          .withConfigProperty(XlsInputFormatConfig.NAME_SHEET_VALUE);
+        return sheetNumbers.get(0);
       } catch (NumberFormatException e) {
         failureCollector.addFailure("Sheet number must be a number.", null)
           .withConfigProperty(XlsInputFormatConfig.NAME_SHEET_VALUE);
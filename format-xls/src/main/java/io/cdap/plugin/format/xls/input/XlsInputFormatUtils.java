@@ -16,6 +16,8 @@
 
 package io.cdap.plugin.format.xls.input;
 
+import com.google.common.base.Splitter;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -27,6 +29,25 @@ import java.util.regex.Pattern;
  */
 public class XlsInputFormatUtils {
   private static final Pattern NOT_VALID_PATTERN = Pattern.compile("[^A-Za-z0-9_]+");
+  private static final Splitter SHEET_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  /**
+   * Parses a sheet number value, which can be a single number or a comma-separated list of numbers.
+   *
+   * @param sheetValue the sheet number value
+   * @return the sheet numbers, in the order they were given
+   * @throws NumberFormatException if any of the values is not a number
+   */
+  public static List<Integer> getSheetNumbers(String sheetValue) {
+    List<Integer> sheetNumbers = new ArrayList<>();
+    for (String value : SHEET_SPLITTER.split(sheetValue)) {
+      sheetNumbers.add(Integer.parseInt(value));
+    }
+    if (sheetNumbers.isEmpty()) {
+      throw new NumberFormatException("No sheet number found in '" + sheetValue + "'");
+    }
+    return sheetNumbers;
+  }
 
   /**
    * Cleans a list of column names to make sure they comply with avro field naming standard.
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.xls.input;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A {@link FileSplit} covering a single sheet of a workbook, so that the sheets of a workbook can be read
+ * by different tasks.
+ */
+public class XlsSheetSplit extends FileSplit {
+  private String sheetValue;
+
+  // required for deserialization
+  public XlsSheetSplit() {
+  }
+
+  public XlsSheetSplit(Path file, long start, long length, String[] hosts, String sheetValue) {
+    super(file, start, length, hosts);
+    this.sheetValue = sheetValue;
+  }
+
+  /**
+   * @return the number of the sheet to read
+   */
+  public String getSheetValue() {
+    return sheetValue;
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    super.write(out);
+    Text.writeString(out, sheetValue);
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    super.readFields(in);
+    sheetValue = Text.readString(in);
+  }
+
+  @Override
+  public String toString() {
+    return super.toString() + " sheet " + sheetValue;
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.format.xls.input;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.format.input.PathTrackingInputFormat;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for {@link XlsInputFormat}
+ */
+public class XlsInputFormatTest {
+  @ClassRule
+  public static final TemporaryFolder TMP_FOLDER = new TemporaryFolder();
+
+  private static final Schema SCHEMA = Schema.recordOf("xls",
+                                                       Schema.Field.of("A", Schema.of(Schema.Type.STRING)),
+                                                       Schema.Field.of("B", Schema.of(Schema.Type.DOUBLE)));
+
+  @Test
+  public void testSplitPerSheet() throws Exception {
+    File file = createWorkbook(3, 4);
+    Job job = createJob(file, "0, 2");
+
+    XlsInputFormat inputFormat = new XlsInputFormat();
+    List<InputSplit> splits = inputFormat.getSplits(job);
+    Assert.assertEquals(2, splits.size());
+
+    List<String> values = new ArrayList<>();
+    for (InputSplit split : splits) {
+      Assert.assertTrue(split instanceof XlsSheetSplit);
+      // splits are serialized when sent to tasks
+      values.addAll(read(inputFormat, job, copy((XlsSheetSplit) split)));
+    }
+    List<String> expected = new ArrayList<>();
+    for (int sheet : new int[] { 0, 2 }) {
+      for (int row = 0; row < 4; row++) {
+        expected.add("sheet" + sheet + "-" + row);
+      }
+    }
+    Assert.assertEquals(expected, values);
+  }
+
+  @Test
+  public void testSingleSheet() throws Exception {
+    File file = createWorkbook(2, 3);
+    Job job = createJob(file, "1");
+
+    XlsInputFormat inputFormat = new XlsInputFormat();
+    List<InputSplit> splits = inputFormat.getSplits(job);
+    Assert.assertEquals(1, splits.size());
+    Assert.assertFalse(splits.get(0) instanceof XlsSheetSplit);
+    List<String> values = read(inputFormat, job, splits.get(0));
+    Assert.assertEquals(3, values.size());
+    Assert.assertEquals("sheet1-0", values.get(0));
+  }
+
+  private static Job createJob(File file, String sheetValue) throws Exception {
+    Configuration conf = new Configuration();
+    conf.set(XlsInputFormat.SHEET_NUM, XlsInputFormatConfig.SHEET_NUMBER);
+    conf.set(XlsInputFormat.SHEET_VALUE, sheetValue);
+    conf.set(PathTrackingInputFormat.SCHEMA, SCHEMA.toString());
+    // always use the shared strings temp file to exercise it
+    conf.setLong(XlsInputFormat.SST_TEMP_FILE_THRESHOLD, 0L);
+    Job job = Job.getInstance(conf);
+    FileInputFormat.addInputPath(job, new org.apache.hadoop.fs.Path(file.toURI()));
+    FileInputFormat.setMinInputSplitSize(job, Long.MAX_VALUE);
+    return job;
+  }
+
+  private static File createWorkbook(int numSheets, int numRows) throws Exception {
+    File file = TMP_FOLDER.newFile();
+    try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream os = new FileOutputStream(file)) {
+      for (int i = 0; i < numSheets; i++) {
+        Sheet sheet = workbook.createSheet("sheet" + i);
+        for (int j = 0; j < numRows; j++) {
+          Row row = sheet.createRow(j);
+          row.createCell(0).setCellValue("sheet" + i + "-" + j);
+          row.createCell(1).setCellValue(j);
+        }
+      }
+      workbook.write(os);
+    }
+    return file;
+  }
+
+  private static XlsSheetSplit copy(XlsSheetSplit split) throws Exception {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    split.write(new DataOutputStream(bos));
+    XlsSheetSplit copy = new XlsSheetSplit();
+    copy.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+    Assert.assertEquals(split.getSheetValue(), copy.getSheetValue());
+    Assert.assertEquals(split.getPath(), copy.getPath());
+    return copy;
+  }
+
+  private static List<String> read(XlsInputFormat inputFormat, Job job, InputSplit split) throws Exception {
+    List<String> values = new ArrayList<>();
+    TaskAttemptContext context = new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID());
+    try (RecordReader<NullWritable, StructuredRecord> reader = inputFormat.createRecordReader(split, context)) {
+      reader.initialize(split, context);
+      while (reader.nextKeyValue()) {
+        values.add(reader.getCurrentValue().get("A"));
+      }
+    }
+    return values;
+  }
+}
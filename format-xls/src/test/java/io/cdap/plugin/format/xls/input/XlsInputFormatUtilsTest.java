@@ -57,4 +57,15 @@ public class XlsInputFormatUtilsTest {
       Assert.assertEquals(expectedColumnNames.get(i), actualColumnNames.get(i));
     }
   }
+
+  @Test
+  public void testGetSheetNumbers() {
+    Assert.assertEquals(ImmutableList.of(0), XlsInputFormatUtils.getSheetNumbers("0"));
+    Assert.assertEquals(ImmutableList.of(2, 0, 5), XlsInputFormatUtils.getSheetNumbers(" 2, 0,5 "));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testGetSheetNumbersInvalid() {
+    XlsInputFormatUtils.getSheetNumbers("0,Sheet1");
+  }
 }
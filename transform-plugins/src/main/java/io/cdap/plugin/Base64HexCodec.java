@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.annotation.Nullable;
+
+/**
+ * Encodes and decodes Base64 and hex values for the {@link Encoder} and {@link Decoder} transforms.
+ *
+ * Base64 values are encoded and decoded with the JDK codecs. The commons-codec decoder that was used before skips
+ * characters that are not part of the Base64 alphabet, such as line breaks, so values rejected by the JDK decoder
+ * are decoded with commons-codec to accept the same values as before. Strings longer than {@link #CHUNK_SIZE} are
+ * decoded in chunks through buffers that are reused across values, instead of being copied into a byte array first.
+ *
+ * Hex values are encoded and decoded with lookup tables, reading strings without converting them to bytes.
+ */
+final class Base64HexCodec {
+  /**
+   * Number of characters of a string that are Base64 decoded at a time. Must be a multiple of 4.
+   */
+  static final int CHUNK_SIZE = 64 * 1024;
+  private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] HEX_VALUES = new byte[128];
+
+  static {
+    Arrays.fill(HEX_VALUES, (byte) -1);
+    for (int i = 0; i < 10; i++) {
+      HEX_VALUES['0' + i] = (byte) i;
+    }
+    for (int i = 0; i < 6; i++) {
+      HEX_VALUES['a' + i] = (byte) (10 + i);
+      HEX_VALUES['A' + i] = (byte) (10 + i);
+    }
+  }
+
+  private final Base64.Encoder base64Encoder = Base64.getEncoder();
+  private final Base64.Decoder base64Decoder = Base64.getDecoder();
+  private final org.apache.commons.codec.binary.Base64 lenientBase64 = new org.apache.commons.codec.binary.Base64();
+  private byte[] chunk;
+  private byte[] decodedChunk;
+
+  byte[] encodeBase64(ByteBuffer value) {
+    return base64Encoder.encode(value.duplicate()).array();
+  }
+
+  byte[] decodeBase64(ByteBuffer value) {
+    try {
+      return base64Decoder.decode(value.duplicate()).array();
+    } catch (IllegalArgumentException e) {
+      return lenientBase64.decode(toArray(value));
+    }
+  }
+
+  byte[] decodeBase64(String value) {
+    byte[] decoded = null;
+    try {
+      decoded = value.length() > CHUNK_SIZE ? decodeBase64Chunks(value) : base64Decoder.decode(value);
+    } catch (IllegalArgumentException e) {
+      // decoded with commons-codec below
+    }
+    return decoded == null ? lenientBase64.decode(value.getBytes()) : decoded;
+  }
+
+  /**
+   * Decodes a Base64 string a chunk at a time, returning null if the string is not strictly Base64 encoded.
+   */
+  @Nullable
+  private byte[] decodeBase64Chunks(String value) {
+    int length = value.length();
+    int padding = 0;
+    while (padding < 2 && padding < length && value.charAt(length - 1 - padding) == '=') {
+      padding++;
+    }
+    int dataLength = length - padding;
+    if (dataLength % 4 == 1) {
+      return null;
+    }
+    byte[] decoded = new byte[dataLength / 4 * 3 + Math.max(0, dataLength % 4 - 1)];
+    if (chunk == null) {
+      chunk = new byte[CHUNK_SIZE];
+      decodedChunk = new byte[CHUNK_SIZE / 4 * 3];
+    }
+
+    int position = 0;
+    for (int start = 0; start < length; start += CHUNK_SIZE) {
+      int end = Math.min(length, start + CHUNK_SIZE);
+      // only the last chunk can be shorter, and the JDK decoder always decodes the whole array
+      byte[] encoded = end - start == CHUNK_SIZE ? chunk : new byte[end - start];
+      for (int i = start; i < end; i++) {
+        char c = value.charAt(i);
+        if (c > 0x7F) {
+          return null;
+        }
+        encoded[i - start] = (byte) c;
+      }
+      int decodedLength = base64Decoder.decode(encoded, decodedChunk);
+      if (position + decodedLength > decoded.length) {
+        return null;
+      }
+      System.arraycopy(decodedChunk, 0, decoded, position, decodedLength);
+      position += decodedLength;
+    }
+    return position == decoded.length ? decoded : null;
+  }
+
+  static byte[] encodeHex(ByteBuffer value) {
+    byte[] array = value.hasArray() ? value.array() : toArray(value);
+    int offset = value.hasArray() ? value.arrayOffset() + value.position() : 0;
+    byte[] encoded = new byte[value.remaining() * 2];
+    for (int i = 0; i < encoded.length; i += 2) {
+      int b = array[offset++];
+      encoded[i] = HEX_DIGITS[(b >> 4) & 0xF];
+      encoded[i + 1] = HEX_DIGITS[b & 0xF];
+    }
+    return encoded;
+  }
+
+  static String encodeHexToString(ByteBuffer value) {
+    return new String(encodeHex(value), StandardCharsets.US_ASCII);
+  }
+
+  static byte[] decodeHex(ByteBuffer value) {
+    byte[] array = value.hasArray() ? value.array() : toArray(value);
+    int offset = value.hasArray() ? value.arrayOffset() + value.position() : 0;
+    int length = value.remaining();
+    if ((length & 1) != 0) {
+      throw new IllegalArgumentException("Odd number of hexadecimal characters.");
+    }
+    byte[] decoded = new byte[length / 2];
+    for (int i = 0; i < decoded.length; i++) {
+      int index = i * 2;
+      decoded[i] = (byte) (hexValue(array[offset + index] & 0xFF, index) << 4
+        | hexValue(array[offset + index + 1] & 0xFF, index + 1));
+    }
+    return decoded;
+  }
+
+  static byte[] decodeHex(String value) {
+    int length = value.length();
+    if ((length & 1) != 0) {
+      throw new IllegalArgumentException("Odd number of hexadecimal characters.");
+    }
+    byte[] decoded = new byte[length / 2];
+    for (int i = 0; i < decoded.length; i++) {
+      int index = i * 2;
+      decoded[i] = (byte) (hexValue(value.charAt(index), index) << 4 | hexValue(value.charAt(index + 1), index + 1));
+    }
+    return decoded;
+  }
+
+  private static int hexValue(int c, int index) {
+    int value = c < HEX_VALUES.length ? HEX_VALUES[c] : -1;
+    if (value < 0) {
+      throw new IllegalArgumentException(
+        String.format("Illegal hexadecimal character '%c' at index %d.", (char) c, index));
+    }
+    return value;
+  }
+
+  /**
+   * Returns the remaining bytes of the buffer as an array, which is the backing array of the buffer if it has
+   * exactly these bytes.
+   */
+  static byte[] toArray(ByteBuffer value) {
+    if (value.hasArray() && value.arrayOffset() == 0 && value.position() == 0
+      && value.remaining() == value.array().length) {
+      return value.array();
+    }
+    byte[] array = new byte[value.remaining()];
+    value.duplicate().get(array);
+    return array;
+  }
+}
@@ -16,8 +16,12 @@
 
 package io.cdap.plugin;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
 import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
 import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Macro;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.cdap.api.common.Bytes;
@@ -33,19 +37,23 @@ import io.cdap.cdap.etl.api.Transform;
 import io.cdap.cdap.etl.api.TransformContext;
 import io.cdap.cdap.etl.api.lineage.field.FieldOperation;
 import io.cdap.plugin.common.TransformLineageRecorderUtils;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xerial.snappy.Snappy;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPOutputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 import javax.annotation.Nullable;
 
 /**
@@ -57,6 +65,8 @@ import javax.annotation.Nullable;
 public final class Compressor extends Transform<StructuredRecord, StructuredRecord> {
 
   private static final Logger LOG = LoggerFactory.getLogger(Compressor.class);
+  // Name of the single entry of zip compressed values.
+  private static final String ZIP_ENTRY = "c";
   private final Config config;
 
   // Output Schema associated with transform output.
@@ -67,6 +77,17 @@ public final class Compressor extends Transform<StructuredRecord, StructuredReco
 
   private final Map<String, CompressorType> compMap = Maps.newTreeMap();
 
+  // Map of field to compression level, for the fields whose compressor type has levels.
+  private final Map<String, Integer> levelMap = Maps.newHashMap();
+
+  // Compressors are created once and reused for all records, along with the buffer the values are compressed into.
+  private DeflateCodec deflateCodec;
+  private ZstdCompressCtx zstdContext;
+  private int zstdLevel;
+  private LZ4Factory lz4Factory;
+  private final Map<Integer, LZ4Compressor> lz4Compressors = new HashMap<>();
+  private byte[] buffer = new byte[0];
+
   // This is used only for tests, otherwise this is being injected by the ingestion framework.
   public Compressor(Config config) {
     this.config = config;
@@ -158,6 +179,30 @@ public final class Compressor extends Transform<StructuredRecord, StructuredReco
     } catch (IOException e) {
       throw new IllegalArgumentException("Format of schema specified is invalid. Please check the format.");
     }
+
+    deflateCodec = new DeflateCodec();
+    if (compMap.containsValue(CompressorType.ZSTD)) {
+      zstdContext = new ZstdCompressCtx();
+      zstdLevel = CompressorType.ZSTD.defaultLevel;
+      zstdContext.setLevel(zstdLevel);
+      if (config.zstdDictionary != null) {
+        zstdContext.loadDict(readDictionary(config.zstdDictionary, getHadoopConfiguration(context)));
+      }
+    }
+    if (compMap.containsValue(CompressorType.LZ4)) {
+      lz4Factory = LZ4Factory.fastestInstance();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    super.destroy();
+    if (deflateCodec != null) {
+      deflateCodec.close();
+    }
+    if (zstdContext != null) {
+      zstdContext.close();
+    }
   }
 
   @Override
@@ -202,9 +247,13 @@ public final class Compressor extends Transform<StructuredRecord, StructuredReco
         if (type == CompressorType.SNAPPY) {
           outValue = Snappy.compress(obj);
         } else if (type == CompressorType.ZIP) {
-          outValue = zip(obj);
+          outValue = deflateCodec.zip(obj, ZIP_ENTRY, levelMap.get(name));
         } else if (type == CompressorType.GZIP) {
-          outValue = gzip(obj);
+          outValue = deflateCodec.gzip(obj, levelMap.get(name));
+        } else if (type == CompressorType.ZSTD) {
+          outValue = zstd(obj, levelMap.get(name));
+        } else if (type == CompressorType.LZ4) {
+          outValue = lz4(obj, levelMap.get(name));
         }
 
         // Depending on the output field type, either convert it to 
@@ -222,54 +271,60 @@ public final class Compressor extends Transform<StructuredRecord, StructuredReco
     emitter.emit(builder.build());
   }
 
-  private static byte[] gzip(byte[] input) {
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
-    GZIPOutputStream gzip = null;
-    try {
-      gzip = new GZIPOutputStream(out);
-      gzip.write(input, 0, input.length);
-    } catch (IOException e) {
-      // These are all in memory operations, so this should not happen. 
-      // But, if it happens then we just return null. Logging anything 
-      // here can be noise.
-      return null;
-    } finally {
-      if (gzip != null) {
-        try {
-          gzip.close();
-        } catch (IOException e) {
-          return null;
-        }
-      }
+  /**
+   * Returns the Hadoop configuration of the run. The configuration found on the classpath of the task is extended with
+   * the runtime arguments of the pipeline, so file system properties such as credentials can be passed as arguments.
+   */
+  static Configuration getHadoopConfiguration(TransformContext context) {
+    Configuration conf = new Configuration();
+    for (Map.Entry<String, String> argument : context.getArguments()) {
+      conf.set(argument.getKey(), argument.getValue());
     }
+    return conf;
+  }
 
-    return out.toByteArray();
+  /**
+   * Reads a zstd dictionary from any file system supported by Hadoop, such as the local file system, HDFS or GCS.
+   */
+  static byte[] readDictionary(String dictionary, Configuration conf) throws IOException {
+    Path path = new Path(dictionary);
+    FileSystem fs = path.getFileSystem(conf);
+    try (InputStream in = fs.open(path)) {
+      return ByteStreams.toByteArray(in);
+    }
   }
 
-  private byte[] zip(byte[] input) {
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
-    ZipOutputStream zos = new ZipOutputStream(out);
-    try {
-      zos.setLevel(9);
-      zos.putNextEntry(new ZipEntry("c"));
-      zos.write(input, 0, input.length);
-      zos.finish();
-    } catch (IOException e) {
-      // These are all in memory operations, so this should not happen. 
-      // But, if it happens then we just return null. Logging anything 
-      // here can be noise. 
-      return null;
-    } finally {
-      try {
-        if (zos != null) {
-          zos.close();
-        }
-      } catch (IOException e) {
-        return null;
-      }
+  private byte[] zstd(byte[] input, int level) {
+    if (level != zstdLevel) {
+      zstdContext.setLevel(level);
+      zstdLevel = level;
     }
+    ensureBufferCapacity((int) Zstd.compressBound(input.length));
+    int length = zstdContext.compressByteArray(buffer, 0, buffer.length, input, 0, input.length);
+    return Arrays.copyOf(buffer, length);
+  }
+
+  /**
+   * Compresses into an LZ4 block, prefixed by the length of the uncompressed value as a 4 byte big endian integer,
+   * since it is needed to decompress the block.
+   */
+  private byte[] lz4(byte[] input, int level) {
+    LZ4Compressor compressor = lz4Compressors.computeIfAbsent(
+      level, l -> l == 0 ? lz4Factory.fastCompressor() : lz4Factory.highCompressor(l));
+    int maxLength = compressor.maxCompressedLength(input.length);
+    ensureBufferCapacity(4 + maxLength);
+    buffer[0] = (byte) (input.length >>> 24);
+    buffer[1] = (byte) (input.length >>> 16);
+    buffer[2] = (byte) (input.length >>> 8);
+    buffer[3] = (byte) input.length;
+    int length = compressor.compress(input, 0, input.length, buffer, 4, maxLength);
+    return Arrays.copyOf(buffer, 4 + length);
+  }
 
-    return out.toByteArray();
+  private void ensureBufferCapacity(int capacity) {
+    if (buffer.length < capacity) {
+      buffer = new byte[Math.max(capacity, buffer.length * 2)];
+    }
   }
 
   /**
@@ -277,14 +332,27 @@ public final class Compressor extends Transform<StructuredRecord, StructuredReco
    */
   private enum CompressorType {
     SNAPPY("SNAPPY"),
-    ZIP("ZIP"),
-    GZIP("GZIP"),
+    ZIP("ZIP", DeflateCodec.DEFAULT_ZIP_LEVEL, 0, 9),
+    GZIP("GZIP", DeflateCodec.DEFAULT_GZIP_LEVEL, 0, 9),
+    ZSTD("ZSTD", 3, 1, 22),
+    // level 0 uses the fast compressor, higher levels the high compression one
+    LZ4("LZ4", 0, 0, 17),
     NONE("NONE");
 
     private String type;
+    private final Integer defaultLevel;
+    private final int minLevel;
+    private final int maxLevel;
 
     CompressorType(String type) {
+      this(type, null, 0, 0);
+    }
+
+    CompressorType(String type, @Nullable Integer defaultLevel, int minLevel, int maxLevel) {
       this.type = type;
+      this.defaultLevel = defaultLevel;
+      this.minLevel = minLevel;
+      this.maxLevel = maxLevel;
     }
 
     String getType() {
@@ -297,16 +365,46 @@ public final class Compressor extends Transform<StructuredRecord, StructuredReco
     for (String mapping : mappings) {
       String[] params = mapping.split(Config.SEPARATOR);
 
-      if (params.length < 2) {
+      if (params.length < 2 || params.length > 3) {
         collector.addFailure(String.format("Configuration '%s' is incorrectly formed.", mapping),
-                             "Specify the configuration in the format <fieldname>:<compressor-type>.")
+                             "Specify the configuration in the format <fieldname>:<compressor-type>[:<level>].")
           .withConfigProperty(Config.NAME_COMPRESSOR);
         continue;
       }
 
       String field = params[0];
       String type = params[1].toUpperCase();
-      CompressorType cType = CompressorType.valueOf(type);
+      CompressorType cType;
+      try {
+        cType = CompressorType.valueOf(type);
+      } catch (IllegalArgumentException e) {
+        collector.addFailure(String.format("Compressor type '%s' is not supported.", params[1]),
+                             "Supported types are snappy, zip, gzip, zstd, lz4 and none.")
+          .withConfigElement(Config.NAME_COMPRESSOR, mapping);
+        continue;
+      }
+
+      Integer level = cType.defaultLevel;
+      if (params.length == 3) {
+        if (cType.defaultLevel == null) {
+          collector.addFailure(String.format("Compressor type '%s' does not support compression levels.", params[1]),
+                               "Remove the level from the configuration.")
+            .withConfigElement(Config.NAME_COMPRESSOR, mapping);
+          continue;
+        }
+        try {
+          level = Integer.parseInt(params[2].trim());
+        } catch (NumberFormatException e) {
+          level = null;
+        }
+        if (level == null || level < cType.minLevel || level > cType.maxLevel) {
+          collector.addFailure(String.format("Compression level '%s' is invalid.", params[2]),
+                               String.format("Specify a level between %d and %d for compressor type '%s'.",
+                                             cType.minLevel, cType.maxLevel, params[1]))
+            .withConfigElement(Config.NAME_COMPRESSOR, mapping);
+          continue;
+        }
+      }
 
       if (compMap.containsKey(field)) {
         collector.addFailure(String.format("Field '%s' already has compressor set.", field),
@@ -316,6 +414,9 @@ public final class Compressor extends Transform<StructuredRecord, StructuredReco
       }
 
       compMap.put(field, cType);
+      if (level != null) {
+        levelMap.put(field, level);
+      }
     }
   }
 
@@ -356,20 +457,34 @@ public final class Compressor extends Transform<StructuredRecord, StructuredReco
   public static class Config extends PluginConfig {
     private static final String NAME_COMPRESSOR = "compressor";
     private static final String NAME_SCHEMA = "schema";
+    private static final String NAME_ZSTD_DICTIONARY = "zstdDictionary";
     private static final String SEPARATOR = ":";
 
     @Name(NAME_COMPRESSOR)
-    @Description("Specify the field and compression type combination. " +
-      "Format is <field>:<compressor-type>[,<field>:<compressor-type>]*")
+    @Description("Specify the field and compression type combination, optionally with the compression level. " +
+      "Format is <field>:<compressor-type>[:<level>][,<field>:<compressor-type>[:<level>]]*")
     private final String compressor;
 
     @Name(NAME_SCHEMA)
     @Description("Specifies the output schema")
     private final String schema;
 
+    @Name(NAME_ZSTD_DICTIONARY)
+    @Description("Path to a dictionary file trained with 'zstd --train' on samples of the field values. " +
+      "The file can be on any file system supported by Hadoop, such as HDFS or GCS. " +
+      "Dictionaries improve the compression of small values with the zstd compressor.")
+    @Macro
+    @Nullable
+    private final String zstdDictionary;
+
     public Config(String compressor, String schema) {
+      this(compressor, schema, null);
+    }
+
+    public Config(String compressor, String schema, @Nullable String zstdDictionary) {
       this.compressor = compressor;
       this.schema = schema;
+      this.zstdDictionary = zstdDictionary;
     }
   }
 }
@@ -34,10 +34,10 @@ import io.cdap.cdap.etl.api.TransformContext;
 import io.cdap.cdap.etl.api.lineage.field.FieldOperation;
 import io.cdap.plugin.common.TransformLineageRecorderUtils;
 import org.apache.commons.codec.binary.Base32;
-import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.binary.Hex;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -58,9 +58,8 @@ public final class Decoder extends Transform<StructuredRecord, StructuredRecord>
   // Mapping of input field to decoder type.
   private final Map<String, DecoderType> decodeMap = new TreeMap<>();
   // Decoder handlers.
-  private final Base64 base64Decoder = new Base64();
+  private final Base64HexCodec codec = new Base64HexCodec();
   private final Base32 base32Decoder = new Base32();
-  private final Hex hexDecoder = new Hex();
   // Output Field name to type map
   private final Map<String, Schema.Type> outSchemaMap = new HashMap<>();
   // Output Schema associated with transform output.
@@ -174,25 +173,29 @@ public final class Decoder extends Transform<StructuredRecord, StructuredRecord>
       if (!decodeMap.containsKey(name) || decodeMap.get(name) == DecoderType.NONE) {
         builder.set(name, in.get(name));
       } else {
-        // Now, the input field could be of type String or byte[], so transform everything
-        // to byte[]
-        byte[] obj = new byte[0];
+        // Now, based on the decode type configured for the field - decode the value. Base64 and hex
+        // strings are decoded from their chars, and byte[] or ByteBuffer values without copying them.
+        DecoderType type = decodeMap.get(name);
+        byte[] outValue = new byte[0];
         if (field.getSchema().getType() == Schema.Type.STRING) {
-          obj = ((String) in.get(name)).getBytes();
+          String value = in.get(name);
+          if (type == DecoderType.STRING_BASE32 || type == DecoderType.BASE32) {
+            outValue = base32Decoder.decode(value.getBytes());
+          } else if (type == DecoderType.STRING_BASE64 || type == DecoderType.BASE64) {
+            outValue = codec.decodeBase64(value);
+          } else if (type == DecoderType.HEX) {
+            outValue = Base64HexCodec.decodeHex(value);
+          }
         } else if (field.getSchema().getType() == Schema.Type.BYTES) {
-          obj = in.get(name);
-        }
-
-        // Now, based on the decode type configured for the field - decode the byte[] of the
-        // value.
-        byte[] outValue = new byte[0];
-        DecoderType type = decodeMap.get(name);
-        if (type == DecoderType.STRING_BASE32 || type == DecoderType.BASE32) {
-          outValue = base32Decoder.decode(obj);
-        } else if (type == DecoderType.STRING_BASE64 || type == DecoderType.BASE64) {
-          outValue = base64Decoder.decode(obj);
-        } else if (type == DecoderType.HEX) {
-          outValue = hexDecoder.decode(obj);
+          Object value = in.get(name);
+          ByteBuffer obj = value instanceof ByteBuffer ? (ByteBuffer) value : ByteBuffer.wrap((byte[]) value);
+          if (type == DecoderType.STRING_BASE32 || type == DecoderType.BASE32) {
+            outValue = base32Decoder.decode(Base64HexCodec.toArray(obj));
+          } else if (type == DecoderType.STRING_BASE64 || type == DecoderType.BASE64) {
+            outValue = codec.decodeBase64(obj);
+          } else if (type == DecoderType.HEX) {
+            outValue = Base64HexCodec.decodeHex(obj);
+          }
         }
 
         // Depending on the output field type, either convert it to
@@ -200,7 +203,7 @@ public final class Decoder extends Transform<StructuredRecord, StructuredRecord>
         if (outFieldType == Schema.Type.BYTES) {
           builder.set(name, outValue);
         } else if (outFieldType == Schema.Type.STRING) {
-          builder.set(name, new String(outValue, "UTF-8"));
+          builder.set(name, new String(outValue, StandardCharsets.UTF_8));
         }
       }
     }
@@ -16,7 +16,12 @@
 
 package io.cdap.plugin;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdException;
+import com.github.luben.zstd.ZstdInputStream;
 import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Macro;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.cdap.api.data.format.StructuredRecord;
@@ -25,18 +30,21 @@ import io.cdap.cdap.api.data.schema.Schema.Field;
 import io.cdap.cdap.api.plugin.PluginConfig;
 import io.cdap.cdap.etl.api.Emitter;
 import io.cdap.cdap.etl.api.FailureCollector;
+import io.cdap.cdap.etl.api.InvalidEntry;
 import io.cdap.cdap.etl.api.PipelineConfigurer;
 import io.cdap.cdap.etl.api.StageSubmitterContext;
 import io.cdap.cdap.etl.api.Transform;
 import io.cdap.cdap.etl.api.TransformContext;
 import io.cdap.cdap.etl.api.lineage.field.FieldOperation;
 import io.cdap.plugin.common.TransformLineageRecorderUtils;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xerial.snappy.Snappy;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -44,9 +52,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 import javax.annotation.Nullable;
 
 /**
@@ -68,6 +73,13 @@ public final class Decompressor extends Transform<StructuredRecord, StructuredRe
   // Map of field to decompressor type.
   private final Map<String, DecompressorType> deCompMap = new TreeMap<>();
 
+  // Decompressors are created once and reused for all records.
+  private DeflateCodec deflateCodec;
+  private ZstdDecompressCtx zstdContext;
+  private byte[] zstdDictionary;
+  private LZ4SafeDecompressor lz4Decompressor;
+  private int maxDecompressedSize;
+
   // This is used only for tests, otherwise this is being injected by the ingestion framework.
   public Decompressor(Config config) {
     this.config = config;
@@ -105,6 +117,7 @@ public final class Decompressor extends Transform<StructuredRecord, StructuredRe
     super.configurePipeline(pipelineConfigurer);
     FailureCollector collector = pipelineConfigurer.getStageConfigurer().getFailureCollector();
     parseConfiguration(config.decompressor, collector);
+    config.validate(collector);
 
     Schema outputSchema = config.getSchema(collector);
     List<Field> outFields = outputSchema.getFields();
@@ -142,6 +155,7 @@ public final class Decompressor extends Transform<StructuredRecord, StructuredRe
     super.initialize(context);
     FailureCollector collector = context.getFailureCollector();
     parseConfiguration(config.decompressor, collector);
+    config.validate(collector);
     collector.getOrThrowException();
 
     try {
@@ -154,6 +168,30 @@ public final class Decompressor extends Transform<StructuredRecord, StructuredRe
       throw new IllegalArgumentException("Format of schema specified is invalid. Please check the format." +
                                            e.getMessage());
     }
+
+    maxDecompressedSize = config.getMaxDecompressedSize();
+    deflateCodec = new DeflateCodec();
+    if (deCompMap.containsValue(DecompressorType.ZSTD)) {
+      zstdContext = new ZstdDecompressCtx();
+      if (config.zstdDictionary != null) {
+        zstdDictionary = Compressor.readDictionary(config.zstdDictionary, Compressor.getHadoopConfiguration(context));
+        zstdContext.loadDict(zstdDictionary);
+      }
+    }
+    if (deCompMap.containsValue(DecompressorType.LZ4)) {
+      lz4Decompressor = LZ4Factory.fastestInstance().safeDecompressor();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    super.destroy();
+    if (deflateCodec != null) {
+      deflateCodec.close();
+    }
+    if (zstdContext != null) {
+      zstdContext.close();
+    }
   }
 
   @Override
@@ -196,12 +234,22 @@ public final class Decompressor extends Transform<StructuredRecord, StructuredRe
         // value.
         byte[] outValue = new byte[0];
         DecompressorType type = deCompMap.get(name);
-        if (type == DecompressorType.SNAPPY) {
-          outValue = Snappy.uncompress(obj);
-        } else if (type == DecompressorType.ZIP) {
-          outValue = unzip(obj);
-        } else if (type == DecompressorType.GZIP) {
-          outValue = ungzip(obj);
+        try {
+          if (type == DecompressorType.SNAPPY) {
+            outValue = unsnappy(obj);
+          } else if (type == DecompressorType.ZIP) {
+            outValue = deflateCodec.unzip(obj, maxDecompressedSize);
+          } else if (type == DecompressorType.GZIP) {
+            outValue = deflateCodec.ungzip(obj, maxDecompressedSize);
+          } else if (type == DecompressorType.ZSTD) {
+            outValue = unzstd(obj);
+          } else if (type == DecompressorType.LZ4) {
+            outValue = unlz4(obj);
+          }
+        } catch (IOException | ZstdException | LZ4Exception e) {
+          emitter.emitError(new InvalidEntry<>(31, String.format("Unable to decompress field '%s': %s",
+                                                                 name, e.getMessage()), in));
+          return;
         }
 
         // Depending on the output field type, either convert it to
@@ -219,50 +267,60 @@ public final class Decompressor extends Transform<StructuredRecord, StructuredRe
   }
 
   /**
-   * Decompresses using GZIP Algorithm. 
+   * Decompresses using Snappy Algorithm.
    */
-  private byte[] ungzip(byte[] body) {
-    ByteArrayInputStream bytein = new ByteArrayInputStream(body);
-    try (GZIPInputStream gzin = new GZIPInputStream(bytein);
-         ByteArrayOutputStream byteout = new ByteArrayOutputStream()) {
-      int res = 0;
-      byte buf[] = new byte[1024];
-      while (res >= 0) {
-        res = gzin.read(buf, 0, buf.length);
-        if (res > 0) {
-          byteout.write(buf, 0, res);
-        }
+  private byte[] unsnappy(byte[] body) throws IOException {
+    checkSize(Snappy.uncompressedLength(body));
+    return Snappy.uncompress(body);
+  }
+
+  /**
+   * Decompresses using ZSTD Algorithm. Frames that do not contain the decompressed size are read as a stream.
+   */
+  private byte[] unzstd(byte[] body) throws IOException {
+    // negative if the size is unknown or the frame header is invalid
+    long size = Zstd.getFrameContentSize(body);
+    if (size > 0) {
+      checkSize(size);
+      return zstdContext.decompress(body, (int) size);
+    }
+    try (ZstdInputStream in = new ZstdInputStream(new ByteArrayInputStream(body))) {
+      if (zstdDictionary != null) {
+        in.setDict(zstdDictionary);
       }
-      byte uncompressed[] = byteout.toByteArray();
-      return uncompressed;
-    } catch (IOException e) {
-      // Most of operations here are in memory. So, we shouldn't get here.
-      // Logging here is not an option.
+      return deflateCodec.readFully(in, maxDecompressedSize);
     }
-    return null;
   }
 
   /**
-   * Decompresses using ZIP Algorithm.
+   * Decompresses an LZ4 block prefixed by the length of the decompressed value as a 4 byte big endian integer,
+   * as written by the {@link Compressor}.
    */
-  private byte[] unzip(byte[] body)  {
-    ZipEntry ze;
-    byte buf[] = new byte[1024];
-    try (ByteArrayOutputStream bao = new ByteArrayOutputStream();
-         ByteArrayInputStream bytein = new ByteArrayInputStream(body);
-         ZipInputStream zis = new ZipInputStream(bytein)) {
-      while ((ze = zis.getNextEntry()) != null) {
-        int l = 0;
-        while ((l = zis.read(buf)) > 0) {
-          bao.write(buf, 0, l);
-        }
-      }
-      return bao.toByteArray();
-    } catch (IOException e) {
-      // Most of operations here are in memory. So, we shouldn't get here.
-      // Logging here is not an option.       
+  private byte[] unlz4(byte[] body) throws IOException {
+    int size = body.length < 4 ? -1
+      : (body[0] & 0xff) << 24 | (body[1] & 0xff) << 16 | (body[2] & 0xff) << 8 | (body[3] & 0xff);
+    // a block cannot decompress to more than 255 times its compressed length, so a larger size means corrupt data
+    if (size < 0 || size > (body.length - 4L) * 255) {
+      throw new IOException("Value is not an LZ4 block prefixed by its decompressed length.");
+    }
+    checkSize(size);
+    byte[] out = new byte[size];
+    int length = lz4Decompressor.decompress(body, 4, body.length - 4, out, 0, size);
+    if (length != size) {
+      throw new IOException(String.format("LZ4 block decompressed to %d bytes instead of %d.", length, size));
+    }
+    return out;
+  }
+
+  /**
+   * Checks the decompressed size read from compressed data before allocating memory for it, since the data may be
+   * corrupt or crafted to exhaust the memory.
+   */
+  private void checkSize(long size) throws IOException {
+    if (size > maxDecompressedSize) {
+      throw new IOException(String.format("Decompressed value of %d bytes is larger than the maximum of %d bytes.",
+                                          size, maxDecompressedSize));
     }
-    return null;
   }
 
   /**
@@ -272,6 +330,8 @@ public final class Decompressor extends Transform<StructuredRecord, StructuredRe
     SNAPPY("SNAPPY"),
     ZIP("ZIP"),
     GZIP("GZIP"),
+    ZSTD("ZSTD"),
+    LZ4("LZ4"),
     NONE("NONE");
 
     private String type;
@@ -300,7 +360,15 @@ public final class Decompressor extends Transform<StructuredRecord, StructuredRe
 
       String field = params[0];
       String type = params[1].toUpperCase();
-      DecompressorType cType = DecompressorType.valueOf(type);
+      DecompressorType cType;
+      try {
+        cType = DecompressorType.valueOf(type);
+      } catch (IllegalArgumentException e) {
+        collector.addFailure(String.format("Decompressor type '%s' is not supported.", params[1]),
+                             "Supported types are snappy, zip, gzip, zstd, lz4 and none.")
+          .withConfigElement(Config.NAME_DECOMPRESSOR, mapping);
+        continue;
+      }
 
       if (deCompMap.containsKey(field)) {
         collector.addFailure(String.format("Field '%s' already has decompressor set.", field),
@@ -343,6 +411,8 @@ public final class Decompressor extends Transform<StructuredRecord, StructuredRe
   public static class Config extends PluginConfig {
     private static final String NAME_DECOMPRESSOR = "decompressor";
     private static final String NAME_SCHEMA = "schema";
+    private static final String NAME_ZSTD_DICTIONARY = "zstdDictionary";
+    private static final String NAME_MAX_DECOMPRESSED_SIZE = "maxDecompressedSize";
     private static final String SEPARATOR = ":";
 
     @Name(NAME_DECOMPRESSOR)
@@ -354,9 +424,46 @@ public final class Decompressor extends Transform<StructuredRecord, StructuredRe
     @Description("Specifies the output schema")
     private final String schema;
 
+    @Name(NAME_ZSTD_DICTIONARY)
+    @Description("Path to the dictionary file the values were compressed with by the zstd compressor, if any. " +
+      "The file can be on any file system supported by Hadoop, such as HDFS or GCS.")
+    @Macro
+    @Nullable
+    private final String zstdDictionary;
+
+    @Name(NAME_MAX_DECOMPRESSED_SIZE)
+    @Description("Maximum size in bytes of a decompressed value. Records with larger values are sent to the error " +
+      "dataset. By default the size of decompressed values is not limited.")
+    @Macro
+    @Nullable
+    private final Integer maxDecompressedSize;
+
     public Config(String decompressor, String schema) {
+      this(decompressor, schema, null);
+    }
+
+    public Config(String decompressor, String schema, @Nullable String zstdDictionary) {
+      this(decompressor, schema, zstdDictionary, null);
+    }
+
+    public Config(String decompressor, String schema, @Nullable String zstdDictionary,
+                  @Nullable Integer maxDecompressedSize) {
       this.decompressor = decompressor;
       this.schema = schema;
+      this.zstdDictionary = zstdDictionary;
+      this.maxDecompressedSize = maxDecompressedSize;
+    }
+
+    private int getMaxDecompressedSize() {
+      return maxDecompressedSize == null ? Integer.MAX_VALUE : maxDecompressedSize;
+    }
+
+    private void validate(FailureCollector collector) {
+      if (!containsMacro(NAME_MAX_DECOMPRESSED_SIZE) && maxDecompressedSize != null && maxDecompressedSize <= 0) {
+        collector.addFailure(String.format("Maximum decompressed size '%d' is not positive.", maxDecompressedSize),
+                             "Specify a positive number of bytes.")
+          .withConfigProperty(NAME_MAX_DECOMPRESSED_SIZE);
+      }
     }
 
     private Schema getSchema(FailureCollector collector) {
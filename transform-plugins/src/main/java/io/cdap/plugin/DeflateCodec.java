@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Compresses and decompresses values in the gzip and zip formats.
+ *
+ * A {@link GZIPOutputStream} or {@link GZIPInputStream} creates a new native deflater or inflater for every value,
+ * which dominates the cost of compressing small values. For gzip, this class keeps a deflater for each compression
+ * level and a single inflater, resets them between values and writes the gzip header and trailer around the deflate
+ * data itself. The bytes it writes are the same as written by a {@link GZIPOutputStream}. Values with more than one
+ * gzip member or with optional header fields are read with a {@link GZIPInputStream}. Zip archives are written and
+ * read with the zip streams. Codecs keep state between calls and must not be shared between threads.
+ */
+final class DeflateCodec implements Closeable {
+  static final int DEFAULT_GZIP_LEVEL = Deflater.DEFAULT_COMPRESSION;
+  static final int DEFAULT_ZIP_LEVEL = 9;
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final int GZIP_HEADER_SIZE = 10;
+  private static final int GZIP_TRAILER_SIZE = 8;
+  // The header written by the gzip stream, which has no optional fields and only differs in the operating system
+  // between Java versions.
+  private static final byte[] GZIP_HEADER = getGzipHeader();
+
+  private final Map<Integer, Deflater> deflaters = new HashMap<>();
+  private final CRC32 crc = new CRC32();
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private Inflater inflater;
+
+  /**
+   * Compresses the input into the gzip format.
+   *
+   * @param input the bytes to compress
+   * @param level the deflate compression level, from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+   */
+  byte[] gzip(byte[] input, int level) throws IOException {
+    Deflater deflater = deflaters.computeIfAbsent(level, l -> new Deflater(l, true));
+    deflater.reset();
+    out.reset();
+    out.write(GZIP_HEADER, 0, GZIP_HEADER_SIZE);
+    DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+    deflate.write(input);
+    // finishes the deflate data without ending the pooled deflater, which closing the stream would do
+    deflate.finish();
+    crc.reset();
+    crc.update(input, 0, input.length);
+    writeInt((int) crc.getValue());
+    writeInt(input.length);
+    return out.toByteArray();
+  }
+
+  /**
+   * Compresses the input into a zip archive with a single entry.
+   *
+   * @param input the bytes to compress
+   * @param entryName the name of the entry
+   * @param level the deflate compression level, from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+   */
+  byte[] zip(byte[] input, String entryName, int level) throws IOException {
+    out.reset();
+    try (ZipOutputStream zos = new ZipOutputStream(out)) {
+      zos.setLevel(level);
+      zos.putNextEntry(new ZipEntry(entryName));
+      zos.write(input);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Decompresses gzip data, including data of several concatenated gzip members.
+   *
+   * @param maxSize the maximum number of decompressed bytes
+   * @throws IOException if the data is not in the gzip format, is corrupt or decompresses to more than the maximum
+   */
+  byte[] ungzip(byte[] input, int maxSize) throws IOException {
+    if (input.length >= GZIP_HEADER_SIZE + GZIP_TRAILER_SIZE && hasGzipHeader(input)) {
+      if (inflater == null) {
+        inflater = new Inflater(true);
+      }
+      inflater.reset();
+      int length = input.length - GZIP_HEADER_SIZE;
+      InputStream in = new InflaterInputStream(new ByteArrayInputStream(input, GZIP_HEADER_SIZE, length),
+                                               inflater, BUFFER_SIZE);
+      byte[] output = readFully(in, maxSize);
+      int trailer = GZIP_HEADER_SIZE + (int) inflater.getBytesRead();
+      if (inflater.finished() && trailer == input.length - GZIP_TRAILER_SIZE) {
+        crc.reset();
+        crc.update(output, 0, output.length);
+        if (readInt(input, trailer) == (int) crc.getValue() && readInt(input, trailer + 4) == output.length) {
+          return output;
+        }
+      }
+      // the gzip stream reports corrupt data and reads the following members
+    }
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(input), BUFFER_SIZE)) {
+      return readFully(in, maxSize);
+    }
+  }
+
+  /**
+   * Decompresses a zip archive, concatenating the data of all its entries.
+   *
+   * @param maxSize the maximum number of decompressed bytes
+   * @throws IOException if the data of an entry is corrupt or the entries decompress to more than the maximum
+   */
+  byte[] unzip(byte[] input, int maxSize) throws IOException {
+    out.reset();
+    try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(input))) {
+      while (zis.getNextEntry() != null) {
+        copy(zis, maxSize);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Reads the stream to its end.
+   *
+   * @param maxSize the maximum number of bytes to read
+   * @throws IOException if the stream cannot be read or has more than the maximum number of bytes
+   */
+  byte[] readFully(InputStream in, int maxSize) throws IOException {
+    out.reset();
+    copy(in, maxSize);
+    return out.toByteArray();
+  }
+
+  @Override
+  public void close() {
+    for (Deflater deflater : deflaters.values()) {
+      deflater.end();
+    }
+    deflaters.clear();
+    if (inflater != null) {
+      inflater.end();
+      inflater = null;
+    }
+  }
+
+  private void copy(InputStream in, int maxSize) throws IOException {
+    int length;
+    while ((length = in.read(buffer)) > 0) {
+      if (length > maxSize - out.size()) {
+        throw new IOException(String.format("Decompressed value is larger than the maximum of %d bytes.", maxSize));
+      }
+      out.write(buffer, 0, length);
+    }
+  }
+
+  private void writeInt(int value) {
+    out.write(value);
+    out.write(value >>> 8);
+    out.write(value >>> 16);
+    out.write(value >>> 24);
+  }
+
+  private static int readInt(byte[] input, int position) {
+    return (input[position] & 0xff) | (input[position + 1] & 0xff) << 8 | (input[position + 2] & 0xff) << 16
+      | (input[position + 3] & 0xff) << 24;
+  }
+
+  private static boolean hasGzipHeader(byte[] input) {
+    // the operating system is ignored, as it is by the gzip stream
+    for (int i = 0; i < GZIP_HEADER_SIZE - 1; i++) {
+      if (input[i] != GZIP_HEADER[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static byte[] getGzipHeader() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.finish();
+    } catch (IOException e) {
+      // in memory, so this does not happen
+      throw new IllegalStateException(e);
+    }
+    return Arrays.copyOf(out.toByteArray(), GZIP_HEADER_SIZE);
+  }
+}
@@ -32,12 +32,12 @@ import io.cdap.cdap.etl.api.TransformContext;
 import io.cdap.cdap.etl.api.lineage.field.FieldOperation;
 import io.cdap.plugin.common.TransformLineageRecorderUtils;
 import org.apache.commons.codec.binary.Base32;
-import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.binary.Hex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -62,9 +62,8 @@ public final class Encoder extends Transform<StructuredRecord, StructuredRecord>
   private final Map<String, EncodeType> encodeMap = new TreeMap<>();
 
   // Encoder handlers.
-  private final Base64 base64Encoder = new Base64();
+  private final Base64HexCodec codec = new Base64HexCodec();
   private final Base32 base32Encoder = new Base32();
-  private final Hex hexEncoder = new Hex();
 
   // Output Field name to type map
   private final Map<String, Schema.Type> outSchemaMap = new HashMap<>();
@@ -203,29 +202,30 @@ public final class Encoder extends Transform<StructuredRecord, StructuredRecord>
       if (!encodeMap.containsKey(name) || encodeMap.get(name) == EncodeType.NONE) {
         builder.set(name, in.get(name));
       } else {
-        // Now, the input field could be of type String or byte[], so transform everything
-        // to byte[] 
-        byte[] obj = new byte[0];
+        // Now, the input field could be of type String, byte[] or ByteBuffer, so wrap everything
+        // in a ByteBuffer without copying the bytes.
+        ByteBuffer obj = ByteBuffer.allocate(0);
         if (field.getSchema().getType() == Schema.Type.STRING) {
-          obj = ((String) in.get(name)).getBytes();
+          obj = ByteBuffer.wrap(((String) in.get(name)).getBytes());
         } else if (field.getSchema().getType() == Schema.Type.BYTES) {
-          obj = in.get(name);
+          Object value = in.get(name);
+          obj = value instanceof ByteBuffer ? (ByteBuffer) value : ByteBuffer.wrap((byte[]) value);
         }
 
-        // Now, based on the encode type configured for the field - encode the byte[] of the 
-        // value.
-        byte[] outValue = new byte[0];
+        // Hex strings are encoded directly into chars. The other encodings are ASCII, so their
+        // bytes are converted to a String if the output field is a String.
         EncodeType type = encodeMap.get(name);
-        if (type == EncodeType.STRING_BASE32) {
-          outValue = base32Encoder.encodeAsString(obj).getBytes();
-        } else if (type == EncodeType.BASE32) {
-          outValue = base32Encoder.encode(obj);
-        } else if (type == EncodeType.STRING_BASE64) {
-          outValue = base64Encoder.encodeAsString(obj).getBytes();
-        } else if (type == EncodeType.BASE64) {
-          outValue = base64Encoder.encode(obj);
+        if (type == EncodeType.HEX && outFieldType == Schema.Type.STRING) {
+          builder.set(name, Base64HexCodec.encodeHexToString(obj));
+          continue;
+        }
+        byte[] outValue = new byte[0];
+        if (type == EncodeType.STRING_BASE32 || type == EncodeType.BASE32) {
+          outValue = base32Encoder.encode(Base64HexCodec.toArray(obj));
+        } else if (type == EncodeType.STRING_BASE64 || type == EncodeType.BASE64) {
+          outValue = codec.encodeBase64(obj);
         } else if (type == EncodeType.HEX) {
-          outValue = hexEncoder.encode(obj);
+          outValue = Base64HexCodec.encodeHex(obj);
         }
 
         // Depending on the output field type, either convert it to 
@@ -233,7 +233,7 @@ public final class Encoder extends Transform<StructuredRecord, StructuredRecord>
         if (outFieldType == Schema.Type.BYTES) {
           builder.set(name, outValue);
         } else if (outFieldType == Schema.Type.STRING) {
-          builder.set(name, new String(outValue, "UTF-8"));
+          builder.set(name, new String(outValue, StandardCharsets.US_ASCII));
         }
       }
     }
@@ -55,6 +55,9 @@ public final class Encryptor extends Transform<StructuredRecord, StructuredRecor
   private final Conf conf;
   private Set<String> encryptFields;
   private FieldEncryptor fieldEncryptor;
+  // The last input schema and the output schema that was created for it.
+  private Schema inputSchema;
+  private Schema outputSchema;
 
   public Encryptor(Conf conf) {
     this.conf = conf;
@@ -102,8 +105,12 @@ public final class Encryptor extends Transform<StructuredRecord, StructuredRecor
 
   @Override
   public void transform(StructuredRecord in, Emitter<StructuredRecord> emitter) throws Exception {
-    Schema schema = getOutputSchema(in.getSchema());
-    StructuredRecord.Builder recordBuilder = StructuredRecord.builder(schema);
+    // the output schema is only created again if the input schema changes, instead of for every record
+    if (in.getSchema() != inputSchema) {
+      outputSchema = getOutputSchema(in.getSchema());
+      inputSchema = in.getSchema();
+    }
+    StructuredRecord.Builder recordBuilder = StructuredRecord.builder(outputSchema);
     for (Field field : in.getSchema().getFields()) {
       if (encryptFields.contains(field.getName())) {
         recordBuilder.set(field.getName(), fieldEncryptor.encrypt(in.get(field.getName()), field.getSchema()));
@@ -31,8 +31,9 @@ import io.cdap.cdap.etl.api.Transform;
 import io.cdap.cdap.etl.api.TransformContext;
 import io.cdap.cdap.etl.api.lineage.field.FieldOperation;
 import io.cdap.plugin.common.TransformLineageRecorderUtils;
-import org.apache.commons.codec.digest.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -49,8 +50,14 @@ import javax.annotation.Nullable;
 @Description("Encodes field values using one of the digest algorithms. MD2, MD5, SHA1, SHA256, " +
   "SHA384 and SHA512 are the supported message digest algorithms.")
 public final class Hasher extends Transform<StructuredRecord, StructuredRecord> {
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
   private final Config config;
   private Set<String> fieldSet = new HashSet<>();
+  private MessageDigest digest;
+  private char[] hexBuffer;
+  // The input schema that the hashed field flags were computed for.
+  private Schema hashedSchema;
+  private boolean[] hashedFields;
 
   // For testing purpose only.
   public Hasher(Config config) {
@@ -95,39 +102,32 @@ public final class Hasher extends Transform<StructuredRecord, StructuredRecord>
   @Override
   public void initialize(TransformContext context) throws Exception {
     fieldSet = config.getFields();
+    // The digest is created once and reused for all values, instead of creating a new one for every value.
+    String algorithm = config.getAlgorithm();
+    if (algorithm != null) {
+      digest = MessageDigest.getInstance(algorithm);
+      hexBuffer = new char[digest.getDigestLength() * 2];
+    }
   }
 
   @Override
   public void transform(StructuredRecord in, Emitter<StructuredRecord> emitter) throws Exception {
-    StructuredRecord.Builder builder = StructuredRecord.builder(in.getSchema());
-    
-    List<Schema.Field> fields = in.getSchema().getFields();
-    for (Schema.Field field : fields) {
-      String name = field.getName();
-      if (fieldSet.contains(name) && field.getSchema().getType() == Schema.Type.STRING) {
-        String value = in.get(name);
-        String digest = value;
-        switch(config.hash.toLowerCase()) {
-          case "md2":
-            digest = DigestUtils.md2Hex(value);
-            break;
-          case "md5":
-            digest = DigestUtils.md5Hex(value);
-            break;
-          case "sha1":
-            digest = DigestUtils.sha1Hex(value);
-            break;
-          case "sha256":
-            digest = DigestUtils.sha256Hex(value);
-            break;
-          case "sha384":
-            digest = DigestUtils.sha384Hex(value);
-            break;
-          case "sha512":
-            digest = DigestUtils.sha512Hex(value);
-            break;
-        }
-        builder.set(name, digest);
+    Schema schema = in.getSchema();
+    StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+
+    List<Schema.Field> fields = schema.getFields();
+    if (schema != hashedSchema) {
+      hashedFields = new boolean[fields.size()];
+      for (int i = 0; i < hashedFields.length; i++) {
+        Schema.Field field = fields.get(i);
+        hashedFields[i] = fieldSet.contains(field.getName()) && field.getSchema().getType() == Schema.Type.STRING;
+      }
+      hashedSchema = schema;
+    }
+    for (int i = 0; i < hashedFields.length; i++) {
+      String name = fields.get(i).getName();
+      if (hashedFields[i]) {
+        builder.set(name, hash(in.get(name)));
       } else {
         builder.set(name, in.get(name));
       }
@@ -135,6 +135,24 @@ public final class Hasher extends Transform<StructuredRecord, StructuredRecord>
     emitter.emit(builder.build());
   }
 
+  /**
+   * Returns the lower case hex encoded digest of the UTF-8 bytes of the value.
+   */
+  private String hash(String value) {
+    if (digest == null) {
+      if (config.hash == null) {
+        throw new IllegalArgumentException("A hash method must be specified to hash fields.");
+      }
+      return value;
+    }
+    byte[] bytes = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+    for (int i = 0; i < bytes.length; i++) {
+      hexBuffer[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+      hexBuffer[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+    }
+    return new String(hexBuffer);
+  }
+
   /**
    * Hasher Plugin Config.
    */
@@ -185,6 +203,32 @@ public final class Hasher extends Transform<StructuredRecord, StructuredRecord>
       }
     }
 
+    /**
+     * Returns the name of the digest algorithm, or null if the hash method is not one of the supported ones.
+     */
+    @Nullable
+    private String getAlgorithm() {
+      if (hash == null) {
+        return null;
+      }
+      switch (hash.toLowerCase()) {
+        case "md2":
+          return "MD2";
+        case "md5":
+          return "MD5";
+        case "sha1":
+          return "SHA-1";
+        case "sha256":
+          return "SHA-256";
+        case "sha384":
+          return "SHA-384";
+        case "sha512":
+          return "SHA-512";
+        default:
+          return null;
+      }
+    }
+
     private Set<String> getFields() {
       return Arrays.stream(fields.split(",")).map(String::trim).collect(Collectors.toSet());
     }
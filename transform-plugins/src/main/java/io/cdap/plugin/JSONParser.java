@@ -19,6 +19,7 @@ package io.cdap.plugin;
 import com.google.common.base.Strings;
 import com.google.common.collect.Maps;
 import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 import io.cdap.cdap.api.annotation.Description;
@@ -63,8 +64,17 @@ public final class JSONParser extends Transform<StructuredRecord, StructuredReco
   // Map of field name to path as specified in the configuration, if none specified then it's direct mapping.
   private Map<String, String> mapping = Maps.newHashMap();
 
+  // Map of field name to the compiled path of the field.
+  private Map<String, JsonPath> compiledPaths = Maps.newHashMap();
+
   private List<Schema.Field> fields;
 
+  // Compiled paths of the output fields that are mapped, in the order of the fields.
+  private JsonPath[] fieldPaths;
+
+  // Extracts all mapped fields while reading the JSON, if all paths are simple enough.
+  private JsonPathStreamExtractor extractor;
+
   // Specifies whether mapping is simple or complex.
   private boolean isSimple = true;
 
@@ -137,7 +147,14 @@ public final class JSONParser extends Transform<StructuredRecord, StructuredReco
           collector.addFailure("Both field name and JSON expression map must be provided.", null)
             .withConfigElement(Config.MAPPING, pathMap);
         } else {
-          mapping.put(mapParts[0], mapParts[1]);
+          try {
+            compiledPaths.put(mapParts[0], JsonPath.compile(mapParts[1]));
+            mapping.put(mapParts[0], mapParts[1]);
+          } catch (InvalidPathException e) {
+            collector.addFailure(String.format("Invalid JSON path '%s' for field '%s': %s",
+                                               mapParts[1], mapParts[0], e.getMessage()), null)
+              .withConfigElement(Config.MAPPING, pathMap);
+          }
         }
       }
     }
@@ -156,6 +173,18 @@ public final class JSONParser extends Transform<StructuredRecord, StructuredReco
     }
     extractMappings(collector);
     collector.getOrThrowException();
+
+    // The paths are compiled once. If they only contain property names and array indexes, they are all extracted
+    // while reading the JSON, instead of parsing it into a document first.
+    fieldPaths = new JsonPath[fields.size()];
+    List<JsonPath> mappedPaths = new ArrayList<>();
+    for (int i = 0; i < fields.size(); i++) {
+      fieldPaths[i] = compiledPaths.get(fields.get(i).getName());
+      if (fieldPaths[i] != null) {
+        mappedPaths.add(fieldPaths[i]);
+      }
+    }
+    extractor = isSimple ? null : JsonPathStreamExtractor.create(mappedPaths);
   }
 
   @Override
@@ -168,27 +197,41 @@ public final class JSONParser extends Transform<StructuredRecord, StructuredReco
     }
 
     // When it's not a simple Json to be parsed, we use the Json path to map the input Json fields into the
-    // output schema. In order to optimize for reading multiple paths from the Json we create a document that
-    // allows the Json to be parsed only once. We then iterate through the output fields and apply the
-    // path to extract the fields.
-    Object document = Configuration.defaultConfiguration().jsonProvider().parse((String) input.get(config.field));
+    // output schema. If all paths are simple, the values are extracted in a single pass over the Json. Otherwise, or
+    // if the Json can not be extracted that way, we create a document that allows the Json to be parsed only once.
+    // We then iterate through the output fields and apply the path to extract the fields.
+    String json = input.get(config.field);
+    boolean extracted = extractor != null && extractor.extract(json);
+    Object document = extracted ? null : Configuration.defaultConfiguration().jsonProvider().parse(json);
     StructuredRecord.Builder builder = StructuredRecord.builder(outSchema);
-    for (Schema.Field field : fields) {
+    int mappedIndex = 0;
+    for (int i = 0; i < fields.size(); i++) {
+      Schema.Field field = fields.get(i);
       String name = field.getName();
-      if (mapping.containsKey(name)) {
-        String path = mapping.get(name);
-        try {
-          Object value = JsonPath.read(document, path);
-          builder.set(field.getName(), value);
-        } catch (PathNotFoundException e) {
-          if (field.getSchema().isNullable()) {
-            builder.set(field.getName(), null);
-          } else {
-            LOG.error("Json path '" + path + "' specified for the field '" + name + "' doesn't exist. " +
-                        "Dropping the error record: " + StructuredRecordStringConverter.toJsonString(input));
-            return;
+      if (fieldPaths[i] != null) {
+        int pathIndex = mappedIndex++;
+        Object value = null;
+        boolean found;
+        if (extracted) {
+          found = extractor.isFound(pathIndex);
+          value = extractor.getValue(pathIndex);
+        } else {
+          try {
+            value = fieldPaths[i].read(document);
+            found = true;
+          } catch (PathNotFoundException e) {
+            found = false;
           }
         }
+        if (found) {
+          builder.set(name, value);
+        } else if (field.getSchema().isNullable()) {
+          builder.set(name, null);
+        } else {
+          LOG.error("Json path '" + mapping.get(name) + "' specified for the field '" + name + "' doesn't exist. " +
+                      "Dropping the error record: " + StructuredRecordStringConverter.toJsonString(input));
+          return;
+        }
       } else {
         // We didn't find the field name in the mapping, we will not attempt to see if the field is present
         // in the input; if it is, then we will transfer the input field value to the output field value.
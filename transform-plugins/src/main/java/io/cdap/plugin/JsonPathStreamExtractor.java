@@ -0,0 +1,284 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.jayway.jsonpath.JsonPath;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Extracts the values of several JSON paths from a JSON document in a single pass over its tokens, without building
+ * a document tree.
+ *
+ * Only definite paths of property names and array indexes, such as '$.store.book[0].title', are supported. The paths
+ * are compiled into a tree of steps that is followed while the document is read, skipping all values that are not on
+ * a path. Scalar values are converted to the same types as the default json path provider, so the results are the
+ * same as reading the paths from a parsed document.
+ *
+ * Documents that can not be extracted the same way, because a path selects an object or an array, a property on a
+ * path appears more than once, or the document is not strictly valid JSON, are rejected so that the caller can fall
+ * back to reading the paths from a parsed document. Extractors keep state between calls and must not be shared
+ * between threads.
+ */
+final class JsonPathStreamExtractor {
+  private final Step root;
+  private final boolean[] found;
+  private final Object[] values;
+
+  private JsonPathStreamExtractor(Step root, int numPaths) {
+    this.root = root;
+    this.found = new boolean[numPaths];
+    this.values = new Object[numPaths];
+  }
+
+  /**
+   * Creates an extractor for the given paths.
+   *
+   * @param paths the compiled paths to extract
+   * @return the extractor, or null if one of the paths is not supported
+   */
+  @Nullable
+  static JsonPathStreamExtractor create(List<JsonPath> paths) {
+    Step root = new Step();
+    for (int i = 0; i < paths.size(); i++) {
+      List<Object> steps = parse(paths.get(i).getPath());
+      if (steps == null) {
+        return null;
+      }
+      Step step = root;
+      for (Object key : steps) {
+        step = step.getOrAddChild(key);
+      }
+      step.targets = Arrays.copyOf(step.targets, step.targets.length + 1);
+      step.targets[step.targets.length - 1] = i;
+    }
+    return new JsonPathStreamExtractor(root, paths.size());
+  }
+
+  /**
+   * Reads a document and extracts the values of all paths from it.
+   *
+   * @return whether the values were extracted, false if the document must be parsed to read the paths
+   */
+  boolean extract(String json) {
+    Arrays.fill(found, false);
+    Arrays.fill(values, null);
+    try (JsonReader reader = new JsonReader(new StringReader(json))) {
+      if (!readValue(reader, root)) {
+        return false;
+      }
+      return reader.peek() == JsonToken.END_DOCUMENT;
+    } catch (IOException | IllegalStateException | NumberFormatException e) {
+      // not strictly valid JSON, which the json path provider may still accept
+      return false;
+    }
+  }
+
+  /**
+   * @return whether a path selected a value in the last document
+   */
+  boolean isFound(int path) {
+    return found[path];
+  }
+
+  /**
+   * @return the value selected by a path in the last document
+   */
+  @Nullable
+  Object getValue(int path) {
+    return values[path];
+  }
+
+  private boolean readValue(JsonReader reader, @Nullable Step step) throws IOException {
+    if (step == null) {
+      reader.skipValue();
+      return true;
+    }
+    JsonToken token = reader.peek();
+    if (token == JsonToken.BEGIN_OBJECT) {
+      return step.targets.length == 0 && readObject(reader, step);
+    }
+    if (token == JsonToken.BEGIN_ARRAY) {
+      return step.targets.length == 0 && readArray(reader, step);
+    }
+
+    Object value = readScalar(reader, token);
+    for (int target : step.targets) {
+      found[target] = true;
+      values[target] = value;
+    }
+    return true;
+  }
+
+  private boolean readObject(JsonReader reader, Step step) throws IOException {
+    Set<String> names = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      Step child = step.properties == null ? null : step.properties.get(name);
+      if (child != null) {
+        // the parsed document only keeps the last value of a property
+        if (names == null) {
+          names = new HashSet<>();
+        }
+        if (!names.add(name) || !readValue(reader, child)) {
+          return false;
+        }
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return true;
+  }
+
+  private boolean readArray(JsonReader reader, Step step) throws IOException {
+    reader.beginArray();
+    for (int index = 0; reader.hasNext(); index++) {
+      Step child = step.indexes == null ? null : step.indexes.get(index);
+      if (!readValue(reader, child)) {
+        return false;
+      }
+    }
+    reader.endArray();
+    return true;
+  }
+
+  @Nullable
+  private static Object readScalar(JsonReader reader, JsonToken token) throws IOException {
+    switch (token) {
+      case NULL:
+        reader.nextNull();
+        return null;
+      case BOOLEAN:
+        return reader.nextBoolean();
+      case NUMBER:
+        return toNumber(reader.nextString());
+      case STRING:
+        return reader.nextString();
+      default:
+        throw new IllegalStateException("Unexpected token " + token);
+    }
+  }
+
+  /**
+   * Converts a number to the smallest of Integer, Long and BigInteger that it fits in. Numbers with a fraction or an
+   * exponent are converted to a Double, or to a BigDecimal if they are longer than 18 characters, the same as the
+   * json path provider.
+   */
+  private static Number toNumber(String number) {
+    for (int i = 0; i < number.length(); i++) {
+      char c = number.charAt(i);
+      if (c == '.' || c == 'e' || c == 'E') {
+        return number.length() > 18 ? new BigDecimal(number) : (Number) Double.parseDouble(number);
+      }
+    }
+    if (number.length() < 19) {
+      long value = Long.parseLong(number);
+      if (value == (int) value) {
+        return (int) value;
+      }
+      return value;
+    }
+    BigInteger value = new BigInteger(number);
+    return value.bitLength() < 64 ? (Number) value.longValue() : value;
+  }
+
+  /**
+   * Parses the normalized form of a compiled path, such as "$['store']['book'][0]".
+   *
+   * @return the property names and array indexes of the path, or null if the path has other kinds of steps
+   */
+  @Nullable
+  private static List<Object> parse(String path) {
+    if (!path.startsWith("$")) {
+      return null;
+    }
+    List<Object> steps = new ArrayList<>();
+    int position = 1;
+    while (position < path.length()) {
+      if (path.startsWith("['", position)) {
+        int end = path.indexOf("']", position + 2);
+        if (end < 0) {
+          return null;
+        }
+        String name = path.substring(position + 2, end);
+        // quotes are not escaped in the normalized form, so names with quotes can not be told apart from lists
+        if (name.indexOf('\'') >= 0) {
+          return null;
+        }
+        steps.add(name);
+        position = end + 2;
+      } else if (path.startsWith("[", position)) {
+        int end = path.indexOf(']', position);
+        if (end < 0 || end == position + 1) {
+          return null;
+        }
+        String index = path.substring(position + 1, end);
+        for (int i = 0; i < index.length(); i++) {
+          if (!Character.isDigit(index.charAt(i))) {
+            return null;
+          }
+        }
+        if (index.length() > 9) {
+          return null;
+        }
+        steps.add(Integer.parseInt(index));
+        position = end + 1;
+      } else {
+        return null;
+      }
+    }
+    return steps;
+  }
+
+  /**
+   * A step of the compiled paths, with the steps that follow it and the paths that end at it.
+   */
+  private static final class Step {
+    private Map<String, Step> properties;
+    private Map<Integer, Step> indexes;
+    private int[] targets = new int[0];
+
+    private Step getOrAddChild(Object key) {
+      if (key instanceof String) {
+        if (properties == null) {
+          properties = new HashMap<>();
+        }
+        return properties.computeIfAbsent((String) key, name -> new Step());
+      }
+      if (indexes == null) {
+        indexes = new HashMap<>();
+      }
+      return indexes.computeIfAbsent((Integer) key, index -> new Step());
+    }
+  }
+}
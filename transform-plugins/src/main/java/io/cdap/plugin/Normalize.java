@@ -33,6 +33,7 @@ import io.cdap.plugin.common.TransformLineageRecorderUtils;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -44,15 +45,18 @@ import java.util.Map;
 @Name("Normalize")
 @Description("Convert wide rows and reducing data to it canonicalize form")
 public class Normalize extends Transform<StructuredRecord, StructuredRecord> {
-  private static final String NAME_KEY_SUFFIX = "_name";
-  private static final String VALUE_KEY_SUFFIX = "_value";
-
   private final NormalizeConfig config;
 
   private Schema outputSchema;
-  private Map<String, String> mappingFieldMap;
-  private Map<String, String> normalizeFieldMap;
   private List<String> normalizeFieldList;
+  // input fields that are copied to each output record, and the output fields they are copied to
+  private String[] mappingInputFields;
+  private String[] mappingOutputFields;
+  // output fields that the name and the value of each normalize field in normalizeFieldList are set to
+  private String[] normalizeNameFields;
+  private String[] normalizeValueFields;
+  // values of the mapping fields of the current input record, shared by all the records it is normalized into
+  private String[] mappingValues;
 
   public Normalize(NormalizeConfig config) {
     this.config = config;
@@ -191,22 +195,32 @@ public class Normalize extends Transform<StructuredRecord, StructuredRecord> {
       return;
     }
 
-    mappingFieldMap = new HashMap<>();
+    // a field mapped more than once is copied to the output field of its last mapping
+    Map<String, String> mappingFieldMap = new LinkedHashMap<>();
     String[] fieldMappingArray = config.fieldMapping.split(",");
     for (String fieldMapping : fieldMappingArray) {
       String[] mappings = fieldMapping.split(":");
       mappingFieldMap.put(mappings[0], mappings[1]);
     }
+    mappingInputFields = mappingFieldMap.keySet().toArray(new String[0]);
+    mappingOutputFields = mappingFieldMap.values().toArray(new String[0]);
+    mappingValues = new String[mappingInputFields.length];
 
-    normalizeFieldMap = new HashMap<>();
-    normalizeFieldList = new ArrayList<>();
     String[] fieldNormalizingArray = config.fieldNormalizing.split(",");
-
+    normalizeFieldList = new ArrayList<>();
+    normalizeNameFields = new String[fieldNormalizingArray.length];
+    normalizeValueFields = new String[fieldNormalizingArray.length];
+    // a field normalized more than once uses the output fields of its last entry for every row it emits
+    Map<String, String[]> normalizeOutputFields = new HashMap<>();
     for (String fieldNormalizing : fieldNormalizingArray) {
       String[] fields = fieldNormalizing.split(":");
       normalizeFieldList.add(fields[0]);
-      normalizeFieldMap.put(fields[0] + NAME_KEY_SUFFIX, fields[1]);
-      normalizeFieldMap.put(fields[0] + VALUE_KEY_SUFFIX, fields[2]);
+      normalizeOutputFields.put(fields[0], fields);
+    }
+    for (int i = 0; i < normalizeFieldList.size(); i++) {
+      String[] fields = normalizeOutputFields.get(normalizeFieldList.get(i));
+      normalizeNameFields[i] = fields[1];
+      normalizeValueFields[i] = fields[2];
     }
   }
 
@@ -230,18 +244,29 @@ public class Normalize extends Transform<StructuredRecord, StructuredRecord> {
 
   @Override
   public void transform(StructuredRecord structuredRecord, Emitter<StructuredRecord> emitter) throws Exception {
-    for (String normalizeField : normalizeFieldList) {
-      if (structuredRecord.get(normalizeField) == null) {
+    //Mapping fields are the same for every output record, so they are read and converted once
+    boolean mappingValuesRead = false;
+    for (int i = 0; i < normalizeNameFields.length; i++) {
+      String normalizeField = normalizeFieldList.get(i);
+      Object value = structuredRecord.get(normalizeField);
+      if (value == null) {
         continue;
       }
-      StructuredRecord.Builder builder = StructuredRecord.builder(outputSchema);
-      String normalizeFieldValue = String.valueOf(structuredRecord.<Object>get(normalizeField));
+      if (!mappingValuesRead) {
+        for (int j = 0; j < mappingInputFields.length; j++) {
+          mappingValues[j] = String.valueOf(structuredRecord.<Object>get(mappingInputFields[j]));
+        }
+        mappingValuesRead = true;
+      }
       //Set normalize fields to the record
-      builder.set(normalizeFieldMap.get(normalizeField + NAME_KEY_SUFFIX), normalizeField)
-        .set(normalizeFieldMap.get(normalizeField + VALUE_KEY_SUFFIX), normalizeFieldValue);
+      StructuredRecord.Builder builder = StructuredRecord.builder(outputSchema)
+        .set(normalizeNameFields[i], normalizeField)
+        .set(normalizeValueFields[i], String.valueOf(value));
 
       //Set mapping fields to the record
-      mappingFieldMap.forEach((key, value) -> builder.set(value, String.valueOf(structuredRecord.<Object>get(key))));
+      for (int j = 0; j < mappingOutputFields.length; j++) {
+        builder.set(mappingOutputFields[j], mappingValues[j]);
+      }
       emitter.emit(builder.build());
     }
   }
@@ -39,9 +39,11 @@ import io.cdap.plugin.common.TransformLineageRecorderUtils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Transforms records using custom mapping provided by the config.
@@ -51,11 +53,16 @@ import java.util.stream.Collectors;
 @Requirements(datasetTypes = Table.TYPE)
 @Description("Maps and converts record values using a mapping dataset")
 public class ValueMapper extends Transform<StructuredRecord, StructuredRecord> {
+  private static final int DEFAULT_LOOKUP_CACHE_SIZE = 10000;
   private final Config config;
   private final Map<Schema, Schema> schemaCache = new HashMap<>();
   private final Map<String, ValueMapping> mappingValues = new HashMap<>();
   private Map<String, String> defaultsMapping = new HashMap<>();
-  private Map<String, Lookup<String>> lookupTableCache = new HashMap<String, Lookup<String>>();
+  private Map<String, CachingLookup> lookupTableCache = new HashMap<>();
+  // lookup of each mapped source field, so that each value is looked up with a single map access
+  private final Map<String, CachingLookup> fieldLookups = new HashMap<>();
+  private Schema lastInputSchema;
+  private Schema lastOutputSchema;
 
   //for unit tests, otherwise config is injected by plugin framework.
   public ValueMapper(Config config) {
@@ -68,6 +75,7 @@ public class ValueMapper extends Transform<StructuredRecord, StructuredRecord> {
   public static class Config extends PluginConfig {
     public static final String DEFAULTS = "defaults";
     public static final String MAPPING = "mapping";
+    public static final String LOOKUP_CACHE_SIZE = "lookupCacheSize";
 
     @Name("mapping")
     @Description("Specify the source and target field mapping and lookup dataset name." +
@@ -83,9 +91,25 @@ public class ValueMapper extends Transform<StructuredRecord, StructuredRecord> {
             "For example: lang_code:English,country_code:Britain")
     private final String defaults;
 
+    @Name(LOOKUP_CACHE_SIZE)
+    @Nullable
+    @Description("Maximum number of looked up values to keep in memory for each mapping table. Values that are " +
+      "looked up again are read from memory instead of the table. Set to 0 to always read from the table. " +
+      "Defaults to 10000.")
+    private final Integer lookupCacheSize;
+
     public Config(String mapping, String defaults) {
+      this(mapping, defaults, null);
+    }
+
+    public Config(String mapping, String defaults, @Nullable Integer lookupCacheSize) {
       this.mapping = mapping;
       this.defaults = defaults;
+      this.lookupCacheSize = lookupCacheSize;
+    }
+
+    private int getLookupCacheSize() {
+      return lookupCacheSize == null ? DEFAULT_LOOKUP_CACHE_SIZE : lookupCacheSize;
     }
   }
 
@@ -154,6 +178,11 @@ public class ValueMapper extends Transform<StructuredRecord, StructuredRecord> {
         mappingValues.put(mappingValueArray[0], valueMapping);
       }
     }
+    if (config.getLookupCacheSize() < 0) {
+      collector.addFailure(String.format("Invalid lookup cache size: %d.", config.lookupCacheSize),
+                           "The lookup cache size must be 0 or greater.")
+        .withConfigProperty(Config.LOOKUP_CACHE_SIZE);
+    }
     collector.getOrThrowException();
   }
 
@@ -206,25 +235,31 @@ public class ValueMapper extends Transform<StructuredRecord, StructuredRecord> {
    * retrieve lookup table from table name
    */
   private void createLookupTableData(TransformContext context) {
-    for (String key : mappingValues.keySet()) {
-      ValueMapping mapping = mappingValues.get(key);
-      String lookupTableName = mapping.getLookupTableName();
-      if (!lookupTableCache.containsKey(lookupTableName)) {
+    for (Map.Entry<String, ValueMapping> entry : mappingValues.entrySet()) {
+      String lookupTableName = entry.getValue().getLookupTableName();
+      CachingLookup lookup = lookupTableCache.get(lookupTableName);
+      if (lookup == null) {
         LookupTableConfig tableConfig = new LookupTableConfig(LookupTableConfig.TableType.DATASET);
         Lookup<String> lookupTable = context.provide(lookupTableName, tableConfig.getDatasetProperties());
-        lookupTableCache.put(lookupTableName, lookupTable);
+        lookup = new CachingLookup(lookupTable, config.getLookupCacheSize());
+        lookupTableCache.put(lookupTableName, lookup);
       }
+      fieldLookups.put(entry.getKey(), lookup);
     }
   }
 
   @Override
   public void transform(StructuredRecord input, Emitter<StructuredRecord> emitter) throws Exception {
-    StructuredRecord.Builder builder = StructuredRecord.builder(
-        getOutputSchema(input.getSchema(), getContext().getFailureCollector()));
-    for (Schema.Field sourceField : input.getSchema().getFields()) {
+    Schema inputSchema = input.getSchema();
+    if (inputSchema != lastInputSchema) {
+      lastOutputSchema = getOutputSchema(inputSchema, getContext().getFailureCollector());
+      lastInputSchema = inputSchema;
+    }
+    StructuredRecord.Builder builder = StructuredRecord.builder(lastOutputSchema);
+    for (Schema.Field sourceField : inputSchema.getFields()) {
       String sourceFieldName = sourceField.getName();
-      if (mappingValues.containsKey(sourceFieldName)) {
-        ValueMapping mapping = mappingValues.get(sourceFieldName);
+      ValueMapping mapping = mappingValues.get(sourceFieldName);
+      if (mapping != null) {
         String sourceVal = input.get(sourceFieldName);
         if (sourceVal == null || sourceVal.isEmpty()) {
           if (mapping.getDefaultValue() != null) {
@@ -234,9 +269,8 @@ public class ValueMapper extends Transform<StructuredRecord, StructuredRecord> {
           }
         } else {
           // for those source field whose values are neither NULL nor EMPTY
-          Lookup<String> valueMapperLookUp = lookupTableCache.get(mapping.getLookupTableName());
-          String lookupValue = valueMapperLookUp.lookup(sourceVal);
-          if (lookupValue != null && !lookupValue.isEmpty()) {
+          String lookupValue = fieldLookups.get(sourceFieldName).lookup(sourceVal);
+          if (!lookupValue.isEmpty()) {
             builder.set(mapping.getTargetField(), lookupValue);
           } else {
             builder.set(mapping.getTargetField(), mapping.getDefaultValue());
@@ -322,4 +356,43 @@ public class ValueMapper extends Transform<StructuredRecord, StructuredRecord> {
     }
   }
 
+  /**
+   * Looks up values in a mapping table, keeping the most recently used values in memory. Mapping tables usually
+   * contain few distinct keys compared to the number of records, so most values are read from memory instead of the
+   * table. Keys that are not in the table are cached as well, as an empty value.
+   */
+  static final class CachingLookup {
+    private final Lookup<String> lookup;
+    private final int maxSize;
+    private final Map<String, String> cache;
+
+    CachingLookup(Lookup<String> lookup, int maxSize) {
+      this.lookup = lookup;
+      this.maxSize = maxSize;
+      this.cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+          return size() > CachingLookup.this.maxSize;
+        }
+      };
+    }
+
+    /**
+     * Returns the value of the key in the mapping table, or an empty string if the table does not contain the key.
+     */
+    String lookup(String key) {
+      String value = cache.get(key);
+      if (value == null) {
+        value = lookup.lookup(key);
+        if (value == null) {
+          value = "";
+        }
+        if (maxSize > 0) {
+          cache.put(key, value);
+        }
+      }
+      return value;
+    }
+  }
+
 }
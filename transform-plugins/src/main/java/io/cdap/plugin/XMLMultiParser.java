@@ -48,7 +48,6 @@ import java.util.Set;
 import javax.annotation.Nullable;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
@@ -68,6 +67,7 @@ public class XMLMultiParser extends Transform<StructuredRecord, StructuredRecord
 
   private final Config config;
   private final DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+  private DocumentBuilder documentBuilder;
   private Schema schema;
   private XPathExpression xPathExpression;
   private Set<String> fieldNames;
@@ -110,6 +110,8 @@ public class XMLMultiParser extends Transform<StructuredRecord, StructuredRecord
                               config.shouldDisallowDocTypeDTD());
     builderFactory.setXIncludeAware(false);
     builderFactory.setExpandEntityReferences(false);
+    // the builder is reused for every document and reset before each one
+    documentBuilder = builderFactory.newDocumentBuilder();
     for (Schema.Field field : schema.getFields()) {
       fieldNames.add(field.getName());
     }
@@ -128,11 +130,8 @@ public class XMLMultiParser extends Transform<StructuredRecord, StructuredRecord
       source.setEncoding(config.encoding);
       Document document;
       try {
-        DocumentBuilder documentBuilder = builderFactory.newDocumentBuilder();
+        documentBuilder.reset();
         document = documentBuilder.parse(source);
-      } catch (ParserConfigurationException e) {
-        // shouldn't happen
-        throw new RuntimeException("Unable to create document builder.", e);
       } catch (SAXException e) {
         LOG.error("Unable to parse the xml document. This record will be dropped.", e);
         emitter.emitError(new InvalidEntry<>(31, "Unable to parse the xml document. This record will be dropped.",
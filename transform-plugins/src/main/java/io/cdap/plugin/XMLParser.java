@@ -38,6 +38,7 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 
+import java.io.ByteArrayInputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
@@ -47,8 +48,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -57,6 +62,8 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 /**
@@ -70,9 +77,17 @@ public class XMLParser extends Transform<StructuredRecord, StructuredRecord> {
   private static final String XPATH_MAPPINGS = "xPathMappings";
   private static final String EXIT_ON_ERROR = "Exit on error";
   private static final String WRITE_ERROR_DATASET = "Write to error dataset";
+  // same as WstxInputProperties.P_DTD_RESOLVER, the resolver Woodstox reads external DTDs with
+  private static final String WSTX_DTD_RESOLVER = "com.ctc.wstx.dtdResolver";
   private final Config config;
   private Schema outSchema;
   private Map<String, String> xPathMapping = new HashMap<>();
+  private Schema.Field[] fields;
+  private Schema.Type[] fieldTypes;
+  private DocumentBuilder documentBuilder;
+  private XPathExpression[] xPathExpressions;
+  private Transformer transformer;
+  private XPathStreamExtractor streamExtractor;
 
   // Required only for testing.
   public XMLParser(Config config) {
@@ -92,6 +107,9 @@ public class XMLParser extends Transform<StructuredRecord, StructuredRecord> {
         .withConfigProperty(Config.INPUT);
     }
     validateXpathAndSchema(collector);
+    if (config.isStreaming()) {
+      validateStreamingXPaths(collector);
+    }
     pipelineConfigurer.getStageConfigurer().setOutputSchema(outSchema);
   }
 
@@ -113,10 +131,97 @@ public class XMLParser extends Transform<StructuredRecord, StructuredRecord> {
     super.initialize(context);
     FailureCollector collector = getContext().getFailureCollector();
     outSchema = config.getOutputSchema(collector);
-    xPathMapping = getXPathMapping(collector);
+    validateXpathAndSchema(collector);
+    if (config.isStreaming()) {
+      validateStreamingXPaths(collector);
+    }
+    collector.getOrThrowException();
+
+    fields = outSchema.getFields().toArray(new Schema.Field[0]);
+    fieldTypes = new Schema.Type[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      //Since all columns have nullable schema extracting not nullable type.
+      fieldTypes[i] = fields[i].getSchema().getNonNullable().getType();
+    }
+
+    // The parser and the XPaths are only created once, instead of for every record.
+    if (config.isStreaming()) {
+      List<String> paths = new ArrayList<>();
+      boolean[] keepMarkup = new boolean[fields.length];
+      for (int i = 0; i < fields.length; i++) {
+        paths.add(xPathMapping.get(fields[i].getName()));
+        keepMarkup[i] = fieldTypes[i] == Schema.Type.STRING;
+      }
+      streamExtractor = new XPathStreamExtractor(paths, keepMarkup, createInputFactory());
+      return;
+    }
+
+    DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+    builderFactory.setFeature("http://xml.org/sax/features/external-general-entities",
+            Boolean.TRUE.equals(config.enableExternalGeneralEntities));
+    builderFactory.setFeature("http://xml.org/sax/features/external-parameter-entities",
+            Boolean.TRUE.equals(config.enableExternalParameterEntities));
+    builderFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd",
+            Boolean.TRUE.equals(config.loadExternalDTD));
+    builderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl",
+            Boolean.TRUE.equals(config.disallowDocTypeDTD));
+    builderFactory.setXIncludeAware(false);
+    builderFactory.setExpandEntityReferences(false);
+    documentBuilder = builderFactory.newDocumentBuilder();
+
+    XPath xpath = XPathFactory.newInstance().newXPath();
+    xPathExpressions = new XPathExpression[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      String path = xPathMapping.get(fields[i].getName());
+      try {
+        xPathExpressions[i] = xpath.compile(path);
+      } catch (XPathExpressionException e) {
+        collector.addFailure(String.format("Invalid XPath '%s' for field '%s'.", path, fields[i].getName()), null)
+          .withConfigElement(XPATH_MAPPINGS, fields[i].getName() + ":" + path).withStacktrace(e.getStackTrace());
+      }
+    }
     collector.getOrThrowException();
   }
 
+  private XMLInputFactory createInputFactory() {
+    XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+    // names are matched including their prefix, the same as the document builder, which is not namespace aware
+    inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+    inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, !Boolean.TRUE.equals(config.disallowDocTypeDTD));
+    inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+                             Boolean.TRUE.equals(config.enableExternalGeneralEntities));
+    if (!Boolean.TRUE.equals(config.loadExternalDTD) && !Boolean.TRUE.equals(config.enableExternalParameterEntities)) {
+      // StAX parsers read the external DTD whenever DTDs are supported, so it is replaced with an empty one,
+      // which is what the document builder does when it does not load external DTDs
+      XMLResolver emptyResolver = (publicId, systemId, baseUri, namespace) -> new ByteArrayInputStream(new byte[0]);
+      inputFactory.setXMLResolver(emptyResolver);
+      if (inputFactory.isPropertySupported(WSTX_DTD_RESOLVER)) {
+        inputFactory.setProperty(WSTX_DTD_RESOLVER, emptyResolver);
+      }
+      if (inputFactory.isPropertySupported(XMLConstants.ACCESS_EXTERNAL_DTD)) {
+        inputFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        inputFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+      }
+    }
+    return inputFactory;
+  }
+
+  /**
+   * Valid if all XPaths are supported by the streaming mode.
+   */
+  private void validateStreamingXPaths(FailureCollector collector) {
+    for (Map.Entry<String, String> entry : xPathMapping.entrySet()) {
+      String reason = XPathStreamExtractor.getUnsupportedReason(entry.getValue());
+      if (reason != null) {
+        collector.addFailure(
+          String.format("XPath '%s' for field '%s' is not supported in streaming mode: %s",
+                        entry.getValue(), entry.getKey(), reason),
+          "Disable streaming mode or use an absolute path of element names, '*', '//', '@attribute' and 'text()'.")
+          .withConfigElement(XPATH_MAPPINGS, entry.getKey() + ":" + entry.getValue());
+      }
+    }
+  }
+
   /**
    * Valid if xpathMappings and schema contain the same field names.
    */
@@ -174,43 +279,12 @@ public class XMLParser extends Transform<StructuredRecord, StructuredRecord> {
   @Override
   public void transform(StructuredRecord input, Emitter<StructuredRecord> emitter) {
     try {
-      InputSource source = new InputSource(new StringReader((String) input.get(config.inputField)));
-      source.setEncoding(config.encoding);
-      DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-      builderFactory.setFeature("http://xml.org/sax/features/external-general-entities",
-              config.enableExternalGeneralEntities);
-      builderFactory.setFeature("http://xml.org/sax/features/external-parameter-entities",
-              config.enableExternalParameterEntities);
-      builderFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd",
-              config.loadExternalDTD);
-      builderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl",
-              config.disallowDocTypeDTD);
-      builderFactory.setXIncludeAware(false);
-      builderFactory.setExpandEntityReferences(false);
-      DocumentBuilder documentBuilder = builderFactory.newDocumentBuilder();
-      Document document = documentBuilder.parse(source);
-      XPathFactory xpathFactory = XPathFactory.newInstance();
-      XPath xpath = xpathFactory.newXPath();
+      String xml = input.get(config.inputField);
       StructuredRecord.Builder builder = StructuredRecord.builder(outSchema);
-      for (Schema.Field field : outSchema.getFields()) {
-        String fieldName = field.getName();
-        //To evaluate a node, the type(Nodelist or Node) should be known before hand.
-        //Since, the type is not specified from user inputs, taking everything as NodeList and then evaluating.
-        NodeList nodeList = (NodeList) xpath.compile(xPathMapping.get(fieldName)).evaluate(document,
-                                                                                           XPathConstants.NODESET);
-        if (config.failOnArray && nodeList.getLength() > 1) {
-          throw new IllegalArgumentException("Field " + fieldName + " is an array. " +
-                                               "Cannot specify an XPath that is an array unless failOnArray is false.");
-        }
-        Node node = nodeList.item(0);
-        //Since all columns have nullable schema extracting not nullable type.
-        Schema.Type type = field.getSchema().getNonNullable().getType();
-        String value = getValue(node, type, fieldName);
-        if (value == null) {
-          builder.set(fieldName, null);
-        } else {
-          builder.convertAndSet(fieldName, value);
-        }
+      if (streamExtractor != null) {
+        extract(xml, builder);
+      } else {
+        evaluate(xml, builder);
       }
       emitter.emit(builder.build());
     } catch (Exception e) {
@@ -227,6 +301,64 @@ public class XMLParser extends Transform<StructuredRecord, StructuredRecord> {
     }
   }
 
+  /**
+   * Parses the document and evaluates the XPaths against it.
+   */
+  private void evaluate(String xml, StructuredRecord.Builder builder) throws Exception {
+    InputSource source = new InputSource(new StringReader(xml));
+    source.setEncoding(config.encoding);
+    documentBuilder.reset();
+    Document document = documentBuilder.parse(source);
+    for (int i = 0; i < fields.length; i++) {
+      String fieldName = fields[i].getName();
+      //To evaluate a node, the type(Nodelist or Node) should be known before hand.
+      //Since, the type is not specified from user inputs, taking everything as NodeList and then evaluating.
+      NodeList nodeList = (NodeList) xPathExpressions[i].evaluate(document, XPathConstants.NODESET);
+      checkArray(fieldName, nodeList.getLength());
+      String value = getValue(nodeList.item(0), fieldTypes[i], fieldName);
+      setValue(builder, fieldName, value);
+    }
+  }
+
+  /**
+   * Extracts the values of all XPaths while the document is read, without parsing it into a document.
+   */
+  private void extract(String xml, StructuredRecord.Builder builder) throws XMLStreamException {
+    streamExtractor.extract(new StringReader(xml));
+    for (int i = 0; i < fields.length; i++) {
+      String fieldName = fields[i].getName();
+      checkArray(fieldName, streamExtractor.getCount(i));
+      String value = streamExtractor.getValue(i);
+      if (streamExtractor.hasChildElements(i)) {
+        checkChildNodes(fieldTypes[i], fieldName);
+        value = streamExtractor.getMarkup(i);
+      }
+      setValue(builder, fieldName, value);
+    }
+  }
+
+  private void checkArray(String fieldName, int count) {
+    if (config.failOnArray && count > 1) {
+      throw new IllegalArgumentException("Field " + fieldName + " is an array. " +
+                                           "Cannot specify an XPath that is an array unless failOnArray is false.");
+    }
+  }
+
+  private static void checkChildNodes(Schema.Type type, String fieldName) {
+    if (!type.equals(Schema.Type.STRING)) {
+      throw new IllegalArgumentException(String.format("The xpath returned node which contains child nodes. " +
+                                                         "Cannot convert %s to type %s", fieldName, type));
+    }
+  }
+
+  private static void setValue(StructuredRecord.Builder builder, String fieldName, @Nullable String value) {
+    if (value == null) {
+      builder.set(fieldName, null);
+    } else {
+      builder.convertAndSet(fieldName, value);
+    }
+  }
+
   /**
    * Get the node value to be parsed into the required format by parseValues().
    *
@@ -241,12 +373,8 @@ public class XMLParser extends Transform<StructuredRecord, StructuredRecord> {
       //If the xpath evaluates to node which contains child element, the output will be an xml record
       if (firstChild != null && (firstChild.getNodeType() == Node.ELEMENT_NODE || (firstChild.getNextSibling()
         != null && (firstChild.getNextSibling().getNodeType() == Node.ELEMENT_NODE)))) {
-        if (!type.equals(Schema.Type.STRING)) {
-          throw new IllegalArgumentException(String.format("The xpath returned node which contains child nodes. " +
-                                                             "Cannot convert %s to type %s", fieldName, type));
-        } else {
-          return nodeToString(node.cloneNode(true));
-        }
+        checkChildNodes(type, fieldName);
+        return nodeToString(node.cloneNode(true));
       } else {
         return node.getTextContent();
       }
@@ -264,9 +392,11 @@ public class XMLParser extends Transform<StructuredRecord, StructuredRecord> {
   private String nodeToString(Node node) {
     StringWriter stringWriter = new StringWriter();
     try {
-      Transformer transformer = TransformerFactory.newInstance().newTransformer();
-      transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-      transformer.setOutputProperty(OutputKeys.INDENT, "no");
+      if (transformer == null) {
+        transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        transformer.setOutputProperty(OutputKeys.INDENT, "no");
+      }
       transformer.transform(new DOMSource(node), new StreamResult(stringWriter));
     } catch (TransformerException e) {
       throw new IllegalArgumentException("Cannot convert node to string. Transformer exception ", e);
@@ -333,6 +463,12 @@ public class XMLParser extends Transform<StructuredRecord, StructuredRecord> {
             " 'http://apache.org/xml/features/disallow-doctype-decl'")
     private final Boolean disallowDocTypeDTD;
 
+    @Nullable
+    @Description("Whether to extract the values while the XML is read, without parsing it into a document. This is " +
+      "faster and uses less memory for large records, but only supports absolute XPaths of element names, '*', " +
+      "'//', '@attribute' and 'text()'. Defaults to false.")
+    private final Boolean streaming;
+
     public Config() {
       this("", "", "", "", "", false, false, false, false);
     }
@@ -345,6 +481,15 @@ public class XMLParser extends Transform<StructuredRecord, StructuredRecord> {
                   String processOnError,
                   Boolean enableExternalGeneralEntities,
                   Boolean enableExternalParameterEntities, Boolean loadExternalDTD, Boolean disallowDocTypeDTD) {
+      this(inputField, encoding, xPathFieldMapping, fieldTypeMapping, processOnError, enableExternalGeneralEntities,
+           enableExternalParameterEntities, loadExternalDTD, disallowDocTypeDTD, false);
+    }
+
+    public Config(String inputField, String encoding, String xPathFieldMapping, String fieldTypeMapping,
+                  String processOnError,
+                  Boolean enableExternalGeneralEntities,
+                  Boolean enableExternalParameterEntities, Boolean loadExternalDTD, Boolean disallowDocTypeDTD,
+                  Boolean streaming) {
       this.inputField = inputField;
       this.encoding = encoding;
       this.xPathFieldMapping = xPathFieldMapping;
@@ -355,6 +500,11 @@ public class XMLParser extends Transform<StructuredRecord, StructuredRecord> {
       this.enableExternalParameterEntities = enableExternalParameterEntities;
       this.loadExternalDTD = loadExternalDTD;
       this.disallowDocTypeDTD = disallowDocTypeDTD;
+      this.streaming = streaming;
+    }
+
+    private boolean isStreaming() {
+      return streaming != null && streaming;
     }
 
     /**
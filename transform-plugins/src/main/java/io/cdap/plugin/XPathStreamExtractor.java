@@ -0,0 +1,614 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Extracts the values of several XPaths from an XML document in a single pass over a StAX stream, without building
+ * a document tree.
+ *
+ * Only a subset of XPath is supported: absolute location paths of element names or '*', separated by '/' or '//',
+ * that may end with an attribute step '/@name' or with '/text()'. Names with a prefix are not supported, since they
+ * never select any node of a document that is not namespace aware. The paths are compiled into a tree of states that
+ * is walked as elements are started, so each event is matched against all paths at once.
+ *
+ * For every path, the number of nodes it selects is counted and the value of the first node is kept. The value of an
+ * element is its text content, and the markup of the element is kept as well if it has child elements, serialized
+ * the same way as by a Transformer. Extractors keep state between calls and must not be shared between threads.
+ */
+final class XPathStreamExtractor {
+  private static final String ANY = "*";
+  private static final String TEXT = "text()";
+
+  private final XMLInputFactory inputFactory;
+  private final State root;
+  private final int numPaths;
+  private final boolean[] keepMarkup;
+  private final int[] counts;
+  private final String[] values;
+  private final boolean[] childElements;
+  private final String[] markups;
+  private final List<Frame> frames;
+  private final List<Capture> captures;
+  private final StringBuilder textNode;
+  private int depth;
+
+  /**
+   * Creates an extractor for the given paths.
+   *
+   * @param paths the paths to extract
+   * @param keepMarkup whether to keep the markup of the elements selected by each path if they have child elements
+   * @param inputFactory the factory to create stream readers with
+   * @throws IllegalArgumentException if a path is not supported
+   */
+  XPathStreamExtractor(List<String> paths, boolean[] keepMarkup, XMLInputFactory inputFactory) {
+    this.inputFactory = inputFactory;
+    this.root = new State();
+    this.numPaths = paths.size();
+    this.keepMarkup = keepMarkup;
+    this.counts = new int[numPaths];
+    this.values = new String[numPaths];
+    this.childElements = new boolean[numPaths];
+    this.markups = new String[numPaths];
+    this.frames = new ArrayList<>();
+    this.captures = new ArrayList<>();
+    this.textNode = new StringBuilder();
+    for (int i = 0; i < numPaths; i++) {
+      compile(paths.get(i), i);
+    }
+  }
+
+  /**
+   * Checks whether a path is supported.
+   *
+   * @param path the path to check
+   * @return null if the path is supported, or the reason why it is not
+   */
+  static String getUnsupportedReason(String path) {
+    try {
+      parse(path);
+      return null;
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  /**
+   * Reads a document and extracts the values of all paths from it.
+   */
+  void extract(Reader reader) throws XMLStreamException {
+    Arrays.fill(counts, 0);
+    Arrays.fill(values, null);
+    Arrays.fill(childElements, false);
+    Arrays.fill(markups, null);
+    captures.clear();
+    textNode.setLength(0);
+    depth = 0;
+    Frame rootFrame = getFrame(0);
+    rootFrame.matched.add(root);
+
+    XMLStreamReader streamReader = inputFactory.createXMLStreamReader(reader);
+    try {
+      while (streamReader.hasNext()) {
+        int event = streamReader.next();
+        if (event != XMLStreamConstants.CHARACTERS && event != XMLStreamConstants.SPACE) {
+          endTextNode();
+        }
+        switch (event) {
+          case XMLStreamConstants.START_ELEMENT:
+            startElement(streamReader);
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            endElement(streamReader);
+            break;
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.SPACE:
+            characters(streamReader.getText(), false);
+            break;
+          case XMLStreamConstants.CDATA:
+            characters(streamReader.getText(), true);
+            textNodeEnded(streamReader.getText());
+            break;
+          case XMLStreamConstants.COMMENT:
+            otherNode("<!--" + streamReader.getText() + "-->");
+            break;
+          case XMLStreamConstants.PROCESSING_INSTRUCTION:
+            String data = streamReader.getPIData();
+            otherNode("<?" + streamReader.getPITarget() + (data == null || data.isEmpty() ? "" : " " + data) + "?>");
+            break;
+          default:
+            break;
+        }
+      }
+    } finally {
+      streamReader.close();
+    }
+  }
+
+  /**
+   * @return the number of nodes selected by a path in the last document
+   */
+  int getCount(int path) {
+    return counts[path];
+  }
+
+  /**
+   * @return the value of the first node selected by a path in the last document, or null if there was none
+   */
+  String getValue(int path) {
+    return values[path];
+  }
+
+  /**
+   * @return whether the first node selected by a path in the last document is an element with child elements
+   */
+  boolean hasChildElements(int path) {
+    return childElements[path];
+  }
+
+  /**
+   * @return the markup of the first element selected by a path in the last document, or null if it has no child
+   *         elements or its markup was not kept
+   */
+  String getMarkup(int path) {
+    return markups[path];
+  }
+
+  private void startElement(XMLStreamReader reader) {
+    String name = getName(reader.getPrefix(), reader.getLocalName());
+    for (Capture capture : captures) {
+      capture.startElement(reader, name);
+    }
+
+    Frame parent = frames.get(depth);
+    depth++;
+    Frame frame = getFrame(depth);
+    if (parent.matched.isEmpty() && parent.carried.isEmpty()) {
+      return;
+    }
+    for (State state : parent.matched) {
+      frame.match(state.children, name);
+      if (!state.descendants.isEmpty()) {
+        frame.match(state.descendants, name);
+        frame.carry(state);
+      }
+    }
+    for (State state : parent.carried) {
+      frame.match(state.descendants, name);
+      frame.carry(state);
+    }
+
+    for (State state : frame.matched) {
+      for (int path : state.elementPaths) {
+        if (counts[path]++ == 0) {
+          captures.add(new Capture(path, depth, keepMarkup[path], reader, name));
+        }
+      }
+      for (int path : state.textPaths) {
+        if (counts[path] == 0) {
+          captures.add(new Capture(path, depth));
+        }
+      }
+      for (int i = 0; i < reader.getAttributeCount(); i++) {
+        int[] paths = state.attributePaths.get(getName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)));
+        if (paths != null) {
+          for (int path : paths) {
+            if (counts[path]++ == 0) {
+              values[path] = reader.getAttributeValue(i);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private void endElement(XMLStreamReader reader) {
+    for (int i = captures.size() - 1; i >= 0; i--) {
+      Capture capture = captures.get(i);
+      if (capture.depth == depth) {
+        capture.finish();
+        captures.remove(i);
+      } else {
+        capture.endElement(getName(reader.getPrefix(), reader.getLocalName()));
+      }
+    }
+    depth--;
+  }
+
+  private void characters(String text, boolean cdata) {
+    for (Capture capture : captures) {
+      capture.characters(text, cdata);
+    }
+    if (!cdata) {
+      textNode.append(text);
+    }
+  }
+
+  private void otherNode(String markup) {
+    for (Capture capture : captures) {
+      capture.otherNode(markup);
+    }
+  }
+
+  private void endTextNode() {
+    if (textNode.length() > 0) {
+      textNodeEnded(textNode.toString());
+      textNode.setLength(0);
+    }
+  }
+
+  /**
+   * Counts a text node that ended, for the paths that select the text of its parent element.
+   */
+  private void textNodeEnded(String text) {
+    for (Capture capture : captures) {
+      if (capture.textOnly && capture.depth == depth) {
+        if (counts[capture.path]++ == 0) {
+          values[capture.path] = text;
+        }
+      }
+    }
+  }
+
+  private Frame getFrame(int frameDepth) {
+    if (frameDepth == frames.size()) {
+      frames.add(new Frame());
+    }
+    Frame frame = frames.get(frameDepth);
+    frame.matched.clear();
+    frame.carried.clear();
+    return frame;
+  }
+
+  private static String getName(String prefix, String localName) {
+    return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+  }
+
+  private void compile(String path, int index) {
+    State state = root;
+    for (Step step : parse(path)) {
+      if (step.attribute) {
+        int[] paths = state.attributePaths.get(step.name);
+        state.attributePaths.put(step.name, append(paths, index));
+      } else if (step.name.equals(TEXT)) {
+        state.textPaths = append(state.textPaths, index);
+      } else {
+        Map<String, State> transitions = step.descendant ? state.descendants : state.children;
+        state = transitions.computeIfAbsent(step.name, name -> new State());
+      }
+    }
+    if (!path.endsWith(TEXT) && !path.substring(path.lastIndexOf('/') + 1).startsWith("@")) {
+      state.elementPaths = append(state.elementPaths, index);
+    }
+  }
+
+  private static int[] append(int[] values, int value) {
+    if (values == null) {
+      return new int[] { value };
+    }
+    int[] appended = Arrays.copyOf(values, values.length + 1);
+    appended[values.length] = value;
+    return appended;
+  }
+
+  private static List<Step> parse(String path) {
+    if (!path.startsWith("/")) {
+      throw new IllegalArgumentException("Only absolute paths are supported.");
+    }
+    List<Step> steps = new ArrayList<>();
+    int position = 0;
+    while (position < path.length()) {
+      // every step starts with '/' or '//'
+      boolean descendant = path.startsWith("//", position);
+      position += descendant ? 2 : 1;
+      int end = path.indexOf('/', position);
+      end = end < 0 ? path.length() : end;
+      String step = path.substring(position, end);
+      boolean last = end == path.length();
+      if (step.equals(TEXT) || step.startsWith("@")) {
+        if (!last) {
+          throw new IllegalArgumentException(String.format("'%s' must be the last step of the path.", step));
+        }
+        if (descendant || steps.isEmpty()) {
+          throw new IllegalArgumentException(String.format("'%s' must follow an element step and '/'.", step));
+        }
+        boolean attribute = step.startsWith("@");
+        String name = attribute ? step.substring(1) : step;
+        if (attribute && !isName(name)) {
+          throw new IllegalArgumentException(String.format("'%s' is not a supported attribute step.", step));
+        }
+        steps.add(new Step(name, false, attribute));
+      } else if (step.equals(ANY) || isName(step)) {
+        steps.add(new Step(step, descendant, false));
+      } else {
+        throw new IllegalArgumentException(String.format(
+          "'%s' is not a supported step. Only element names, '*', '@name' and 'text()' are supported.", step));
+      }
+      position = end;
+    }
+    if (steps.isEmpty()) {
+      throw new IllegalArgumentException("The path must contain at least one step.");
+    }
+    return steps;
+  }
+
+  private static boolean isName(String name) {
+    if (name.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      boolean valid = Character.isLetter(c) || c == '_'
+        || (i > 0 && (Character.isDigit(c) || c == '-' || c == '.'));
+      if (!valid) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A step of a path.
+   */
+  private static final class Step {
+    private final String name;
+    private final boolean descendant;
+    private final boolean attribute;
+
+    private Step(String name, boolean descendant, boolean attribute) {
+      this.name = name;
+      this.descendant = descendant;
+      this.attribute = attribute;
+    }
+  }
+
+  /**
+   * A state of the compiled paths, reached by matching the elements of a path from the root.
+   */
+  private static final class State {
+    private static final int[] NONE = new int[0];
+    private final Map<String, State> children = new HashMap<>();
+    private final Map<String, State> descendants = new HashMap<>();
+    private final Map<String, int[]> attributePaths = new HashMap<>();
+    private int[] elementPaths = NONE;
+    private int[] textPaths = NONE;
+  }
+
+  /**
+   * The states that match an element, and the states whose descendant steps apply to all elements below it.
+   */
+  private static final class Frame {
+    private final List<State> matched = new ArrayList<>();
+    private final List<State> carried = new ArrayList<>();
+
+    private void match(Map<String, State> transitions, String name) {
+      add(matched, transitions.get(name));
+      add(matched, transitions.get(ANY));
+    }
+
+    private void carry(State state) {
+      add(carried, state);
+    }
+
+    private static void add(List<State> states, State state) {
+      if (state != null && !states.contains(state)) {
+        states.add(state);
+      }
+    }
+  }
+
+  /**
+   * Collects the value of the first element selected by a path while the element is read.
+   */
+  private final class Capture {
+    private final int path;
+    private final int depth;
+    private final String name;
+    private final boolean textOnly;
+    private final StringBuilder text;
+    private final StringBuilder markup;
+    private int childNodes;
+    private boolean hasChildElements;
+    private boolean startTagOpen;
+
+    // captures the text nodes of an element for a path that ends with text()
+    private Capture(int path, int depth) {
+      this.path = path;
+      this.depth = depth;
+      this.name = null;
+      this.textOnly = true;
+      this.text = null;
+      this.markup = null;
+    }
+
+    // captures the value of an element, starting at its start tag
+    private Capture(int path, int depth, boolean keepMarkup, XMLStreamReader reader, String name) {
+      this.path = path;
+      this.depth = depth;
+      this.name = name;
+      this.textOnly = false;
+      this.text = new StringBuilder();
+      this.markup = keepMarkup ? new StringBuilder() : null;
+      writeStartTag(reader, name);
+    }
+
+    private void startElement(XMLStreamReader reader, String elementName) {
+      if (textOnly) {
+        return;
+      }
+      if (XPathStreamExtractor.this.depth == depth) {
+        // a child element of the captured element
+        countChild(true);
+      }
+      writeStartTag(reader, elementName);
+    }
+
+    private void writeStartTag(XMLStreamReader reader, String elementName) {
+      if (markup == null) {
+        return;
+      }
+      closeStartTag();
+      markup.append('<').append(elementName);
+      if (reader.getAttributeCount() > 0) {
+        // attributes are serialized in the order of their names after the namespace declarations, the same as the
+        // attributes of a document
+        Map<String, String> namespaces = new TreeMap<>();
+        Map<String, String> attributes = new TreeMap<>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+          String attributeName = getName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+          boolean namespace = attributeName.equals("xmlns") || attributeName.startsWith("xmlns:");
+          (namespace ? namespaces : attributes).put(attributeName, reader.getAttributeValue(i));
+        }
+        writeAttributes(namespaces);
+        writeAttributes(attributes);
+      }
+      startTagOpen = true;
+    }
+
+    private void writeAttributes(Map<String, String> attributes) {
+      for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+        markup.append(' ').append(attribute.getKey()).append("=\"");
+        escape(attribute.getValue(), true);
+        markup.append('"');
+      }
+    }
+
+    private void endElement(String elementName) {
+      if (markup == null) {
+        return;
+      }
+      if (startTagOpen) {
+        markup.append("/>");
+        startTagOpen = false;
+      } else {
+        markup.append("</").append(elementName).append('>');
+      }
+    }
+
+    private void characters(String value, boolean cdata) {
+      if (textOnly) {
+        return;
+      }
+      text.append(value);
+      if (XPathStreamExtractor.this.depth == depth && (cdata || textNode.length() == 0)) {
+        countChild(false);
+      }
+      if (markup != null) {
+        closeStartTag();
+        if (cdata) {
+          markup.append("<![CDATA[").append(value).append("]]>");
+        } else {
+          escape(value, false);
+        }
+      }
+    }
+
+    private void otherNode(String nodeMarkup) {
+      if (textOnly) {
+        return;
+      }
+      if (XPathStreamExtractor.this.depth == depth) {
+        countChild(false);
+      }
+      if (markup != null) {
+        closeStartTag();
+        markup.append(nodeMarkup);
+      }
+    }
+
+    /**
+     * Keeps track of whether one of the first two child nodes is an element, which is how a document tree is
+     * checked for child elements.
+     */
+    private void countChild(boolean element) {
+      childNodes++;
+      if (element && childNodes <= 2) {
+        hasChildElements = true;
+      }
+    }
+
+    private void finish() {
+      if (textOnly) {
+        return;
+      }
+      values[path] = text.toString();
+      childElements[path] = hasChildElements;
+      if (markup != null && hasChildElements) {
+        endElement(name);
+        markups[path] = markup.toString();
+      }
+    }
+
+    private void closeStartTag() {
+      if (startTagOpen) {
+        markup.append('>');
+        startTagOpen = false;
+      }
+    }
+
+    private void escape(String value, boolean attribute) {
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        switch (c) {
+          case '&':
+            markup.append("&amp;");
+            break;
+          case '<':
+            markup.append("&lt;");
+            break;
+          case '>':
+            markup.append("&gt;");
+            break;
+          case '"':
+            markup.append(attribute ? "&quot;" : "\"");
+            break;
+          case '\r':
+            markup.append("&#13;");
+            break;
+          case '\n':
+          case '\t':
+            if (attribute) {
+              markup.append("&#").append((int) c).append(';');
+            } else {
+              markup.append(c);
+            }
+            break;
+          default:
+            if (Character.isHighSurrogate(c) && i + 1 < value.length()
+              && Character.isLowSurrogate(value.charAt(i + 1))) {
+              markup.append("&#").append(Character.toCodePoint(c, value.charAt(i + 1))).append(';');
+              i++;
+            } else {
+              markup.append(c);
+            }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin;
+
+import com.github.luben.zstd.Zstd;
+import com.google.common.io.ByteStreams;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.etl.api.Emitter;
+import io.cdap.cdap.etl.api.InvalidEntry;
+import io.cdap.cdap.etl.api.Transform;
+import io.cdap.cdap.etl.api.TransformContext;
+import io.cdap.cdap.etl.mock.common.MockEmitter;
+import io.cdap.cdap.etl.mock.transform.MockTransformContext;
+import net.jpountz.lz4.LZ4Factory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.xerial.snappy.Snappy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Measures the throughput of the {@link Compressor} and {@link Decompressor} transforms for each codec on small and
+ * large fields, next to the throughput of compressing the same bytes with the codec library directly, which for zip
+ * and gzip are the java.util.zip streams that the transforms used before. Before measuring a case it checks that the
+ * library reads back what the transform compressed, and that the transform decompresses what the library compressed.
+ *
+ * Run it with the benchmarks profile, for example with 'mvn test -Pbenchmarks -pl transform-plugins
+ * -Dtest=CompressorBenchmark'. Each case is measured for 2 seconds by default, which can be set with
+ * -Dbenchmark.seconds.
+ */
+public class CompressorBenchmark {
+  private static final Schema SCHEMA = Schema.recordOf("record", Schema.Field.of("a", Schema.of(Schema.Type.BYTES)));
+  private static final int[] FIELD_SIZES = { 100, 10 * 1024, 1024 * 1024 };
+  private static final String[] WORDS = { "id", "name", "event", "page_view", "click", "country", "US", "DE",
+    "browser", "Chrome", "Firefox", "timestamp", "user", "session", "true", "false" };
+
+  @Test
+  public void testCodecs() throws Exception {
+    double seconds = Double.parseDouble(System.getProperty("benchmark.seconds", "2"));
+
+    System.out.printf("%-18s %10s %14s %14s%n", "case", "field size", "library MB/s", "transform MB/s");
+    for (int size : FIELD_SIZES) {
+      byte[] bytes = getValue(size);
+      byte[] zipped = zip(bytes);
+      byte[] gzipped = gzip(bytes);
+      byte[] zstd = Zstd.compress(bytes);
+      byte[] lz4 = compress("a:LZ4", bytes);
+      byte[] snappy = Snappy.compress(bytes);
+
+      run("ZIP compress", bytes, seconds, () -> zip(bytes), compressor("a:ZIP", bytes),
+          CompressorBenchmark::unzip);
+      run("ZIP decompress", bytes, seconds, () -> unzip(zipped), decompressor("a:ZIP", zipped), value -> value);
+      run("GZIP compress", bytes, seconds, () -> gzip(bytes), compressor("a:GZIP", bytes),
+          CompressorBenchmark::ungzip);
+      run("GZIP decompress", bytes, seconds, () -> ungzip(gzipped), decompressor("a:GZIP", gzipped),
+          value -> value);
+      run("ZSTD compress", bytes, seconds, () -> Zstd.compress(bytes), compressor("a:ZSTD", bytes),
+          value -> Zstd.decompress(value, size));
+      run("ZSTD decompress", bytes, seconds, () -> Zstd.decompress(zstd, size), decompressor("a:ZSTD", zstd),
+          value -> value);
+      run("LZ4 compress", bytes, seconds, () -> LZ4Factory.fastestInstance().fastCompressor().compress(bytes),
+          compressor("a:LZ4", bytes),
+          value -> LZ4Factory.fastestInstance().safeDecompressor().decompress(value, 4, value.length - 4, size));
+      run("LZ4 decompress", bytes, seconds,
+          () -> LZ4Factory.fastestInstance().safeDecompressor().decompress(lz4, 4, lz4.length - 4, size),
+          decompressor("a:LZ4", lz4), value -> value);
+      run("SNAPPY compress", bytes, seconds, () -> Snappy.compress(bytes), compressor("a:SNAPPY", bytes),
+          Snappy::uncompress);
+      run("SNAPPY decompress", bytes, seconds, () -> Snappy.uncompress(snappy), decompressor("a:SNAPPY", snappy),
+          value -> value);
+    }
+  }
+
+  /**
+   * Returns a value of words separated by spaces, which compresses about as well as typical text fields.
+   */
+  private static byte[] getValue(int size) {
+    Random random = new Random(0);
+    StringBuilder value = new StringBuilder(size + 16);
+    while (value.length() < size) {
+      value.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(1000)).append(' ');
+    }
+    value.setLength(size);
+    return value.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] compress(String compress, byte[] value) throws Exception {
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Compressor(new Compressor.Config(compress, SCHEMA.toString()));
+    transform.initialize(new MockTransformContext());
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    transform.transform(StructuredRecord.builder(SCHEMA).set("a", value).build(), emitter);
+    transform.destroy();
+    return emitter.getEmitted().get(0).get("a");
+  }
+
+  private static Call compressor(String compress, byte[] value) throws Exception {
+    return transform(new Compressor(new Compressor.Config(compress, SCHEMA.toString())), value);
+  }
+
+  private static Call decompressor(String decompress, byte[] value) throws Exception {
+    return transform(new Decompressor(new Decompressor.Config(decompress, SCHEMA.toString())), value);
+  }
+
+  private static Call transform(Transform<StructuredRecord, StructuredRecord> transform,
+                                Object value) throws Exception {
+    TransformContext context = new MockTransformContext();
+    transform.initialize(context);
+    StructuredRecord record = StructuredRecord.builder(SCHEMA).set("a", value).build();
+    FieldEmitter emitter = new FieldEmitter();
+    return () -> {
+      transform.transform(record, emitter);
+      return emitter.value;
+    };
+  }
+
+  private static byte[] zip(byte[] input) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ZipOutputStream zos = new ZipOutputStream(out)) {
+      zos.setLevel(DeflateCodec.DEFAULT_ZIP_LEVEL);
+      zos.putNextEntry(new ZipEntry("c"));
+      zos.write(input);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] unzip(byte[] input) throws IOException {
+    try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(input))) {
+      zis.getNextEntry();
+      return ByteStreams.toByteArray(zis);
+    }
+  }
+
+  private static byte[] gzip(byte[] input) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(input);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] ungzip(byte[] input) throws IOException {
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(input))) {
+      return ByteStreams.toByteArray(gzip);
+    }
+  }
+
+  private static void run(String name, byte[] value, double seconds, Call library, Call transform,
+                          Codec read) throws Exception {
+    int size = value.length;
+    Assert.assertArrayEquals(name + " " + size, value, read.apply((byte[]) transform.call()));
+    double libraryThroughput = measure(size, seconds, library);
+    double transformThroughput = measure(size, seconds, transform);
+    System.out.printf("%-18s %10d %14.1f %14.1f%n", name, size, libraryThroughput, transformThroughput);
+  }
+
+  /**
+   * Returns the throughput in MB of uncompressed data per second, after running the call for a second to warm up
+   * the JIT.
+   */
+  private static double measure(int size, double seconds, Call call) throws Exception {
+    run(call, 1);
+    long start = System.nanoTime();
+    long count = run(call, seconds);
+    double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+    return count * (double) size / (1024 * 1024) / elapsedSeconds;
+  }
+
+  private static long run(Call call, double seconds) throws Exception {
+    long end = System.nanoTime() + (long) (seconds * 1e9);
+    long count = 0;
+    do {
+      call.call();
+      count++;
+    } while (System.nanoTime() < end);
+    return count;
+  }
+
+  /**
+   * A call that compresses or decompresses the field once.
+   */
+  private interface Call {
+    Object call() throws Exception;
+  }
+
+  /**
+   * Reads the output of a compress or decompress call back to the uncompressed value.
+   */
+  private interface Codec {
+    byte[] apply(byte[] value) throws Exception;
+  }
+
+  /**
+   * Emitter that only keeps the field of the last emitted record.
+   */
+  private static final class FieldEmitter implements Emitter<StructuredRecord> {
+    private Object value;
+
+    @Override
+    public void emit(StructuredRecord record) {
+      value = record.get("a");
+    }
+
+    @Override
+    public void emitError(InvalidEntry<StructuredRecord> invalidEntry) {
+      throw new IllegalStateException(invalidEntry.getErrorMsg());
+    }
+
+    @Override
+    public void emitAlert(Map<String, String> payload) {
+      // no alerts are emitted
+    }
+  }
+}
@@ -16,6 +16,8 @@
 
 package io.cdap.plugin;
 
+import com.github.luben.zstd.Zstd;
+import com.google.common.io.ByteStreams;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.etl.api.FailureCollector;
@@ -23,12 +25,17 @@ import io.cdap.cdap.etl.api.Transform;
 import io.cdap.cdap.etl.mock.common.MockEmitter;
 import io.cdap.cdap.etl.mock.common.MockPipelineConfigurer;
 import io.cdap.cdap.etl.mock.transform.MockTransformContext;
+import net.jpountz.lz4.LZ4Factory;
 import org.junit.Assert;
 import org.junit.Test;
 import org.xerial.snappy.Snappy;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -111,6 +118,96 @@ public class CompressorTest {
     Assert.assertArrayEquals(expected, actual);
   }
 
+  @Test
+  public void testZstdCompress() throws Exception {
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Compressor(new Compressor.Config("a:ZSTD:19", OUTPUT.toString()));
+    MockTransformContext context = new MockTransformContext();
+    transform.initialize(context);
+
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    for (String value : new String[] { "This is a test for testing zstd compression", "", "zstd" }) {
+      transform.transform(StructuredRecord.builder(INPUT)
+                            .set("a", value)
+                            .set("b", "2")
+                            .set("c", "3")
+                            .set("d", "4")
+                            .set("e", "5").build(), emitter);
+    }
+    transform.destroy();
+
+    Assert.assertEquals(3, emitter.getEmitted().size());
+    Assert.assertEquals("This is a test for testing zstd compression", decompressZstd(emitter.getEmitted().get(0)));
+    Assert.assertEquals("", decompressZstd(emitter.getEmitted().get(1)));
+    Assert.assertEquals("zstd", decompressZstd(emitter.getEmitted().get(2)));
+  }
+
+  @Test
+  public void testLZ4Compress() throws Exception {
+    for (String config : new String[] { "a:LZ4", "a:LZ4:9" }) {
+      Transform<StructuredRecord, StructuredRecord> transform =
+        new Compressor(new Compressor.Config(config, OUTPUT.toString()));
+      MockTransformContext context = new MockTransformContext();
+      transform.initialize(context);
+
+      MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+      String value = "This is a test for testing lz4 compression, lz4 compression";
+      transform.transform(StructuredRecord.builder(INPUT)
+                            .set("a", value)
+                            .set("b", "2")
+                            .set("c", "3")
+                            .set("d", "4")
+                            .set("e", "5").build(), emitter);
+      transform.destroy();
+
+      // the block is prefixed by the uncompressed length
+      byte[] actual = emitter.getEmitted().get(0).get("a");
+      Assert.assertArrayEquals(new byte[] { 0, 0, 0, (byte) value.length() }, Arrays.copyOf(actual, 4));
+      byte[] decompressed = LZ4Factory.fastestInstance().safeDecompressor()
+        .decompress(actual, 4, actual.length - 4, value.length());
+      Assert.assertEquals(value, new String(decompressed, StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void testGZIPCompressionLevel() throws Exception {
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Compressor(new Compressor.Config("a:GZIP:1", OUTPUT.toString()));
+    MockTransformContext context = new MockTransformContext();
+    transform.initialize(context);
+
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      value.append(i % 7).append(i % 13).append(',');
+    }
+    transform.transform(StructuredRecord.builder(INPUT)
+                          .set("a", value.toString())
+                          .set("b", "2")
+                          .set("c", "3")
+                          .set("d", "4")
+                          .set("e", "5").build(), emitter);
+    transform.destroy();
+
+    byte[] actual = emitter.getEmitted().get(0).get("a");
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(actual))) {
+      Assert.assertEquals(value.toString(), new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8));
+    }
+    Assert.assertTrue(actual.length > compressGZIP(value.toString().getBytes()).length);
+  }
+
+  @Test
+  public void testInvalidCompressionLevel() {
+    for (String config : new String[] { "a:GZIP:10", "a:ZSTD:0", "a:LZ4:x", "a:SNAPPY:1", "a:BROTLI" }) {
+      Transform<StructuredRecord, StructuredRecord> transform =
+        new Compressor(new Compressor.Config(config, OUTPUT.toString()));
+      MockPipelineConfigurer mockPipelineConfigurer = new MockPipelineConfigurer(INPUT);
+      FailureCollector collector = mockPipelineConfigurer.getStageConfigurer().getFailureCollector();
+      transform.configurePipeline(mockPipelineConfigurer);
+      Assert.assertEquals(config, 1, collector.getValidationFailures().size());
+    }
+  }
+
   @Test
   public void testSchemaValidation() {
     Transform<StructuredRecord, StructuredRecord> transform =
@@ -147,6 +244,11 @@ public class CompressorTest {
     Assert.assertEquals(OUTPUT, mockPipelineConfigurer.getOutputSchema());
   }
 
+  private static String decompressZstd(StructuredRecord record) {
+    byte[] compressed = record.get("a");
+    return new String(Zstd.decompress(compressed, (int) Zstd.getFrameContentSize(compressed)), StandardCharsets.UTF_8);
+  }
+
   private static byte[] compressGZIP(byte[] input) throws IOException {
     ByteArrayOutputStream out = new ByteArrayOutputStream();
     GZIPOutputStream gzip = new GZIPOutputStream(out);
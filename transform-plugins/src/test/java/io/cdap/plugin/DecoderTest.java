@@ -30,6 +30,8 @@ import org.apache.commons.codec.binary.Hex;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Random;
+
 /**
  * Tests {@link Decoder}
  */
@@ -214,6 +216,54 @@ public class DecoderTest {
     Assert.assertEquals(0, encoderContext.getFailureCollector().getValidationFailures().size());
   }
 
+  @Test
+  public void testLargeBase64StringDecoder() throws Exception {
+    // longer than a chunk and not a multiple of it, so that the last chunk is shorter and padded
+    byte[] bytes = new byte[Base64HexCodec.CHUNK_SIZE * 2 + 1000];
+    new Random(0).nextBytes(bytes);
+    String encoded = new Base64().encodeAsString(bytes);
+    Assert.assertEquals(bytes.length, decodeToBytes("BASE64", encoded).length);
+    Assert.assertArrayEquals(bytes, decodeToBytes("BASE64", encoded));
+
+    // invalid Base64 strings are decoded as before
+    String invalid = encoded.substring(0, Base64HexCodec.CHUNK_SIZE) + "\r\n" +
+      encoded.substring(Base64HexCodec.CHUNK_SIZE);
+    Assert.assertArrayEquals(bytes, decodeToBytes("BASE64", invalid));
+  }
+
+  @Test
+  public void testLenientBase64Decoder() throws Exception {
+    String test = "This is a test for testing lenient base64 decoding";
+    String encoded = new Base64(20).encodeAsString(test.getBytes("UTF-8"));
+    Assert.assertTrue(encoded.contains("\r\n"));
+    Assert.assertEquals(test, new String(decodeToBytes("BASE64", encoded), "UTF-8"));
+    // url safe characters and missing padding
+    Assert.assertArrayEquals(new byte[] { (byte) 0xfb, (byte) 0xff }, decodeToBytes("BASE64", "-_8"));
+  }
+
+  @Test
+  public void testHexStringDecoder() throws Exception {
+    Assert.assertArrayEquals(new byte[] { 0, 0x7f, (byte) 0x80, (byte) 0xff, (byte) 0xab },
+                             decodeToBytes("HEX", "007F80ffaB"));
+    try {
+      decodeToBytes("HEX", "0g");
+      Assert.fail("Invalid hex string must not be decoded");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  private static byte[] decodeToBytes(String decodeType, String value) throws Exception {
+    Schema input = Schema.recordOf("input", Schema.Field.of("a", Schema.of(Schema.Type.STRING)));
+    Schema output = Schema.recordOf("output", Schema.Field.of("a", Schema.of(Schema.Type.BYTES)));
+    Transform<StructuredRecord, StructuredRecord> decoder =
+      new Decoder(new Decoder.Config("a:" + decodeType, output.toString()));
+    decoder.initialize(new MockTransformContext());
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    decoder.transform(StructuredRecord.builder(input).set("a", value).build(), emitter);
+    return emitter.getEmitted().get(0).get("a");
+  }
+
   @Test
   public void testSchemaValidation() {
     Transform<StructuredRecord, StructuredRecord> decoder =
@@ -17,6 +17,9 @@
 package io.cdap.plugin;
 
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.google.common.collect.ImmutableMap;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.etl.api.FailureCollector;
@@ -24,12 +27,20 @@ import io.cdap.cdap.etl.api.Transform;
 import io.cdap.cdap.etl.mock.common.MockEmitter;
 import io.cdap.cdap.etl.mock.common.MockPipelineConfigurer;
 import io.cdap.cdap.etl.mock.transform.MockTransformContext;
+import net.jpountz.lz4.LZ4Factory;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.xerial.snappy.Snappy;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -49,6 +60,9 @@ public class DecompressorTest {
                                                        Schema.Field.of("a", Schema.of(Schema.Type.STRING)),
                                                        Schema.Field.of("b", Schema.of(Schema.Type.STRING)));
 
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Test
   public void testSnappyCompress() throws Exception {
     String decompressTester = "This is a test for testing snappy compression";
@@ -112,6 +126,223 @@ public class DecompressorTest {
     Assert.assertEquals(decompressTester, actual);
   }
 
+  @Test
+  public void testZstdCompress() throws Exception {
+    String decompressTester = "This is a test for testing zstd compression";
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Decompressor(new Decompressor.Config("a:ZSTD", OUTPUT.toString()));
+    MockTransformContext context = new MockTransformContext();
+    transform.initialize(context);
+
+    // frames written by a stream do not contain the decompressed size
+    ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+    try (ZstdOutputStream out = new ZstdOutputStream(streamed)) {
+      out.write(decompressTester.getBytes());
+    }
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    for (byte[] compressed : new byte[][] { Zstd.compress(decompressTester.getBytes()), streamed.toByteArray() }) {
+      transform.transform(StructuredRecord.builder(INPUT)
+                            .set("a", compressed)
+                            .set("b", "2")
+                            .set("c", "3")
+                            .set("d", "4")
+                            .set("e", "5").build(), emitter);
+    }
+    transform.destroy();
+    Assert.assertEquals(decompressTester, emitter.getEmitted().get(0).get("a"));
+    Assert.assertEquals(decompressTester, emitter.getEmitted().get(1).get("a"));
+  }
+
+  @Test
+  public void testZstdDictionary() throws Exception {
+    File dictionary = temporaryFolder.newFile("dictionary");
+    Files.write(dictionary.toPath(),
+                "{\"event\": \"page_view\", \"browser\": \"Firefox\", \"country\": \"US\"}".getBytes());
+    String value = "{\"event\": \"page_view\", \"browser\": \"Chrome\", \"country\": \"US\"}";
+
+    Schema uncompressedSchema = Schema.recordOf("uncompressed", Schema.Field.of("a", Schema.of(Schema.Type.STRING)));
+    Schema compressedSchema = Schema.recordOf("compressed", Schema.Field.of("a", Schema.of(Schema.Type.BYTES)));
+    Transform<StructuredRecord, StructuredRecord> compressor =
+      new Compressor(new Compressor.Config("a:ZSTD", compressedSchema.toString(), dictionary.getPath()));
+    compressor.initialize(new MockTransformContext());
+    MockEmitter<StructuredRecord> compressed = new MockEmitter<>();
+    compressor.transform(StructuredRecord.builder(uncompressedSchema).set("a", value).build(), compressed);
+    compressor.destroy();
+    byte[] bytes = compressed.getEmitted().get(0).get("a");
+    Assert.assertTrue(bytes.length < Zstd.compress(value.getBytes()).length);
+
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Decompressor(new Decompressor.Config("a:ZSTD", OUTPUT.toString(), dictionary.getPath()));
+    transform.initialize(new MockTransformContext());
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    transform.transform(StructuredRecord.builder(INPUT)
+                          .set("a", bytes)
+                          .set("b", "2")
+                          .set("c", "3")
+                          .set("d", "4")
+                          .set("e", "5").build(), emitter);
+    transform.destroy();
+    Assert.assertEquals(value, emitter.getEmitted().get(0).get("a"));
+  }
+
+  @Test
+  public void testZstdDictionaryFileSystemArguments() throws Exception {
+    File dictionary = temporaryFolder.newFile("dictionary");
+    Files.write(dictionary.toPath(), "dictionary".getBytes());
+    // the dictionary is read with the file system configured by the runtime arguments
+    Map<String, String> arguments = ImmutableMap.of("fs.file.impl", "io.cdap.plugin.MissingFileSystem",
+                                                    "fs.file.impl.disable.cache", "true");
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Decompressor(new Decompressor.Config("a:ZSTD", OUTPUT.toString(), dictionary.getPath()));
+    try {
+      transform.initialize(new MockTransformContext("stage", arguments));
+      Assert.fail("Dictionary was read without the file system of the runtime arguments");
+    } catch (RuntimeException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("io.cdap.plugin.MissingFileSystem"));
+    }
+  }
+
+  @Test
+  public void testLZ4Compress() throws Exception {
+    String decompressTester = "This is a test for testing lz4 compression";
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Decompressor(new Decompressor.Config("a:LZ4", OUTPUT.toString()));
+    MockTransformContext context = new MockTransformContext();
+    transform.initialize(context);
+
+    byte[] block = LZ4Factory.fastestInstance().fastCompressor().compress(decompressTester.getBytes());
+    byte[] compressed = new byte[block.length + 4];
+    compressed[3] = (byte) decompressTester.length();
+    System.arraycopy(block, 0, compressed, 4, block.length);
+
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    transform.transform(StructuredRecord.builder(INPUT)
+                          .set("a", compressed)
+                          .set("b", "2")
+                          .set("c", "3")
+                          .set("d", "4")
+                          .set("e", "5").build(), emitter);
+    transform.destroy();
+    Assert.assertEquals(decompressTester, emitter.getEmitted().get(0).get("a"));
+  }
+
+  @Test
+  public void testGZipMultipleRecords() throws Exception {
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Decompressor(new Decompressor.Config("a:GZIP", OUTPUT.toString()));
+    MockTransformContext context = new MockTransformContext();
+    transform.initialize(context);
+
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    char[] large = new char[100000];
+    Arrays.fill(large, 'x');
+    String[] values = { "This is a test for testing gzip compression", new String(large), "", "gzip" };
+    for (String value : values) {
+      transform.transform(StructuredRecord.builder(INPUT)
+                            .set("a", gzip(value.getBytes(StandardCharsets.UTF_8)))
+                            .set("b", "2")
+                            .set("c", "3")
+                            .set("d", "4")
+                            .set("e", "5").build(), emitter);
+    }
+    transform.destroy();
+    for (int i = 0; i < values.length; i++) {
+      Assert.assertEquals(values[i], emitter.getEmitted().get(i).get("a"));
+    }
+  }
+
+  @Test
+  public void testMaxDecompressedSize() throws Exception {
+    byte[] value = new byte[1000];
+    Arrays.fill(value, (byte) 'x');
+    ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+    try (ZstdOutputStream out = new ZstdOutputStream(streamed)) {
+      out.write(value);
+    }
+    byte[] block = LZ4Factory.fastestInstance().fastCompressor().compress(value);
+    byte[] lz4 = new byte[block.length + 4];
+    lz4[2] = (byte) (value.length >>> 8);
+    lz4[3] = (byte) value.length;
+    System.arraycopy(block, 0, lz4, 4, block.length);
+
+    String[] types = { "SNAPPY", "ZIP", "GZIP", "ZSTD", "ZSTD", "LZ4" };
+    byte[][] compressed = { Snappy.compress(value), zip(value), gzip(value), Zstd.compress(value),
+      streamed.toByteArray(), lz4 };
+    for (int i = 0; i < types.length; i++) {
+      for (int maxSize : new int[] { 999, 1000 }) {
+        Transform<StructuredRecord, StructuredRecord> transform =
+          new Decompressor(new Decompressor.Config("a:" + types[i], OUTPUT.toString(), null, maxSize));
+        transform.initialize(new MockTransformContext());
+        MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+        transform.transform(StructuredRecord.builder(INPUT)
+                              .set("a", compressed[i])
+                              .set("b", "2")
+                              .set("c", "3")
+                              .set("d", "4")
+                              .set("e", "5").build(), emitter);
+        transform.destroy();
+        String message = types[i] + " " + maxSize;
+        Assert.assertEquals(message, maxSize < value.length ? 0 : 1, emitter.getEmitted().size());
+        Assert.assertEquals(message, maxSize < value.length ? 1 : 0, emitter.getErrors().size());
+      }
+    }
+  }
+
+  @Test
+  public void testNoMaxDecompressedSizeByDefault() throws Exception {
+    byte[] value = new byte[64 * 1024 * 1024 + 1];
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Decompressor(new Decompressor.Config("a:ZSTD", OUTPUT.toString()));
+    transform.initialize(new MockTransformContext());
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    transform.transform(StructuredRecord.builder(INPUT)
+                          .set("a", Zstd.compress(value))
+                          .set("b", "2")
+                          .set("c", "3")
+                          .set("d", "4")
+                          .set("e", "5").build(), emitter);
+    transform.destroy();
+    Assert.assertTrue(emitter.getErrors().isEmpty());
+    Assert.assertEquals(value.length, emitter.getEmitted().get(0).<String>get("a").length());
+  }
+
+  @Test
+  public void testInvalidValue() throws Exception {
+    // an LZ4 block that claims to decompress to 2 GB
+    byte[] lz4 = { 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x10, 'x' };
+    byte[] gzip = gzip("This is a test for testing gzip compression".getBytes());
+    byte[] zstd = Zstd.compress("This is a test for testing zstd compression".getBytes());
+    byte[][] values = { lz4, Arrays.copyOf(gzip, gzip.length - 4), "not zstd".getBytes(),
+      Arrays.copyOf(zstd, zstd.length - 4) };
+    String[] types = { "LZ4", "GZIP", "ZSTD", "ZSTD" };
+    for (int i = 0; i < types.length; i++) {
+      Transform<StructuredRecord, StructuredRecord> transform =
+        new Decompressor(new Decompressor.Config("a:" + types[i], OUTPUT.toString()));
+      transform.initialize(new MockTransformContext());
+      MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+      StructuredRecord record = StructuredRecord.builder(INPUT)
+        .set("a", values[i])
+        .set("b", "2")
+        .set("c", "3")
+        .set("d", "4")
+        .set("e", "5").build();
+      transform.transform(record, emitter);
+      transform.destroy();
+      Assert.assertTrue(types[i], emitter.getEmitted().isEmpty());
+      Assert.assertEquals(types[i], 1, emitter.getErrors().size());
+      Assert.assertSame(record, emitter.getErrors().get(0).getInvalidRecord());
+    }
+  }
+
+  @Test
+  public void testInvalidMaxDecompressedSize() {
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Decompressor(new Decompressor.Config("a:GZIP", OUTPUT.toString(), null, 0));
+    MockPipelineConfigurer mockPipelineConfigurer = new MockPipelineConfigurer(INPUT);
+    transform.configurePipeline(mockPipelineConfigurer);
+    FailureCollector collector = mockPipelineConfigurer.getStageConfigurer().getFailureCollector();
+    Assert.assertEquals(1, collector.getValidationFailures().size());
+  }
 
   private static byte[] gzip(byte[] input) throws IOException {
     ByteArrayOutputStream out = new ByteArrayOutputStream();
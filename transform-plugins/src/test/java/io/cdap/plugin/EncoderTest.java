@@ -30,6 +30,8 @@ import org.apache.commons.codec.binary.Hex;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+
 /**
  * Tests {@link Encoder}
  */
@@ -169,6 +171,31 @@ public class EncoderTest {
     Assert.assertEquals(0, context.getFailureCollector().getValidationFailures().size());
   }
 
+  @Test
+  public void testByteBufferEncoder() throws Exception {
+    Schema input = Schema.recordOf("input",
+                                   Schema.Field.of("a", Schema.of(Schema.Type.BYTES)),
+                                   Schema.Field.of("b", Schema.of(Schema.Type.BYTES)));
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Encoder(new Encoder.Config("a:HEX,b:BASE64", OUTPUTSTR.toString()));
+    transform.initialize(new MockTransformContext());
+
+    byte[] bytes = "This is a test for testing byte buffer encoding".getBytes("UTF-8");
+    // a view of the middle of a larger array
+    ByteBuffer buffer = ByteBuffer.wrap(bytes, 5, 10).slice();
+    byte[] expected = new byte[10];
+    System.arraycopy(bytes, 5, expected, 0, expected.length);
+
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    transform.transform(StructuredRecord.builder(input)
+                          .set("a", buffer)
+                          .set("b", buffer).build(), emitter);
+
+    Assert.assertEquals(Hex.encodeHexString(expected), emitter.getEmitted().get(0).get("a"));
+    Assert.assertEquals(new Base64().encodeAsString(expected), emitter.getEmitted().get(0).get("b"));
+    Assert.assertEquals(10, buffer.remaining());
+  }
+
   @Test
   public void testSchemaValidation() throws Exception {
     Transform<StructuredRecord, StructuredRecord> transform =
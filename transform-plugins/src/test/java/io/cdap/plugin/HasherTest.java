@@ -182,4 +182,35 @@ public class HasherTest {
     transform.configurePipeline(mockPipelineConfigurer);
     Assert.assertEquals(INPUT, mockPipelineConfigurer.getOutputSchema());
   }
+
+  @Test
+  public void testHasherMultipleRecords() throws Exception {
+    Transform<StructuredRecord, StructuredRecord> transform =
+      new Hasher(new Hasher.Config("sha256", "a,c"));
+    transform.initialize(null);
+
+    Schema otherSchema = Schema.recordOf("other",
+                                         Schema.Field.of("c", Schema.of(Schema.Type.STRING)),
+                                         Schema.Field.of("a", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    for (String value : new String[] { "", "Field A", "\u00e9\u4e2d" }) {
+      transform.transform(StructuredRecord.builder(INPUT)
+                            .set("a", value)
+                            .set("b", "Field B")
+                            .set("c", "Field C")
+                            .set("d", 4)
+                            .set("e", "Field E").build(), emitter);
+    }
+    transform.transform(StructuredRecord.builder(otherSchema).set("c", "Field C").set("a", "Field A").build(),
+                        emitter);
+
+    Assert.assertEquals(DigestUtils.sha256Hex(""), emitter.getEmitted().get(0).get("a"));
+    Assert.assertEquals(DigestUtils.sha256Hex("Field A"), emitter.getEmitted().get(1).get("a"));
+    Assert.assertEquals(DigestUtils.sha256Hex("\u00e9\u4e2d"), emitter.getEmitted().get(2).get("a"));
+    Assert.assertEquals(DigestUtils.sha256Hex("Field C"), emitter.getEmitted().get(2).get("c"));
+    Assert.assertEquals("Field B", emitter.getEmitted().get(2).get("b"));
+    // only non-nullable string fields are hashed
+    Assert.assertEquals(DigestUtils.sha256Hex("Field C"), emitter.getEmitted().get(3).get("c"));
+    Assert.assertEquals("Field A", emitter.getEmitted().get(3).get("a"));
+  }
 }
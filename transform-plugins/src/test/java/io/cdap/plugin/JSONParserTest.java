@@ -17,6 +17,9 @@
 package io.cdap.plugin;
 
 import com.google.common.base.Joiner;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.etl.api.FailureCollector;
@@ -30,6 +33,12 @@ import io.cdap.cdap.etl.mock.transform.MockTransformContext;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Tests {@link JSONParser}
  */
@@ -270,4 +279,105 @@ public class JSONParserTest {
     Assert.assertEquals(19.95d, emitter.getEmitted().get(0).get("bicycle_price"), 0.0001d);
     Assert.assertEquals(null, emitter.getEmitted().get(0).get("window"));
   }
+
+  @Test
+  public void testIndexedJsonPaths() throws Exception {
+    Schema output = Schema.recordOf(
+      "output",
+      Schema.Field.of("first_author", Schema.of(Schema.Type.STRING)),
+      Schema.Field.of("last_price", Schema.of(Schema.Type.DOUBLE)),
+      Schema.Field.of("expensive", Schema.of(Schema.Type.INT)),
+      Schema.Field.of("isbn", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    String mapping = "first_author:$.store.book[0].author,last_price:$['store']['book'][3]['price']," +
+      "expensive:$.expensive,isbn:$.store.book[1].isbn";
+
+    // the first record is strictly valid JSON and read in a single pass, the second one is only accepted by the
+    // json path provider, so it is parsed into a document
+    MockEmitter<StructuredRecord> emitter = transform(new JSONParser.Config("body", mapping, output.toString()),
+                                                      json, json.replace('"', '\''));
+    Assert.assertEquals(2, emitter.getEmitted().size());
+    for (StructuredRecord record : emitter.getEmitted()) {
+      Assert.assertEquals("Nigel Rees", record.get("first_author"));
+      Assert.assertEquals(22.99d, record.<Double>get("last_price"), 0.0001d);
+      Assert.assertEquals(10, record.<Integer>get("expensive").intValue());
+      Assert.assertNull(record.get("isbn"));
+    }
+  }
+
+  @Test
+  public void testSinglePassMatchesDocument() throws Exception {
+    Schema output = Schema.recordOf(
+      "output",
+      Schema.Field.of("a", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+      Schema.Field.of("b", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    String[] documents = {
+      "{\"a\": 1, \"b\": [true, null]}",
+      "{\"a\": 3000000000, \"b\": [1, 123456789012345678901234]}",
+      "{\"a\": 1.5e3, \"b\": [\"x\\u00e9\", -0]}",
+      // objects and arrays are read from a document
+      "{\"a\": {\"c\": 1}, \"b\": [1, [2]]}",
+      // only the last value of a property is kept
+      "{\"a\": 1, \"a\": 2, \"b\": []}",
+      "{\"a\": [1], \"b\": {\"1\": 2}}",
+      // decimals longer than 18 characters are read as big decimals
+      "{\"a\": 1.2345678901234567890123, \"b\": [1.5, -1234567890123.45678e2]}"
+    };
+
+    String simple = "a:$.a,b:$.b[1]";
+    // one of the paths has a function, so all of them are read from a parsed document
+    String complex = "a:$.a,b:$.b.length()";
+    Assert.assertNotNull(JsonPathStreamExtractor.create(
+      Arrays.asList(JsonPath.compile("$.a"), JsonPath.compile("$.b[1]"))));
+    Assert.assertNull(JsonPathStreamExtractor.create(Arrays.asList(JsonPath.compile("$.a"), JsonPath.compile("$..b"))));
+
+    List<StructuredRecord> expected = new ArrayList<>();
+    for (String document : documents) {
+      Object parsed = Configuration.defaultConfiguration().jsonProvider().parse(document);
+      StructuredRecord.Builder builder = StructuredRecord.builder(output);
+      for (String field : new String[] { "a", "b" }) {
+        try {
+          builder.set(field, JsonPath.read(parsed, field.equals("a") ? "$.a" : "$.b[1]"));
+        } catch (PathNotFoundException e) {
+          builder.set(field, null);
+        }
+      }
+      expected.add(builder.build());
+    }
+    Assert.assertEquals(expected, transform(new JSONParser.Config("body", simple, output.toString()),
+                                            documents).getEmitted());
+    Assert.assertEquals(Long.class, expected.get(1).get("a").getClass());
+    Assert.assertEquals(BigInteger.class, expected.get(1).get("b").getClass());
+    Assert.assertEquals(Double.class, expected.get(2).get("a").getClass());
+    Assert.assertEquals(Integer.class, expected.get(2).get("b").getClass());
+    Assert.assertEquals(new BigDecimal("1.2345678901234567890123"), expected.get(6).get("a"));
+    Assert.assertEquals(BigDecimal.class, expected.get(6).get("b").getClass());
+    StructuredRecord record = transform(new JSONParser.Config("body", complex, output.toString()), documents[0])
+      .getEmitted().get(0);
+    Assert.assertEquals(1, record.<Integer>get("a").intValue());
+    Assert.assertEquals(2, record.<Integer>get("b").intValue());
+  }
+
+  @Test
+  public void testInvalidJsonPath() throws Exception {
+    JSONParser.Config config = new JSONParser.Config("body", "a:$..,b:$.b", OUTPUT2.toString());
+    MockPipelineConfigurer configurer = new MockPipelineConfigurer(INPUT1);
+    new JSONParser(config).configurePipeline(configurer);
+    FailureCollector collector = configurer.getStageConfigurer().getFailureCollector();
+    Assert.assertEquals(1, collector.getValidationFailures().size());
+    ValidationFailure.Cause expectedCause = new ValidationFailure.Cause();
+    expectedCause.addAttribute(CauseAttributes.STAGE_CONFIG, JSONParser.Config.MAPPING);
+    expectedCause.addAttribute(CauseAttributes.CONFIG_ELEMENT, "a:$..");
+    Assert.assertEquals(expectedCause, collector.getValidationFailures().get(0).getCauses().get(0));
+  }
+
+  private static MockEmitter<StructuredRecord> transform(JSONParser.Config config,
+                                                         String... documents) throws Exception {
+    Transform<StructuredRecord, StructuredRecord> transform = new JSONParser(config);
+    transform.initialize(new MockTransformContext());
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    for (String document : documents) {
+      transform.transform(StructuredRecord.builder(INPUT1).set("body", document).build(), emitter);
+    }
+    return emitter;
+  }
 }
@@ -30,7 +30,9 @@ import io.cdap.cdap.etl.api.validation.ValidationException;
 import io.cdap.cdap.etl.api.validation.ValidationFailure;
 import io.cdap.cdap.etl.mock.batch.MockSink;
 import io.cdap.cdap.etl.mock.batch.MockSource;
+import io.cdap.cdap.etl.mock.common.MockEmitter;
 import io.cdap.cdap.etl.mock.common.MockPipelineConfigurer;
+import io.cdap.cdap.etl.mock.transform.MockTransformContext;
 import io.cdap.cdap.etl.proto.v2.ETLBatchConfig;
 import io.cdap.cdap.etl.proto.v2.ETLPlugin;
 import io.cdap.cdap.etl.proto.v2.ETLStage;
@@ -139,6 +141,86 @@ public class NormalizeTest extends TransformPluginsTestBase {
     workflowManager.waitForRuns(status, 1, 5, TimeUnit.MINUTES);
   }
 
+  private List<StructuredRecord> transform(String fieldMapping, String fieldNormalizing, Schema outputSchema,
+                                           StructuredRecord... input) throws Exception {
+    Normalize transform = new Normalize(new Normalize.NormalizeConfig(fieldMapping, fieldNormalizing,
+                                                                      outputSchema.toString()));
+    transform.initialize(new MockTransformContext());
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    for (StructuredRecord record : input) {
+      transform.transform(record, emitter);
+    }
+    return emitter.getEmitted();
+  }
+
+  private StructuredRecord outputRecord(String id, String date, String attributeType, String attributeValue) {
+    return StructuredRecord.builder(OUTPUT_SCHEMA).set(ID, id).set(DATE, date)
+      .set(ATTRIBUTE_TYPE, attributeType).set(ATTRIBUTE_VALUE, attributeValue).build();
+  }
+
+  @Test
+  public void testTransformMultipleNormalizeFields() throws Exception {
+    String fieldNormalizing = validFieldNormalizing + "," + PURCHASE_DATE + ":" + ATTRIBUTE_TYPE + ":"
+      + ATTRIBUTE_VALUE;
+    List<StructuredRecord> output = transform(
+      validFieldMapping, fieldNormalizing, OUTPUT_SCHEMA,
+      StructuredRecord.builder(INPUT_SCHEMA).set(CUSTOMER_ID, CUSTOMER_ID_FIRST).set(ITEM_ID, ITEM_ID_ROW1)
+        .set(ITEM_COST, ITEM_COST_ROW1).set(PURCHASE_DATE, PURCHASE_DATE_ROW1).build(),
+      StructuredRecord.builder(INPUT_SCHEMA).set(CUSTOMER_ID, CUSTOMER_ID_SECOND).set(ITEM_ID, ITEM_ID_ROW3)
+        .set(ITEM_COST, ITEM_COST_ROW3).set(PURCHASE_DATE, PURCHASE_DATE_ROW3).build());
+
+    Assert.assertEquals(ImmutableList.of(
+      outputRecord(CUSTOMER_ID_FIRST, PURCHASE_DATE_ROW1, ITEM_ID, ITEM_ID_ROW1),
+      outputRecord(CUSTOMER_ID_FIRST, PURCHASE_DATE_ROW1, ITEM_COST, String.valueOf(ITEM_COST_ROW1)),
+      outputRecord(CUSTOMER_ID_FIRST, PURCHASE_DATE_ROW1, PURCHASE_DATE, PURCHASE_DATE_ROW1),
+      outputRecord(CUSTOMER_ID_SECOND, PURCHASE_DATE_ROW3, ITEM_ID, ITEM_ID_ROW3),
+      outputRecord(CUSTOMER_ID_SECOND, PURCHASE_DATE_ROW3, ITEM_COST, String.valueOf(ITEM_COST_ROW3)),
+      outputRecord(CUSTOMER_ID_SECOND, PURCHASE_DATE_ROW3, PURCHASE_DATE, PURCHASE_DATE_ROW3)), output);
+  }
+
+  @Test
+  public void testTransformSkipsNullValues() throws Exception {
+    List<StructuredRecord> output = transform(
+      validFieldMapping, validFieldNormalizing, OUTPUT_SCHEMA,
+      StructuredRecord.builder(INPUT_SCHEMA).set(CUSTOMER_ID, CUSTOMER_ID_FIRST).set(ITEM_ID, null)
+        .set(ITEM_COST, ITEM_COST_ROW1).set(PURCHASE_DATE, PURCHASE_DATE_ROW1).build(),
+      StructuredRecord.builder(INPUT_SCHEMA).set(CUSTOMER_ID, CUSTOMER_ID_FIRST).set(ITEM_ID, null)
+        .set(ITEM_COST, null).set(PURCHASE_DATE, PURCHASE_DATE_ROW2).build(),
+      StructuredRecord.builder(INPUT_SCHEMA).set(CUSTOMER_ID, CUSTOMER_ID_SECOND).set(ITEM_ID, ITEM_ID_ROW3)
+        .set(ITEM_COST, null).set(PURCHASE_DATE, PURCHASE_DATE_ROW3).build());
+
+    Assert.assertEquals(ImmutableList.of(
+      outputRecord(CUSTOMER_ID_FIRST, PURCHASE_DATE_ROW1, ITEM_COST, String.valueOf(ITEM_COST_ROW1)),
+      outputRecord(CUSTOMER_ID_SECOND, PURCHASE_DATE_ROW3, ITEM_ID, ITEM_ID_ROW3)), output);
+  }
+
+  @Test
+  public void testTransformFieldMappedMoreThanOnce() throws Exception {
+    // the last mapping of a field wins, so Date gets the customer id and Id is never set from the mapping
+    Schema outputSchema =
+      Schema.recordOf("outputSchema",
+                      Schema.Field.of(ID, Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                      Schema.Field.of(DATE, Schema.of(Schema.Type.STRING)),
+                      Schema.Field.of(ATTRIBUTE_TYPE, Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                      Schema.Field.of(ATTRIBUTE_VALUE, Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                      Schema.Field.of(ITEM_ID, Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                      Schema.Field.of(ITEM_COST, Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    String fieldMapping = CUSTOMER_ID + ":" + ID + "," + CUSTOMER_ID + ":" + DATE;
+    // ItemId is normalized twice, both of its rows use the output fields of its last entry
+    String fieldNormalizing = ITEM_ID + ":" + ATTRIBUTE_TYPE + ":" + ATTRIBUTE_VALUE + "," + ITEM_COST + ":"
+      + ATTRIBUTE_TYPE + ":" + ATTRIBUTE_VALUE + "," + ITEM_ID + ":" + ITEM_ID + ":" + ITEM_COST;
+    List<StructuredRecord> output = transform(
+      fieldMapping, fieldNormalizing, outputSchema,
+      StructuredRecord.builder(INPUT_SCHEMA).set(CUSTOMER_ID, CUSTOMER_ID_FIRST).set(ITEM_ID, ITEM_ID_ROW1)
+        .set(ITEM_COST, ITEM_COST_ROW1).set(PURCHASE_DATE, PURCHASE_DATE_ROW1).build());
+
+    StructuredRecord itemIdRow = StructuredRecord.builder(outputSchema).set(DATE, CUSTOMER_ID_FIRST)
+      .set(ITEM_ID, ITEM_ID).set(ITEM_COST, ITEM_ID_ROW1).build();
+    StructuredRecord itemCostRow = StructuredRecord.builder(outputSchema).set(DATE, CUSTOMER_ID_FIRST)
+      .set(ATTRIBUTE_TYPE, ITEM_COST).set(ATTRIBUTE_VALUE, String.valueOf(ITEM_COST_ROW1)).build();
+    Assert.assertEquals(ImmutableList.of(itemIdRow, itemCostRow, itemIdRow), output);
+  }
+
   @Test
   public void testOutputSchema() throws Exception {
     Normalize.NormalizeConfig config = new Normalize.NormalizeConfig(validFieldMapping, validFieldNormalizing,
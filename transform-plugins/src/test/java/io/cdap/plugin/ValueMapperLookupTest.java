@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2025 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.plugin;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.etl.api.Lookup;
+import io.cdap.cdap.etl.mock.common.MockEmitter;
+import io.cdap.cdap.etl.mock.common.MockLookupProvider;
+import io.cdap.cdap.etl.mock.transform.MockTransformContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests the lookups of {@link ValueMapper} without a pipeline.
+ */
+public class ValueMapperLookupTest {
+  private static final Schema INPUT_SCHEMA =
+    Schema.recordOf("input",
+                    Schema.Field.of("id", Schema.of(Schema.Type.STRING)),
+                    Schema.Field.of("code", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+
+  @Test
+  public void testLookupsAreCached() throws Exception {
+    CountingLookup lookup = new CountingLookup(Collections.singletonMap("1", "SE"));
+    List<StructuredRecord> output = transform(new ValueMapper.Config("code:codes:name", "code:NONE", 10), lookup,
+                                              "1", "2", "1", null, "2", "1");
+
+    String[] expected = {"SE", "NONE", "SE", "NONE", "NONE", "SE"};
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(String.valueOf(i), output.get(i).get("id"));
+      Assert.assertEquals(expected[i], output.get(i).get("name"));
+    }
+    // the present and the missing key are each looked up once
+    Assert.assertEquals(2, lookup.count);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedValueIsEvicted() throws Exception {
+    CountingLookup lookup = new CountingLookup(Collections.emptyMap());
+    List<StructuredRecord> output = transform(new ValueMapper.Config("code:codes:name", "", 2), lookup,
+                                              "1", "2", "1", "3", "1", "2");
+
+    Assert.assertNull(output.get(0).get("name"));
+    // 2 is the least recently used value when 3 is looked up
+    Assert.assertEquals(4, lookup.count);
+  }
+
+  @Test
+  public void testDisabledCache() throws Exception {
+    CountingLookup lookup = new CountingLookup(Collections.singletonMap("1", "SE"));
+    transform(new ValueMapper.Config("code:codes:name", "", 0), lookup, "1", "1", "1");
+    Assert.assertEquals(3, lookup.count);
+  }
+
+  private static List<StructuredRecord> transform(ValueMapper.Config config, Lookup<String> lookup,
+                                                  String... codes) throws Exception {
+    ValueMapper transform = new ValueMapper(config);
+    transform.initialize(new MockTransformContext("stage", new HashMap<>(), new MockLookupProvider(lookup)));
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    for (int i = 0; i < codes.length; i++) {
+      transform.transform(StructuredRecord.builder(INPUT_SCHEMA)
+                            .set("id", String.valueOf(i))
+                            .set("code", codes[i])
+                            .build(), emitter);
+    }
+    return new ArrayList<>(emitter.getEmitted());
+  }
+
+  /**
+   * Lookup that counts the number of keys it looked up.
+   */
+  private static class CountingLookup implements Lookup<String> {
+    private final Map<String, String> values;
+    private int count;
+
+    CountingLookup(Map<String, String> values) {
+      this.values = values;
+    }
+
+    @Override
+    public String lookup(String key) {
+      count++;
+      return values.get(key);
+    }
+
+    @Override
+    public Map<String, String> lookup(String... keys) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, String> lookup(Set<String> keys) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
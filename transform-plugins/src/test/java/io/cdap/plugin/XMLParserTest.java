@@ -29,11 +29,17 @@ import io.cdap.cdap.etl.mock.common.MockEmitter;
 import io.cdap.cdap.etl.mock.common.MockPipelineConfigurer;
 import io.cdap.cdap.etl.mock.transform.MockTransformContext;
 import org.junit.Assert;
+import org.junit.ClassRule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
+import javax.xml.stream.XMLInputFactory;
 
 public class XMLParserTest {
   private static final Schema INPUT = Schema.recordOf("input", Schema.Field.of("offset", Schema.of(Schema.Type.INT)),
@@ -41,6 +47,9 @@ public class XMLParserTest {
 
   private static final Logger LOG = LoggerFactory.getLogger(XMLParserTest.class);
 
+  @ClassRule
+  public static final TemporaryFolder TMP_FOLDER = new TemporaryFolder();
+
   @Test
   public void testInvalidConfig() throws Exception {
     XMLParser.Config config = new XMLParser.Config("body", "UTF-8", "category://book/@category,title://book/title," +
@@ -280,4 +289,93 @@ public class XMLParserTest {
     expectedCause.addAttribute(CauseAttributes.STAGE_CONFIG, XMLParser.Config.INPUT);
     Assert.assertEquals(expectedCause, collector.getValidationFailures().get(0).getCauses().get(0));
   }
+
+  @Test
+  public void testStreamingMatchesDocument() throws Exception {
+    String mappings = "category://book/@category,title://book/title,lang:/bookstore/book/title/@lang," +
+      "subcategory://book/subcategory,year:/bookstore/book/year/text(),price:/bookstore/*/price,note://note";
+    String types = "category:string,title:string,lang:string,subcategory:string,year:int,price:double,note:string";
+    List<String> documents = ImmutableList.of(
+      "<bookstore><book category=\"cooking\"><subcategory><type>Continental</type></subcategory>" +
+        "<title lang=\"en\">Everyday Italian</title><year>2005</year><price>30.00</price></book></bookstore>",
+      "<bookstore><book category=\"a &amp; b\"><title lang=\"en\">Harry <![CDATA[<Potter>]]></title>" +
+        "<year>2005</year><price>49.99</price></book><book category=\"web\"><title>Learning XML</title></book>" +
+        "</bookstore>",
+      "<bookstore><book><subcategory z=\"1\" b=\"&quot;x&quot;\">Mixed <type>Series</type>" +
+        "<!-- comment --><empty></empty> &amp; more</subcategory><note><p:a xmlns:p=\"urn:p\">x</p:a></note>" +
+        "</book></bookstore>",
+      "<bookstore><book><subcategory><type>Basics</type></subcategory><price><amount>1</amount></price></book>" +
+        "</bookstore>",
+      "<bookstore><book><title>Unclosed</book></bookstore>");
+
+    MockEmitter<StructuredRecord> documentEmitter = transform(
+      new XMLParser.Config("body", "UTF-8", mappings, types, "Write to error dataset", false, false, false, false,
+                           false), documents);
+    MockEmitter<StructuredRecord> streamingEmitter = transform(
+      new XMLParser.Config("body", "UTF-8", mappings, types, "Write to error dataset", false, false, false, false,
+                           true), documents);
+
+    Assert.assertEquals(3, documentEmitter.getEmitted().size());
+    Assert.assertEquals(documentEmitter.getEmitted(), streamingEmitter.getEmitted());
+    Assert.assertEquals(2, streamingEmitter.getErrors().size());
+    Assert.assertEquals("a & b", streamingEmitter.getEmitted().get(1).get("category"));
+    Assert.assertEquals("Harry <Potter>", streamingEmitter.getEmitted().get(1).get("title"));
+  }
+
+  @Test
+  public void testStreamingUnsupportedXPath() throws Exception {
+    XMLParser.Config config = new XMLParser.Config(
+      "body", "UTF-8", "title://book/title,price:/bookstore/book[price>35.00]/price", "title:string,price:double",
+      "Exit on error", false, false, false, false, true);
+    MockPipelineConfigurer configurer = new MockPipelineConfigurer(INPUT);
+    new XMLParser(config).configurePipeline(configurer);
+    FailureCollector collector = configurer.getStageConfigurer().getFailureCollector();
+    Assert.assertEquals(1, collector.getValidationFailures().size());
+    Cause expectedCause = new Cause();
+    expectedCause.addAttribute(CauseAttributes.STAGE_CONFIG, "xPathMappings");
+    expectedCause.addAttribute(CauseAttributes.CONFIG_ELEMENT, "price:/bookstore/book[price>35.00]/price");
+    Assert.assertEquals(expectedCause, collector.getValidationFailures().get(0).getCauses().get(0));
+  }
+
+  @Test
+  public void testStreamingDoesNotLoadExternalDTD() throws Exception {
+    // the DTD is not valid, so reading it fails the record
+    File dtd = TMP_FOLDER.newFile("book.dtd");
+    Files.write(dtd.toPath(), "<!ELEMENT".getBytes(StandardCharsets.UTF_8));
+    List<String> documents = ImmutableList.of(
+      "<?xml version=\"1.0\"?><!DOCTYPE book SYSTEM \"" + dtd.toURI() + "\"><book><title>Learning XML</title></book>");
+    String factoryProperty = XMLInputFactory.class.getName();
+    // the Woodstox parser on the classpath and the parser of the JDK read external DTDs differently
+    for (String factory : new String[] { null, "com.sun.xml.internal.stream.XMLInputFactoryImpl" }) {
+      if (factory != null) {
+        System.setProperty(factoryProperty, factory);
+      }
+      try {
+        MockEmitter<StructuredRecord> emitter = transform(
+          new XMLParser.Config("body", "UTF-8", "title:/book/title", "title:string", "Write to error dataset",
+                               false, false, false, false, true), documents);
+        Assert.assertEquals(0, emitter.getErrors().size());
+        Assert.assertEquals("Learning XML", emitter.getEmitted().get(0).get("title"));
+
+        emitter = transform(
+          new XMLParser.Config("body", "UTF-8", "title:/book/title", "title:string", "Write to error dataset",
+                               false, false, true, false, true), documents);
+        Assert.assertEquals(1, emitter.getErrors().size());
+      } finally {
+        System.clearProperty(factoryProperty);
+      }
+    }
+  }
+
+  private static MockEmitter<StructuredRecord> transform(XMLParser.Config config,
+                                                         List<String> documents) throws Exception {
+    Transform<StructuredRecord, StructuredRecord> transform = new XMLParser(config);
+    transform.initialize(new MockTransformContext());
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    for (int i = 0; i < documents.size(); i++) {
+      transform.transform(StructuredRecord.builder(INPUT).set("offset", i).set("body", documents.get(i)).build(),
+                          emitter);
+    }
+    return emitter;
+  }
 }